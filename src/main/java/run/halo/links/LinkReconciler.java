@@ -64,7 +64,9 @@ public class LinkReconciler implements Reconciler<Reconciler.Request> {
                     link.getStatus().setRss(null);
                     client.update(link);
                 }
+                return;
             }
+            itemStore.updateGroupName(request.name(), link.getSpec().getGroupName());
         });
         return Result.doNotRetry();
     }
@@ -4,17 +4,12 @@ import static org.springdoc.core.fn.builders.apiresponse.Builder.responseBuilder
 import static org.springdoc.core.fn.builders.parameter.Builder.parameterBuilder;
 import static org.springdoc.core.fn.builders.requestbody.Builder.requestBodyBuilder;
 import static org.springdoc.webflux.core.fn.SpringdocRouteBuilder.route;
-import static run.halo.app.extension.index.query.Queries.equal;
 
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import java.time.Instant;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -27,14 +22,10 @@ import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import run.halo.app.core.extension.endpoint.CustomEndpoint;
 import run.halo.app.extension.GroupVersion;
-import run.halo.app.extension.ListOptions;
-import run.halo.app.extension.ReactiveExtensionClient;
-import run.halo.links.extension.Link;
 import run.halo.links.rss.LinkFeedCleanupResult;
 import run.halo.links.rss.LinkFeedDiscoveryResult;
 import run.halo.links.rss.LinkFeedHiddenStateRequest;
 import run.halo.links.rss.LinkFeedHiddenStateResult;
-import run.halo.links.rss.LinkFeedItem;
 import run.halo.links.rss.LinkFeedItemPage;
 import run.halo.links.rss.LinkFeedItemQuery;
 import run.halo.links.rss.LinkFeedItemStore;
@@ -47,6 +38,7 @@ import run.halo.links.rss.LinkFeedService;
 import run.halo.links.rss.LinkFeedStorageMaintenance;
 import run.halo.links.rss.LinkFeedStorageUnavailableException;
 import run.halo.links.rss.LinkFeedUnreadSummary;
+import run.halo.links.rss.ReactiveLinkFeedItemStore;
 
 @Component
 @RequiredArgsConstructor
@@ -54,9 +46,8 @@ public class LinkFeedEndpoint implements CustomEndpoint {
 
     private final LinkFeedService linkFeedService;
     private final LinkFeedRetentionService retentionService;
-    private final LinkFeedItemStore itemStore;
+    private final ReactiveLinkFeedItemStore itemStore;
     private final LinkFeedStorageMaintenance storageMaintenance;
-    private final ReactiveExtensionClient client;
 
     @Override
     public RouterFunction<ServerResponse> endpoint() {
@@ -134,6 +125,21 @@ public class LinkFeedEndpoint implements CustomEndpoint {
                         .implementation(Boolean.class)
                         .required(false)
                     )
+                    .parameter(parameterBuilder()
+                        .name("q")
+                        .description("Full-text search over title, summary and author. Results "
+                            + "are ranked by relevance and paged with beforeRank and beforeId.")
+                        .in(ParameterIn.QUERY)
+                        .implementation(String.class)
+                        .required(false)
+                    )
+                    .parameter(parameterBuilder()
+                        .name("beforeRank")
+                        .description("Search cursor rank boundary; only used with q.")
+                        .in(ParameterIn.QUERY)
+                        .implementation(Double.class)
+                        .required(false)
+                    )
                     .parameter(parameterBuilder()
                         .name("beforePublishedAt")
                         .description("Cursor published time boundary.")
@@ -293,11 +299,9 @@ public class LinkFeedEndpoint implements CustomEndpoint {
             if (StringUtils.hasText(groupName) && StringUtils.hasText(query.getLinkName())) {
                 return badRequest("linkName and groupName cannot be used together.");
             }
-            Mono<LinkFeedItemPage> page = StringUtils.hasText(groupName)
-                ? listByGroup(groupName, query)
-                : Mono.fromCallable(() -> linkFeedService.listItems(query))
-                    .subscribeOn(Schedulers.boundedElastic());
-            return page.flatMap(result -> ServerResponse.ok().bodyValue(result));
+            query.setGroupName(groupName);
+            return linkFeedService.listItems(query)
+                .flatMap(result -> ServerResponse.ok().bodyValue(result));
         } catch (IllegalArgumentException e) {
             return badRequest(e.getMessage());
         }
@@ -310,8 +314,7 @@ public class LinkFeedEndpoint implements CustomEndpoint {
                 .filter(StringUtils::hasText)
                 .map(value -> parseBoolean(value, "read"))
                 .orElseThrow(() -> new IllegalArgumentException("Missing query parameter: read"));
-            return Mono.fromCallable(() -> itemStore.updateRead(id, read))
-                .subscribeOn(Schedulers.boundedElastic())
+            return itemStore.toggle(store -> store.updateRead(id, read))
                 .flatMap(updated -> updated
                     ? ServerResponse.noContent().build()
                     : ServerResponse.notFound().build());
@@ -321,15 +324,13 @@ public class LinkFeedEndpoint implements CustomEndpoint {
     }
 
     private Mono<ServerResponse> getUnreadSummary(ServerRequest request) {
-        return Mono.fromCallable(() -> new LinkFeedUnreadSummary(itemStore.countUnread(),
-                itemStore.countUnreadByLinkName()))
-            .subscribeOn(Schedulers.boundedElastic())
+        return itemStore.read(store -> new LinkFeedUnreadSummary(store.countUnread(),
+                store.countUnreadByLinkName()))
             .flatMap(summary -> ServerResponse.ok().bodyValue(summary));
     }
 
     private Mono<ServerResponse> getItemSummary(ServerRequest request) {
-        return Mono.fromCallable(itemStore::countSummary)
-            .subscribeOn(Schedulers.boundedElastic())
+        return itemStore.read(LinkFeedItemStore::countSummary)
             .flatMap(summary -> ServerResponse.ok().bodyValue(summary));
     }
 
@@ -338,9 +339,8 @@ public class LinkFeedEndpoint implements CustomEndpoint {
             .switchIfEmpty(Mono.error(new IllegalArgumentException("Request body is required.")))
             .flatMap(command -> {
                 validateHiddenStateRequest(command);
-                return Mono.fromCallable(
-                        () -> itemStore.updateHidden(command.getIds(), command.getHidden()))
-                    .subscribeOn(Schedulers.boundedElastic());
+                return itemStore.write(
+                    store -> store.updateHidden(command.getIds(), command.getHidden()));
             })
             .flatMap(result -> ServerResponse.ok().bodyValue(result))
             .onErrorResume(IllegalArgumentException.class, LinkFeedEndpoint::badRequest);
@@ -350,8 +350,7 @@ public class LinkFeedEndpoint implements CustomEndpoint {
         String linkName = request.queryParam("linkName")
             .filter(StringUtils::hasText)
             .orElse(null);
-        return Mono.fromCallable(() -> itemStore.markUnreadAsRead(linkName))
-            .subscribeOn(Schedulers.boundedElastic())
+        return itemStore.write(store -> store.markUnreadAsRead(linkName))
             .flatMap(updatedCount -> ServerResponse.ok()
                 .bodyValue(new LinkFeedMarkReadResult(updatedCount)));
     }
@@ -364,8 +363,7 @@ public class LinkFeedEndpoint implements CustomEndpoint {
                 .map(value -> parseBoolean(value, "favorite"))
                 .orElseThrow(() -> new IllegalArgumentException(
                     "Missing query parameter: favorite"));
-            return Mono.fromCallable(() -> itemStore.updateFavorite(id, favorite))
-                .subscribeOn(Schedulers.boundedElastic())
+            return itemStore.toggle(store -> store.updateFavorite(id, favorite))
                 .flatMap(updated -> updated
                     ? ServerResponse.noContent().build()
                     : ServerResponse.notFound().build());
@@ -382,8 +380,7 @@ public class LinkFeedEndpoint implements CustomEndpoint {
                 .map(value -> parseBoolean(value, "readLater"))
                 .orElseThrow(() -> new IllegalArgumentException(
                     "Missing query parameter: readLater"));
-            return Mono.fromCallable(() -> itemStore.updateReadLater(id, readLater))
-                .subscribeOn(Schedulers.boundedElastic())
+            return itemStore.toggle(store -> store.updateReadLater(id, readLater))
                 .flatMap(updated -> updated
                     ? ServerResponse.noContent().build()
                     : ServerResponse.notFound().build());
@@ -393,57 +390,20 @@ public class LinkFeedEndpoint implements CustomEndpoint {
     }
 
     private Mono<ServerResponse> cleanupFeedItems(ServerRequest request) {
+        // Retention and compaction pace themselves in short batches that each take the database
+        // writer lock, so they run beside the store's writer thread instead of holding it.
         return Mono.fromCallable(() -> {
-                retentionService.enforce(LinkFeedRetentionPolicy.defaults());
+                long deleted = retentionService.enforce(LinkFeedRetentionPolicy.defaults());
                 storageMaintenance.compactIfNeeded();
-                return new LinkFeedCleanupResult(itemStore.count());
+                return deleted;
             })
             .subscribeOn(Schedulers.boundedElastic())
+            .elapsed()
+            .flatMap(timed -> itemStore.read(store -> new LinkFeedCleanupResult(store.count(),
+                timed.getT2(), timed.getT1())))
             .flatMap(result -> ServerResponse.ok().bodyValue(result));
     }
 
-    private Mono<LinkFeedItemPage> listByGroup(String groupName, LinkFeedItemQuery query) {
-        var options = ListOptions.builder()
-            .andQuery(equal("spec.groupName", groupName))
-            .build();
-        return client.listAll(Link.class, options, Sort.unsorted())
-            .map(link -> link.getMetadata().getName())
-            .collectList()
-            .flatMap(linkNames -> Mono.fromCallable(() -> listByLinkNames(linkNames, query))
-                .subscribeOn(Schedulers.boundedElastic()));
-    }
-
-    private LinkFeedItemPage listByLinkNames(List<String> linkNames, LinkFeedItemQuery query) {
-        if (linkNames.isEmpty()) {
-            return new LinkFeedItemPage(List.of(), null, null, false);
-        }
-        int limit = query.normalizedLimit();
-        List<LinkFeedItem> items = new ArrayList<>();
-        for (String linkName : linkNames) {
-            LinkFeedItemQuery linkQuery = new LinkFeedItemQuery();
-            linkQuery.setLinkName(linkName);
-            linkQuery.setBeforePublishedAt(query.getBeforePublishedAt());
-            linkQuery.setBeforeId(query.getBeforeId());
-            linkQuery.setRead(query.getRead());
-            linkQuery.setFavorite(query.getFavorite());
-            linkQuery.setReadLater(query.getReadLater());
-            linkQuery.setHidden(query.getHidden());
-            linkQuery.setLimit(limit + 1);
-            items.addAll(itemStore.listRecent(linkQuery));
-        }
-        items.sort(recentComparator());
-        boolean hasNext = items.size() > limit;
-        List<LinkFeedItem> pageItems = hasNext
-            ? List.copyOf(items.subList(0, limit))
-            : List.copyOf(items);
-        LinkFeedItem last = pageItems.isEmpty() ? null : pageItems.get(pageItems.size() - 1);
-        String nextBeforePublishedAt = last == null || last.getPublishedAt() == null
-            ? null
-            : last.getPublishedAt().toString();
-        String nextBeforeId = last == null ? null : last.getId();
-        return new LinkFeedItemPage(pageItems, nextBeforePublishedAt, nextBeforeId, hasNext);
-    }
-
     private static LinkFeedItemQuery parseQuery(ServerRequest request) {
         LinkFeedItemQuery query = new LinkFeedItemQuery();
         request.queryParam("linkName")
@@ -452,6 +412,29 @@ public class LinkFeedEndpoint implements CustomEndpoint {
         request.queryParam("beforeId")
             .filter(StringUtils::hasText)
             .ifPresent(query::setBeforeId);
+        request.queryParam("q")
+            .map(String::trim)
+            .filter(StringUtils::hasText)
+            .ifPresent(value -> {
+                if (value.length() > LinkFeedItemQuery.MAX_QUERY_LENGTH) {
+                    throw new IllegalArgumentException("q must not exceed "
+                        + LinkFeedItemQuery.MAX_QUERY_LENGTH + " characters.");
+                }
+                query.setQ(value);
+            });
+        request.queryParam("beforeRank")
+            .filter(StringUtils::hasText)
+            .ifPresent(value -> {
+                try {
+                    double rank = Double.parseDouble(value);
+                    if (!Double.isFinite(rank)) {
+                        throw new NumberFormatException(value);
+                    }
+                    query.setBeforeRank(rank);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid beforeRank.", e);
+                }
+            });
         request.queryParam("beforePublishedAt")
             .filter(StringUtils::hasText)
             .ifPresent(value -> {
@@ -507,23 +490,6 @@ public class LinkFeedEndpoint implements CustomEndpoint {
         }
     }
 
-    private static Comparator<LinkFeedItem> recentComparator() {
-        return Comparator.comparing(LinkFeedEndpoint::sortInstant,
-                Comparator.nullsLast(Comparator.naturalOrder()))
-            .reversed()
-            .thenComparing(LinkFeedItem::getId, Comparator.nullsLast(Comparator.reverseOrder()));
-    }
-
-    private static Instant sortInstant(LinkFeedItem item) {
-        if (item.getPublishedAt() != null) {
-            return item.getPublishedAt();
-        }
-        if (item.getUpdatedAt() != null) {
-            return item.getUpdatedAt();
-        }
-        return item.getFetchedAt();
-    }
-
     private static String requiredQuery(ServerRequest request, String name) {
         return request.queryParam(name)
             .filter(StringUtils::hasText)
@@ -0,0 +1,202 @@
+package run.halo.links.endpoint;
+
+import static org.springdoc.core.fn.builders.apiresponse.Builder.responseBuilder;
+import static org.springdoc.webflux.core.fn.SpringdocRouteBuilder.route;
+import static run.halo.app.extension.index.query.Queries.equal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import run.halo.app.core.extension.endpoint.CustomEndpoint;
+import run.halo.app.extension.GroupVersion;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.links.extension.Link;
+import run.halo.links.rss.LinkFeedItem;
+import run.halo.links.rss.LinkFeedStorageUnavailableException;
+import run.halo.links.rss.ReactiveLinkFeedItemStore;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Streams cached feed items and subscribed feed URLs out of the Console. Items are read from the
+ * embedded store in fixed-size id-ordered chunks and written as they are encoded, so an export
+ * holds at most one chunk in memory and only reads the next chunk when the client asks for it.
+ */
+@Component
+@RequiredArgsConstructor
+public class LinkFeedExportEndpoint implements CustomEndpoint {
+
+    static final int EXPORT_CHUNK_SIZE = 500;
+    static final MediaType OPML = MediaType.parseMediaType("text/x-opml;charset=UTF-8");
+
+    private final ReactiveLinkFeedItemStore itemStore;
+    private final ReactiveExtensionClient client;
+
+    @Override
+    public RouterFunction<ServerResponse> endpoint() {
+        final var tag = "console.api.link.halo.run/v1alpha1/LinkFeed";
+        return route()
+            .GET("rss/-/export", this::exportItems, builder -> builder
+                .operationId("exportLinkFeedItems")
+                .description("Stream every cached RSS or Atom feed item, hidden items included, "
+                    + "as newline-delimited JSON in stable item id order.")
+                .tag(tag)
+                .response(responseBuilder()
+                    .implementation(LinkFeedItem.class)
+                    .description("One JSON feed item per line."))
+            )
+            .GET("rss/-/opml", this::exportSubscriptions, builder -> builder
+                .operationId("exportLinkFeedSubscriptions")
+                .description("Export the feed URLs of RSS-enabled links as an OPML document.")
+                .tag(tag)
+                .response(responseBuilder()
+                    .implementation(String.class)
+                    .description("OPML 2.0 document."))
+            )
+            .build()
+            .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                .onErrorResume(LinkFeedStorageUnavailableException.class,
+                    error -> ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .bodyValue(Map.of("error", "RSS feed storage is unavailable."))));
+    }
+
+    @Override
+    public GroupVersion groupVersion() {
+        return GroupVersion.parseAPIVersion("console.api.link.halo.run/v1alpha1");
+    }
+
+    /**
+     * The first chunk is read before the response is committed so an unavailable store still
+     * answers with a 503 instead of a truncated 200.
+     */
+    private Mono<ServerResponse> exportItems(ServerRequest request) {
+        return readChunk(null)
+            .flatMap(first -> ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, attachment("link-feed-items.ndjson"))
+                .body(BodyInserters.fromDataBuffers(itemChunks(first)
+                    .filter(chunk -> !chunk.isEmpty())
+                    .map(LinkFeedExportEndpoint::encodeNdjson))));
+    }
+
+    private Mono<ServerResponse> exportSubscriptions(ServerRequest request) {
+        var options = ListOptions.builder()
+            .andQuery(equal("spec.rss.enabled", Boolean.TRUE))
+            .build();
+        Flux<String> outlines = client.listAll(Link.class, options, Sort.unsorted())
+            .filter(LinkFeedExportEndpoint::isRssEnabled)
+            .concatMapIterable(LinkFeedExportEndpoint::outlines);
+        Flux<DataBuffer> document = Flux.concat(
+                Mono.just("""
+                    <?xml version="1.0" encoding="UTF-8"?>
+                    <opml version="2.0">
+                      <head>
+                        <title>Link RSS subscriptions</title>
+                      </head>
+                      <body>
+                    """),
+                outlines,
+                Mono.just("""
+                      </body>
+                    </opml>
+                    """))
+            .map(LinkFeedExportEndpoint::encode);
+        return ServerResponse.ok()
+            .contentType(OPML)
+            .header(HttpHeaders.CONTENT_DISPOSITION, attachment("link-feeds.opml"))
+            .body(BodyInserters.fromDataBuffers(document));
+    }
+
+    /**
+     * Reads the following chunk only after the previous one has been requested downstream, and
+     * stops after the first short chunk.
+     */
+    private Flux<List<LinkFeedItem>> itemChunks(List<LinkFeedItem> first) {
+        return Mono.just(first)
+            .expand(chunk -> chunk.size() < EXPORT_CHUNK_SIZE
+                ? Mono.empty()
+                : readChunk(chunk.get(chunk.size() - 1).getId()));
+    }
+
+    private Mono<List<LinkFeedItem>> readChunk(String afterId) {
+        return itemStore.read(store -> store.listAfterId(afterId, EXPORT_CHUNK_SIZE));
+    }
+
+    private static DataBuffer encodeNdjson(List<LinkFeedItem> chunk) {
+        JsonMapper mapper = JsonMapper.shared();
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.allocateBuffer(
+            chunk.size() * 512);
+        for (LinkFeedItem item : chunk) {
+            buffer.write(mapper.writeValueAsBytes(item));
+            buffer.write((byte) '\n');
+        }
+        return buffer;
+    }
+
+    private static DataBuffer encode(String text) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(
+            text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> outlines(Link link) {
+        String title = StringUtils.hasText(link.getSpec().getDisplayName())
+            ? link.getSpec().getDisplayName()
+            : link.getMetadata().getName();
+        String htmlUrl = link.getSpec().getUrl();
+        return link.getSpec().getRss().getFeedUrls().stream()
+            .filter(StringUtils::hasText)
+            .map(feedUrl -> "    <outline type=\"rss\" text=\"" + escapeXml(title)
+                + "\" title=\"" + escapeXml(title)
+                + "\" xmlUrl=\"" + escapeXml(feedUrl.trim()) + "\""
+                + (StringUtils.hasText(htmlUrl) ? " htmlUrl=\"" + escapeXml(htmlUrl) + "\"" : "")
+                + "/>\n")
+            .toList();
+    }
+
+    private static boolean isRssEnabled(Link link) {
+        return link.getSpec() != null
+            && link.getSpec().getRss() != null
+            && Boolean.TRUE.equals(link.getSpec().getRss().getEnabled())
+            && link.getSpec().getRss().getFeedUrls() != null;
+    }
+
+    private static String attachment(String filename) {
+        return ContentDisposition.attachment().filename(filename).build().toString();
+    }
+
+    static String escapeXml(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> escaped.append("&amp;");
+                case '<' -> escaped.append("&lt;");
+                case '>' -> escaped.append("&gt;");
+                case '"' -> escaped.append("&quot;");
+                case '\'' -> escaped.append("&apos;");
+                default -> {
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
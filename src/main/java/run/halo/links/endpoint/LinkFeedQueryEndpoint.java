@@ -54,6 +54,21 @@ public class LinkFeedQueryEndpoint implements CustomEndpoint {
                         .implementation(String.class)
                         .required(false)
                     )
+                    .parameter(parameterBuilder()
+                        .name("q")
+                        .description("Full-text search over title, summary and author. Results "
+                            + "are ranked by relevance and paged with beforeRank and beforeId.")
+                        .in(ParameterIn.QUERY)
+                        .implementation(String.class)
+                        .required(false)
+                    )
+                    .parameter(parameterBuilder()
+                        .name("beforeRank")
+                        .description("Search cursor rank boundary; only used with q.")
+                        .in(ParameterIn.QUERY)
+                        .implementation(Double.class)
+                        .required(false)
+                    )
                     .parameter(parameterBuilder()
                         .name("beforePublishedAt")
                         .description("Cursor published time boundary.")
@@ -116,6 +131,29 @@ public class LinkFeedQueryEndpoint implements CustomEndpoint {
         request.queryParam("beforeId")
             .filter(StringUtils::hasText)
             .ifPresent(query::setBeforeId);
+        request.queryParam("q")
+            .map(String::trim)
+            .filter(StringUtils::hasText)
+            .ifPresent(value -> {
+                if (value.length() > LinkFeedItemQuery.MAX_QUERY_LENGTH) {
+                    throw new IllegalArgumentException("q must not exceed "
+                        + LinkFeedItemQuery.MAX_QUERY_LENGTH + " characters.");
+                }
+                query.setQ(value);
+            });
+        request.queryParam("beforeRank")
+            .filter(StringUtils::hasText)
+            .ifPresent(value -> {
+                try {
+                    double rank = Double.parseDouble(value);
+                    if (!Double.isFinite(rank)) {
+                        throw new NumberFormatException(value);
+                    }
+                    query.setBeforeRank(rank);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid beforeRank.", e);
+                }
+            });
         request.queryParam("beforePublishedAt")
             .filter(StringUtils::hasText)
             .ifPresent(value -> {
@@ -143,6 +143,13 @@ public class Link extends AbstractExtension {
         @Schema(description = "Last time the current conditional request validators were updated.")
         private Instant validatorUpdatedAt;
 
+        @Schema(description = "SHA-256 fingerprint of the last feed body whose items were cached.")
+        private String bodyFingerprint;
+
+        @Schema(description = "SHA-256 fingerprint of the ordered entries last cached from this "
+            + "feed URL.")
+        private String entriesFingerprint;
+
         @Schema(description = "Latest feed item publication time observed for this feed URL.")
         private Instant latestPublishedAt;
 
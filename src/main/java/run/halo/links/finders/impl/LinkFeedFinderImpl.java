@@ -10,7 +10,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.data.domain.Sort;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import run.halo.app.extension.ListOptions;
 import run.halo.app.extension.Metadata;
 import run.halo.app.extension.ReactiveExtensionClient;
@@ -21,9 +20,10 @@ import run.halo.links.extension.Link;
 import run.halo.links.extension.LinkGroup;
 import run.halo.links.finders.LinkFeedFinder;
 import run.halo.links.rss.LinkFeedItem;
+import run.halo.links.rss.LinkFeedItemProjection;
 import run.halo.links.rss.LinkFeedItemQuery;
-import run.halo.links.rss.LinkFeedItemStore;
 import run.halo.links.rss.LinkFeedStorageUnavailableException;
+import run.halo.links.rss.ReactiveLinkFeedItemStore;
 import run.halo.links.service.LinkFeedPublicQueryService;
 import run.halo.links.vo.LinkFeedGroupVo;
 import run.halo.links.vo.LinkFeedItemPageVo;
@@ -43,10 +43,10 @@ public class LinkFeedFinderImpl implements LinkFeedFinder {
 
     private final LinkFeedPublicQueryService linkFeedPublicQueryService;
 
-    private final LinkFeedItemStore itemStore;
+    private final ReactiveLinkFeedItemStore itemStore;
 
     public LinkFeedFinderImpl(ReactiveExtensionClient client, LinkFeedPublicQueryService linkFeedPublicQueryService,
-        LinkFeedItemStore itemStore) {
+        ReactiveLinkFeedItemStore itemStore) {
         this.client = client;
         this.linkFeedPublicQueryService = linkFeedPublicQueryService;
         this.itemStore = itemStore;
@@ -57,7 +57,7 @@ public class LinkFeedFinderImpl implements LinkFeedFinder {
         return linkFeedPublicQueryService.isPublicEnabled()
             .flatMap(enabled -> enabled
                 ? listWhenPublicEnabled(params)
-                : Mono.just(new LinkFeedItemPageVo(List.of(), null, null, false)));
+                : Mono.just(new LinkFeedItemPageVo(List.of(), null, null, false, null)));
     }
 
     @Override
@@ -140,16 +140,17 @@ public class LinkFeedFinderImpl implements LinkFeedFinder {
 
     private Mono<List<LinkFeedVo>> listAllLinkFeeds(ListOptions options, Integer limit) {
         return client.listAll(Link.class, options, defaultLinkSort())
-            .concatMap(link -> Mono.fromCallable(() -> {
+            .concatMap(link -> itemStore.read(store -> {
                 LinkFeedVo linkFeed = LinkFeedVo.from(link);
                 LinkFeedItemQuery storeQuery = new LinkFeedItemQuery();
                 storeQuery.setLinkName(link.getMetadata().getName());
                 storeQuery.setHidden(false);
                 storeQuery.setLimit(limit);
+                storeQuery.setProjection(LinkFeedItemProjection.PUBLIC);
 
                 List<LinkFeedItemVo> linkFeedItemVos = new ArrayList<>();
 
-                List<LinkFeedItem> linkFeedItems = itemStore.listRecent(storeQuery);
+                List<LinkFeedItem> linkFeedItems = store.listRecent(storeQuery);
                 for (LinkFeedItem linkFeedItem : linkFeedItems) {
                     LinkFeedItemVo linkFeedItemVo = LinkFeedItemVo.from(linkFeedItem);
                     if (StringUtils.isEmpty(linkFeedItemVo.getAuthor())) {
@@ -161,7 +162,7 @@ public class LinkFeedFinderImpl implements LinkFeedFinder {
                 }
                 linkFeed.setFeeds(linkFeedItemVos);
                 return linkFeed;
-            }).subscribeOn(Schedulers.boundedElastic()))
+            }))
             .collectList();
     }
 
@@ -0,0 +1,452 @@
+package run.halo.links.mmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory index over the live items of a feed log. Each item owns a slot in a set of parallel
+ * primitive arrays holding what filters and orders read: publish and first-seen times, state
+ * bits, the feed and group ordinals and the location of its latest item record. Text fields stay
+ * in the mapped segments and are decoded only for the items a query returns.
+ *
+ * <p>Three sorted slot arrays give the listing orders: all items by publish time, the items of
+ * each link by publish time, and all items by id. Per-feed counters mirror the SQLite counter
+ * table, so summaries read one entry per feed. Not thread-safe; the store guards it.
+ */
+final class MappedItemIndex {
+
+    private static final byte HAS_PUBLISHED_AT = 1;
+    private static final byte HAS_FIRST_SEEN_AT = 1 << 1;
+    private static final byte PACKED_ID = 1 << 2;
+    private static final int PACKED_ID_LENGTH = 64;
+
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private String[] ids = new String[64];
+    private long[] locations = new long[64];
+    private long[] publishedAt = new long[64];
+    private long[] firstSeenAt = new long[64];
+    private byte[] presence = new byte[64];
+    private byte[] states = new byte[64];
+    private int[] feeds = new int[64];
+    private int[] groups = new int[64];
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /**
+     * Feed ordinal 0 stands for an item with neither a link name nor a feed URL, and link and
+     * group ordinal 0 for a missing name, like the empty strings of the SQLite feed table.
+     */
+    private final Dictionary links = new Dictionary();
+    private final Dictionary groupNames = new Dictionary();
+    private final Map<String, Integer> feedsByKey = new HashMap<>();
+    private final List<String> feedUrls = new ArrayList<>(List.of(""));
+    private int[] feedLinks = new int[16];
+    private final long[][] counters = new long[Counter.values().length][16];
+
+    private final MappedSortedSlots recent = new MappedSortedSlots();
+    private final MappedSortedSlots byId = new MappedSortedSlots();
+    private final List<MappedSortedSlots> recentByLink = new ArrayList<>();
+
+    private boolean ordersSuspended;
+
+    private final MappedSortedSlots.SlotOrder recentOrder = this::compareRecent;
+    private final MappedSortedSlots.SlotOrder idOrder = this::compareSlotIds;
+
+    int slot(String id) {
+        Integer slot = slotsById.get(id);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Indexes the latest item record of {@code id}, replacing what an earlier record indexed.
+     * Blank names and URLs must already be normalized to {@code null}.
+     */
+    int put(String id, long location, Long published, Long firstSeen, byte itemStates,
+        String linkName, String feedUrl, String groupName) {
+        int slot = slot(id);
+        if (slot >= 0) {
+            removeFromOrders(slot);
+        } else {
+            slot = allocate();
+            ids[slot] = id;
+            slotsById.put(id, slot);
+        }
+        locations[slot] = location;
+        publishedAt[slot] = published == null ? 0 : published;
+        firstSeenAt[slot] = firstSeen == null ? 0 : firstSeen;
+        presence[slot] = (byte) ((published == null ? 0 : HAS_PUBLISHED_AT)
+            | (firstSeen == null ? 0 : HAS_FIRST_SEEN_AT) | (isPacked(id) ? PACKED_ID : 0));
+        states[slot] = itemStates;
+        feeds[slot] = feed(linkName, feedUrl);
+        groups[slot] = groupNames.ordinal(groupName);
+        addToOrders(slot);
+        return slot;
+    }
+
+    /**
+     * Stops maintaining the sorted orders until {@link #resumeOrders()}, which rebuilds them in
+     * one sort. Bulk writes and log replay use this instead of shifting the arrays per item;
+     * the orders must not be read in between.
+     */
+    void suspendOrders() {
+        ordersSuspended = true;
+    }
+
+    void resumeOrders() {
+        ordersSuspended = false;
+        int[] live = new int[slotsById.size()];
+        int next = 0;
+        for (int slot : slotsById.values()) {
+            live[next++] = slot;
+        }
+        int[] sortedRecent = MappedSortedSlots.sort(live, recentOrder);
+        recent.reset(sortedRecent);
+        byId.reset(MappedSortedSlots.sort(live, idOrder));
+        int[] linkSizes = new int[links.size()];
+        for (int slot : sortedRecent) {
+            linkSizes[linkOf(slot)]++;
+        }
+        int[][] linkSlots = new int[linkSizes.length][];
+        for (int link = 0; link < linkSizes.length; link++) {
+            linkSlots[link] = new int[linkSizes[link]];
+        }
+        int[] filled = new int[linkSizes.length];
+        for (int slot : sortedRecent) {
+            int link = linkOf(slot);
+            linkSlots[link][filled[link]++] = slot;
+        }
+        recentByLink.clear();
+        for (int[] slots : linkSlots) {
+            MappedSortedSlots order = new MappedSortedSlots();
+            order.reset(slots);
+            recentByLink.add(order);
+        }
+    }
+
+    void setStates(int slot, byte itemStates) {
+        count(slot, -1);
+        states[slot] = itemStates;
+        count(slot, 1);
+    }
+
+    void setGroup(int slot, String groupName, long location) {
+        groups[slot] = groupNames.ordinal(groupName);
+        locations[slot] = location;
+    }
+
+    void setLocation(int slot, long location) {
+        locations[slot] = location;
+    }
+
+    void remove(int slot) {
+        removeFromOrders(slot);
+        slotsById.remove(ids[slot]);
+        ids[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    String id(int slot) {
+        return ids[slot];
+    }
+
+    long location(int slot) {
+        return locations[slot];
+    }
+
+    byte states(int slot) {
+        return states[slot];
+    }
+
+    boolean hasPublishedAt(int slot) {
+        return (presence[slot] & HAS_PUBLISHED_AT) != 0;
+    }
+
+    long publishedAt(int slot) {
+        return publishedAt[slot];
+    }
+
+    /**
+     * Returns the stored first-seen time, which unlike the decoded item does not fall back to
+     * the fetch time.
+     */
+    Long firstSeenAt(int slot) {
+        return (presence[slot] & HAS_FIRST_SEEN_AT) != 0 ? firstSeenAt[slot] : null;
+    }
+
+    int group(int slot) {
+        return groups[slot];
+    }
+
+    int linkOrdinal(String linkName) {
+        return links.find(linkName);
+    }
+
+    int groupOrdinal(String groupName) {
+        return groupNames.find(groupName);
+    }
+
+    int linkOf(int slot) {
+        return feedLinks[feeds[slot]];
+    }
+
+    MappedSortedSlots recent() {
+        return recent;
+    }
+
+    MappedSortedSlots byId() {
+        return byId;
+    }
+
+    /**
+     * Returns the items of one link in publish order, or {@code null} for an unknown link.
+     */
+    MappedSortedSlots recentOfLink(int link) {
+        return link <= 0 || link >= recentByLink.size() ? null : recentByLink.get(link);
+    }
+
+    int size() {
+        return slotsById.size();
+    }
+
+    long count(Counter counter) {
+        long sum = 0;
+        for (int feed = 0; feed < feedUrls.size(); feed++) {
+            sum += counters[counter.ordinal()][feed];
+        }
+        return sum;
+    }
+
+    long countByLink(String linkName) {
+        int link = links.find(linkName);
+        if (link <= 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int feed = 0; feed < feedUrls.size(); feed++) {
+            if (feedLinks[feed] == link) {
+                sum += counters[Counter.TOTAL.ordinal()][feed];
+            }
+        }
+        return sum;
+    }
+
+    long countByFeed(String linkName, String feedUrl) {
+        if (linkName == null || feedUrl == null) {
+            return 0;
+        }
+        Integer feed = feedsByKey.get(linkName + '\n' + feedUrl);
+        return feed == null ? 0 : counters[Counter.TOTAL.ordinal()][feed];
+    }
+
+    /**
+     * Sums unread counts per named link, in link name order, leaving out links without any.
+     */
+    Map<String, Long> unreadByLink() {
+        Map<String, Long> sums = new TreeMap<>();
+        for (int feed = 0; feed < feedUrls.size(); feed++) {
+            long unread = counters[Counter.UNREAD.ordinal()][feed];
+            if (feedLinks[feed] > 0 && unread > 0) {
+                sums.merge(links.name(feedLinks[feed]), unread, Long::sum);
+            }
+        }
+        return new LinkedHashMap<>(sums);
+    }
+
+    /**
+     * Orders item ids like SQLite orders the stored keys: ids kept as text sort before the
+     * SHA-256 ids stored as raw bytes, and ids of the same kind sort by their characters.
+     */
+    static int compareIds(String left, String right) {
+        boolean leftPacked = isPacked(left);
+        if (leftPacked != isPacked(right)) {
+            return leftPacked ? 1 : -1;
+        }
+        return left.compareTo(right);
+    }
+
+    /**
+     * Publish time descending with undated items last, then id descending: the order of the
+     * SQLite listing query before its final in-page sort.
+     */
+    private int compareRecent(int left, int right) {
+        boolean leftDated = hasPublishedAt(left);
+        if (leftDated != hasPublishedAt(right)) {
+            return leftDated ? -1 : 1;
+        }
+        if (leftDated && publishedAt[left] != publishedAt[right]) {
+            return Long.compare(publishedAt[right], publishedAt[left]);
+        }
+        return compareSlotIds(right, left);
+    }
+
+    /**
+     * {@link #compareIds} with the id kind read from the slot instead of rescanning the ids.
+     */
+    private int compareSlotIds(int left, int right) {
+        boolean leftPacked = (presence[left] & PACKED_ID) != 0;
+        if (leftPacked != ((presence[right] & PACKED_ID) != 0)) {
+            return leftPacked ? 1 : -1;
+        }
+        return ids[left].compareTo(ids[right]);
+    }
+
+    private void addToOrders(int slot) {
+        count(slot, 1);
+        if (ordersSuspended) {
+            return;
+        }
+        recent.insert(slot, recentOrder);
+        byId.insert(slot, idOrder);
+        int link = linkOf(slot);
+        if (link > 0) {
+            while (recentByLink.size() <= link) {
+                recentByLink.add(new MappedSortedSlots());
+            }
+            recentByLink.get(link).insert(slot, recentOrder);
+        }
+    }
+
+    private void removeFromOrders(int slot) {
+        count(slot, -1);
+        if (ordersSuspended) {
+            return;
+        }
+        recent.remove(slot, recentOrder);
+        byId.remove(slot, idOrder);
+        int link = linkOf(slot);
+        if (link > 0) {
+            recentByLink.get(link).remove(slot, recentOrder);
+        }
+    }
+
+    private void count(int slot, int delta) {
+        int feed = feeds[slot];
+        byte itemStates = states[slot];
+        boolean hidden = (itemStates & MappedItemRecord.HIDDEN) != 0;
+        add(Counter.TOTAL, feed, delta);
+        if (hidden) {
+            add(Counter.HIDDEN, feed, delta);
+            return;
+        }
+        if ((itemStates & MappedItemRecord.READ) == 0) {
+            add(Counter.UNREAD, feed, delta);
+        }
+        if ((itemStates & MappedItemRecord.FAVORITE) != 0) {
+            add(Counter.FAVORITE, feed, delta);
+        }
+        if ((itemStates & MappedItemRecord.READ_LATER) != 0) {
+            add(Counter.READ_LATER, feed, delta);
+        }
+    }
+
+    private void add(Counter counter, int feed, int delta) {
+        counters[counter.ordinal()][feed] += delta;
+    }
+
+    private int feed(String linkName, String feedUrl) {
+        String link = linkName == null ? "" : linkName;
+        String url = feedUrl == null ? "" : feedUrl;
+        if (link.isEmpty() && url.isEmpty()) {
+            return 0;
+        }
+        String key = link + '\n' + url;
+        Integer existing = feedsByKey.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int feed = feedUrls.size();
+        feedUrls.add(url);
+        feedsByKey.put(key, feed);
+        if (feed == feedLinks.length) {
+            feedLinks = Arrays.copyOf(feedLinks, feed * 2);
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = Arrays.copyOf(counters[i], feed * 2);
+            }
+        }
+        feedLinks[feed] = links.ordinal(linkName);
+        return feed;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = slotCount * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            locations = Arrays.copyOf(locations, capacity);
+            publishedAt = Arrays.copyOf(publishedAt, capacity);
+            firstSeenAt = Arrays.copyOf(firstSeenAt, capacity);
+            presence = Arrays.copyOf(presence, capacity);
+            states = Arrays.copyOf(states, capacity);
+            feeds = Arrays.copyOf(feeds, capacity);
+            groups = Arrays.copyOf(groups, capacity);
+        }
+        return slotCount++;
+    }
+
+    private static boolean isPacked(String id) {
+        if (id.length() != PACKED_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < PACKED_ID_LENGTH; i++) {
+            char c = id.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    enum Counter {
+        TOTAL,
+        UNREAD,
+        FAVORITE,
+        READ_LATER,
+        HIDDEN
+    }
+
+    /**
+     * Interned names by ordinal, with ordinal 0 reserved for a missing name.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> names = new ArrayList<>(Collections.singletonList(null));
+
+        int ordinal(String name) {
+            if (name == null) {
+                return 0;
+            }
+            return ordinals.computeIfAbsent(name, key -> {
+                names.add(key);
+                return names.size() - 1;
+            });
+        }
+
+        int find(String name) {
+            if (name == null) {
+                return 0;
+            }
+            return ordinals.getOrDefault(name, -1);
+        }
+
+        String name(int ordinal) {
+            return names.get(ordinal);
+        }
+
+        int size() {
+            return names.size();
+        }
+    }
+}
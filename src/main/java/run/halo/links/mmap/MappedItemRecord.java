@@ -0,0 +1,286 @@
+package run.halo.links.mmap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.CRC32C;
+import run.halo.links.rss.LinkFeedItem;
+import run.halo.links.rss.LinkFeedItemProjection;
+
+/**
+ * Binary layout of the records in a feed log segment. Every record is framed as a body length,
+ * a CRC32C of the body and the body itself, so replay can tell a torn tail from a record.
+ *
+ * <p>An item body starts with a fixed header: type, state bits, timestamp presence bits, one
+ * reserved byte and four epoch-nanosecond timestamps. The strings follow in a fixed order, each
+ * as a length (-1 for null) and its UTF-8 bytes. State and delete bodies carry only the type,
+ * the state bits where relevant, and the item id.
+ *
+ * <p>Only the header has a fixed layout; records as a whole are variable-length. Feed strings
+ * have no useful upper bound, so fixed-width slots would either truncate summaries or leave most
+ * of a segment as padding. Nothing needs a record at a computed offset: the in-memory index keeps
+ * each record's location and the fields that listing and filtering read.
+ */
+final class MappedItemRecord {
+
+    static final byte ITEM = 1;
+    static final byte STATE = 2;
+    static final byte DELETE = 3;
+
+    static final int FRAME_HEADER_BYTES = 8;
+
+    static final byte READ = 1;
+    static final byte FAVORITE = 1 << 1;
+    static final byte READ_LATER = 1 << 2;
+    static final byte HIDDEN = 1 << 3;
+    static final byte SAVED = FAVORITE | READ_LATER | HIDDEN;
+
+    /**
+     * Offset of the first string of an item body: type, state bits, presence bits, a reserved
+     * byte and four timestamps.
+     */
+    private static final int ITEM_STRINGS_OFFSET = 4 + 4 * Long.BYTES;
+
+    static final int ID = 0;
+    static final int LINK_NAME = 1;
+    static final int GROUP_NAME = 2;
+    static final int FEED_URL = 3;
+    static final int GUID = 4;
+    static final int URL = 5;
+    static final int TITLE = 6;
+    static final int SUMMARY = 7;
+    static final int AUTHOR = 8;
+    static final int CONTENT_HASH = 9;
+    private static final int STRING_COUNT = 10;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private MappedItemRecord() {
+    }
+
+    /**
+     * Encodes a full item frame. {@code linkName}, {@code groupName} and {@code feedUrl} are
+     * passed already normalized; {@code firstSeenAt} and {@code states} replace the item's own
+     * fields, so a rewrite can keep what the stored item already had.
+     */
+    static byte[] item(LinkFeedItem item, String linkName, String groupName, String feedUrl,
+        Instant firstSeenAt, byte states) {
+        byte[][] strings = new byte[STRING_COUNT][];
+        strings[ID] = utf8(item.getId());
+        strings[LINK_NAME] = utf8(linkName);
+        strings[GROUP_NAME] = utf8(groupName);
+        strings[FEED_URL] = utf8(feedUrl);
+        strings[GUID] = utf8(item.getGuid());
+        strings[URL] = utf8(item.getUrl());
+        strings[TITLE] = utf8(item.getTitle());
+        strings[SUMMARY] = utf8(item.getSummary());
+        strings[AUTHOR] = utf8(item.getAuthor());
+        strings[CONTENT_HASH] = utf8(item.getContentHash());
+        int bodyLength = ITEM_STRINGS_OFFSET;
+        for (byte[] value : strings) {
+            bodyLength += Integer.BYTES + (value == null ? 0 : value.length);
+        }
+        ByteBuffer body = ByteBuffer.allocate(bodyLength);
+        Instant[] times = {item.getPublishedAt(), item.getUpdatedAt(), firstSeenAt,
+            item.getFetchedAt()};
+        byte presence = 0;
+        for (int i = 0; i < times.length; i++) {
+            if (times[i] != null) {
+                presence |= (byte) (1 << i);
+            }
+        }
+        body.put(ITEM).put(states).put(presence).put((byte) 0);
+        for (Instant time : times) {
+            body.putLong(time == null ? 0 : toEpochNanos(time));
+        }
+        for (byte[] value : strings) {
+            putString(body, value);
+        }
+        return frame(body.array());
+    }
+
+    static byte[] state(String id, byte states) {
+        byte[] idBytes = utf8(id);
+        ByteBuffer body = ByteBuffer.allocate(2 + Integer.BYTES + idBytes.length);
+        body.put(STATE).put(states);
+        putString(body, idBytes);
+        return frame(body.array());
+    }
+
+    static byte[] delete(String id) {
+        byte[] idBytes = utf8(id);
+        ByteBuffer body = ByteBuffer.allocate(1 + Integer.BYTES + idBytes.length);
+        body.put(DELETE);
+        putString(body, idBytes);
+        return frame(body.array());
+    }
+
+    /**
+     * Returns the body length of the frame at {@code offset}, or -1 when the bytes there are not
+     * a complete record: zero fill past the last write, a torn write, or a corrupted body.
+     */
+    static int bodyLength(ByteBuffer segment, int offset) {
+        if (offset + FRAME_HEADER_BYTES > segment.limit()) {
+            return -1;
+        }
+        int length = segment.getInt(offset);
+        if (length <= 0 || offset + FRAME_HEADER_BYTES + length > segment.limit()) {
+            return -1;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(segment.slice(offset + FRAME_HEADER_BYTES, length));
+        return (int) crc.getValue() == segment.getInt(offset + Integer.BYTES) ? length : -1;
+    }
+
+    static byte type(ByteBuffer segment, int offset) {
+        return segment.get(offset + FRAME_HEADER_BYTES);
+    }
+
+    static byte states(ByteBuffer segment, int offset) {
+        return segment.get(offset + FRAME_HEADER_BYTES + 1);
+    }
+
+    /**
+     * Reads the id of a state or delete record.
+     */
+    static String recordId(ByteBuffer segment, int offset) {
+        int body = offset + FRAME_HEADER_BYTES;
+        return readString(segment, type(segment, offset) == STATE ? body + 2 : body + 1);
+    }
+
+    /**
+     * Reads one string of an item record, skipping the ones before it.
+     */
+    static String itemString(ByteBuffer segment, int offset, int field) {
+        int position = offset + FRAME_HEADER_BYTES + ITEM_STRINGS_OFFSET;
+        for (int i = 0; i < field; i++) {
+            position += Integer.BYTES + Math.max(0, segment.getInt(position));
+        }
+        return readString(segment, position);
+    }
+
+    /**
+     * Reads the epoch nanoseconds of the publish time, or {@code null} when the item has none.
+     */
+    static Long publishedAtNanos(ByteBuffer segment, int offset) {
+        return timeNanos(segment, offset, 0);
+    }
+
+    static Long firstSeenAtNanos(ByteBuffer segment, int offset) {
+        return timeNanos(segment, offset, 2);
+    }
+
+    /**
+     * Decodes an item record in the shape {@code SqliteLinkFeedItemStore} returns for the
+     * projection. The state fields are taken from {@code states}, not from the record.
+     */
+    static LinkFeedItem decode(ByteBuffer segment, int offset, LinkFeedItemProjection projection,
+        byte states) {
+        String[] strings = new String[STRING_COUNT];
+        int position = offset + FRAME_HEADER_BYTES + ITEM_STRINGS_OFFSET;
+        for (int i = 0; i < STRING_COUNT; i++) {
+            strings[i] = readString(segment, position);
+            position += Integer.BYTES + Math.max(0, segment.getInt(position));
+        }
+        LinkFeedItem item = new LinkFeedItem();
+        item.setId(strings[ID]);
+        item.setLinkName(strings[LINK_NAME]);
+        item.setUrl(strings[URL]);
+        item.setTitle(strings[TITLE]);
+        item.setSummary(strings[SUMMARY]);
+        item.setAuthor(strings[AUTHOR]);
+        item.setPublishedAt(instant(timeNanos(segment, offset, 0)));
+        item.setUpdatedAt(instant(timeNanos(segment, offset, 1)));
+        item.setFetchedAt(instant(timeNanos(segment, offset, 3)));
+        if (projection == LinkFeedItemProjection.PUBLIC) {
+            return item;
+        }
+        Instant firstSeenAt = instant(timeNanos(segment, offset, 2));
+        item.setGroupName(strings[GROUP_NAME]);
+        item.setFeedUrl(strings[FEED_URL]);
+        item.setGuid(strings[GUID]);
+        item.setFirstSeenAt(firstSeenAt == null ? item.getFetchedAt() : firstSeenAt);
+        item.setContentHash(strings[CONTENT_HASH]);
+        item.setRead((states & READ) != 0);
+        item.setFavorite((states & FAVORITE) != 0);
+        item.setReadLater((states & READ_LATER) != 0);
+        item.setHidden((states & HIDDEN) != 0);
+        return item;
+    }
+
+    static byte states(LinkFeedItem item) {
+        byte states = 0;
+        if (Boolean.TRUE.equals(item.getRead())) {
+            states |= READ;
+        }
+        if (Boolean.TRUE.equals(item.getFavorite())) {
+            states |= FAVORITE;
+        }
+        if (Boolean.TRUE.equals(item.getReadLater())) {
+            states |= READ_LATER;
+        }
+        if (Boolean.TRUE.equals(item.getHidden())) {
+            states |= HIDDEN;
+        }
+        return states;
+    }
+
+    /**
+     * Encodes an instant as epoch nanoseconds, clamping to the signed 64-bit range like the
+     * SQLite backend so both order out-of-range instants the same way.
+     */
+    static long toEpochNanos(Instant instant) {
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND),
+                instant.getNano());
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    static Instant instant(Long nanos) {
+        return nanos == null ? null : Instant.ofEpochSecond(
+            Math.floorDiv(nanos, NANOS_PER_SECOND), Math.floorMod(nanos, NANOS_PER_SECOND));
+    }
+
+    private static Long timeNanos(ByteBuffer segment, int offset, int index) {
+        int body = offset + FRAME_HEADER_BYTES;
+        byte presence = segment.get(body + 2);
+        if ((presence & (1 << index)) == 0) {
+            return null;
+        }
+        return segment.getLong(body + 4 + index * Long.BYTES);
+    }
+
+    private static byte[] frame(byte[] body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        return ByteBuffer.allocate(FRAME_HEADER_BYTES + body.length)
+            .putInt(body.length)
+            .putInt((int) crc.getValue())
+            .put(body)
+            .array();
+    }
+
+    private static void putString(ByteBuffer body, byte[] value) {
+        if (value == null) {
+            body.putInt(-1);
+        } else {
+            body.putInt(value.length).put(value);
+        }
+    }
+
+    private static String readString(ByteBuffer segment, int position) {
+        int length = segment.getInt(position);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        segment.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+}
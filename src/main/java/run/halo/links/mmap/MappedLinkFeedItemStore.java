@@ -0,0 +1,752 @@
+package run.halo.links.mmap;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+import run.halo.links.rss.LinkFeedHiddenStateResult;
+import run.halo.links.rss.LinkFeedItem;
+import run.halo.links.rss.LinkFeedItemProjection;
+import run.halo.links.rss.LinkFeedItemQuery;
+import run.halo.links.rss.LinkFeedItemStore;
+import run.halo.links.rss.LinkFeedItemSummary;
+import run.halo.links.rss.LinkFeedStorageUnavailableException;
+import run.halo.links.rss.LinkFeedUpsertResult;
+
+/**
+ * Feed item store backed by an append-only log of memory-mapped segment files. Every write
+ * appends records and forces the touched segments before returning; on open the log is replayed
+ * into {@link MappedItemIndex}, so listings, filters and counters are answered from primitive
+ * arrays and only the returned items are decoded from the mapped files.
+ *
+ * <p>Behaves like {@code SqliteLinkFeedItemStore}: the same upsert rules, filters, orders,
+ * cursors, counters and retention. A batch is not atomic: a crash part way through keeps the
+ * items appended before it.
+ *
+ * <p>Search is a full scan. There is no term index, so every query decodes and lower-cases the
+ * title, summary and author of each item that passes the filters, under the read lock, and its
+ * cost grows with the number of cached items. Matches rank by which of those fields a term
+ * appeared in, with the same title, author, summary weights as the SQLite trigram index. A cache
+ * that is searched often is better kept in SQLite.
+ *
+ * <p>Once superseded records take more than half of the log, the live items are rewritten into
+ * fresh segments and the old ones are deleted.
+ */
+@Slf4j
+public class MappedLinkFeedItemStore implements LinkFeedItemStore, AutoCloseable {
+
+    static final int DEFAULT_SEGMENT_BYTES = 32 * 1024 * 1024;
+    private static final int MIN_INDEXED_TERM_LENGTH = 3;
+    private static final int TITLE_WEIGHT = 5;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int SUMMARY_WEIGHT = 1;
+
+    /**
+     * Writes touching at least this many items rebuild the sorted orders once instead of
+     * shifting them per item.
+     */
+    private static final int BULK_ORDER_THRESHOLD = 256;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final MappedSegmentLog segmentLog;
+    private final MappedItemIndex index = new MappedItemIndex();
+    private final int segmentBytes;
+    private long liveBytes;
+    private boolean closed;
+
+    public MappedLinkFeedItemStore(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    MappedLinkFeedItemStore(Path directory, int segmentBytes) {
+        this.segmentBytes = segmentBytes;
+        this.segmentLog = new MappedSegmentLog(directory, segmentBytes);
+        try {
+            index.suspendOrders();
+            segmentLog.replay(this::apply);
+            index.resumeOrders();
+        } catch (RuntimeException e) {
+            segmentLog.close();
+            throw e;
+        }
+        for (int i = 0; i < index.recent().size(); i++) {
+            liveBytes += recordBytes(index.recent().get(i));
+        }
+        log.info("[plugin-links] Opened RSS feed log in {}: {} item(s) in {} segment(s)",
+            directory, index.size(), segmentLog.segmentCount());
+    }
+
+    @Override
+    public void upsert(LinkFeedItem item) {
+        validateItem(item);
+        write(() -> writeItem(item));
+    }
+
+    @Override
+    public LinkFeedUpsertResult upsertAll(List<LinkFeedItem> items) {
+        if (items == null || items.isEmpty()) {
+            return LinkFeedUpsertResult.empty();
+        }
+        items.forEach(MappedLinkFeedItemStore::validateItem);
+        return write(() -> bulk(items.size(), () -> {
+            int inserted = 0;
+            int updated = 0;
+            for (LinkFeedItem item : items) {
+                switch (writeItem(item)) {
+                    case INSERTED -> inserted++;
+                    case UPDATED -> updated++;
+                    default -> {
+                    }
+                }
+            }
+            return new LinkFeedUpsertResult(inserted, updated, items.size() - inserted - updated);
+        }));
+    }
+
+    @Override
+    public List<LinkFeedItem> listRecent(LinkFeedItemQuery query) {
+        LinkFeedItemQuery normalized = query == null ? new LinkFeedItemQuery() : query;
+        return read(() -> StringUtils.hasText(normalized.getQ())
+            ? search(normalized) : listRecentFromIndex(normalized));
+    }
+
+    private List<LinkFeedItem> listRecentFromIndex(LinkFeedItemQuery query) {
+        MappedSortedSlots order = index.recent();
+        if (StringUtils.hasText(query.getLinkName())) {
+            order = index.recentOfLink(index.linkOrdinal(query.getLinkName()));
+            if (order == null) {
+                return new ArrayList<>();
+            }
+        }
+        int limit = query.normalizedFetchLimit();
+        boolean paged = query.getBeforePublishedAt() != null;
+        int start = 0;
+        if (paged) {
+            long before = MappedItemRecord.toEpochNanos(query.getBeforePublishedAt());
+            String beforeId = StringUtils.hasText(query.getBeforeId()) ? query.getBeforeId() : null;
+            start = order.firstMatching(slot -> !index.hasPublishedAt(slot)
+                || index.publishedAt(slot) < before
+                || beforeId != null && index.publishedAt(slot) == before
+                && MappedItemIndex.compareIds(index.id(slot), beforeId) < 0);
+        }
+        IntPredicate filter = filter(query);
+        List<LinkFeedItem> result = new ArrayList<>(limit);
+        for (int i = start; i < order.size() && result.size() < limit; i++) {
+            int slot = order.get(i);
+            if (paged && !index.hasPublishedAt(slot)) {
+                break;
+            }
+            if (filter.test(slot)) {
+                result.add(decode(slot, query.getProjection()));
+            }
+        }
+        result.sort(recentComparator());
+        return result;
+    }
+
+    @Override
+    public List<LinkFeedItem> listAfterId(String afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Feed item chunk size must be positive.");
+        }
+        return read(() -> {
+            MappedSortedSlots order = index.byId();
+            int start = !StringUtils.hasText(afterId) ? 0 : order.firstMatching(
+                slot -> MappedItemIndex.compareIds(index.id(slot), afterId) > 0);
+            List<LinkFeedItem> result = new ArrayList<>();
+            for (int i = start; i < order.size() && result.size() < limit; i++) {
+                result.add(decode(order.get(i), LinkFeedItemProjection.FULL));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Scans every filtered item for every term, case-insensitively. Terms of at least three code
+     * points score by the fields they appear in; shorter terms only narrow the matches, and a
+     * query made only of them ranks every match the same, so its pages keep id order.
+     */
+    private List<LinkFeedItem> search(LinkFeedItemQuery query) {
+        List<String> rankedTerms = new ArrayList<>();
+        List<String> terms = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(List.of(query.getQ().trim().split("\\s+")))) {
+            String lowerCase = term.toLowerCase(Locale.ROOT);
+            terms.add(lowerCase);
+            if (term.codePointCount(0, term.length()) >= MIN_INDEXED_TERM_LENGTH) {
+                rankedTerms.add(lowerCase);
+            }
+        }
+        IntPredicate filter = filter(query);
+        Double beforeRank = query.getBeforeRank();
+        String beforeId = StringUtils.hasText(query.getBeforeId()) ? query.getBeforeId() : null;
+        List<RankedSlot> matches = new ArrayList<>();
+        MappedSortedSlots order = index.byId();
+        for (int i = 0; i < order.size(); i++) {
+            int slot = order.get(i);
+            if (!filter.test(slot)) {
+                continue;
+            }
+            ByteBuffer segment = segmentLog.buffer(index.location(slot));
+            int offset = MappedSegmentLog.offset(index.location(slot));
+            String title = lowerCase(MappedItemRecord.itemString(segment, offset,
+                MappedItemRecord.TITLE));
+            String summary = lowerCase(MappedItemRecord.itemString(segment, offset,
+                MappedItemRecord.SUMMARY));
+            String author = lowerCase(MappedItemRecord.itemString(segment, offset,
+                MappedItemRecord.AUTHOR));
+            if (!terms.stream().allMatch(term -> title.contains(term) || summary.contains(term)
+                || author.contains(term))) {
+                continue;
+            }
+            int score = 0;
+            for (String term : rankedTerms) {
+                score += (title.contains(term) ? TITLE_WEIGHT : 0)
+                    + (author.contains(term) ? AUTHOR_WEIGHT : 0)
+                    + (summary.contains(term) ? SUMMARY_WEIGHT : 0);
+            }
+            double rank = -score;
+            if (beforeRank != null && !(rank > beforeRank || beforeId != null
+                && rank == beforeRank
+                && MappedItemIndex.compareIds(index.id(slot), beforeId) < 0)) {
+                continue;
+            }
+            matches.add(new RankedSlot(slot, rank));
+        }
+        matches.sort(Comparator.comparingDouble(RankedSlot::rank)
+            .thenComparing((left, right) -> MappedItemIndex.compareIds(index.id(right.slot()),
+                index.id(left.slot()))));
+        int limit = query.normalizedFetchLimit();
+        List<LinkFeedItem> result = new ArrayList<>(Math.min(limit, matches.size()));
+        for (RankedSlot match : matches.subList(0, Math.min(limit, matches.size()))) {
+            LinkFeedItem item = decode(match.slot(), query.getProjection());
+            item.setSearchRank(match.rank());
+            result.add(item);
+        }
+        return result;
+    }
+
+    private IntPredicate filter(LinkFeedItemQuery query) {
+        boolean linkFiltered = StringUtils.hasText(query.getLinkName());
+        int link = linkFiltered ? index.linkOrdinal(query.getLinkName()) : -1;
+        boolean groupFiltered = StringUtils.hasText(query.getGroupName());
+        int group = groupFiltered ? index.groupOrdinal(query.getGroupName()) : -1;
+        Boolean read = query.getRead();
+        Boolean favorite = query.getFavorite();
+        Boolean readLater = query.getReadLater();
+        boolean hidden = Boolean.TRUE.equals(query.getHidden());
+        return slot -> {
+            if (linkFiltered && (link <= 0 || index.linkOf(slot) != link)) {
+                return false;
+            }
+            if (groupFiltered && (group <= 0 || index.group(slot) != group)) {
+                return false;
+            }
+            byte states = index.states(slot);
+            return matches(states, MappedItemRecord.READ, read)
+                && matches(states, MappedItemRecord.FAVORITE, favorite)
+                && matches(states, MappedItemRecord.READ_LATER, readLater)
+                && matches(states, MappedItemRecord.HIDDEN, hidden);
+        };
+    }
+
+    @Override
+    public boolean updateRead(String id, boolean read) {
+        return updateState(id, MappedItemRecord.READ, read);
+    }
+
+    @Override
+    public long markUnreadAsRead(String linkName) {
+        return write(() -> {
+            long updated = 0;
+            for (int slot : slots(linkName)) {
+                byte states = index.states(slot);
+                if ((states & (MappedItemRecord.READ | MappedItemRecord.HIDDEN)) == 0) {
+                    setStates(slot, (byte) (states | MappedItemRecord.READ));
+                    updated++;
+                }
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public long countUnread() {
+        return read(() -> index.count(MappedItemIndex.Counter.UNREAD));
+    }
+
+    @Override
+    public Map<String, Long> countUnreadByLinkName() {
+        return read(index::unreadByLink);
+    }
+
+    @Override
+    public boolean updateFavorite(String id, boolean favorite) {
+        return updateState(id, MappedItemRecord.FAVORITE, favorite);
+    }
+
+    @Override
+    public boolean updateReadLater(String id, boolean readLater) {
+        return updateState(id, MappedItemRecord.READ_LATER, readLater);
+    }
+
+    @Override
+    public LinkFeedHiddenStateResult updateHidden(List<String> ids, boolean hidden) {
+        LinkedHashSet<String> distinctIds = validateHiddenIds(ids);
+        return write(() -> {
+            long updated = 0;
+            for (String id : distinctIds) {
+                int slot = index.slot(id);
+                if (slot < 0) {
+                    continue;
+                }
+                byte states = withState(index.states(slot), MappedItemRecord.HIDDEN, hidden);
+                if (states != index.states(slot)) {
+                    setStates(slot, states);
+                    updated++;
+                }
+            }
+            return new LinkFeedHiddenStateResult(distinctIds.size(), updated);
+        });
+    }
+
+    @Override
+    public LinkFeedItemSummary countSummary() {
+        return read(() -> new LinkFeedItemSummary(index.count(MappedItemIndex.Counter.HIDDEN),
+            index.count(MappedItemIndex.Counter.FAVORITE),
+            index.count(MappedItemIndex.Counter.READ_LATER)));
+    }
+
+    @Override
+    public long count() {
+        return read(() -> index.count(MappedItemIndex.Counter.TOTAL));
+    }
+
+    @Override
+    public long countByLinkName(String linkName) {
+        return read(() -> index.countByLink(linkName));
+    }
+
+    @Override
+    public long countByLinkNameAndFeedUrl(String linkName, String feedUrl) {
+        return read(() -> index.countByFeed(linkName, feedUrl));
+    }
+
+    @Override
+    public long updateGroupName(String linkName, String groupName) {
+        if (!StringUtils.hasText(linkName)) {
+            return 0;
+        }
+        String normalizedGroupName = normalize(groupName);
+        return write(() -> {
+            int group = index.groupOrdinal(normalizedGroupName);
+            long updated = 0;
+            for (int slot : slots(linkName)) {
+                if (group >= 0 && index.group(slot) == group) {
+                    continue;
+                }
+                LinkFeedItem item = decode(slot, LinkFeedItemProjection.FULL);
+                long location = append(MappedItemRecord.item(item, item.getLinkName(),
+                    normalizedGroupName, item.getFeedUrl(), firstSeenAt(slot),
+                    index.states(slot)), slot);
+                index.setGroup(slot, normalizedGroupName, location);
+                updated++;
+            }
+            return updated;
+        });
+    }
+
+    @Override
+    public long deleteOlderThan(Instant cutoff) {
+        if (cutoff == null) {
+            return 0;
+        }
+        long cutoffNanos = MappedItemRecord.toEpochNanos(cutoff);
+        return write(() -> {
+            List<Integer> expired = new ArrayList<>();
+            for (int slot : index.byId().toArray()) {
+                Long firstSeen = index.firstSeenAt(slot);
+                if (firstSeen != null && firstSeen < cutoffNanos && isUnsaved(slot)) {
+                    expired.add(slot);
+                }
+            }
+            return deleteAll(expired);
+        });
+    }
+
+    @Override
+    public long deleteExcess(long keepCount) {
+        if (keepCount < 0) {
+            return 0;
+        }
+        return write(() -> deleteOldestUnsaved(index.recent(), index.size() - keepCount));
+    }
+
+    @Override
+    public void deleteExcessByLinkName(String linkName, long keepCount) {
+        if (!StringUtils.hasText(linkName) || keepCount < 0) {
+            return;
+        }
+        write(() -> {
+            MappedSortedSlots order = index.recentOfLink(index.linkOrdinal(linkName));
+            return order == null ? 0 : deleteOldestUnsaved(order, order.size() - keepCount);
+        });
+    }
+
+    @Override
+    public void deleteByLinkName(String linkName) {
+        if (!StringUtils.hasText(linkName)) {
+            return;
+        }
+        write(() -> {
+            List<Integer> slots = new ArrayList<>();
+            for (int slot : slots(linkName)) {
+                slots.add(slot);
+            }
+            return deleteAll(slots);
+        });
+    }
+
+    /**
+     * Closes the segment files. Calls made afterwards fail with
+     * {@link LinkFeedStorageUnavailableException}.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (!closed) {
+                closed = true;
+                segmentLog.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long logBytes() {
+        return read(segmentLog::sizeBytes);
+    }
+
+    int segmentCount() {
+        return read(segmentLog::segmentCount);
+    }
+
+    /**
+     * Writes one item under the SQLite upsert rules: a new item is stored as given, an existing
+     * one keeps its state bits and first-seen time and is only rewritten when a fetched field,
+     * its feed or its group differs.
+     */
+    private UpsertOutcome writeItem(LinkFeedItem item) {
+        String linkName = normalize(item.getLinkName());
+        String groupName = normalize(item.getGroupName());
+        String feedUrl = normalize(item.getFeedUrl());
+        int slot = index.slot(item.getId());
+        if (slot < 0) {
+            byte states = MappedItemRecord.states(item);
+            long location = append(MappedItemRecord.item(item, linkName, groupName, feedUrl,
+                item.getFirstSeenAt(), states), -1);
+            index.put(item.getId(), location, nanos(item.getPublishedAt()),
+                nanos(item.getFirstSeenAt()), states, linkName, feedUrl, groupName);
+            return UpsertOutcome.INSERTED;
+        }
+        LinkFeedItem stored = decode(slot, LinkFeedItemProjection.FULL);
+        if (isUnchanged(stored, item, linkName, groupName, feedUrl)) {
+            return UpsertOutcome.UNCHANGED;
+        }
+        Instant firstSeenAt = stored.getFirstSeenAt() != null
+            ? stored.getFirstSeenAt() : item.getFirstSeenAt();
+        byte states = index.states(slot);
+        long location = append(MappedItemRecord.item(item, linkName, groupName, feedUrl,
+            firstSeenAt, states), slot);
+        index.put(item.getId(), location, nanos(item.getPublishedAt()), nanos(firstSeenAt),
+            states, linkName, feedUrl, groupName);
+        return UpsertOutcome.UPDATED;
+    }
+
+    private static boolean isUnchanged(LinkFeedItem stored, LinkFeedItem item, String linkName,
+        String groupName, String feedUrl) {
+        return Objects.equals(stored.getContentHash(), item.getContentHash())
+            && Objects.equals(stored.getTitle(), item.getTitle())
+            && Objects.equals(stored.getSummary(), item.getSummary())
+            && Objects.equals(stored.getAuthor(), item.getAuthor())
+            && Objects.equals(stored.getUrl(), item.getUrl())
+            && Objects.equals(stored.getGuid(), item.getGuid())
+            && Objects.equals(nanos(stored.getPublishedAt()), nanos(item.getPublishedAt()))
+            && Objects.equals(nanos(stored.getUpdatedAt()), nanos(item.getUpdatedAt()))
+            && Objects.equals(stored.getLinkName(), linkName)
+            && Objects.equals(stored.getFeedUrl(), feedUrl)
+            && Objects.equals(stored.getGroupName(), groupName);
+    }
+
+    private boolean updateState(String id, byte state, boolean value) {
+        if (!StringUtils.hasText(id)) {
+            throw new IllegalArgumentException("Feed item id must not be blank.");
+        }
+        return write(() -> {
+            int slot = index.slot(id);
+            if (slot < 0) {
+                return false;
+            }
+            byte states = withState(index.states(slot), state, value);
+            if (states != index.states(slot)) {
+                setStates(slot, states);
+            }
+            return true;
+        });
+    }
+
+    private void setStates(int slot, byte states) {
+        segmentLog.append(MappedItemRecord.state(index.id(slot), states));
+        index.setStates(slot, states);
+    }
+
+    /**
+     * Deletes up to {@code excess} items without a saved state, oldest first: the reverse of the
+     * listing order puts undated items first and then the oldest publish time, like the SQLite
+     * {@code ORDER BY published_at ASC, id ASC}.
+     */
+    private long deleteOldestUnsaved(MappedSortedSlots order, long excess) {
+        if (excess <= 0) {
+            return 0;
+        }
+        List<Integer> oldest = new ArrayList<>();
+        for (int i = order.size() - 1; i >= 0 && oldest.size() < excess; i--) {
+            int slot = order.get(i);
+            if (isUnsaved(slot)) {
+                oldest.add(slot);
+            }
+        }
+        return deleteAll(oldest);
+    }
+
+    private long deleteAll(List<Integer> slots) {
+        return bulk(slots.size(), () -> {
+            slots.forEach(this::delete);
+            return (long) slots.size();
+        });
+    }
+
+    private void delete(int slot) {
+        segmentLog.append(MappedItemRecord.delete(index.id(slot)));
+        liveBytes -= recordBytes(slot);
+        index.remove(slot);
+    }
+
+    /**
+     * Appends an item record for {@code slot}, or for a new item when {@code slot} is -1, and
+     * moves the live byte count from the record it supersedes to the new one.
+     */
+    private long append(byte[] frame, int slot) {
+        long location = segmentLog.append(frame);
+        if (slot >= 0) {
+            liveBytes -= recordBytes(slot);
+        }
+        liveBytes += frame.length;
+        return location;
+    }
+
+    private int[] slots(String linkName) {
+        if (!StringUtils.hasText(linkName)) {
+            return index.recent().toArray();
+        }
+        MappedSortedSlots order = index.recentOfLink(index.linkOrdinal(linkName));
+        return order == null ? new int[0] : order.toArray();
+    }
+
+    private boolean isUnsaved(int slot) {
+        return (index.states(slot) & MappedItemRecord.SAVED) == 0;
+    }
+
+    private LinkFeedItem decode(int slot, LinkFeedItemProjection projection) {
+        long location = index.location(slot);
+        return MappedItemRecord.decode(segmentLog.buffer(location),
+            MappedSegmentLog.offset(location), projection, index.states(slot));
+    }
+
+    private Instant firstSeenAt(int slot) {
+        return MappedItemRecord.instant(index.firstSeenAt(slot));
+    }
+
+    private int recordBytes(int slot) {
+        long location = index.location(slot);
+        return MappedItemRecord.FRAME_HEADER_BYTES
+            + segmentLog.buffer(location).getInt(MappedSegmentLog.offset(location));
+    }
+
+    /**
+     * Replays one record into the index.
+     */
+    private void apply(ByteBuffer segment, int offset, long location) {
+        byte type = MappedItemRecord.type(segment, offset);
+        if (type == MappedItemRecord.ITEM) {
+            index.put(MappedItemRecord.itemString(segment, offset, MappedItemRecord.ID),
+                location, MappedItemRecord.publishedAtNanos(segment, offset),
+                MappedItemRecord.firstSeenAtNanos(segment, offset),
+                MappedItemRecord.states(segment, offset),
+                MappedItemRecord.itemString(segment, offset, MappedItemRecord.LINK_NAME),
+                MappedItemRecord.itemString(segment, offset, MappedItemRecord.FEED_URL),
+                MappedItemRecord.itemString(segment, offset, MappedItemRecord.GROUP_NAME));
+            return;
+        }
+        int slot = index.slot(MappedItemRecord.recordId(segment, offset));
+        if (slot < 0) {
+            return;
+        }
+        if (type == MappedItemRecord.STATE) {
+            index.setStates(slot, MappedItemRecord.states(segment, offset));
+        } else if (type == MappedItemRecord.DELETE) {
+            index.remove(slot);
+        }
+    }
+
+    /**
+     * Rewrites the live items into fresh segments once superseded records take more than half of
+     * a log that has outgrown one segment. The old segments are deleted only after the copies are
+     * forced, so a crash at any point replays to the same items.
+     */
+    private void compactIfNeeded() {
+        long logBytes = segmentLog.sizeBytes();
+        if (logBytes < segmentBytes || logBytes <= liveBytes * 2) {
+            return;
+        }
+        long firstKept = segmentLog.startSegment();
+        long copiedBytes = 0;
+        for (int slot : index.byId().toArray()) {
+            LinkFeedItem item = decode(slot, LinkFeedItemProjection.FULL);
+            byte[] frame = MappedItemRecord.item(item, item.getLinkName(), item.getGroupName(),
+                item.getFeedUrl(), firstSeenAt(slot), index.states(slot));
+            index.setLocation(slot, segmentLog.append(frame));
+            copiedBytes += frame.length;
+        }
+        segmentLog.force();
+        segmentLog.retire(firstKept);
+        log.info("[plugin-links] Compacted RSS feed log from {} to {} bytes", logBytes,
+            copiedBytes);
+        liveBytes = copiedBytes;
+    }
+
+    private <T> T bulk(int itemCount, Supplier<T> work) {
+        if (itemCount < BULK_ORDER_THRESHOLD) {
+            return work.get();
+        }
+        index.suspendOrders();
+        try {
+            return work.get();
+        } finally {
+            index.resumeOrders();
+        }
+    }
+
+    private <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a write under the exclusive lock, then forces the appended records to disk and
+     * compacts the log when it has grown enough.
+     */
+    private <T> T write(Supplier<T> writer) {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            try {
+                return writer.get();
+            } finally {
+                segmentLog.force();
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new LinkFeedStorageUnavailableException("RSS feed log is closed.");
+        }
+    }
+
+    private static boolean matches(byte states, byte state, Boolean expected) {
+        return expected == null || ((states & state) != 0) == expected;
+    }
+
+    private static byte withState(byte states, byte state, boolean value) {
+        return (byte) (value ? states | state : states & ~state);
+    }
+
+    private static Long nanos(Instant instant) {
+        return instant == null ? null : MappedItemRecord.toEpochNanos(instant);
+    }
+
+    private static String normalize(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+
+    private static String lowerCase(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Comparator<LinkFeedItem> recentComparator() {
+        return Comparator.comparing(MappedLinkFeedItemStore::sortInstant,
+                Comparator.nullsLast(Comparator.naturalOrder()))
+            .reversed()
+            .thenComparing(LinkFeedItem::getId,
+                Comparator.nullsLast(Comparator.reverseOrder()));
+    }
+
+    private static Instant sortInstant(LinkFeedItem item) {
+        if (item.getPublishedAt() != null) {
+            return item.getPublishedAt();
+        }
+        if (item.getUpdatedAt() != null) {
+            return item.getUpdatedAt();
+        }
+        return item.getFetchedAt();
+    }
+
+    private static void validateItem(LinkFeedItem item) {
+        if (item == null || !StringUtils.hasText(item.getId())) {
+            throw new IllegalArgumentException("Feed item id must not be blank.");
+        }
+    }
+
+    private static LinkedHashSet<String> validateHiddenIds(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Feed item ids must not be empty.");
+        }
+        LinkedHashSet<String> distinctIds = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (!StringUtils.hasText(id)) {
+                throw new IllegalArgumentException("Feed item ids must not contain blank values.");
+            }
+            distinctIds.add(id);
+        }
+        return distinctIds;
+    }
+
+    private enum UpsertOutcome {
+        INSERTED,
+        UPDATED,
+        UNCHANGED
+    }
+
+    private record RankedSlot(int slot, double rank) {
+    }
+}
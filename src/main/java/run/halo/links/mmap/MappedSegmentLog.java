@@ -0,0 +1,259 @@
+package run.halo.links.mmap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only log of item records spread over memory-mapped segment files. A segment is
+ * allocated at its full size when created and filled from the start; the zero fill after the
+ * last record marks where the next one goes, so no separate index or header file is needed.
+ *
+ * <p>Records are addressed by a location that packs the segment number and the offset in the
+ * segment into one {@code long}. Reads use absolute buffer access only and are safe from any
+ * thread; appends, {@link #force()} and {@link #retire(long)} are serialized by the caller.
+ */
+@Slf4j
+final class MappedSegmentLog implements AutoCloseable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("feed-(\\d{12})\\.seg");
+    private static final int CLEAR_CHUNK_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment active;
+
+    MappedSegmentLog(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        try {
+            Files.createDirectories(directory);
+            for (Path path : segmentFiles(directory)) {
+                segments.add(Segment.open(path, number(path)));
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Failed to open feed log in " + directory, e);
+        }
+        active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Visits every complete record in log order and moves each segment's append position to the
+     * end of its last complete record. A torn or corrupted record ends its segment; whatever
+     * follows it there is zeroed, so a shorter record appended over it cannot be followed by
+     * stale bytes.
+     */
+    void replay(RecordVisitor visitor) {
+        for (Segment segment : segments) {
+            int offset = 0;
+            int length;
+            while ((length = MappedItemRecord.bodyLength(segment.buffer, offset)) > 0) {
+                visitor.visit(segment.buffer, offset, location(segment.number, offset));
+                offset += MappedItemRecord.FRAME_HEADER_BYTES + length;
+            }
+            if (offset + Integer.BYTES <= segment.buffer.limit()
+                && segment.buffer.getInt(offset) != 0) {
+                log.warn("[plugin-links] Ignoring torn record at offset {} of feed log segment {}",
+                    offset, segment.path.getFileName());
+                segment.clearFrom(offset);
+            }
+            segment.position = offset;
+        }
+    }
+
+    /**
+     * Appends one framed record and returns its location. A record that does not fit the active
+     * segment starts a new one, sized to the record if it is larger than a regular segment.
+     */
+    long append(byte[] frame) {
+        if (active == null || active.position + frame.length > active.buffer.limit()) {
+            active = create(Math.max(segmentBytes, frame.length));
+        }
+        int offset = active.position;
+        active.buffer.put(offset, frame);
+        active.position += frame.length;
+        active.dirty = true;
+        return location(active.number, offset);
+    }
+
+    /**
+     * Flushes every segment written since the last call to the storage device.
+     */
+    void force() {
+        for (Segment segment : segments) {
+            if (segment.dirty) {
+                segment.buffer.force();
+                segment.dirty = false;
+            }
+        }
+    }
+
+    /**
+     * Starts a new segment, so every later append lands after all records written so far.
+     * Returns the number of the first segment that holds only later records.
+     */
+    long startSegment() {
+        active = create(segmentBytes);
+        return active.number;
+    }
+
+    /**
+     * Deletes every segment numbered below {@code firstKept}, oldest first. Replaying whatever
+     * remains after a crash part way through still yields the same live items, because each
+     * remaining segment only holds records newer than the deleted ones.
+     */
+    void retire(long firstKept) {
+        while (!segments.isEmpty() && segments.get(0).number < firstKept) {
+            Segment segment = segments.remove(0);
+            segment.close();
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete feed log segment "
+                    + segment.path, e);
+            }
+        }
+    }
+
+    ByteBuffer buffer(long location) {
+        long number = location >>> 32;
+        for (Segment segment : segments) {
+            if (segment.number == number) {
+                return segment.buffer;
+            }
+        }
+        throw new IllegalStateException("Feed log segment " + number + " is not open.");
+    }
+
+    static int offset(long location) {
+        return (int) location;
+    }
+
+    long sizeBytes() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.position;
+        }
+        return size;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public void close() {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+        active = null;
+    }
+
+    private Segment create(int size) {
+        long number = segments.isEmpty() ? 1 : segments.get(segments.size() - 1).number + 1;
+        Path path = directory.resolve("feed-%012d.seg".formatted(number));
+        try {
+            Segment segment = Segment.create(path, number, size);
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create feed log segment " + path, e);
+        }
+    }
+
+    private static long location(long number, int offset) {
+        return number << 32 | offset;
+    }
+
+    private static List<Path> segmentFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString())
+                    .matches())
+                .sorted()
+                .toList();
+        }
+    }
+
+    private static long number(Path path) {
+        Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a feed log segment: " + path);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(ByteBuffer segment, int offset, long location);
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long number;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private boolean dirty;
+
+        private Segment(Path path, long number, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.number = number;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, long number) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            return map(path, number, channel, channel.size());
+        }
+
+        static Segment create(Path path, long number, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return map(path, number, channel, size);
+        }
+
+        private static Segment map(Path path, long number, FileChannel channel, long size)
+            throws IOException {
+            try {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                return new Segment(path, number, channel, buffer);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        void clearFrom(int offset) {
+            byte[] zeros = new byte[Math.min(CLEAR_CHUNK_BYTES, buffer.limit() - offset)];
+            for (int position = offset; position < buffer.limit(); position += zeros.length) {
+                buffer.put(position, zeros, 0, Math.min(zeros.length, buffer.limit() - position));
+            }
+            dirty = true;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("[plugin-links] Failed to close feed log segment {}", path, e);
+            }
+        }
+    }
+}
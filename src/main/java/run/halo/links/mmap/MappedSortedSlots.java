@@ -0,0 +1,93 @@
+package run.halo.links.mmap;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Item slots kept sorted in a primitive array. Inserts and removals binary-search their position
+ * and shift the tail, which for a feed cache of a few hundred thousand items is a short memory
+ * move rather than a re-sort.
+ *
+ * <p>The order must be total over the slots it holds, and a slot has to be removed before the
+ * values the order reads from it change.
+ */
+final class MappedSortedSlots {
+
+    private int[] slots = new int[16];
+    private int size;
+
+    void insert(int slot, SlotOrder order) {
+        int index = firstMatching(other -> order.compare(other, slot) > 0);
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        System.arraycopy(slots, index, slots, index + 1, size - index);
+        slots[index] = slot;
+        size++;
+    }
+
+    void remove(int slot, SlotOrder order) {
+        int index = firstMatching(other -> order.compare(other, slot) >= 0);
+        if (index == size || slots[index] != slot) {
+            throw new IllegalStateException("Feed item slot " + slot + " is not indexed.");
+        }
+        System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+        size--;
+    }
+
+    /**
+     * Returns the first position whose slot matches {@code predicate}, or {@link #size()} when
+     * none does. The predicate must be false for a prefix of the order and true after it.
+     */
+    int firstMatching(IntPredicate predicate) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (predicate.test(slots[mid])) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Replaces the contents with {@code sortedSlots}, which must already be in order.
+     */
+    void reset(int[] sortedSlots) {
+        slots = sortedSlots.length == 0 ? new int[16] : sortedSlots;
+        size = sortedSlots.length;
+    }
+
+    int get(int index) {
+        return slots[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(slots, size);
+    }
+
+    static int[] sort(int[] unsorted, SlotOrder order) {
+        Integer[] boxed = new Integer[unsorted.length];
+        for (int i = 0; i < unsorted.length; i++) {
+            boxed[i] = unsorted[i];
+        }
+        Arrays.sort(boxed, order::compare);
+        int[] sorted = new int[boxed.length];
+        for (int i = 0; i < boxed.length; i++) {
+            sorted[i] = boxed[i];
+        }
+        return sorted;
+    }
+
+    @FunctionalInterface
+    interface SlotOrder {
+        int compare(int left, int right);
+    }
+}
@@ -0,0 +1,221 @@
+package run.halo.links.rss;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+import run.halo.app.plugin.PluginsRootGetter;
+import run.halo.links.mmap.MappedLinkFeedItemStore;
+import run.halo.links.sqlite.SqliteLinkFeedItemStore;
+
+/**
+ * The item store the rest of the plugin injects. It picks the backend from the {@code rss}
+ * settings once the plugin's beans are created and keeps it until the plugin stops, so switching
+ * backends takes effect after a restart and never moves items between them.
+ *
+ * <p>The choice is never made by default. While the settings cannot be read, store calls fail
+ * with {@link LinkFeedStorageUnavailableException} and the next call off a reactive thread tries
+ * again. A configured memory-mapped log that cannot be opened is logged as an error and keeps
+ * the store unavailable until a restart, rather than switching to SQLite.
+ */
+@Slf4j
+@Primary
+@Component
+public class ConfiguredLinkFeedItemStore
+    implements LinkFeedItemStore, SmartInitializingSingleton, DisposableBean {
+
+    private static final Duration SETTINGS_TIMEOUT = Duration.ofSeconds(10);
+
+    private final SqliteLinkFeedItemStore sqliteStore;
+    private final PluginsRootGetter pluginsRootGetter;
+    private final LinkFeedRefreshSettingsFetcher settingsFetcher;
+    private volatile LinkFeedItemStore delegate;
+    private MappedLinkFeedItemStore mappedStore;
+    private RuntimeException openFailure;
+    private boolean destroyed;
+
+    ConfiguredLinkFeedItemStore(SqliteLinkFeedItemStore sqliteStore,
+        PluginsRootGetter pluginsRootGetter, LinkFeedRefreshSettingsFetcher settingsFetcher) {
+        this.sqliteStore = sqliteStore;
+        this.pluginsRootGetter = pluginsRootGetter;
+        this.settingsFetcher = settingsFetcher;
+    }
+
+    @Override
+    public void upsert(LinkFeedItem item) {
+        delegate().upsert(item);
+    }
+
+    @Override
+    public LinkFeedUpsertResult upsertAll(List<LinkFeedItem> items) {
+        return delegate().upsertAll(items);
+    }
+
+    @Override
+    public List<LinkFeedItem> listRecent(LinkFeedItemQuery query) {
+        return delegate().listRecent(query);
+    }
+
+    @Override
+    public List<LinkFeedItem> listAfterId(String afterId, int limit) {
+        return delegate().listAfterId(afterId, limit);
+    }
+
+    @Override
+    public boolean updateRead(String id, boolean read) {
+        return delegate().updateRead(id, read);
+    }
+
+    @Override
+    public long markUnreadAsRead(String linkName) {
+        return delegate().markUnreadAsRead(linkName);
+    }
+
+    @Override
+    public long countUnread() {
+        return delegate().countUnread();
+    }
+
+    @Override
+    public Map<String, Long> countUnreadByLinkName() {
+        return delegate().countUnreadByLinkName();
+    }
+
+    @Override
+    public boolean updateFavorite(String id, boolean favorite) {
+        return delegate().updateFavorite(id, favorite);
+    }
+
+    @Override
+    public boolean updateReadLater(String id, boolean readLater) {
+        return delegate().updateReadLater(id, readLater);
+    }
+
+    @Override
+    public LinkFeedHiddenStateResult updateHidden(List<String> ids, boolean hidden) {
+        return delegate().updateHidden(ids, hidden);
+    }
+
+    @Override
+    public LinkFeedItemSummary countSummary() {
+        return delegate().countSummary();
+    }
+
+    @Override
+    public long count() {
+        return delegate().count();
+    }
+
+    @Override
+    public long countByLinkName(String linkName) {
+        return delegate().countByLinkName(linkName);
+    }
+
+    @Override
+    public long countByLinkNameAndFeedUrl(String linkName, String feedUrl) {
+        return delegate().countByLinkNameAndFeedUrl(linkName, feedUrl);
+    }
+
+    @Override
+    public long updateGroupName(String linkName, String groupName) {
+        return delegate().updateGroupName(linkName, groupName);
+    }
+
+    @Override
+    public long deleteOlderThan(Instant cutoff) {
+        return delegate().deleteOlderThan(cutoff);
+    }
+
+    @Override
+    public long deleteExcess(long keepCount) {
+        return delegate().deleteExcess(keepCount);
+    }
+
+    @Override
+    public void deleteExcessByLinkName(String linkName, long keepCount) {
+        delegate().deleteExcessByLinkName(linkName, keepCount);
+    }
+
+    @Override
+    public void deleteByLinkName(String linkName) {
+        delegate().deleteByLinkName(linkName);
+    }
+
+    /**
+     * Resolves the backend during startup, on the thread creating the plugin's beans, so no
+     * request or refresh has to wait for the settings lookup.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            resolve();
+        } catch (LinkFeedStorageUnavailableException e) {
+            log.warn("[plugin-links] RSS feed storage is not ready yet: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        destroyed = true;
+        if (mappedStore != null) {
+            mappedStore.close();
+            mappedStore = null;
+        }
+    }
+
+    private LinkFeedItemStore delegate() {
+        LinkFeedItemStore current = delegate;
+        return current != null ? current : resolve();
+    }
+
+    private synchronized LinkFeedItemStore resolve() {
+        if (delegate != null) {
+            return delegate;
+        }
+        if (destroyed) {
+            throw new LinkFeedStorageUnavailableException("RSS feed storage is stopped.");
+        }
+        if (openFailure != null) {
+            throw new LinkFeedStorageUnavailableException("RSS feed storage failed to open.",
+                openFailure);
+        }
+        if (configuredBackend() == LinkFeedStorageBackend.MMAP) {
+            Path directory = pluginsRootGetter.get().resolve("links").resolve("feed-log");
+            try {
+                mappedStore = new MappedLinkFeedItemStore(directory);
+            } catch (RuntimeException e) {
+                openFailure = e;
+                log.error("[plugin-links] Failed to open the memory-mapped RSS item log in {}; "
+                    + "RSS feed storage stays unavailable until the plugin restarts", directory, e);
+                throw new LinkFeedStorageUnavailableException("RSS feed storage failed to open.",
+                    e);
+            }
+            delegate = mappedStore;
+            log.info("[plugin-links] Using memory-mapped RSS item log in {}", directory);
+        } else {
+            delegate = sqliteStore;
+        }
+        return delegate;
+    }
+
+    private LinkFeedStorageBackend configuredBackend() {
+        if (Schedulers.isInNonBlockingThread()) {
+            throw new LinkFeedStorageUnavailableException("RSS feed storage is not ready.");
+        }
+        try {
+            LinkFeedStorageBackend backend =
+                settingsFetcher.fetchStorageBackend().block(SETTINGS_TIMEOUT);
+            return backend == null ? LinkFeedStorageBackend.SQLITE : backend;
+        } catch (RuntimeException e) {
+            log.error("[plugin-links] Failed to read the RSS storage backend setting", e);
+            throw new LinkFeedStorageUnavailableException("RSS feed storage is not ready.", e);
+        }
+    }
+}
@@ -2,7 +2,6 @@ package run.halo.links.rss;
 
 import com.rometools.rome.feed.synd.SyndContent;
 import com.rometools.rome.feed.synd.SyndEntry;
-import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.SyndFeedInput;
 import java.io.StringReader;
 import java.net.URI;
@@ -12,7 +11,6 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.LinkedHashMap;
@@ -21,6 +19,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.ToIntFunction;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -30,6 +29,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import run.halo.app.extension.ReactiveExtensionClient;
@@ -39,7 +39,12 @@ import run.halo.links.extension.Link;
 @Slf4j
 public class DefaultLinkFeedService implements LinkFeedService {
 
-    private static final int MAX_ITEMS_PER_FETCH = 20;
+    static final int MAX_ITEMS_PER_FETCH = 20;
+    /**
+     * How many of one link's feeds are fetched and parsed at the same time while the link's
+     * refresh lease is held.
+     */
+    static final int MAX_CONCURRENT_FEEDS_PER_LINK = 4;
     private static final int MAX_STATUS_UPDATE_ATTEMPTS = 3;
     private static final int MAX_SUMMARY_LENGTH = 500;
     private static final String INVALID_FEED_URL_MESSAGE =
@@ -53,16 +58,26 @@ public class DefaultLinkFeedService implements LinkFeedService {
     private final LinkFeedRetentionService retentionService;
     private final LinkFeedFetcher feedFetcher;
     private final LinkFeedOperationCoordinator operationCoordinator;
+    private final ReactiveLinkFeedItemStore reactiveItemStore;
 
     @Autowired
     public DefaultLinkFeedService(ReactiveExtensionClient client, LinkFeedItemStore itemStore,
         LinkFeedRetentionService retentionService, LinkFeedFetcher feedFetcher,
-        LinkFeedOperationCoordinator operationCoordinator) {
+        LinkFeedOperationCoordinator operationCoordinator,
+        ReactiveLinkFeedItemStore reactiveItemStore) {
         this.client = client;
         this.itemStore = itemStore;
         this.retentionService = retentionService;
         this.feedFetcher = feedFetcher;
         this.operationCoordinator = operationCoordinator;
+        this.reactiveItemStore = reactiveItemStore;
+    }
+
+    DefaultLinkFeedService(ReactiveExtensionClient client, LinkFeedItemStore itemStore,
+        LinkFeedRetentionService retentionService, LinkFeedFetcher feedFetcher,
+        LinkFeedOperationCoordinator operationCoordinator) {
+        this(client, itemStore, retentionService, feedFetcher, operationCoordinator,
+            new ReactiveLinkFeedItemStore(itemStore));
     }
 
     DefaultLinkFeedService(ReactiveExtensionClient client, LinkFeedItemStore itemStore,
@@ -90,8 +105,7 @@ public class DefaultLinkFeedService implements LinkFeedService {
                     return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
                         "RSS is not enabled for this link."));
                 }
-                return Mono.fromCallable(() -> refreshBlocking(link))
-                    .subscribeOn(Schedulers.boundedElastic())
+                return refreshFeeds(link)
                     .onErrorResume(error -> updateFailureStatus(linkName, error)
                         .doOnError(statusError -> log.warn("[plugin-links] Failed to update RSS "
                             + "failure status for link {}", linkName, statusError))
@@ -108,11 +122,14 @@ public class DefaultLinkFeedService implements LinkFeedService {
     }
 
     @Override
-    public LinkFeedItemPage listItems(LinkFeedItemQuery query) {
+    public Mono<LinkFeedItemPage> listItems(LinkFeedItemQuery query) {
         LinkFeedItemQuery requested = Optional.ofNullable(query).orElse(new LinkFeedItemQuery());
         int limit = requested.normalizedLimit();
         LinkFeedItemQuery storeQuery = new LinkFeedItemQuery();
         storeQuery.setLinkName(requested.getLinkName());
+        storeQuery.setGroupName(requested.getGroupName());
+        storeQuery.setQ(requested.getQ());
+        storeQuery.setBeforeRank(requested.getBeforeRank());
         storeQuery.setBeforePublishedAt(requested.getBeforePublishedAt());
         storeQuery.setBeforeId(requested.getBeforeId());
         storeQuery.setRead(requested.getRead());
@@ -120,8 +137,11 @@ public class DefaultLinkFeedService implements LinkFeedService {
         storeQuery.setReadLater(requested.getReadLater());
         storeQuery.setHidden(requested.getHidden());
         storeQuery.setLimit(limit + 1);
+        return reactiveItemStore.read(store -> store.listRecent(storeQuery))
+            .map(items -> page(items, limit));
+    }
 
-        List<LinkFeedItem> items = itemStore.listRecent(storeQuery);
+    private static LinkFeedItemPage page(List<LinkFeedItem> items, int limit) {
         boolean hasNext = items.size() > limit;
         List<LinkFeedItem> pageItems = hasNext ? items.subList(0, limit) : items;
         LinkFeedItem last = pageItems.isEmpty() ? null : pageItems.get(pageItems.size() - 1);
@@ -129,8 +149,9 @@ public class DefaultLinkFeedService implements LinkFeedService {
             ? null
             : last.getPublishedAt().toString();
         String nextBeforeId = last == null ? null : last.getId();
+        Double nextBeforeRank = last == null ? null : last.getSearchRank();
         return new LinkFeedItemPage(List.copyOf(pageItems), nextBeforePublishedAt, nextBeforeId,
-            hasNext);
+            hasNext, nextBeforeRank);
     }
 
     private LinkFeedDiscoveryResult discoverBlocking(String websiteUrl) {
@@ -252,35 +273,48 @@ public class DefaultLinkFeedService implements LinkFeedService {
             .toList();
     }
 
-    private LinkFeedRefreshResult refreshBlocking(Link link) throws Exception {
-        String linkName = link.getMetadata().getName();
-        List<String> feedUrls = rssFeedUrls(link);
-        if (feedUrls.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                "RSS feed URLs are required for this link.");
-        }
-        log.info("[plugin-links] Refreshing RSS feeds for link {} with {} configured feed URL(s)",
-            linkName, feedUrls.size());
-        Link.RssStatus previousStatus = Optional.ofNullable(link.getStatus().getRss())
-            .orElse(new Link.RssStatus());
-        Instant fetchedAt = Instant.now();
-        Map<String, Link.RssFeedStatus> previousFeedStatuses = feedStatusByUrl(previousStatus);
-
+    /**
+     * Refreshes every feed of {@code link}, up to {@link #MAX_CONCURRENT_FEEDS_PER_LINK} at a
+     * time, so a link with several slow feeds waits for the slowest one rather than their sum.
+     * Each feed's items are still written in their own transaction, and feed results keep the
+     * configured order.
+     */
+    private Mono<LinkFeedRefreshResult> refreshFeeds(Link link) {
+        return Mono.defer(() -> {
+            String linkName = link.getMetadata().getName();
+            String groupName = link.getSpec() == null ? null : link.getSpec().getGroupName();
+            List<String> feedUrls = rssFeedUrls(link);
+            if (feedUrls.isEmpty()) {
+                return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "RSS feed URLs are required for this link."));
+            }
+            log.info("[plugin-links] Refreshing RSS feeds for link {} with {} configured feed "
+                + "URL(s)", linkName, feedUrls.size());
+            Link.RssStatus previousStatus = Optional.ofNullable(link.getStatus().getRss())
+                .orElse(new Link.RssStatus());
+            Instant fetchedAt = Instant.now();
+            Map<String, Link.RssFeedStatus> previousFeedStatuses =
+                feedStatusByUrl(previousStatus);
+            return Flux.fromIterable(feedUrls)
+                .flatMapSequential(feedUrl -> {
+                    Link.RssFeedStatus previousFeedStatus = previousFeedStatuses.get(feedUrl);
+                    return refreshFeed(linkName, groupName, feedUrl, previousFeedStatus, fetchedAt)
+                        .onErrorResume(error -> Mono.just(failedFeedResult(linkName, feedUrl,
+                            previousFeedStatus, fetchedAt, error)));
+                }, MAX_CONCURRENT_FEEDS_PER_LINK)
+                .collectList()
+                .flatMap(feedResults -> Mono.fromCallable(() -> completeRefresh(linkName,
+                        previousStatus, fetchedAt, feedResults))
+                    .subscribeOn(Schedulers.boundedElastic()));
+        });
+    }
+
+    private LinkFeedRefreshResult completeRefresh(String linkName,
+        Link.RssStatus previousStatus, Instant fetchedAt,
+        List<LinkFeedRefreshResult.FeedResult> feedResults) {
         LinkFeedRefreshResult result = new LinkFeedRefreshResult();
         result.setLinkName(linkName);
         result.setFetchedAt(fetchedAt);
-
-        List<LinkFeedRefreshResult.FeedResult> feedResults = new ArrayList<>();
-        for (String feedUrl : feedUrls) {
-            Link.RssFeedStatus previousFeedStatus = previousFeedStatuses.get(feedUrl);
-            try {
-                feedResults.add(refreshFeedBlocking(linkName, feedUrl, previousFeedStatus,
-                    fetchedAt));
-            } catch (Exception e) {
-                feedResults.add(failedFeedResult(linkName, feedUrl, previousFeedStatus,
-                    fetchedAt, e));
-            }
-        }
         retentionService.enforceForLink(linkName, LinkFeedRetentionPolicy.defaults());
 
         feedResults.forEach(feedResult -> feedResult.setItemCount(
@@ -302,51 +336,97 @@ public class DefaultLinkFeedService implements LinkFeedService {
             .filter(feedResult -> !isSuccessful(feedResult))
             .count();
         log.info("[plugin-links] RSS refresh completed for link {}: feeds={}, failedFeeds={}, "
-                + "fetchedItems={}, cachedItems={}", linkName, feedResults.size(), failedFeedCount,
-            result.getFetchedItemCount(), result.getItemCount());
+                + "fetchedItems={}, insertedItems={}, updatedItems={}, unchangedItems={}, "
+                + "cachedItems={}", linkName, feedResults.size(), failedFeedCount,
+            result.getFetchedItemCount(),
+            sum(feedResults, LinkFeedRefreshResult.FeedResult::getInsertedItemCount),
+            sum(feedResults, LinkFeedRefreshResult.FeedResult::getUpdatedItemCount),
+            sum(feedResults, LinkFeedRefreshResult.FeedResult::getUnchangedItemCount),
+            result.getItemCount());
 
         return result;
     }
 
-    private LinkFeedRefreshResult.FeedResult refreshFeedBlocking(String linkName, String feedUrl,
-        Link.RssFeedStatus previousStatus, Instant fetchedAt) throws Exception {
-        long cachedItemCount = itemStore.countByLinkNameAndFeedUrl(linkName, feedUrl);
-        boolean sendConditionalHeaders =
-            shouldSendConditionalHeaders(cachedItemCount, previousStatus, fetchedAt);
-        var fetchResult = feedFetcher.fetchFeed(feedUrl,
-            sendConditionalHeaders ? conditionalEtag(previousStatus) : null,
-            sendConditionalHeaders ? conditionalLastModified(previousStatus) : null);
+    /**
+     * Refreshes one feed. The fetch waits on the HTTP client's event loop rather than a parked
+     * thread; the feed is parsed on {@code boundedElastic} as its body arrives, and only up to
+     * the last entry a refresh keeps. The cached-count read and the upsert run on the feed
+     * store's reader and writer; they wait for a store permit rather than fail while request
+     * traffic keeps the store busy.
+     */
+    private Mono<LinkFeedRefreshResult.FeedResult> refreshFeed(String linkName, String groupName,
+        String feedUrl, Link.RssFeedStatus previousStatus, Instant fetchedAt) {
+        return reactiveItemStore.refreshRead(
+            store -> store.countByLinkNameAndFeedUrl(linkName, feedUrl))
+            .flatMap(cachedItemCount -> {
+                boolean sendConditionalHeaders =
+                    shouldSendConditionalHeaders(cachedItemCount, previousStatus, fetchedAt);
+                return Mono.defer(() -> feedFetcher.fetchFeedDocumentAsync(feedUrl,
+                        sendConditionalHeaders ? conditionalEtag(previousStatus) : null,
+                        sendConditionalHeaders ? conditionalLastModified(previousStatus) : null,
+                        MAX_ITEMS_PER_FETCH))
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(document -> readFeed(linkName, groupName, feedUrl, document,
+                        previousStatus, cachedItemCount, fetchedAt));
+            })
+            .flatMap(fetched -> {
+                if (fetched.items() == null) {
+                    return Mono.just(fetched.result());
+                }
+                return reactiveItemStore.refreshWrite(store -> store.upsertAll(fetched.items()))
+                    .map(upsertResult -> applyUpsert(fetched, upsertResult, previousStatus));
+            });
+    }
 
+    /**
+     * Turns a fetched feed into the items to write, or into a finished not-modified result with
+     * no items when the response or its entries match the previous refresh.
+     */
+    private static FetchedFeed readFeed(String linkName, String groupName, String feedUrl,
+        LinkFeedDocument document, Link.RssFeedStatus previousStatus, long cachedItemCount,
+        Instant fetchedAt) {
         LinkFeedRefreshResult.FeedResult result = new LinkFeedRefreshResult.FeedResult();
         result.setUrl(feedUrl);
         result.setFetchedAt(fetchedAt);
-        result.setNotModified(fetchResult.statusCode() == 304);
-        result.setEtag(fetchResult.etag());
-        result.setLastModified(fetchResult.lastModified());
+        result.setNotModified(document.statusCode() == 304);
+        result.setEtag(document.etag());
+        result.setLastModified(document.lastModified());
 
         if (result.isNotModified()) {
-            result.setItemCount(cachedItemCount);
-            result.setLatestPublishedAt(previousStatus == null ? null
-                : previousStatus.getLatestPublishedAt());
-            return result;
+            return FetchedFeed.unchanged(notModified(result, cachedItemCount, previousStatus));
         }
-        if (!isSuccess(fetchResult.statusCode())) {
+        if (!isSuccess(document.statusCode())) {
             throw new ResponseStatusException(HttpStatus.BAD_GATEWAY,
-                "Feed responded with HTTP " + fetchResult.statusCode());
+                "Feed responded with HTTP " + document.statusCode());
         }
 
-        SyndFeed feed = new SyndFeedInput().build(new StringReader(fetchResult.body()));
-        List<LinkFeedItem> items = feed.getEntries()
-            .stream()
-            .limit(MAX_ITEMS_PER_FETCH)
-            .map(entry -> toItem(linkName, feedUrl, entry, fetchedAt))
+        result.setBodyFingerprint(
+            sha256(Objects.toString(groupName, "") + "\n" + document.fingerprintSource()));
+        if (matchesPrevious(result.getBodyFingerprint(), previousStatus == null ? null
+            : previousStatus.getBodyFingerprint(), cachedItemCount)) {
+            return FetchedFeed.unchanged(notModified(result, cachedItemCount, previousStatus));
+        }
+        List<SyndEntry> entries = document.entries();
+        result.setEntriesFingerprint(entriesFingerprint(groupName, entries));
+        if (matchesPrevious(result.getEntriesFingerprint(), previousStatus == null ? null
+            : previousStatus.getEntriesFingerprint(), cachedItemCount)) {
+            return FetchedFeed.unchanged(notModified(result, cachedItemCount, previousStatus));
+        }
+        List<LinkFeedItem> items = entries.stream()
+            .map(entry -> toItem(linkName, groupName, feedUrl, entry, fetchedAt))
             .filter(Objects::nonNull)
             .toList();
+        return new FetchedFeed(result, items);
+    }
 
-        itemStore.upsertAll(items);
-        result.setFetchedItemCount(items.size());
-        result.setItemCount(itemStore.countByLinkNameAndFeedUrl(linkName, feedUrl));
-        result.setLatestPublishedAt(items.stream()
+    private static LinkFeedRefreshResult.FeedResult applyUpsert(FetchedFeed fetched,
+        LinkFeedUpsertResult upsertResult, Link.RssFeedStatus previousStatus) {
+        LinkFeedRefreshResult.FeedResult result = fetched.result();
+        result.setFetchedItemCount(fetched.items().size());
+        result.setInsertedItemCount(upsertResult.insertedCount());
+        result.setUpdatedItemCount(upsertResult.updatedCount());
+        result.setUnchangedItemCount(upsertResult.unchangedCount());
+        result.setLatestPublishedAt(fetched.items().stream()
             .map(LinkFeedItem::getPublishedAt)
             .filter(Objects::nonNull)
             .max(Comparator.naturalOrder())
@@ -354,12 +434,59 @@ public class DefaultLinkFeedService implements LinkFeedService {
         return result;
     }
 
+    /**
+     * Treats a fetched feed as not modified: nothing is converted or written and the cached
+     * items keep representing it.
+     */
+    private static LinkFeedRefreshResult.FeedResult notModified(
+        LinkFeedRefreshResult.FeedResult result, long cachedItemCount,
+        Link.RssFeedStatus previousStatus) {
+        result.setNotModified(true);
+        result.setItemCount(cachedItemCount);
+        result.setLatestPublishedAt(previousStatus == null ? null
+            : previousStatus.getLatestPublishedAt());
+        return result;
+    }
+
+    /**
+     * A fingerprint only short-circuits a refresh while the items it produced are still cached,
+     * so clearing the cache always repopulates it on the next refresh.
+     */
+    private static boolean matchesPrevious(String fingerprint, String previousFingerprint,
+        long cachedItemCount) {
+        return cachedItemCount > 0 && fingerprint.equals(previousFingerprint);
+    }
+
+    /**
+     * Hashes, in feed order, every entry field {@link #toItem} reads. Feeds that regenerate a
+     * build date or comment count on each request change their body bytes but not this value,
+     * so their entries are still not converted or written again.
+     */
+    private static String entriesFingerprint(String groupName, List<SyndEntry> entries) {
+        StringBuilder identities = new StringBuilder(Objects.toString(groupName, ""));
+        for (SyndEntry entry : entries) {
+            identities.append('\n')
+                .append(Objects.toString(entry.getUri(), "")).append('\u001f')
+                .append(Objects.toString(entry.getLink(), "")).append('\u001f')
+                .append(Objects.toString(entry.getTitle(), "")).append('\u001f')
+                .append(Objects.toString(entry.getAuthor(), "")).append('\u001f')
+                .append(toInstant(entry.getPublishedDate())).append('\u001f')
+                .append(toInstant(entry.getUpdatedDate())).append('\u001f')
+                .append(Objects.toString(summaryValue(entry), ""));
+        }
+        return sha256(identities.toString());
+    }
+
+    private static int sum(List<LinkFeedRefreshResult.FeedResult> feedResults,
+        ToIntFunction<LinkFeedRefreshResult.FeedResult> count) {
+        return feedResults.stream().mapToInt(count).sum();
+    }
+
     private LinkFeedRefreshResult.FeedResult failedFeedResult(String linkName, String feedUrl,
         Link.RssFeedStatus previousStatus, Instant fetchedAt, Throwable error) {
         LinkFeedRefreshResult.FeedResult result = new LinkFeedRefreshResult.FeedResult();
         result.setUrl(feedUrl);
         result.setFetchedAt(fetchedAt);
-        result.setItemCount(itemStore.countByLinkNameAndFeedUrl(linkName, feedUrl));
         result.setLatestPublishedAt(previousStatus == null ? null
             : previousStatus.getLatestPublishedAt());
         result.setError(errorMessage(error));
@@ -487,8 +614,8 @@ public class DefaultLinkFeedService implements LinkFeedService {
             && responseStatusException.getStatusCode().isSameCodeAs(HttpStatus.CONFLICT);
     }
 
-    private static LinkFeedItem toItem(String linkName, String feedUrl, SyndEntry entry,
-        Instant fetchedAt) {
+    private static LinkFeedItem toItem(String linkName, String groupName, String feedUrl,
+        SyndEntry entry, Instant fetchedAt) {
         String guid = firstText(entry.getUri(), entry.getLink(), entry.getTitle());
         String url = firstText(entry.getLink(), guid);
         if (!StringUtils.hasText(guid) && !StringUtils.hasText(url)) {
@@ -503,6 +630,7 @@ public class DefaultLinkFeedService implements LinkFeedService {
         LinkFeedItem item = new LinkFeedItem();
         item.setId(stableItemId(linkName, feedUrl, identity));
         item.setLinkName(linkName);
+        item.setGroupName(groupName);
         item.setFeedUrl(feedUrl);
         item.setGuid(guid);
         item.setUrl(url);
@@ -583,6 +711,10 @@ public class DefaultLinkFeedService implements LinkFeedService {
             status.setLastModified(previousStatus == null ? null : previousStatus.getLastModified());
             status.setValidatorUpdatedAt(previousStatus == null ? null
                 : previousStatus.getValidatorUpdatedAt());
+            status.setBodyFingerprint(previousStatus == null ? null
+                : previousStatus.getBodyFingerprint());
+            status.setEntriesFingerprint(previousStatus == null ? null
+                : previousStatus.getEntriesFingerprint());
             status.setLastError(result.getError());
             status.setFailureCount(Optional.ofNullable(previousStatus)
                 .map(Link.RssFeedStatus::getFailureCount)
@@ -598,6 +730,12 @@ public class DefaultLinkFeedService implements LinkFeedService {
         status.setLastModified(nextValidator(result.getLastModified(), previousStatus == null ? null
             : previousStatus.getLastModified(), result.isNotModified()));
         status.setValidatorUpdatedAt(nextValidatorUpdatedAt(result, previousStatus));
+        status.setBodyFingerprint(nextValidator(result.getBodyFingerprint(),
+            previousStatus == null ? null : previousStatus.getBodyFingerprint(),
+            result.isNotModified()));
+        status.setEntriesFingerprint(nextValidator(result.getEntriesFingerprint(),
+            previousStatus == null ? null : previousStatus.getEntriesFingerprint(),
+            result.isNotModified()));
         return status;
     }
 
@@ -635,9 +773,13 @@ public class DefaultLinkFeedService implements LinkFeedService {
         return StringUtils.hasText(lastModified) && lastModified.contains("2038");
     }
 
+    /**
+     * Only a 304 confirms the validators that were sent. A refresh skipped by fingerprint still
+     * received a full body, so its own validators, if any, start a new freshness window.
+     */
     private static Instant nextValidatorUpdatedAt(LinkFeedRefreshResult.FeedResult result,
         Link.RssFeedStatus previousStatus) {
-        if (result.isNotModified()) {
+        if (result.isNotModified() && result.getBodyFingerprint() == null) {
             return previousStatus == null ? null : previousStatus.getValidatorUpdatedAt();
         }
         if (hasResponseValidator(result)) {
@@ -800,4 +942,15 @@ public class DefaultLinkFeedService implements LinkFeedService {
         String message = error.getMessage();
         return StringUtils.hasText(message) ? message : error.getClass().getSimpleName();
     }
+
+    /**
+     * A fetched feed and the items it produced; {@code items} is {@code null} when there is
+     * nothing to write.
+     */
+    private record FetchedFeed(LinkFeedRefreshResult.FeedResult result,
+                               List<LinkFeedItem> items) {
+        static FetchedFeed unchanged(LinkFeedRefreshResult.FeedResult result) {
+            return new FetchedFeed(result, null);
+        }
+    }
 }
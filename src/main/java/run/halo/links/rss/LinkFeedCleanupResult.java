@@ -1,5 +1,6 @@
 package run.halo.links.rss;
 
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,5 +9,12 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class LinkFeedCleanupResult {
+    @Schema(description = "Number of cached feed items left after cleanup.")
     private long itemCount;
+
+    @Schema(description = "Number of cached feed items deleted by retention cleanup.")
+    private long deletedCount;
+
+    @Schema(description = "Wall-clock time spent on retention cleanup and compaction.")
+    private long elapsedMillis;
 }
@@ -0,0 +1,23 @@
+package run.halo.links.rss;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * A fetched feed reduced to what a refresh needs: the response validators, the first entries
+ * and the text its body fingerprint is computed from. For a streamed feed that text is a digest
+ * of the parsed document up to the last entry read; for a feed Rome parsed it is a digest of the
+ * whole body.
+ * {@code entries} and {@code fingerprintSource} are {@code null} unless the response was
+ * successful.
+ */
+record LinkFeedDocument(URL url, int statusCode, String etag, String lastModified,
+                        List<SyndEntry> entries, String fingerprintSource) {
+
+    static LinkFeedDocument of(URL url, int statusCode, String etag, String lastModified,
+        StreamingFeedParser.ParsedFeed feed) {
+        return new LinkFeedDocument(url, statusCode, etag, lastModified,
+            feed == null ? null : feed.entries(), feed == null ? null : feed.digest());
+    }
+}
@@ -1,10 +1,37 @@
 package run.halo.links.rss;
 
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.io.SyndFeedInput;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import run.halo.links.security.SafeUrlFetcher;
 
+@Slf4j
 @Component
-public class LinkFeedFetcher {
+public class LinkFeedFetcher implements DisposableBean {
+
+    /**
+     * Feed bodies read at once, enough for a scheduled refresh that runs every feed of two links
+     * concurrently. Further bodies wait for a reader thread.
+     */
+    static final int MAX_CONCURRENT_FEED_READS = 8;
+
+    private final Scheduler feedReaders = Schedulers.newBoundedElastic(MAX_CONCURRENT_FEED_READS,
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "links-feed-stream", 60, true);
 
     public SafeUrlFetcher.FetchResult fetchHtml(String websiteUrl) {
         return SafeUrlFetcher.fetch(websiteUrl, SafeUrlFetcher.FetchOptions.html(websiteUrl));
@@ -14,4 +41,121 @@ public class LinkFeedFetcher {
         return SafeUrlFetcher.fetch(feedUrl,
             SafeUrlFetcher.FetchOptions.feed(feedUrl, etag, lastModified));
     }
+
+    /**
+     * Fetches a feed and reads its first {@code maxEntries} entries while the body streams in,
+     * so the rest of a long feed is neither downloaded nor parsed. A feed the streaming parser
+     * cannot read, in another dialect or not well-formed, is handed to Rome, which knows more
+     * dialects and is more forgiving, without fetching it again.
+     *
+     * <p>The parser reads the body as a blocking stream, so each feed being read holds one of
+     * {@link #MAX_CONCURRENT_FEED_READS} reader threads until it is done.
+     */
+    Mono<LinkFeedDocument> fetchFeedDocumentAsync(String feedUrl, String etag,
+        String lastModified, int maxEntries) {
+        return SafeUrlFetcher.fetchStreamingAsync(feedUrl,
+                SafeUrlFetcher.FetchOptions.feed(feedUrl, etag, lastModified), feedReaders,
+                (body, charset) -> readFeed(feedUrl, body, charset, maxEntries))
+            .map(result -> LinkFeedDocument.of(result.url(), result.statusCode(), result.etag(),
+                result.lastModified(), result.body()));
+    }
+
+    @Override
+    public void destroy() {
+        feedReaders.dispose();
+    }
+
+    /**
+     * Reads the first {@code maxEntries} entries of {@code body} with the streaming parser. The
+     * bytes it consumes are kept until the root element shows a dialect it reads, so when it
+     * gives up on the dialect Rome parses them together with the rest of the body. Past that
+     * point only the prologue and the read-ahead of the XML reader have been copied, and a feed
+     * that then turns out not to be well-formed fails: Rome's XML parser rejects it too.
+     */
+    static StreamingFeedParser.ParsedFeed readFeed(String feedUrl, InputStream body,
+        Charset charset, int maxEntries) throws Exception {
+        RecordingInputStream recorded = new RecordingInputStream(body);
+        try {
+            return StreamingFeedParser.parse(recorded, charset, maxEntries,
+                recorded::stopRecording);
+        } catch (StreamingFeedParser.UnsupportedFeedException e) {
+            if (!recorded.isRecording()) {
+                throw e;
+            }
+            log.debug("[plugin-links] Parsing RSS feed {} with Rome: {}", feedUrl,
+                NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            return parseWithRome(recorded.readAll(), charset, maxEntries);
+        }
+    }
+
+    private static StreamingFeedParser.ParsedFeed parseWithRome(byte[] body, Charset charset,
+        int maxEntries) throws Exception {
+        List<SyndEntry> entries = new SyndFeedInput()
+            .build(new StringReader(new String(body, charset)))
+            .getEntries()
+            .stream()
+            .limit(maxEntries)
+            .toList();
+        return new StreamingFeedParser.ParsedFeed(entries,
+            HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body)));
+    }
+
+    /**
+     * Keeps a copy of every byte read through it until {@link #stopRecording} is called.
+     */
+    static final class RecordingInputStream extends FilterInputStream {
+
+        private ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+
+        RecordingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0 && recorded != null) {
+                recorded.write(value);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0 && recorded != null) {
+                recorded.write(buffer, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (recorded == null) {
+                return super.skip(n);
+            }
+            // Skipped bytes would be missing from the copy, so read them instead.
+            if (n <= 0) {
+                return 0;
+            }
+            return Math.max(0, read(new byte[(int) Math.min(n, 8192)]));
+        }
+
+        void stopRecording() {
+            recorded = null;
+        }
+
+        boolean isRecording() {
+            return recorded != null;
+        }
+
+        /**
+         * Reads the rest of the stream and returns every byte of it, including those already
+         * read. Only valid while recording.
+         */
+        byte[] readAll() throws IOException {
+            in.transferTo(recorded);
+            return recorded.toByteArray();
+        }
+    }
 }
@@ -11,6 +11,7 @@ import lombok.Data;
 public class LinkFeedItem {
     private String id;
     private String linkName;
+    private String groupName;
     private String feedUrl;
     private String guid;
     private String url;
@@ -27,4 +28,7 @@ public class LinkFeedItem {
     private Boolean readLater;
     @Schema(description = "Whether this cached item is hidden from normal and public feed lists.")
     private Boolean hidden;
+    @Schema(description = "Search relevance rank; lower is more relevant. Only set for search "
+        + "results.")
+    private Double searchRank;
 }
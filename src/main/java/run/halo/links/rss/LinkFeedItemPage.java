@@ -13,4 +13,5 @@ public class LinkFeedItemPage {
     private String nextBeforePublishedAt;
     private String nextBeforeId;
     private boolean hasNext;
+    private Double nextBeforeRank;
 }
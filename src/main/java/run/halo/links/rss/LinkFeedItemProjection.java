@@ -0,0 +1,16 @@
+package run.halo.links.rss;
+
+/**
+ * Columns a feed item listing loads from storage.
+ */
+public enum LinkFeedItemProjection {
+    /**
+     * Every stored column, including feed bookkeeping and reader state, for the Console.
+     */
+    FULL,
+    /**
+     * Only the columns public timelines render: id, link, URL, title, summary, author and
+     * timestamps. Reader state, group, feed URL, guid and content hash stay unset.
+     */
+    PUBLIC
+}
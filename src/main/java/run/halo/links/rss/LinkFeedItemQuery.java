@@ -7,9 +7,17 @@ import lombok.Data;
 public class LinkFeedItemQuery {
     public static final int DEFAULT_LIMIT = 30;
     public static final int MAX_LIMIT = 100;
+    public static final int MAX_QUERY_LENGTH = 200;
     static final int MAX_FETCH_LIMIT = MAX_LIMIT + 1;
 
     private String linkName;
+    private String groupName;
+    /**
+     * Full-text search terms. When present, results are ranked by relevance and paged with
+     * {@link #beforeRank} and {@link #beforeId} instead of the published-time cursor.
+     */
+    private String q;
+    private Double beforeRank;
     private Instant beforePublishedAt;
     private String beforeId;
     private Boolean read;
@@ -17,6 +25,7 @@ public class LinkFeedItemQuery {
     private Boolean readLater;
     private Boolean hidden;
     private int limit = DEFAULT_LIMIT;
+    private LinkFeedItemProjection projection = LinkFeedItemProjection.FULL;
 
     public int normalizedLimit() {
         if (limit <= 0) {
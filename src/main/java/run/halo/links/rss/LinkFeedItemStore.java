@@ -8,10 +8,12 @@ public interface LinkFeedItemStore {
 
     void upsert(LinkFeedItem item);
 
-    int upsertAll(List<LinkFeedItem> items);
+    LinkFeedUpsertResult upsertAll(List<LinkFeedItem> items);
 
     List<LinkFeedItem> listRecent(LinkFeedItemQuery query);
 
+    List<LinkFeedItem> listAfterId(String afterId, int limit);
+
     boolean updateRead(String id, boolean read);
 
     long markUnreadAsRead(String linkName);
@@ -34,9 +36,11 @@ public interface LinkFeedItemStore {
 
     long countByLinkNameAndFeedUrl(String linkName, String feedUrl);
 
-    void deleteOlderThan(Instant cutoff);
+    long updateGroupName(String linkName, String groupName);
+
+    long deleteOlderThan(Instant cutoff);
 
-    void deleteExcess(long keepCount);
+    long deleteExcess(long keepCount);
 
     void deleteExcessByLinkName(String linkName, long keepCount);
 
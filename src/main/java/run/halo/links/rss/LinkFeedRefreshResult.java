@@ -21,9 +21,14 @@ public class LinkFeedRefreshResult {
         private Instant latestPublishedAt;
         private long itemCount;
         private int fetchedItemCount;
+        private int insertedItemCount;
+        private int updatedItemCount;
+        private int unchangedItemCount;
         private boolean notModified;
         private String etag;
         private String lastModified;
+        private String bodyFingerprint;
+        private String entriesFingerprint;
         private String error;
     }
 }
@@ -8,11 +8,14 @@ public class LinkFeedRefreshSettings {
 
     static final int DEFAULT_INTERVAL_HOURS = 1;
     static final int DEFAULT_MAX_LINKS_PER_RUN = 50;
+    static final int DEFAULT_WAL_SIZE_LIMIT_MB = 64;
 
     private Boolean enabled;
     private Boolean publicEnabled;
     private Integer intervalHours;
     private Integer maxLinksPerRun;
+    private LinkFeedStorageBackend storageBackend;
+    private Integer walSizeLimitMb;
 
     static LinkFeedRefreshSettings defaults() {
         return new LinkFeedRefreshSettings();
@@ -24,6 +27,8 @@ public class LinkFeedRefreshSettings {
         settings.setPublicEnabled(publicFeedEnabled());
         settings.setIntervalHours(positiveOrDefault(intervalHours, DEFAULT_INTERVAL_HOURS));
         settings.setMaxLinksPerRun(positiveOrDefault(maxLinksPerRun, DEFAULT_MAX_LINKS_PER_RUN));
+        settings.setStorageBackend(storageBackend());
+        settings.setWalSizeLimitMb(positiveOrDefault(walSizeLimitMb, DEFAULT_WAL_SIZE_LIMIT_MB));
         return settings;
     }
 
@@ -43,6 +48,14 @@ public class LinkFeedRefreshSettings {
         return positiveOrDefault(maxLinksPerRun, DEFAULT_MAX_LINKS_PER_RUN);
     }
 
+    LinkFeedStorageBackend storageBackend() {
+        return storageBackend == null ? LinkFeedStorageBackend.SQLITE : storageBackend;
+    }
+
+    long walSizeLimitBytes() {
+        return positiveOrDefault(walSizeLimitMb, DEFAULT_WAL_SIZE_LIMIT_MB) * 1024L * 1024L;
+    }
+
     private static int positiveOrDefault(Integer value, int defaultValue) {
         return value == null || value < 1 ? defaultValue : value;
     }
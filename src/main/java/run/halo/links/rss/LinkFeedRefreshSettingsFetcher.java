@@ -25,4 +25,14 @@ class LinkFeedRefreshSettingsFetcher {
                 return Mono.just(LinkFeedRefreshSettings.defaults().normalized());
             });
     }
+
+    /**
+     * Reads the configured item store backend. Unlike {@link #fetch}, a failure to load the
+     * settings is signalled instead of replaced by the defaults, which would quietly pick SQLite.
+     */
+    Mono<LinkFeedStorageBackend> fetchStorageBackend() {
+        return settingFetcher.fetch(SETTING_GROUP, LinkFeedRefreshSettings.class)
+            .map(LinkFeedRefreshSettings::storageBackend)
+            .defaultIfEmpty(LinkFeedStorageBackend.SQLITE);
+    }
 }
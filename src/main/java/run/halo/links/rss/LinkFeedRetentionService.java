@@ -10,17 +10,23 @@ public class LinkFeedRetentionService {
 
     private final LinkFeedItemStore itemStore;
 
-    public void enforce(LinkFeedRetentionPolicy policy) {
+    /**
+     * Applies the age and total-count limits and returns the number of deleted items. The store
+     * deletes in bounded batches, so a large cleanup does not hold the writer for its whole run.
+     */
+    public long enforce(LinkFeedRetentionPolicy policy) {
         LinkFeedRetentionPolicy effective = policy == null
             ? LinkFeedRetentionPolicy.defaults()
             : policy;
+        long deleted = 0;
         if (effective.retentionAge() != null && !effective.retentionAge().isNegative()
             && !effective.retentionAge().isZero()) {
-            itemStore.deleteOlderThan(Instant.now().minus(effective.retentionAge()));
+            deleted += itemStore.deleteOlderThan(Instant.now().minus(effective.retentionAge()));
         }
         if (effective.maxItemsTotal() >= 0) {
-            itemStore.deleteExcess(effective.maxItemsTotal());
+            deleted += itemStore.deleteExcess(effective.maxItemsTotal());
         }
+        return deleted;
     }
 
     public void enforceForLink(String linkName, LinkFeedRetentionPolicy policy) {
@@ -5,6 +5,7 @@ import static run.halo.app.extension.index.query.Queries.equal;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import run.halo.app.extension.ListOptions;
 import run.halo.app.extension.ReactiveExtensionClient;
 import run.halo.links.extension.Link;
@@ -111,7 +113,10 @@ public class LinkFeedScheduler {
                             .then(Mono.fromRunnable(() -> log.info(
                                 "[plugin-links] Scheduled RSS refresh finished for {} selected "
                                     + "link(s)",
-                                names.size())));
+                                names.size())))
+                            .then(Mono.fromRunnable(() -> storageMaintenance.checkpoint(
+                                    settings.walSizeLimitBytes()))
+                                .subscribeOn(Schedulers.boundedElastic()));
                     });
             });
     }
@@ -134,8 +139,11 @@ public class LinkFeedScheduler {
             return;
         }
         try {
-            retentionService.enforce(LinkFeedRetentionPolicy.defaults());
+            long startedAt = System.nanoTime();
+            long deleted = retentionService.enforce(LinkFeedRetentionPolicy.defaults());
             storageMaintenance.compactIfNeeded();
+            log.info("[plugin-links] Scheduled RSS retention cleanup deleted {} item(s) in {} ms",
+                deleted, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
         } catch (Throwable e) {
             log.warn("[plugin-links] Scheduled RSS retention cleanup failed", e);
         }
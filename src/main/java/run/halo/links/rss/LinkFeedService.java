@@ -8,5 +8,5 @@ public interface LinkFeedService {
 
     Mono<LinkFeedRefreshResult> refresh(String linkName);
 
-    LinkFeedItemPage listItems(LinkFeedItemQuery query);
+    Mono<LinkFeedItemPage> listItems(LinkFeedItemQuery query);
 }
@@ -0,0 +1,18 @@
+package run.halo.links.rss;
+
+/**
+ * Where cached RSS items are kept. Chosen in the {@code rss} setting group and applied when the
+ * plugin starts.
+ */
+public enum LinkFeedStorageBackend {
+
+    /**
+     * The SQLite database shared with the rest of the plugin.
+     */
+    SQLITE,
+
+    /**
+     * An append-only log of memory-mapped segment files with an in-memory index.
+     */
+    MMAP
+}
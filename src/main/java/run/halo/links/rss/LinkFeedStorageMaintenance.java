@@ -5,4 +5,10 @@ public interface LinkFeedStorageMaintenance {
     boolean isAvailable();
 
     void compactIfNeeded();
+
+    /**
+     * Checkpoints the write-ahead log after a burst of writes, such as a scheduled refresh run,
+     * and truncates it when it is larger than {@code walSizeLimitBytes}.
+     */
+    void checkpoint(long walSizeLimitBytes);
 }
@@ -0,0 +1,12 @@
+package run.halo.links.rss;
+
+/**
+ * Outcome of writing one batch of fetched feed items. Unchanged items matched a cached row with
+ * the same content and placement and were not rewritten.
+ */
+public record LinkFeedUpsertResult(int insertedCount, int updatedCount, int unchangedCount) {
+
+    public static LinkFeedUpsertResult empty() {
+        return new LinkFeedUpsertResult(0, 0, 0);
+    }
+}
@@ -0,0 +1,163 @@
+package run.halo.links.rss;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+import run.halo.links.sqlite.LinksSqliteDatabase;
+
+/**
+ * Runs blocking {@link LinkFeedItemStore} calls for reactive callers on threads owned by the
+ * plugin instead of Halo's shared {@code boundedElastic} pool. Writes go to one writer thread, so
+ * they queue here rather than on the database lock; reads go to a pool as large as the SQLite
+ * read connection pool. Both are bounded elastic schedulers, whose threads Reactor allows to
+ * block, so a store call may itself wait on a {@link Mono}, such as the settings lookup that
+ * picks the backend. With a single thread the writer runs calls in the order they were submitted.
+ *
+ * <p>Single-item state toggles run on a small pool of their own, see {@link #toggle}. A toggle
+ * may wait for the writer connection while a large refresh or retention batch holds it, and
+ * waiting toggles must not take the reader threads away from timeline and search reads.
+ *
+ * <p>Each side accepts a bounded number of pending calls. Once that many are queued or running,
+ * further calls fail at once with {@link LinkFeedStorageUnavailableException}, which callers
+ * already treat as temporarily unavailable storage. Background feed refreshes are the exception:
+ * they have their own pending limit and wait for a permit instead of failing, see
+ * {@link #refreshRead}.
+ */
+@Component
+public class ReactiveLinkFeedItemStore implements DisposableBean {
+
+    static final int READ_THREADS = LinksSqliteDatabase.READ_POOL_SIZE;
+    static final int MAX_PENDING_READS = 64;
+    static final int MAX_PENDING_WRITES = 64;
+    static final int TOGGLE_THREADS = 4;
+    static final int MAX_PENDING_REFRESH_CALLS = 16;
+    private static final Duration REFRESH_PERMIT_FIRST_BACKOFF = Duration.ofMillis(20);
+    private static final Duration REFRESH_PERMIT_MAX_BACKOFF = Duration.ofSeconds(1);
+    private static final int IDLE_THREAD_TTL_SECONDS = 60;
+
+    private final LinkFeedItemStore itemStore;
+    private final Scheduler readScheduler;
+    private final Scheduler writeScheduler;
+    private final Scheduler toggleScheduler;
+    private final Semaphore readPermits;
+    private final Semaphore writePermits;
+    private final Semaphore togglePermits;
+    private final Semaphore refreshPermits;
+
+    @Autowired
+    public ReactiveLinkFeedItemStore(LinkFeedItemStore itemStore) {
+        this(itemStore, blockingScheduler("links-feed-reader", READ_THREADS),
+            blockingScheduler("links-feed-writer", 1),
+            blockingScheduler("links-feed-toggle", TOGGLE_THREADS), MAX_PENDING_READS,
+            MAX_PENDING_WRITES, MAX_PENDING_REFRESH_CALLS);
+    }
+
+    ReactiveLinkFeedItemStore(LinkFeedItemStore itemStore, Scheduler readScheduler,
+        Scheduler writeScheduler, Scheduler toggleScheduler, int maxPendingReads,
+        int maxPendingWrites, int maxPendingRefreshCalls) {
+        this.itemStore = itemStore;
+        this.readScheduler = readScheduler;
+        this.writeScheduler = writeScheduler;
+        this.toggleScheduler = toggleScheduler;
+        this.readPermits = new Semaphore(maxPendingReads);
+        this.writePermits = new Semaphore(maxPendingWrites);
+        this.togglePermits = new Semaphore(maxPendingWrites);
+        this.refreshPermits = new Semaphore(maxPendingRefreshCalls);
+    }
+
+    /**
+     * Runs {@code reader} on a reader thread. A {@code null} result completes empty.
+     */
+    public <T> Mono<T> read(Function<LinkFeedItemStore, T> reader) {
+        return execute(reader, readScheduler, readPermits);
+    }
+
+    /**
+     * Runs {@code writer} on the writer thread, after every write submitted before it. A
+     * {@code null} result completes empty.
+     */
+    public <T> Mono<T> write(Function<LinkFeedItemStore, T> writer) {
+        return execute(writer, writeScheduler, writePermits);
+    }
+
+    /**
+     * Runs a single-item state toggle such as {@link LinkFeedItemStore#updateRead} on a toggle
+     * thread rather than the writer thread. The store serializes toggles itself and commits the
+     * ones that arrive together in one transaction, which only works when they reach it
+     * concurrently instead of one at a time from the writer. A {@code null} result completes
+     * empty.
+     */
+    public <T> Mono<T> toggle(Function<LinkFeedItemStore, T> toggle) {
+        return execute(toggle, toggleScheduler, togglePermits);
+    }
+
+    /**
+     * Runs {@code reader} for a background feed refresh on a reader thread. Refresh calls do not
+     * take the permits of request traffic, so a burst of page views cannot make a refresh fail
+     * and be recorded as a feed error. Once {@link #MAX_PENDING_REFRESH_CALLS} refresh calls are
+     * pending, further ones wait for a permit. A {@code null} result completes empty.
+     */
+    public <T> Mono<T> refreshRead(Function<LinkFeedItemStore, T> reader) {
+        return awaitingPermit(reader, readScheduler);
+    }
+
+    /**
+     * Runs {@code writer} for a background feed refresh on the writer thread. Waits for a permit
+     * like {@link #refreshRead}. A {@code null} result completes empty.
+     */
+    public <T> Mono<T> refreshWrite(Function<LinkFeedItemStore, T> writer) {
+        return awaitingPermit(writer, writeScheduler);
+    }
+
+    @Override
+    public void destroy() {
+        readScheduler.dispose();
+        writeScheduler.dispose();
+        toggleScheduler.dispose();
+    }
+
+    private static Scheduler blockingScheduler(String name, int threads) {
+        return Schedulers.newBoundedElastic(threads, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+            name, IDLE_THREAD_TTL_SECONDS, true);
+    }
+
+    private <T> Mono<T> awaitingPermit(Function<LinkFeedItemStore, T> call,
+        Scheduler scheduler) {
+        return execute(call, scheduler, refreshPermits)
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, REFRESH_PERMIT_FIRST_BACKOFF)
+                .maxBackoff(REFRESH_PERMIT_MAX_BACKOFF)
+                .filter(StorageBusyException.class::isInstance));
+    }
+
+    private <T> Mono<T> execute(Function<LinkFeedItemStore, T> call, Scheduler scheduler,
+        Semaphore permits) {
+        return Mono.defer(() -> {
+            if (!permits.tryAcquire()) {
+                return Mono.error(new StorageBusyException());
+            }
+            return Mono.fromCallable(() -> call.apply(itemStore))
+                .subscribeOn(scheduler)
+                .doFinally(signalType -> permits.release())
+                // Keep the permit until the call returns, even if the subscriber cancels.
+                .cache();
+        });
+    }
+
+    /**
+     * Raised when no permit is free, as opposed to a store call failing because the storage
+     * itself is unavailable.
+     */
+    private static final class StorageBusyException extends LinkFeedStorageUnavailableException {
+
+        StorageBusyException() {
+            super("RSS feed storage is busy.");
+        }
+    }
+}
@@ -0,0 +1,521 @@
+package run.halo.links.rss;
+
+import com.rometools.rome.feed.synd.SyndContent;
+import com.rometools.rome.feed.synd.SyndContentImpl;
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndEntryImpl;
+import com.rometools.rome.io.impl.DateParser;
+import com.rometools.rome.io.impl.XmlFixerReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Pull-parses RSS 0.9x and 2.0, RSS 1.0 (RDF) and Atom 1.0 feeds into Rome entries, reading the
+ * body only until {@code maxEntries} entries are complete. Only the entry fields a refresh
+ * stores are kept, so a full-content feed with hundreds of entries is never held in memory as a
+ * document tree or as one string.
+ *
+ * <p>Entries carry the values Rome's converters would give them, so items and the entries
+ * fingerprint do not depend on which parser read the feed. Any other dialect, and any document
+ * that is not well-formed, raises {@link UnsupportedFeedException} so the caller can fall back to
+ * Rome.
+ */
+final class StreamingFeedParser {
+
+    static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+    private static final String RDF_NAMESPACE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+    private static final String CONTENT_NAMESPACE = "http://purl.org/rss/1.0/modules/content/";
+    private static final String DC_NAMESPACE = "http://purl.org/dc/elements/1.1/";
+    private static final XMLInputFactory INPUT_FACTORY = inputFactory();
+
+    private StreamingFeedParser() {
+    }
+
+    static ParsedFeed parse(InputStream body, Charset charset, int maxEntries)
+        throws IOException, UnsupportedFeedException {
+        return parse(body, charset, maxEntries, () -> {
+        });
+    }
+
+    /**
+     * Reads up to {@code maxEntries} entries from {@code body}, running {@code dialectRead} once
+     * the root element shows a dialect this parser reads. From then on the only
+     * {@link UnsupportedFeedException} left is a document that is not well-formed.
+     */
+    static ParsedFeed parse(InputStream body, Charset charset, int maxEntries,
+        Runnable dialectRead) throws IOException, UnsupportedFeedException {
+        return parse(new InputStreamReader(body, charset == null ? StandardCharsets.UTF_8
+            : charset), maxEntries, dialectRead);
+    }
+
+    static ParsedFeed parse(Reader body, int maxEntries)
+        throws IOException, UnsupportedFeedException {
+        return parse(body, maxEntries, () -> {
+        });
+    }
+
+    /**
+     * Reads up to {@code maxEntries} entries from {@code body}. Undeclared HTML entities are
+     * replaced the way Rome does before parsing. The returned digest covers every element,
+     * attribute and text read, in order, and nothing after the last entry.
+     */
+    private static ParsedFeed parse(Reader body, int maxEntries, Runnable dialectRead)
+        throws IOException, UnsupportedFeedException {
+        XMLStreamReader reader = null;
+        try {
+            reader = INPUT_FACTORY.createXMLStreamReader(new XmlFixerReader(body));
+            Cursor cursor = new Cursor(reader);
+            Dialect dialect = dialect(cursor);
+            dialectRead.run();
+            List<SyndEntry> entries = new ArrayList<>();
+            int depth = 1;
+            while (entries.size() < maxEntries && depth > 0) {
+                int event = cursor.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (dialect.isEntry(reader)) {
+                        entries.add(dialect == Dialect.ATOM
+                            ? atomEntry(cursor)
+                            : rssEntry(cursor, dialect));
+                    } else {
+                        depth++;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+            return new ParsedFeed(entries, cursor.digest());
+        } catch (XMLStreamException e) {
+            if (e.getNestedException() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new UnsupportedFeedException("Feed is not well-formed XML: " + e.getMessage(),
+                e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // Closing a reader does not close the underlying stream.
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether {@code error} or one of its causes means the streaming parser cannot read the
+     * feed, rather than that the fetch failed.
+     */
+    static boolean isUnsupported(Throwable error) {
+        Throwable current = error;
+        while (current != null) {
+            if (current instanceof UnsupportedFeedException) {
+                return true;
+            }
+            current = current.getCause();
+        }
+        return false;
+    }
+
+    private static Dialect dialect(Cursor cursor) throws XMLStreamException,
+        UnsupportedFeedException {
+        XMLStreamReader reader = cursor.reader();
+        while (cursor.next() != XMLStreamConstants.START_ELEMENT) {
+            if (!reader.hasNext()) {
+                throw new UnsupportedFeedException("Feed has no root element", null);
+            }
+        }
+        String namespace = Objects.toString(reader.getNamespaceURI(), "");
+        String name = reader.getLocalName();
+        if ("rss".equals(name)) {
+            return Dialect.RSS;
+        }
+        if ("RDF".equals(name) && RDF_NAMESPACE.equals(namespace)) {
+            return Dialect.RDF;
+        }
+        if ("feed".equals(name) && ATOM_NAMESPACE.equals(namespace)) {
+            return Dialect.ATOM;
+        }
+        throw new UnsupportedFeedException("Unsupported feed root element: "
+            + new QName(namespace, name), null);
+    }
+
+    /**
+     * Reads an RSS or RDF {@code item}, mapping it the way Rome's RSS converters do: the URI is
+     * the guid, else the {@code rdf:about} attribute, else the link; a permalink guid stands in
+     * for a missing link; {@code dc:creator} and {@code dc:date} take precedence over
+     * {@code author} and {@code pubDate}.
+     */
+    private static SyndEntry rssEntry(Cursor cursor, Dialect dialect) throws XMLStreamException {
+        XMLStreamReader reader = cursor.reader();
+        String itemNamespace = Objects.toString(reader.getNamespaceURI(), "");
+        String about = dialect == Dialect.RDF
+            ? reader.getAttributeValue(RDF_NAMESPACE, "about")
+            : null;
+        String title = null;
+        String link = null;
+        String guid = null;
+        boolean permaLink = true;
+        String description = null;
+        String content = null;
+        String author = null;
+        String creator = null;
+        Date pubDate = null;
+        Date dcDate = null;
+        while (cursor.nextChild()) {
+            String namespace = Objects.toString(reader.getNamespaceURI(), "");
+            String name = reader.getLocalName();
+            if (itemNamespace.equals(namespace)) {
+                switch (name) {
+                    case "title" -> title = cursor.text();
+                    case "link" -> link = trim(cursor.text());
+                    case "guid" -> {
+                        permaLink = !"false".equalsIgnoreCase(
+                            reader.getAttributeValue(null, "isPermaLink"));
+                        guid = trim(cursor.text());
+                    }
+                    case "description" -> description = cursor.text();
+                    case "author" -> author = cursor.text();
+                    case "pubDate" -> pubDate = DateParser.parseDate(trim(cursor.text()),
+                        Locale.US);
+                    default -> cursor.skip();
+                }
+            } else if (CONTENT_NAMESPACE.equals(namespace) && "encoded".equals(name)) {
+                content = cursor.text();
+            } else if (DC_NAMESPACE.equals(namespace) && "creator".equals(name)) {
+                String value = cursor.text();
+                creator = creator == null ? value : creator;
+            } else if (DC_NAMESPACE.equals(namespace) && "date".equals(name)) {
+                Date value = DateParser.parseDate(trim(cursor.text()), Locale.US);
+                dcDate = dcDate == null ? value : dcDate;
+            } else {
+                cursor.skip();
+            }
+        }
+
+        SyndEntryImpl entry = new SyndEntryImpl();
+        entry.setTitle(title);
+        entry.setLink(link == null && guid != null && permaLink ? guid : link);
+        entry.setUri(guid != null ? guid : about != null ? about : link);
+        entry.setAuthor(creator != null ? creator : author);
+        entry.setPublishedDate(dcDate != null ? dcDate : pubDate);
+        entry.setDescription(content("text/html", description));
+        if (content != null) {
+            entry.setContents(List.of(content("html", content)));
+        }
+        return entry;
+    }
+
+    /**
+     * Reads an Atom {@code entry}, mapping it the way Rome's Atom converter does: the URI is the
+     * id, the link is the first alternate link, the author is the first author's name, the
+     * summary is the description and the content is the only content.
+     */
+    private static SyndEntry atomEntry(Cursor cursor) throws XMLStreamException {
+        XMLStreamReader reader = cursor.reader();
+        String id = null;
+        String title = null;
+        String link = null;
+        String author = null;
+        SyndContent summary = null;
+        SyndContent content = null;
+        Date published = null;
+        Date updated = null;
+        while (cursor.nextChild()) {
+            if (!ATOM_NAMESPACE.equals(reader.getNamespaceURI())) {
+                cursor.skip();
+                continue;
+            }
+            switch (reader.getLocalName()) {
+                case "id" -> id = trim(cursor.text());
+                case "title" -> title = textConstruct(cursor).getValue();
+                case "link" -> {
+                    String rel = reader.getAttributeValue(null, "rel");
+                    String href = reader.getAttributeValue(null, "href");
+                    if (link == null && href != null && (rel == null || "alternate".equals(rel))) {
+                        link = href.trim();
+                    }
+                    cursor.skip();
+                }
+                case "author" -> {
+                    String name = authorName(cursor);
+                    author = author == null ? name : author;
+                }
+                case "summary" -> summary = textConstruct(cursor);
+                case "content" -> content = textConstruct(cursor);
+                case "published" -> published = DateParser.parseW3CDateTime(
+                    trim(cursor.text()), Locale.US);
+                case "updated" -> updated = DateParser.parseW3CDateTime(trim(cursor.text()),
+                    Locale.US);
+                default -> cursor.skip();
+            }
+        }
+
+        SyndEntryImpl entry = new SyndEntryImpl();
+        entry.setUri(id != null ? id : link);
+        entry.setTitle(title);
+        entry.setLink(link);
+        entry.setAuthor(author);
+        entry.setPublishedDate(published);
+        entry.setUpdatedDate(updated);
+        entry.setDescription(summary);
+        if (content != null) {
+            entry.setContents(List.of(content));
+        }
+        return entry;
+    }
+
+    private static String authorName(Cursor cursor) throws XMLStreamException {
+        XMLStreamReader reader = cursor.reader();
+        String name = null;
+        while (cursor.nextChild()) {
+            if (ATOM_NAMESPACE.equals(reader.getNamespaceURI())
+                && "name".equals(reader.getLocalName())) {
+                name = cursor.text();
+            } else {
+                cursor.skip();
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Reads an Atom text construct. Like Rome, {@code xhtml} content keeps its markup, and
+     * other types keep their decoded text.
+     */
+    private static SyndContent textConstruct(Cursor cursor) throws XMLStreamException {
+        String type = Objects.toString(cursor.reader().getAttributeValue(null, "type"), "text");
+        String value = "xhtml".equals(type) ? cursor.markup() : cursor.text();
+        return content(type, value);
+    }
+
+    private static SyndContent content(String type, String value) {
+        if (value == null) {
+            return null;
+        }
+        SyndContentImpl content = new SyndContentImpl();
+        content.setType(type);
+        content.setValue(value);
+        return content;
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static XMLInputFactory inputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        // One text event per text node, however the body was chunked, keeps the digest stable.
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private enum Dialect {
+        RSS,
+        RDF,
+        ATOM;
+
+        boolean isEntry(XMLStreamReader reader) {
+            String namespace = Objects.toString(reader.getNamespaceURI(), "");
+            return switch (this) {
+                case RSS -> "item".equals(reader.getLocalName()) && namespace.isEmpty();
+                case RDF -> "item".equals(reader.getLocalName())
+                    && !RDF_NAMESPACE.equals(namespace);
+                case ATOM -> "entry".equals(reader.getLocalName())
+                    && ATOM_NAMESPACE.equals(namespace);
+            };
+        }
+    }
+
+    /**
+     * Moves through the document one event at a time and adds each event to the digest.
+     */
+    private static final class Cursor {
+
+        private final XMLStreamReader reader;
+        private final MessageDigest digest;
+
+        Cursor(XMLStreamReader reader) {
+            this.reader = reader;
+            this.digest = sha256();
+        }
+
+        XMLStreamReader reader() {
+            return reader;
+        }
+
+        int next() throws XMLStreamException {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> {
+                    update('<', reader.getNamespaceURI(), reader.getLocalName());
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        update('@', reader.getAttributeNamespace(i),
+                            reader.getAttributeLocalName(i));
+                        update('=', reader.getAttributeValue(i));
+                    }
+                }
+                case XMLStreamConstants.END_ELEMENT -> update('>');
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA,
+                     XMLStreamConstants.SPACE -> update('"', reader.getText());
+                default -> {
+                }
+            }
+            return event;
+        }
+
+        /**
+         * Moves to the next child element of the current element and returns {@code true}, or
+         * moves to the end of the current element and returns {@code false}.
+         */
+        boolean nextChild() throws XMLStreamException {
+            while (true) {
+                int event = next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    return true;
+                }
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    return false;
+                }
+            }
+        }
+
+        /**
+         * Returns the text directly inside the current element, without the text of nested
+         * elements, and moves to its end.
+         */
+        String text() throws XMLStreamException {
+            StringBuilder text = new StringBuilder();
+            int depth = 1;
+            while (depth > 0) {
+                int event = next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                } else if (depth == 1 && isText(event)) {
+                    text.append(reader.getText());
+                }
+            }
+            return text.toString();
+        }
+
+        /**
+         * Returns the markup inside the current element and moves to its end.
+         */
+        String markup() throws XMLStreamException {
+            StringBuilder markup = new StringBuilder();
+            int depth = 1;
+            while (true) {
+                int event = next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    markup.append('<').append(qualifiedName(reader.getPrefix(),
+                        reader.getLocalName()));
+                    for (int i = 0; i < reader.getAttributeCount(); i++) {
+                        markup.append(' ').append(qualifiedName(reader.getAttributePrefix(i),
+                                reader.getAttributeLocalName(i)))
+                            .append("=\"").append(escape(reader.getAttributeValue(i)))
+                            .append('"');
+                    }
+                    markup.append('>');
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (--depth == 0) {
+                        return markup.toString();
+                    }
+                    markup.append("</").append(qualifiedName(reader.getPrefix(),
+                        reader.getLocalName())).append('>');
+                } else if (isText(event)) {
+                    markup.append(escape(reader.getText()));
+                }
+            }
+        }
+
+        /**
+         * Moves to the end of the current element.
+         */
+        void skip() throws XMLStreamException {
+            int depth = 1;
+            while (depth > 0) {
+                int event = next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        }
+
+        String digest() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+
+        private void update(char marker, String... values) {
+            digest.update((byte) marker);
+            for (String value : values) {
+                digest.update(Objects.toString(value, "").getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+
+        private static boolean isText(int event) {
+            return event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                || event == XMLStreamConstants.SPACE;
+        }
+
+        private static String qualifiedName(String prefix, String localName) {
+            return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+        }
+
+        private static String escape(String value) {
+            return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;");
+        }
+
+        private static MessageDigest sha256() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+
+    /**
+     * The first entries of a feed and a digest of the document up to the end of the last one.
+     */
+    record ParsedFeed(List<SyndEntry> entries, String digest) {
+    }
+
+    /**
+     * The feed is in a dialect the streaming parser does not read, or is not well-formed.
+     */
+    static final class UnsupportedFeedException extends Exception {
+
+        UnsupportedFeedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package run.halo.links.security;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.util.AttributeKey;
+import java.net.URL;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.netty.Connection;
+import reactor.netty.NettyPipeline;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Counts the body bytes of one fetch over all its redirect hops, both as received and as
+ * decoded. Received bytes are counted on the wire, before the HTTP client decompresses a
+ * {@code gzip} or {@code deflate} body. Decoded bytes are counted after it, which is also what
+ * the response size limit applies to. Both totals are recorded per fetch profile, so the
+ * bandwidth compressed transfer saves is visible.
+ */
+@Slf4j
+final class FetchTransferStats {
+
+    static final String RECEIVED_METRIC = "links.fetch.body.received";
+    static final String DECODED_METRIC = "links.fetch.body.decoded";
+    private static final String RECEIVED_COUNTER_NAME = "links.receivedBodyBytes";
+    private static final AttributeKey<FetchTransferStats> CURRENT =
+        AttributeKey.valueOf("links.fetchTransferStats");
+    private static final ChannelHandler RECEIVED_COUNTER = new ReceivedBytesCounter();
+
+    private final AtomicLong receivedBytes = new AtomicLong();
+    private final AtomicLong decodedBytes = new AtomicLong();
+
+    /**
+     * Enables response decompression on {@code httpClient} and counts the received body bytes
+     * of each request for the stats in the request's subscriber context. A connection serves one
+     * request at a time, so each request points its connection at its own stats.
+     */
+    static HttpClient instrument(HttpClient httpClient) {
+        return httpClient.compress(true)
+            .doOnConnected(FetchTransferStats::addReceivedCounter)
+            .doOnRequest((request, connection) -> connection.channel().attr(CURRENT)
+                .set(request.currentContextView().getOrDefault(FetchTransferStats.class, null)));
+    }
+
+    long receivedBytes() {
+        return receivedBytes.get();
+    }
+
+    long decodedBytes() {
+        return decodedBytes.get();
+    }
+
+    /**
+     * Returns {@code response} with its decoded body counted as it is read.
+     */
+    ClientResponse countDecoded(ClientResponse response) {
+        return response.mutate()
+            .body(body -> body.doOnNext(buffer ->
+                decodedBytes.addAndGet(buffer.readableByteCount())))
+            .build();
+    }
+
+    void record(SafeUrlFetcher.FetchProfile profile, URL url) {
+        String tag = profile.name().toLowerCase(Locale.ROOT);
+        DistributionSummary.builder(RECEIVED_METRIC)
+            .description("Body bytes an outbound fetch received, before decompression")
+            .baseUnit("bytes")
+            .tag("profile", tag)
+            .register(Metrics.globalRegistry)
+            .record(receivedBytes.get());
+        DistributionSummary.builder(DECODED_METRIC)
+            .description("Body bytes an outbound fetch decoded, after decompression")
+            .baseUnit("bytes")
+            .tag("profile", tag)
+            .register(Metrics.globalRegistry)
+            .record(decodedBytes.get());
+        log.debug("[plugin-links] Fetched {}: {} body bytes received, {} decoded", url,
+            receivedBytes.get(), decodedBytes.get());
+    }
+
+    private static void addReceivedCounter(Connection connection) {
+        ChannelPipeline pipeline = connection.channel().pipeline();
+        if (pipeline.get(RECEIVED_COUNTER_NAME) != null) {
+            return;
+        }
+        if (pipeline.get(NettyPipeline.HttpDecompressor) != null) {
+            pipeline.addBefore(NettyPipeline.HttpDecompressor, RECEIVED_COUNTER_NAME,
+                RECEIVED_COUNTER);
+        } else if (pipeline.get(NettyPipeline.HttpCodec) != null) {
+            pipeline.addAfter(NettyPipeline.HttpCodec, RECEIVED_COUNTER_NAME, RECEIVED_COUNTER);
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private static final class ReceivedBytesCounter extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof HttpContent content) {
+                FetchTransferStats stats = ctx.channel().attr(CURRENT).get();
+                if (stats != null) {
+                    stats.receivedBytes.addAndGet(content.content().readableBytes());
+                }
+            }
+            ctx.fireChannelRead(msg);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package run.halo.links.security;
 
 import io.netty.channel.ChannelOption;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -11,6 +13,9 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import lombok.Getter;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -25,11 +30,29 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.server.ServerErrorException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.netty.http.client.HttpClient;
+import reactor.util.context.Context;
 import run.halo.app.infra.utils.HttpSecurityUtils;
 
 /**
  * Fetches remote HTTP(S) resources using Halo's SSRF-safe HTTP client.
+ *
+ * <p>Each {@link FetchProfile} keeps one HTTP client for the life of the plugin instead of
+ * building one per request and redirect hop. Because the client is reused, repeated fetches from
+ * the same host reuse keep-alive connections and TLS sessions from the connection pool of Halo's
+ * SSRF-safe client. The plugin cannot give that client a pool of its own, so it configures no
+ * connection limit or idle eviction; reactor-netty's pool defaults apply.
+ *
+ * <p>Responses may be {@code gzip} or {@code deflate} encoded. The HTTP client decompresses them
+ * as they arrive, before the response size filter, so the size limit applies to the decompressed
+ * body and a small compressed body cannot expand past it.
+ *
+ * <p>Fetches and redirects never block a thread, but a streamed body does: the reader given to
+ * {@link #fetchStreamingAsync} reads a blocking {@link InputStream} fed from the response
+ * buffers, not the buffers themselves, and occupies a thread of its scheduler until it returns.
+ * Callers that stream many bodies at once pass a scheduler with a thread cap.
  */
 public final class SafeUrlFetcher {
 
@@ -39,73 +62,137 @@ public final class SafeUrlFetcher {
     public static final int DEFAULT_TIMEOUT_MS = 10_000;
     public static final int DEFAULT_MAX_BODY_SIZE = 1024 * 1024 * 20;
     private static final int MAX_REDIRECTS = 3;
+    private static final int STREAM_PREFETCH_BUFFERS = 4;
+    private static final Map<ClientKey, ReactorClientHttpConnector> CONNECTORS =
+        new ConcurrentHashMap<>();
     private static volatile ExchangeFunction exchangeFunctionForTesting;
+    private static volatile Supplier<HttpClient> httpClientFactory =
+        HttpSecurityUtils::secureHttpClient;
 
     private SafeUrlFetcher() {
     }
 
     public static FetchResult fetch(String urlString, FetchOptions options) {
-        URL url;
-        try {
-            url = new URL(urlString);
-        } catch (MalformedURLException e) {
-            throw new ServerErrorException("Invalid URL", e);
+        FetchResult result = fetchAsync(urlString, options).block();
+        if (result == null) {
+            throw emptyResponse();
         }
-        try {
-            return fetch(url, options == null ? FetchOptions.html(urlString) : options);
-        } catch (ServerErrorException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ServerErrorException("Failed to fetch URL", e);
+        return result;
+    }
+
+    /**
+     * Fetches {@code urlString} without blocking: redirects are followed and size limits applied
+     * on the HTTP client's event loop. Errors are the same {@link ServerErrorException}s that
+     * {@link #fetch} throws. A requested HTML document is parsed on {@code boundedElastic}, never
+     * on the event loop, and the result is emitted there.
+     */
+    public static Mono<FetchResult> fetchAsync(String urlString, FetchOptions options) {
+        FetchOptions fetchOptions = options == null ? FetchOptions.html(urlString) : options;
+        Mono<FetchResponse<String>> response = fetchResponse(urlString, fetchOptions,
+            (url, clientResponse) -> toFetchResponse(url, fetchOptions, clientResponse));
+        if (fetchOptions.parseDocument) {
+            response = response.publishOn(Schedulers.boundedElastic());
         }
+        return response.map(fetched -> toFetchResult(fetched, fetchOptions));
+    }
+
+    /**
+     * Fetches {@code urlString} like {@link #fetchAsync} but hands a successful body to
+     * {@code bodyReader} as a stream while it is still arriving, instead of buffering it whole.
+     * The reader runs on {@code boundedElastic}; see
+     * {@link #fetchStreamingAsync(String, FetchOptions, Scheduler, BodyReader)}.
+     */
+    public static <T> Mono<StreamedFetchResult<T>> fetchStreamingAsync(String urlString,
+        FetchOptions options, BodyReader<T> bodyReader) {
+        return fetchStreamingAsync(urlString, options, Schedulers.boundedElastic(), bodyReader);
+    }
+
+    /**
+     * Fetches {@code urlString} like {@link #fetchAsync} but hands a successful body to
+     * {@code bodyReader} as a stream while it is still arriving, instead of buffering it whole.
+     * The reader runs on {@code readerScheduler} and reads a blocking {@link InputStream}, so
+     * it holds one of that scheduler's threads for the whole transfer, parked whenever it waits
+     * for the next buffer. A scheduler with a thread cap therefore also caps how many bodies are
+     * read at once. Once the reader returns, the stream is closed and the rest of the body is
+     * neither downloaded nor buffered. Other responses carry a {@code null} body. An exception
+     * the reader throws is the cause of the {@link ServerErrorException}.
+     */
+    public static <T> Mono<StreamedFetchResult<T>> fetchStreamingAsync(String urlString,
+        FetchOptions options, Scheduler readerScheduler, BodyReader<T> bodyReader) {
+        return fetchResponse(urlString, options == null ? FetchOptions.html(urlString) : options,
+                (url, response) -> toStreamedResponse(url, response, readerScheduler,
+                    bodyReader))
+            .map(response -> new StreamedFetchResult<>(response.url(), response.statusCode(),
+                response.body(), response.etag(), response.lastModified()));
+    }
+
+    private static <T> Mono<FetchResponse<T>> fetchResponse(String urlString,
+        FetchOptions options, ResponseReader<T> responseReader) {
+        return Mono.defer(() -> {
+                URL url;
+                try {
+                    url = new URL(urlString);
+                } catch (MalformedURLException e) {
+                    return Mono.error(new ServerErrorException("Invalid URL", e));
+                }
+                FetchTransferStats stats = new FetchTransferStats();
+                return follow(url, options, MAX_REDIRECTS, responseReader, stats)
+                    .contextWrite(Context.of(FetchTransferStats.class, stats))
+                    .doOnTerminate(() -> stats.record(options.profile, url))
+                    .doOnCancel(() -> stats.record(options.profile, url));
+            })
+            .onErrorMap(error -> !(error instanceof ServerErrorException),
+                error -> new ServerErrorException("Failed to fetch URL", error));
     }
 
-    private static FetchResult fetch(URL url, FetchOptions options) {
-        FetchResponse current = execute(url, options);
-        int hopsRemaining = MAX_REDIRECTS;
-        while (isRedirect(current.statusCode())) {
+    private static <T> Mono<FetchResponse<T>> follow(URL url, FetchOptions options,
+        int hopsRemaining, ResponseReader<T> responseReader, FetchTransferStats stats) {
+        return execute(url, options, responseReader, stats).flatMap(current -> {
+            if (!isRedirect(current.statusCode())) {
+                return Mono.just(current);
+            }
             if (hopsRemaining <= 0) {
-                throw new ServerErrorException("Too many redirects",
+                return Mono.error(new ServerErrorException("Too many redirects",
                     new IllegalStateException("Exceeded maximum redirect limit of "
-                        + MAX_REDIRECTS));
+                        + MAX_REDIRECTS)));
             }
-            hopsRemaining--;
-
             String location = current.location();
             if (location == null || location.isBlank()) {
-                throw new ServerErrorException("Redirect missing Location header",
+                return Mono.error(new ServerErrorException("Redirect missing Location header",
                     new IllegalStateException("HTTP " + current.statusCode()
-                        + " without Location"));
+                        + " without Location")));
             }
             URL redirectUrl;
             try {
                 redirectUrl = new URL(current.url(), location);
             } catch (MalformedURLException e) {
-                throw new ServerErrorException("Invalid redirect URL: " + location, e);
+                return Mono.error(new ServerErrorException("Invalid redirect URL: " + location, e));
             }
-            current = execute(redirectUrl, options);
-        }
+            return follow(redirectUrl, options, hopsRemaining - 1, responseReader, stats);
+        });
+    }
 
-        Document document = options.parseDocument && current.body() != null
-            ? Jsoup.parse(current.body(), current.url().toExternalForm())
+    private static FetchResult toFetchResult(FetchResponse<String> response,
+        FetchOptions options) {
+        Document document = options.parseDocument && response.body() != null
+            ? Jsoup.parse(response.body(), response.url().toExternalForm())
             : null;
-        return new FetchResult(current.url(), current.statusCode(), current.body(), document,
-            current.etag(), current.lastModified());
-    }
-
-    private static FetchResponse execute(URL url, FetchOptions options) {
-        validateHttpUrl(url);
-        URI uri = toUri(url);
-        FetchResponse response = webClient(options).get()
-            .uri(uri)
-            .headers(headers -> requestHeaders(url, options).forEach(headers::set))
-            .exchangeToMono(clientResponse -> toFetchResponse(url, options, clientResponse))
-            .block();
-        if (response == null) {
-            throw new ServerErrorException("Failed to fetch URL",
-                new IllegalStateException("Empty response"));
-        }
-        return response;
+        return new FetchResult(response.url(), response.statusCode(), response.body(), document,
+            response.etag(), response.lastModified());
+    }
+
+    private static <T> Mono<FetchResponse<T>> execute(URL url, FetchOptions options,
+        ResponseReader<T> responseReader, FetchTransferStats stats) {
+        return Mono.defer(() -> {
+                validateHttpUrl(url);
+                URI uri = toUri(url);
+                return webClient(options).get()
+                    .uri(uri)
+                    .headers(headers -> requestHeaders(url, options).forEach(headers::set))
+                    .exchangeToMono(clientResponse -> responseReader.read(url,
+                        stats.countDecoded(clientResponse)));
+            })
+            .switchIfEmpty(Mono.error(SafeUrlFetcher::emptyResponse));
     }
 
     private static WebClient webClient(FetchOptions options) {
@@ -115,22 +202,68 @@ public final class SafeUrlFetcher {
         if (exchangeFunction != null) {
             return builder.exchangeFunction(exchangeFunction).build();
         }
-        HttpClient httpClient = HttpSecurityUtils.secureHttpClient()
-            .responseTimeout(Duration.ofMillis(options.timeout))
-            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, options.timeout);
-        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+        // The size filter is per request and sees decompressed bodies. The connector is cached
+        // so its client keeps reusing pooled connections; the pool itself is Halo's.
+        return builder.clientConnector(CONNECTORS.computeIfAbsent(
+                new ClientKey(options.profile, options.timeout), SafeUrlFetcher::connector))
+            .build();
+    }
+
+    private static ReactorClientHttpConnector connector(ClientKey key) {
+        HttpClient httpClient = FetchTransferStats.instrument(httpClientFactory.get())
+            .responseTimeout(Duration.ofMillis(key.timeout()))
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, key.timeout());
+        return new ReactorClientHttpConnector(httpClient);
     }
 
-    private static Mono<FetchResponse> toFetchResponse(URL url, FetchOptions options,
+    private static Mono<FetchResponse<String>> toFetchResponse(URL url, FetchOptions options,
         ClientResponse response) {
         HttpHeaders headers = response.headers().asHttpHeaders();
         return bodyBytes(response, options)
-            .map(body -> new FetchResponse(url, response.statusCode().value(),
+            .map(body -> new FetchResponse<>(url, response.statusCode().value(),
                 decodeBody(body, headers.getFirst(HttpHeaders.CONTENT_TYPE)),
                 headers.getFirst(HttpHeaders.ETAG), headers.getFirst(HttpHeaders.LAST_MODIFIED),
                 headers.getFirst(HttpHeaders.LOCATION)));
     }
 
+    private static <T> Mono<FetchResponse<T>> toStreamedResponse(URL url,
+        ClientResponse response, Scheduler readerScheduler, BodyReader<T> bodyReader) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        Mono<Optional<T>> body = response.statusCode().is2xxSuccessful()
+            ? readStream(response, charset(headers.getFirst(HttpHeaders.CONTENT_TYPE)),
+                readerScheduler, bodyReader)
+            : response.releaseBody().thenReturn(Optional.empty());
+        return body.map(value -> new FetchResponse<>(url, response.statusCode().value(),
+            value.orElse(null), headers.getFirst(HttpHeaders.ETAG),
+            headers.getFirst(HttpHeaders.LAST_MODIFIED), headers.getFirst(HttpHeaders.LOCATION)));
+    }
+
+    /**
+     * Feeds the body to {@code bodyReader} through a stream that requests a few buffers at a
+     * time. Closing the stream cancels the response, so a reader that stops early also stops
+     * the download.
+     */
+    private static <T> Mono<Optional<T>> readStream(ClientResponse response, Charset charset,
+        Scheduler readerScheduler, BodyReader<T> bodyReader) {
+        return Mono.using(
+                () -> DataBufferUtils.subscriberInputStream(
+                    response.body(BodyExtractors.toDataBuffers()), STREAM_PREFETCH_BUFFERS),
+                body -> Mono.fromCallable(() -> Optional.ofNullable(bodyReader.read(body,
+                    charset))),
+                SafeUrlFetcher::closeQuietly)
+            .subscribeOn(readerScheduler)
+            .onErrorMap(SafeUrlFetcher::isResponseTooLarge,
+                error -> responseTooLarge(error.getMessage()));
+    }
+
+    private static void closeQuietly(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {
+            // The response is cancelled either way.
+        }
+    }
+
     private static Mono<byte[]> bodyBytes(ClientResponse response, FetchOptions options) {
         return DataBufferUtils.join(response.body(BodyExtractors.toDataBuffers()))
             .map(SafeUrlFetcher::readAndRelease)
@@ -180,6 +313,13 @@ public final class SafeUrlFetcher {
         if (body == null || body.length == 0) {
             return "";
         }
+        return new String(body, charset(contentType));
+    }
+
+    /**
+     * The charset declared by a {@code Content-Type} header, or UTF-8.
+     */
+    private static Charset charset(String contentType) {
         Charset charset = StandardCharsets.UTF_8;
         if (contentType != null) {
             for (String part : contentType.split(";")) {
@@ -193,7 +333,7 @@ public final class SafeUrlFetcher {
                 }
             }
         }
-        return new String(body, charset);
+        return charset;
     }
 
     private static Map<String, String> requestHeaders(URL url, FetchOptions options) {
@@ -201,6 +341,7 @@ public final class SafeUrlFetcher {
         headers.put(HttpHeaders.HOST, hostHeader(url));
         headers.put(HttpHeaders.USER_AGENT, USER_AGENT);
         headers.put(HttpHeaders.ACCEPT, options.accept);
+        headers.put(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
         if (options.referer != null && !options.referer.isBlank()) {
             headers.put(HttpHeaders.REFERER, options.referer);
         }
@@ -221,6 +362,11 @@ public final class SafeUrlFetcher {
         return url.getHost() + ":" + port;
     }
 
+    private static ServerErrorException emptyResponse() {
+        return new ServerErrorException("Failed to fetch URL",
+            new IllegalStateException("Empty response"));
+    }
+
     private static ServerErrorException responseTooLarge(String message) {
         return new ServerErrorException("Response exceeds maximum size",
             new IllegalStateException(message));
@@ -250,16 +396,63 @@ public final class SafeUrlFetcher {
                               String etag, String lastModified) {
     }
 
-    record FetchResponse(URL url, int statusCode, String body, String etag, String lastModified,
-                         String location) {
+    /**
+     * A fetch whose successful body was read by a {@link BodyReader} while it streamed in.
+     */
+    public record StreamedFetchResult<T>(URL url, int statusCode, T body, String etag,
+                                         String lastModified) {
+    }
+
+    record FetchResponse<T>(URL url, int statusCode, T body, String etag, String lastModified,
+                            String location) {
+    }
+
+    /**
+     * Reads a response body from a stream of the bytes received so far, decoding text with
+     * {@code charset}, the charset of the {@code Content-Type} header or UTF-8. Reads block
+     * until more of the body arrives.
+     */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(InputStream body, Charset charset) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        Mono<FetchResponse<T>> read(URL url, ClientResponse response);
+    }
+
+    private record ClientKey(FetchProfile profile, int timeout) {
     }
 
     static void setExchangeFunctionForTesting(ExchangeFunction exchangeFunction) {
         exchangeFunctionForTesting = exchangeFunction;
     }
 
+    /**
+     * Replaces the SSRF-safe client, for tests that fetch from a loopback server, and drops the
+     * clients built so far. {@code null} restores the SSRF-safe client.
+     */
+    static void setHttpClientFactoryForTesting(Supplier<HttpClient> factory) {
+        httpClientFactory = factory == null ? HttpSecurityUtils::secureHttpClient : factory;
+        CONNECTORS.clear();
+    }
+
+    /**
+     * The kind of fetch a request belongs to. Each profile has its own cached client with its
+     * own timeouts, but every profile's client is derived from Halo's SSRF-safe client and
+     * shares its connection pool. Profiles are therefore not isolated: a slow verification
+     * sweep can hold connections to a host that a feed refresh of that host then waits for.
+     */
+    public enum FetchProfile {
+        FEED,
+        HTML,
+        VERIFICATION
+    }
+
     @Getter
     public static class FetchOptions {
+        private final FetchProfile profile;
         private final String accept;
         private final String referer;
         private final int timeout;
@@ -270,9 +463,10 @@ public final class SafeUrlFetcher {
         private final String lastModified;
         private final boolean allowOversizedBody;
 
-        private FetchOptions(String accept, String referer, int timeout, int maxBodySize,
-            boolean ignoreContentType, boolean parseDocument, String etag, String lastModified,
-            boolean allowOversizedBody) {
+        private FetchOptions(FetchProfile profile, String accept, String referer, int timeout,
+            int maxBodySize, boolean ignoreContentType, boolean parseDocument, String etag,
+            String lastModified, boolean allowOversizedBody) {
+            this.profile = profile;
             this.accept = accept;
             this.referer = referer;
             this.timeout = timeout;
@@ -285,15 +479,16 @@ public final class SafeUrlFetcher {
         }
 
         public static FetchOptions html(String referer) {
-            return new FetchOptions("text/html,application/xhtml+xml,application/xml",
-                referer, DEFAULT_TIMEOUT_MS, DEFAULT_MAX_BODY_SIZE, false, true, null, null,
-                false);
+            return new FetchOptions(FetchProfile.HTML,
+                "text/html,application/xhtml+xml,application/xml", referer, DEFAULT_TIMEOUT_MS,
+                DEFAULT_MAX_BODY_SIZE, false, true, null, null, false);
         }
 
         public static FetchOptions feed(String referer, String etag, String lastModified) {
-            return new FetchOptions("application/rss+xml,application/atom+xml,application/xml,"
-                + "text/xml", referer, DEFAULT_TIMEOUT_MS, DEFAULT_MAX_BODY_SIZE, true, false,
-                etag, lastModified, false);
+            return new FetchOptions(FetchProfile.FEED,
+                "application/rss+xml,application/atom+xml,application/xml,text/xml", referer,
+                DEFAULT_TIMEOUT_MS, DEFAULT_MAX_BODY_SIZE, true, false, etag, lastModified,
+                false);
         }
 
         public static FetchOptions verification(String referer, int maxBodySize) {
@@ -302,8 +497,8 @@ public final class SafeUrlFetcher {
 
         public static FetchOptions verification(String referer, int maxBodySize, int timeout) {
             // Reachability checks only need status and final URL, not an oversized body.
-            return new FetchOptions("*/*", referer, timeout, maxBodySize, true, false, null,
-                null, true);
+            return new FetchOptions(FetchProfile.VERIFICATION, "*/*", referer, timeout,
+                maxBodySize, true, false, null, null, true);
         }
 
         public static FetchOptions verificationHtml(String referer, int maxBodySize) {
@@ -312,8 +507,9 @@ public final class SafeUrlFetcher {
 
         public static FetchOptions verificationHtml(String referer, int maxBodySize,
             int timeout) {
-            return new FetchOptions("text/html,application/xhtml+xml,application/xml",
-                referer, timeout, maxBodySize, true, true, null, null, false);
+            return new FetchOptions(FetchProfile.VERIFICATION,
+                "text/html,application/xhtml+xml,application/xml", referer, timeout,
+                maxBodySize, true, true, null, null, false);
         }
     }
 }
@@ -1,5 +1,6 @@
 package run.halo.links.sqlite;
 
+import io.micrometer.core.instrument.Metrics;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -8,6 +9,7 @@ import java.nio.file.attribute.FileTime;
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -21,6 +23,10 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.DisposableBean;
@@ -28,7 +34,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.sqlite.SQLiteConfig;
-import org.sqlite.SQLiteConnection;
 import org.sqlite.SQLiteErrorCode;
 import org.sqlite.SQLiteException;
 import org.sqlite.JDBC;
@@ -40,12 +45,23 @@ import run.halo.links.rss.LinkFeedStorageUnavailableException;
 @Component
 public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaintenance {
 
-    static final int SCHEMA_VERSION = 1;
+    static final int SCHEMA_VERSION = 7;
+    static final int MIN_SUPPORTED_SCHEMA_VERSION = 1;
     static final String MIGRATION_METADATA_KEY = "nitrite_migration_complete";
     private static final int BUSY_TIMEOUT_MILLIS = 5_000;
     private static final int MAX_BUSY_RETRIES = 2;
+    public static final int READ_POOL_SIZE = 4;
     private static final int MAX_SNAPSHOTS = 2;
-    private static final double VACUUM_FREE_PAGE_RATIO = 0.25d;
+    static final int INCREMENTAL_VACUUM_PAGES = 256;
+    private static final Duration INCREMENTAL_VACUUM_PAUSE = Duration.ofMillis(20);
+    private static final long AUTO_VACUUM_INCREMENTAL = 2;
+
+    /**
+     * Free disk space, as a multiple of the database and its write-ahead log, that the one-time
+     * {@code VACUUM} to incremental auto-vacuum needs: a temporary copy of the database plus the
+     * rewritten pages in the write-ahead log.
+     */
+    static final int VACUUM_SPACE_FACTOR = 2;
     private static final Duration SNAPSHOT_INTERVAL = Duration.ofDays(1);
     private static final DateTimeFormatter FILE_TIMESTAMP =
         DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS").withZone(ZoneOffset.UTC);
@@ -67,6 +83,12 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
     private Connection connection;
     private volatile boolean available;
     private boolean driverLeaseHeld;
+    private final Semaphore readPermits = new Semaphore(READ_POOL_SIZE, true);
+    private final ConcurrentLinkedDeque<Connection> idleReaders = new ConcurrentLinkedDeque<>();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final SqliteCheckpointManager checkpointManager;
+    private volatile boolean incrementalVacuumEnabled;
+    private boolean vacuumSpaceShortLogged;
 
     @Autowired
     public LinksSqliteDatabase(PluginsRootGetter pluginsRootGetter) {
@@ -83,6 +105,8 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
         this.migrationMarkerPath = dbPath.resolveSibling(
             dbPath.getFileName() + ".migration-complete");
         this.clock = clock;
+        this.checkpointManager = new SqliteCheckpointManager(this, dbPath,
+            SqliteCheckpointManager.IDLE_DELAY);
         try {
             acquireDriverLease();
             driverLeaseHeld = true;
@@ -91,7 +115,15 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
             boolean migrated = prepareMigration();
             restoreOrCreateActiveDatabase();
             this.connection = openActiveDatabase(dbPath);
+            checkpointManager.configure(connection);
+            this.incrementalVacuumEnabled =
+                pragmaLong(connection, "auto_vacuum") == AUTO_VACUUM_INCREMENTAL;
+            if (!incrementalVacuumEnabled) {
+                log.info("[plugin-links] RSS SQLite database {} predates incremental vacuum; it "
+                    + "will be converted during scheduled maintenance", dbPath);
+            }
             this.available = true;
+            checkpointManager.registerGauges(Metrics.globalRegistry);
             if (migrated) {
                 createSnapshot();
             }
@@ -116,20 +148,48 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
                     sleepBeforeRetry();
                     continue;
                 }
-                if (isStorageFailure(e) || isBusy(e)) {
-                    available = false;
-                    log.error("[plugin-links] RSS SQLite storage became unavailable at {}",
-                        dbPath, e);
-                    throw new LinkFeedStorageUnavailableException(
-                        "RSS feed storage is unavailable until the plugin restarts.", e);
+                throw failure(e);
+            }
+        }
+    }
+
+    /**
+     * Runs a read-only callback on a pooled reader connection. Readers see the latest committed
+     * WAL snapshot and do not wait for the single writer connection.
+     */
+    public <T> T query(SqlCallback<T> callback) {
+        requireAvailable();
+        acquireReadPermit();
+        Connection reader = null;
+        try {
+            int busyRetries = 0;
+            while (true) {
+                try {
+                    if (reader == null) {
+                        reader = borrowReader();
+                    }
+                    return callback.apply(reader);
+                } catch (SQLException e) {
+                    if (isBusy(e) && busyRetries++ < MAX_BUSY_RETRIES) {
+                        sleepBeforeRetry();
+                        continue;
+                    }
+                    if (isQueryOnlyViolation(e)) {
+                        throw new IllegalStateException(
+                            "Feed database reader attempted to write", e);
+                    }
+                    throw failure(e);
                 }
-                throw new IllegalStateException("Feed database operation failed", e);
             }
+        } finally {
+            returnReader(reader);
+            readPermits.release();
         }
     }
 
     public synchronized <T> T inTransaction(SqlCallback<T> callback) {
         return execute(current -> {
+            checkpointManager.recordWrite();
             boolean autoCommit = current.getAutoCommit();
             current.setAutoCommit(false);
             try {
@@ -158,37 +218,155 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
         return available;
     }
 
+    /**
+     * Returns free pages to the file system in small {@code incremental_vacuum} steps. Each step
+     * is its own short write transaction and the writer is released between steps, so readers
+     * and writers interleave with compaction instead of waiting for a full {@code VACUUM}. Up to
+     * one step of free pages is left in place for upcoming inserts to reuse. A database created
+     * before incremental vacuum was enabled is converted first, see
+     * {@link #enableIncrementalVacuum()}.
+     */
     @Override
-    public synchronized void compactIfNeeded() {
-        if (!available) {
+    public void compactIfNeeded() {
+        if (!available || !incrementalVacuumEnabled && !enableIncrementalVacuum()) {
             return;
         }
         try {
+            long reclaimed = 0;
+            int steps = 0;
+            while (available) {
+                long freed = inTransaction(
+                    current -> incrementalVacuumStep(current, INCREMENTAL_VACUUM_PAGES));
+                if (freed == 0) {
+                    break;
+                }
+                reclaimed += freed;
+                steps++;
+                LockSupport.parkNanos(INCREMENTAL_VACUUM_PAUSE.toNanos());
+            }
+            if (reclaimed > 0) {
+                checkpointManager.checkpoint("PASSIVE");
+                log.debug("[plugin-links] Reclaimed {} free RSS SQLite page(s) in {} step(s)",
+                    reclaimed, steps);
+            }
+        } catch (RuntimeException e) {
+            log.warn("[plugin-links] Failed to compact RSS SQLite database", e);
+        }
+    }
+
+    @Scheduled(fixedDelay = 10 * 60 * 1000L, initialDelay = 10 * 60 * 1000L)
+    public void reclaimFreePages() {
+        compactIfNeeded();
+    }
+
+    /**
+     * Converts a database created before incremental vacuum was enabled. The mode only takes
+     * effect after one full {@code VACUUM}, which rewrites the whole file while holding the writer
+     * and temporarily needs about twice the file's size in free disk space. It therefore runs
+     * from scheduled maintenance rather than while the plugin starts, and is skipped, to be tried
+     * again on the next run, while the disk is short of that space. Running out of space part way
+     * would otherwise take the store offline until the plugin restarts.
+     */
+    private synchronized boolean enableIncrementalVacuum() {
+        if (incrementalVacuumEnabled) {
+            return true;
+        }
+        try {
+            long databaseBytes = Files.size(dbPath) + sizeIfExists(sidecar(dbPath, "-wal"));
+            long usableBytes = Files.getFileStore(dbPath.getParent()).getUsableSpace();
+            if (!hasRoomForVacuum(databaseBytes, usableBytes)) {
+                if (!vacuumSpaceShortLogged) {
+                    vacuumSpaceShortLogged = true;
+                    log.warn("[plugin-links] Not enabling incremental vacuum for RSS SQLite "
+                            + "database {} yet: it needs {} bytes of free disk space, {} are free",
+                        dbPath, databaseBytes * VACUUM_SPACE_FACTOR, usableBytes);
+                }
+                return false;
+            }
+            long startedAt = System.nanoTime();
             execute(current -> {
-                long pageCount = pragmaLong(current, "page_count");
-                long freePages = pragmaLong(current, "freelist_count");
-                if (pageCount > 0 && (double) freePages / pageCount >= VACUUM_FREE_PAGE_RATIO) {
-                    try (Statement statement = current.createStatement()) {
-                        statement.execute("PRAGMA wal_checkpoint(TRUNCATE)");
-                        statement.execute("VACUUM");
-                    }
+                try (Statement statement = current.createStatement()) {
+                    statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+                    statement.execute("VACUUM");
                 }
                 return null;
             });
+            incrementalVacuumEnabled = true;
+            checkpointManager.checkpoint("TRUNCATE");
+            log.info("[plugin-links] Enabled incremental vacuum for RSS SQLite database {} in "
+                    + "{} ms ({} bytes before, {} after)", dbPath,
+                Duration.ofNanos(System.nanoTime() - startedAt).toMillis(), databaseBytes,
+                Files.size(dbPath));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("[plugin-links] Failed to enable incremental vacuum for RSS SQLite "
+                + "database {}", dbPath, e);
+            return incrementalVacuumEnabled;
+        }
+    }
+
+    static boolean hasRoomForVacuum(long databaseBytes, long usableBytes) {
+        return usableBytes >= databaseBytes * VACUUM_SPACE_FACTOR;
+    }
+
+    boolean incrementalVacuumEnabled() {
+        return incrementalVacuumEnabled;
+    }
+
+    @Override
+    public void checkpoint(long walSizeLimitBytes) {
+        if (!available) {
+            return;
+        }
+        try {
+            checkpointManager.afterWriteBurst(walSizeLimitBytes);
         } catch (RuntimeException e) {
-            log.warn("[plugin-links] Failed to compact RSS SQLite database", e);
+            log.warn("[plugin-links] Failed to checkpoint RSS SQLite write-ahead log", e);
+        }
+    }
+
+    /**
+     * Truncates the write-ahead log once the writer has been idle, or at once when the log has
+     * outgrown its size limit between refresh runs.
+     */
+    @Scheduled(fixedDelay = 60 * 1000L, initialDelay = 60 * 1000L)
+    public void checkpointIfDue() {
+        if (!available) {
+            return;
+        }
+        try {
+            checkpointManager.checkpointIfDue();
+        } catch (RuntimeException e) {
+            log.warn("[plugin-links] Failed to truncate RSS SQLite write-ahead log", e);
         }
     }
 
     @Scheduled(fixedDelay = 60 * 60 * 1000L, initialDelay = 60 * 60 * 1000L)
-    public synchronized void snapshotIfDue() {
+    public void snapshotIfDue() {
         if (!available || !snapshotIsDue()) {
             return;
         }
         createSnapshot();
     }
 
-    synchronized void createSnapshot() {
+    /**
+     * Writes a compacted copy of the latest committed state with {@code VACUUM INTO} from a
+     * dedicated connection. In WAL mode that copy only holds a read snapshot, so feed reads and
+     * writes keep running while it is taken, and validation and rotation of the copy run without
+     * touching the writer at all. A snapshot already in progress makes this call a no-op.
+     */
+    void createSnapshot() {
+        if (!snapshotLock.tryLock()) {
+            return;
+        }
+        try {
+            writeSnapshot();
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    private void writeSnapshot() {
         if (!available || isClosed() || !Files.exists(dbPath)) {
             return;
         }
@@ -197,10 +375,10 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
         Path temp = target.resolveSibling(target.getFileName() + ".tmp");
         try {
             Files.deleteIfExists(temp);
-            SQLiteConnection sqliteConnection = connection.unwrap(SQLiteConnection.class);
-            int result = sqliteConnection.getDatabase().backup("main", temp.toString(), null);
-            if (result != SQLiteErrorCode.SQLITE_OK.code) {
-                throw new SQLException("SQLite backup failed with result code " + result);
+            try (Connection source = openSnapshotSource(dbPath);
+                PreparedStatement statement = source.prepareStatement("VACUUM INTO ?")) {
+                statement.setString(1, temp.toString());
+                statement.execute();
             }
             if (!isValidStandaloneDatabase(temp)) {
                 throw new SQLException("New SQLite snapshot failed validation: " + temp);
@@ -221,6 +399,8 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
     @Override
     public synchronized void destroy() {
         available = false;
+        checkpointManager.removeGauges(Metrics.globalRegistry);
+        closeIdleReaders();
         closeQuietly(connection);
         connection = null;
         releaseDriverLease();
@@ -234,15 +414,25 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
         return migrationMarkerPath;
     }
 
+    SqliteCheckpointManager checkpointManager() {
+        return checkpointManager;
+    }
+
+    /**
+     * Switches to write-ahead logging only after the schema exists: entering WAL mode writes the
+     * file header, after which a new file no longer takes the incremental auto-vacuum mode.
+     */
     static Connection openActiveDatabase(Path path) throws SQLException {
         SQLiteConfig config = new SQLiteConfig();
         config.enforceForeignKeys(true);
-        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
         config.setSynchronous(SQLiteConfig.SynchronousMode.FULL);
         config.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
         Connection result = config.createConnection("jdbc:sqlite:" + path);
         try {
             createSchema(result);
+            try (Statement statement = result.createStatement()) {
+                statement.execute("PRAGMA journal_mode = WAL");
+            }
             return result;
         } catch (SQLException e) {
             closeQuietly(result);
@@ -250,6 +440,29 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
         }
     }
 
+    static Connection openReadDatabase(Path path) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
+        Connection result = config.createConnection("jdbc:sqlite:" + path);
+        try (Statement statement = result.createStatement()) {
+            statement.execute("PRAGMA query_only = ON");
+            return result;
+        } catch (SQLException e) {
+            closeQuietly(result);
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a connection that only reads the active database but is not {@code query_only},
+     * because {@code VACUUM INTO} counts as a write even though it leaves the source untouched.
+     */
+    static Connection openSnapshotSource(Path path) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
+        return config.createConnection("jdbc:sqlite:" + path);
+    }
+
     static Connection openMigrationDatabase(Path path) throws SQLException {
         SQLiteConfig config = new SQLiteConfig();
         config.enforceForeignKeys(true);
@@ -276,28 +489,13 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
 
     static void createSchema(Connection connection) throws SQLException {
         try (Statement statement = connection.createStatement()) {
-            statement.execute("""
-                CREATE TABLE IF NOT EXISTS link_feed_items (
-                  id TEXT PRIMARY KEY,
-                  link_name TEXT,
-                  feed_url TEXT,
-                  guid TEXT,
-                  url TEXT,
-                  title TEXT,
-                  summary TEXT,
-                  author TEXT,
-                  published_at TEXT,
-                  updated_at TEXT,
-                  first_seen_at TEXT,
-                  fetched_at TEXT,
-                  content_hash TEXT,
-                  read INTEGER NOT NULL DEFAULT 0 CHECK (read IN (0, 1)),
-                  favorite INTEGER NOT NULL DEFAULT 0 CHECK (favorite IN (0, 1)),
-                  read_later INTEGER NOT NULL DEFAULT 0 CHECK (read_later IN (0, 1)),
-                  hidden INTEGER NOT NULL DEFAULT 0 CHECK (hidden IN (0, 1))
-                )
-                """);
-            ensureHiddenColumn(connection);
+            statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+        }
+        SqliteSchemaMigration.migrate(connection);
+        createItemsTable(connection);
+        SqliteFeedCounters.create(connection);
+        SqliteFeedSearchIndex.create(connection);
+        try (Statement statement = connection.createStatement()) {
             statement.execute("""
                 CREATE TABLE IF NOT EXISTS storage_metadata (
                   key TEXT PRIMARY KEY,
@@ -309,47 +507,53 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
                 ON link_feed_items(published_at DESC, id DESC)
                 """);
             statement.execute("""
-                CREATE INDEX IF NOT EXISTS idx_feed_items_link_recent
-                ON link_feed_items(link_name, published_at DESC, id DESC)
-                """);
-            statement.execute("""
-                CREATE INDEX IF NOT EXISTS idx_feed_items_feed
-                ON link_feed_items(link_name, feed_url)
+                CREATE INDEX IF NOT EXISTS idx_feed_items_feed_recent
+                ON link_feed_items(feed_id, published_at DESC, id DESC)
                 """);
             statement.execute("""
                 CREATE INDEX IF NOT EXISTS idx_feed_items_first_seen
                 ON link_feed_items(first_seen_at)
                 """);
             statement.execute("""
-                CREATE INDEX IF NOT EXISTS idx_feed_items_states
-                ON link_feed_items(read, favorite, read_later, link_name)
-                """);
-            statement.execute("""
-                CREATE INDEX IF NOT EXISTS idx_feed_items_hidden_recent
-                ON link_feed_items(hidden, published_at DESC, id DESC)
+                CREATE INDEX IF NOT EXISTS idx_feed_items_group_recent
+                ON link_feed_items(group_name, published_at DESC, id DESC)
                 """);
+        }
+        SqliteItemFlags.createIndexes(connection);
+        try (Statement statement = connection.createStatement()) {
             statement.execute("PRAGMA user_version = " + SCHEMA_VERSION);
         }
     }
 
-    private static void ensureHiddenColumn(Connection connection) throws SQLException {
-        boolean hiddenColumnExists = false;
-        try (Statement statement = connection.createStatement();
-            ResultSet columns = statement.executeQuery("PRAGMA table_info(link_feed_items)")) {
-            while (columns.next()) {
-                if ("hidden".equalsIgnoreCase(columns.getString("name"))) {
-                    hiddenColumnExists = true;
-                    break;
-                }
-            }
-        }
-        if (!hiddenColumnExists) {
-            try (Statement statement = connection.createStatement()) {
-                statement.execute("""
-                    ALTER TABLE link_feed_items
-                    ADD COLUMN hidden INTEGER NOT NULL DEFAULT 0 CHECK (hidden IN (0, 1))
-                    """);
-            }
+    /**
+     * Creates the current item table layout. Timestamps are INTEGER epoch nanoseconds so
+     * keyset comparisons and row decoding stay numeric. {@code seq} is an explicit rowid alias so
+     * VACUUM cannot renumber the rows the full-text index points at. Ids and the owning feed use
+     * the compact encodings of {@link SqliteItemKeys}, and user states the bits of
+     * {@link SqliteItemFlags}.
+     */
+    static void createItemsTable(Connection connection) throws SQLException {
+        SqliteItemKeys.createFeedsTable(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS link_feed_items (
+                  seq INTEGER PRIMARY KEY,
+                  id BLOB NOT NULL UNIQUE,
+                  feed_id INTEGER REFERENCES link_feeds (feed_id),
+                  group_name TEXT,
+                  guid TEXT,
+                  url TEXT,
+                  title TEXT,
+                  summary TEXT,
+                  author TEXT,
+                  published_at INTEGER,
+                  updated_at INTEGER,
+                  first_seen_at INTEGER,
+                  fetched_at INTEGER,
+                  content_hash TEXT,
+                  flags INTEGER NOT NULL DEFAULT 0 CHECK (flags BETWEEN 0 AND 15)
+                )
+                """);
         }
     }
 
@@ -362,7 +566,7 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
         try (Connection candidate = config.createConnection("jdbc:sqlite:" + path);
             Statement statement = candidate.createStatement()) {
             statement.execute("PRAGMA query_only = ON");
-            return hasCurrentSchemaAndPassesQuickCheck(statement);
+            return hasSupportedSchemaAndPassesQuickCheck(statement);
         } catch (SQLException e) {
             return false;
         }
@@ -374,7 +578,7 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
         }
         try (Connection candidate = openStandaloneReadOnly(path);
             Statement statement = candidate.createStatement()) {
-            return hasCurrentSchemaAndPassesQuickCheck(statement);
+            return hasSupportedSchemaAndPassesQuickCheck(statement);
         } catch (SQLException e) {
             return false;
         }
@@ -604,6 +808,57 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
         }
     }
 
+    private RuntimeException failure(SQLException e) {
+        if (isStorageFailure(e) || isBusy(e)) {
+            available = false;
+            log.error("[plugin-links] RSS SQLite storage became unavailable at {}", dbPath, e);
+            return new LinkFeedStorageUnavailableException(
+                "RSS feed storage is unavailable until the plugin restarts.", e);
+        }
+        return new IllegalStateException("Feed database operation failed", e);
+    }
+
+    private void acquireReadPermit() {
+        try {
+            readPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a feed database reader",
+                e);
+        }
+    }
+
+    private Connection borrowReader() throws SQLException {
+        Connection reader;
+        while ((reader = idleReaders.pollFirst()) != null) {
+            if (!reader.isClosed()) {
+                return reader;
+            }
+        }
+        return openReadDatabase(dbPath);
+    }
+
+    private void returnReader(Connection reader) {
+        if (reader == null) {
+            return;
+        }
+        if (!available) {
+            closeQuietly(reader);
+            return;
+        }
+        idleReaders.offerFirst(reader);
+        if (!available) {
+            closeIdleReaders();
+        }
+    }
+
+    private void closeIdleReaders() {
+        Connection reader;
+        while ((reader = idleReaders.pollFirst()) != null) {
+            closeQuietly(reader);
+        }
+    }
+
     private boolean isClosed() {
         try {
             return connection == null || connection.isClosed();
@@ -612,6 +867,31 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
         }
     }
 
+    /**
+     * Frees up to {@code pages} pages, but only while at least that many are free. Drivers may
+     * free one page per statement execution, so the pragma is repeated until the step is done
+     * or stops making progress.
+     */
+    static long incrementalVacuumStep(Connection connection, int pages) throws SQLException {
+        long free = pragmaLong(connection, "freelist_count");
+        if (free < pages) {
+            return 0;
+        }
+        long freed = 0;
+        try (Statement statement = connection.createStatement()) {
+            while (freed < pages) {
+                statement.execute("PRAGMA incremental_vacuum(" + (pages - freed) + ")");
+                long remaining = pragmaLong(connection, "freelist_count");
+                if (remaining >= free) {
+                    break;
+                }
+                freed += free - remaining;
+                free = remaining;
+            }
+        }
+        return freed;
+    }
+
     private static long pragmaLong(Connection connection, String pragma) throws SQLException {
         try (Statement statement = connection.createStatement();
             ResultSet result = statement.executeQuery("PRAGMA " + pragma)) {
@@ -619,10 +899,11 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
         }
     }
 
-    private static boolean hasCurrentSchemaAndPassesQuickCheck(Statement statement)
+    private static boolean hasSupportedSchemaAndPassesQuickCheck(Statement statement)
         throws SQLException {
         try (ResultSet version = statement.executeQuery("PRAGMA user_version")) {
-            if (!version.next() || version.getInt(1) != SCHEMA_VERSION) {
+            if (!version.next() || version.getInt(1) < MIN_SUPPORTED_SCHEMA_VERSION
+                || version.getInt(1) > SCHEMA_VERSION) {
                 return false;
             }
         }
@@ -640,6 +921,11 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
             || sqliteError.getResultCode() == SQLiteErrorCode.SQLITE_BUSY_SNAPSHOT);
     }
 
+    private static boolean isQueryOnlyViolation(SQLException error) {
+        return error instanceof SQLiteException sqliteError
+            && sqliteError.getResultCode() == SQLiteErrorCode.SQLITE_READONLY;
+    }
+
     private static boolean isStorageFailure(SQLException error) {
         if (!(error instanceof SQLiteException sqliteError)) {
             return false;
@@ -670,6 +956,10 @@ public class LinksSqliteDatabase implements DisposableBean, LinkFeedStorageMaint
         return path.resolveSibling(path.getFileName() + suffix);
     }
 
+    private static long sizeIfExists(Path path) throws IOException {
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
     private static void moveReplacing(Path source, Path target) throws IOException {
         Files.move(source, target, StandardCopyOption.REPLACE_EXISTING,
             StandardCopyOption.ATOMIC_MOVE);
@@ -0,0 +1,63 @@
+package run.halo.links.sqlite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a retention delete as a series of short transactions. Each batch removes at most
+ * {@code batchSize} rows and commits, then the writer is released for a short pause so refresh
+ * upserts and state toggles queued behind the cleanup get a turn before the next batch.
+ */
+@Slf4j
+final class SqliteBatchedDelete {
+
+    static final int DEFAULT_BATCH_SIZE = 1_000;
+    static final Duration DEFAULT_PAUSE = Duration.ofMillis(5);
+
+    private SqliteBatchedDelete() {
+    }
+
+    /**
+     * Repeats {@code batch} until it deletes fewer rows than it was allowed to, and returns the
+     * number of rows deleted in total.
+     */
+    static long run(LinksSqliteDatabase database, String name, int batchSize, Duration pause,
+        Batch batch) {
+        long startedAt = System.nanoTime();
+        long deleted = 0;
+        int batches = 0;
+        while (true) {
+            int removed = database.inTransaction(connection -> batch.delete(connection, batchSize));
+            deleted += removed;
+            batches++;
+            if (removed < batchSize) {
+                break;
+            }
+            log.debug("[plugin-links] RSS retention {} deleted {} item(s) in {} batch(es) so far",
+                name, deleted, batches);
+            if (!pause.isZero()) {
+                LockSupport.parkNanos(pause.toNanos());
+            }
+        }
+        if (batches > 1) {
+            log.info("[plugin-links] RSS retention {} deleted {} item(s) in {} batch(es) in {} ms",
+                name, deleted, batches,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+        return deleted;
+    }
+
+    @FunctionalInterface
+    interface Batch {
+
+        /**
+         * Deletes at most {@code limit} rows inside the current transaction and returns how many
+         * were deleted.
+         */
+        int delete(Connection connection, int limit) throws SQLException;
+    }
+}
@@ -0,0 +1,152 @@
+package run.halo.links.sqlite;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the write-ahead log of the feed database short. SQLite's auto-checkpoint only copies
+ * pages back once a commit pushes the log past 1,000 pages and never shrinks the file, so after a
+ * burst of refresh writes the log stays large and every read has to search it.
+ *
+ * <p>The manager runs a {@code PASSIVE} checkpoint after each scheduled refresh run, which never
+ * waits for readers or blocks writers for long. It runs a {@code TRUNCATE} checkpoint, which
+ * waits for readers and resets the file to zero bytes, once the writer has been idle for a while
+ * or as soon as the log outgrows its size limit. The log size and the duration of the last
+ * checkpoint are published as gauges.
+ */
+@Slf4j
+final class SqliteCheckpointManager {
+
+    static final long DEFAULT_WAL_SIZE_LIMIT_BYTES = 64L * 1024 * 1024;
+    static final Duration IDLE_DELAY = Duration.ofMinutes(2);
+    static final String WAL_SIZE_METRIC = "links.rss.sqlite.wal.size";
+    static final String CHECKPOINT_DURATION_METRIC = "links.rss.sqlite.checkpoint.duration";
+
+    private final LinksSqliteDatabase database;
+    private final Path walPath;
+    private final long idleDelayNanos;
+    private volatile long walSizeLimitBytes = DEFAULT_WAL_SIZE_LIMIT_BYTES;
+    private volatile long lastWriteNanos = System.nanoTime();
+    private volatile long lastCheckpointNanos;
+    private boolean truncatedSinceWrite;
+    private List<Meter> meters = List.of();
+
+    SqliteCheckpointManager(LinksSqliteDatabase database, Path dbPath, Duration idleDelay) {
+        this.database = database;
+        this.walPath = dbPath.resolveSibling(dbPath.getFileName() + "-wal");
+        this.idleDelayNanos = idleDelay.toNanos();
+    }
+
+    /**
+     * Sets {@code journal_size_limit} on a newly opened writer, so the file SQLite reuses after
+     * its own checkpoints is also cut back to the limit.
+     */
+    void configure(Connection writer) throws SQLException {
+        try (Statement statement = writer.createStatement()) {
+            statement.execute("PRAGMA journal_size_limit = " + walSizeLimitBytes);
+        }
+    }
+
+    void registerGauges(MeterRegistry registry) {
+        meters = List.of(
+            Gauge.builder(WAL_SIZE_METRIC, this, SqliteCheckpointManager::walSizeBytes)
+                .description("Size of the RSS feed SQLite write-ahead log")
+                .baseUnit("bytes")
+                .register(registry),
+            TimeGauge.builder(CHECKPOINT_DURATION_METRIC, this, TimeUnit.NANOSECONDS,
+                    manager -> manager.lastCheckpointNanos)
+                .description("Duration of the last RSS feed SQLite WAL checkpoint")
+                .register(registry));
+    }
+
+    void removeGauges(MeterRegistry registry) {
+        meters.forEach(registry::remove);
+        meters = List.of();
+    }
+
+    /**
+     * Called by the writer at the start of every write transaction, while it holds the writer.
+     */
+    void recordWrite() {
+        lastWriteNanos = System.nanoTime();
+        truncatedSinceWrite = false;
+    }
+
+    /**
+     * Checkpoints after a burst of writes and truncates the log if it is still larger than
+     * {@code limitBytes}, which also becomes the limit for later checks.
+     */
+    void afterWriteBurst(long limitBytes) {
+        if (limitBytes > 0 && limitBytes != walSizeLimitBytes) {
+            walSizeLimitBytes = limitBytes;
+            database.execute(current -> {
+                configure(current);
+                return null;
+            });
+        }
+        checkpoint("PASSIVE");
+        if (walSizeBytes() > walSizeLimitBytes) {
+            checkpoint("TRUNCATE");
+        }
+    }
+
+    /**
+     * Truncates the log when it is over the size limit, or when nothing was written since the
+     * idle delay and the log has not been truncated since the last write.
+     */
+    void checkpointIfDue() {
+        boolean overLimit = walSizeBytes() > walSizeLimitBytes;
+        boolean idle = System.nanoTime() - lastWriteNanos >= idleDelayNanos;
+        if (overLimit || idle) {
+            checkpoint("TRUNCATE");
+        }
+    }
+
+    /**
+     * Runs {@code wal_checkpoint} in {@code mode} on the writer and returns whether every frame
+     * was copied back. An idle truncate that already succeeded since the last write is skipped.
+     */
+    boolean checkpoint(String mode) {
+        boolean truncate = "TRUNCATE".equals(mode);
+        return database.execute(current -> {
+            if (truncate && truncatedSinceWrite && walSizeBytes() == 0) {
+                return true;
+            }
+            long startedAt = System.nanoTime();
+            boolean complete;
+            try (Statement statement = current.createStatement();
+                ResultSet result = statement.executeQuery("PRAGMA wal_checkpoint(" + mode + ")")) {
+                complete = result.next() && result.getInt(1) == 0;
+            }
+            lastCheckpointNanos = System.nanoTime() - startedAt;
+            if (truncate && complete) {
+                truncatedSinceWrite = true;
+            }
+            if (!complete) {
+                log.debug("[plugin-links] RSS SQLite {} checkpoint was blocked by readers", mode);
+            }
+            return complete;
+        });
+    }
+
+    long walSizeBytes() {
+        try {
+            return Files.exists(walPath) ? Files.size(walPath) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
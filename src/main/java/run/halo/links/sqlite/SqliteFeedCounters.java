@@ -0,0 +1,148 @@
+package run.halo.links.sqlite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Per-feed item counters kept next to {@code link_feed_items} by triggers, so summary and refresh
+ * bookkeeping reads one row per feed instead of scanning items. Counters are keyed by
+ * {@code feed_id}; items without a feed are counted under key {@code 0}, which no feed row uses.
+ *
+ * <p>Unread, favorite and read-later counts only include visible items, matching the public
+ * summary semantics; hidden items are counted separately. Item writes must not use
+ * {@code REPLACE} conflict resolution: its implicit delete does not fire the delete trigger.
+ */
+final class SqliteFeedCounters {
+
+    static final String TABLE = "link_feed_counters";
+
+    private SqliteFeedCounters() {
+    }
+
+    static void create(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            createTable(statement);
+            statement.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_feed_counters_insert
+                AFTER INSERT ON link_feed_items
+                BEGIN
+                """ + apply("NEW", "+") + """
+                END
+                """);
+            statement.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_feed_counters_delete
+                AFTER DELETE ON link_feed_items
+                BEGIN
+                """ + apply("OLD", "-") + """
+                END
+                """);
+            statement.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_feed_counters_update
+                AFTER UPDATE OF feed_id, flags
+                ON link_feed_items
+                WHEN OLD.feed_id IS NOT NEW.feed_id OR OLD.flags != NEW.flags
+                BEGIN
+                """ + apply("NEW", "+") + apply("OLD", "-") + """
+                END
+                """);
+        }
+    }
+
+    /**
+     * Recreates the counter table and recomputes every row from the item table. Used when
+     * upgrading a database whose counters are missing or use an older layout.
+     */
+    static void rebuild(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            createTable(statement);
+            statement.execute("""
+                INSERT INTO link_feed_counters (
+                  feed_id, total, unread, favorite, read_later, hidden
+                )
+                SELECT
+                  coalesce(feed_id, 0),
+                  count(*),
+                  sum(%s),
+                  sum(%s),
+                  sum(%s),
+                  sum(%s)
+                FROM link_feed_items
+                GROUP BY coalesce(feed_id, 0)
+                """.formatted(unread(""), favorite(""), readLater(""), hidden("")));
+        }
+    }
+
+    private static String unread(String prefix) {
+        return state(prefix, SqliteItemFlags.READ | SqliteItemFlags.HIDDEN, 0);
+    }
+
+    private static String favorite(String prefix) {
+        return state(prefix, SqliteItemFlags.FAVORITE | SqliteItemFlags.HIDDEN,
+            SqliteItemFlags.FAVORITE);
+    }
+
+    private static String readLater(String prefix) {
+        return state(prefix, SqliteItemFlags.READ_LATER | SqliteItemFlags.HIDDEN,
+            SqliteItemFlags.READ_LATER);
+    }
+
+    private static String hidden(String prefix) {
+        return state(prefix, SqliteItemFlags.HIDDEN, SqliteItemFlags.HIDDEN);
+    }
+
+    /**
+     * A 0/1 expression over the {@code flags} column of {@code prefix}, which is empty or a
+     * trigger row name followed by a dot.
+     */
+    private static String state(String prefix, int mask, int value) {
+        return "(%sflags & %d = %d)".formatted(prefix, mask, value);
+    }
+
+    private static void createTable(Statement statement) throws SQLException {
+        statement.execute("""
+            CREATE TABLE IF NOT EXISTS link_feed_counters (
+              feed_id INTEGER PRIMARY KEY,
+              total INTEGER NOT NULL DEFAULT 0,
+              unread INTEGER NOT NULL DEFAULT 0,
+              favorite INTEGER NOT NULL DEFAULT 0,
+              read_later INTEGER NOT NULL DEFAULT 0,
+              hidden INTEGER NOT NULL DEFAULT 0
+            )
+            """);
+    }
+
+    /**
+     * Trigger statements that add ({@code +}) or remove ({@code -}) one item row to or from its
+     * feed counter. A counter row that drops to zero items is removed so deleted feeds do not
+     * linger.
+     */
+    private static String apply(String row, String sign) {
+        String key = "feed_id = coalesce(%s.feed_id, 0)".formatted(row);
+        StringBuilder sql = new StringBuilder();
+        if ("+".equals(sign)) {
+            sql.append("""
+                  INSERT INTO link_feed_counters (feed_id)
+                  SELECT coalesce(%1$s.feed_id, 0)
+                  WHERE NOT EXISTS (SELECT 1 FROM link_feed_counters WHERE %2$s);
+                """.formatted(row, key));
+        }
+        sql.append("""
+              UPDATE link_feed_counters SET
+                total = total %2$s 1,
+                unread = unread %2$s %3$s,
+                favorite = favorite %2$s %4$s,
+                read_later = read_later %2$s %5$s,
+                hidden = hidden %2$s %6$s
+              WHERE %1$s;
+            """.formatted(key, sign, unread(row + "."), favorite(row + "."),
+            readLater(row + "."), hidden(row + ".")));
+        if ("-".equals(sign)) {
+            sql.append("""
+                  DELETE FROM link_feed_counters WHERE %s AND total <= 0;
+                """.formatted(key));
+        }
+        return sql.toString();
+    }
+}
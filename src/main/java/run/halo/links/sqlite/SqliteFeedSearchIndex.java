@@ -0,0 +1,100 @@
+package run.halo.links.sqlite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * External-content FTS5 index over item title, summary and author. The index stores only the
+ * tokens and reads column values back from {@code link_feed_items} through the stable
+ * {@code seq} key; triggers keep it in step with every item write.
+ *
+ * <p>The trigram tokenizer is used because much of the cached content is CJK text without
+ * word separators. It matches any substring of at least three characters, case-insensitively.
+ */
+final class SqliteFeedSearchIndex {
+
+    static final String TABLE = "link_feed_items_fts";
+
+    /**
+     * Smallest term the trigram tokenizer can match through the index.
+     */
+    static final int MIN_INDEXED_TERM_LENGTH = 3;
+
+    /**
+     * BM25 ranking expression weighting title matches above author and summary matches. Lower
+     * values rank higher.
+     */
+    static final String RANK = "bm25(link_feed_items_fts, 5.0, 1.0, 2.0)";
+
+    private SqliteFeedSearchIndex() {
+    }
+
+    static void create(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            createTable(statement);
+            statement.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_feed_search_insert
+                AFTER INSERT ON link_feed_items
+                BEGIN
+                  INSERT INTO link_feed_items_fts (rowid, title, summary, author)
+                  VALUES (NEW.seq, NEW.title, NEW.summary, NEW.author);
+                END
+                """);
+            statement.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_feed_search_delete
+                AFTER DELETE ON link_feed_items
+                BEGIN
+                  INSERT INTO link_feed_items_fts (
+                    link_feed_items_fts, rowid, title, summary, author
+                  )
+                  VALUES ('delete', OLD.seq, OLD.title, OLD.summary, OLD.author);
+                END
+                """);
+            statement.execute("""
+                CREATE TRIGGER IF NOT EXISTS trg_feed_search_update
+                AFTER UPDATE OF title, summary, author ON link_feed_items
+                WHEN OLD.title IS NOT NEW.title
+                  OR OLD.summary IS NOT NEW.summary
+                  OR OLD.author IS NOT NEW.author
+                BEGIN
+                  INSERT INTO link_feed_items_fts (
+                    link_feed_items_fts, rowid, title, summary, author
+                  )
+                  VALUES ('delete', OLD.seq, OLD.title, OLD.summary, OLD.author);
+                  INSERT INTO link_feed_items_fts (rowid, title, summary, author)
+                  VALUES (NEW.seq, NEW.title, NEW.summary, NEW.author);
+                END
+                """);
+        }
+    }
+
+    /**
+     * Re-tokenizes every item. Used when upgrading a database that predates the index.
+     */
+    static void rebuild(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            createTable(statement);
+            statement.execute("INSERT INTO link_feed_items_fts (link_feed_items_fts) "
+                + "VALUES ('rebuild')");
+        }
+    }
+
+    /**
+     * Quotes a user term as an FTS5 string so operators and punctuation are matched literally.
+     */
+    static String quote(String term) {
+        return "\"" + term.replace("\"", "\"\"") + "\"";
+    }
+
+    private static void createTable(Statement statement) throws SQLException {
+        statement.execute("""
+            CREATE VIRTUAL TABLE IF NOT EXISTS link_feed_items_fts USING fts5(
+              title, summary, author,
+              content = 'link_feed_items',
+              content_rowid = 'seq',
+              tokenize = 'trigram'
+            )
+            """);
+    }
+}
@@ -0,0 +1,115 @@
+package run.halo.links.sqlite;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import run.halo.links.rss.LinkFeedItem;
+
+/**
+ * The per-item user states packed into the {@code flags} column. A toggle rewrites one small
+ * integer instead of a boolean column with its own composite index, and each state a timeline
+ * filters by has a partial index holding only the items in that state.
+ *
+ * <p>Filter expressions inline their masks as literals: SQLite only uses a partial index when a
+ * term of the query matches the index's {@code WHERE} clause, and a bound parameter never does.
+ */
+final class SqliteItemFlags {
+
+    static final int READ = 1;
+    static final int FAVORITE = 1 << 1;
+    static final int READ_LATER = 1 << 2;
+    static final int HIDDEN = 1 << 3;
+
+    /**
+     * Items retention may delete: neither saved nor hidden.
+     */
+    static final String UNSAVED = predicate(FAVORITE | READ_LATER | HIDDEN, 0);
+
+    /**
+     * Visible unread items, which {@code mark all as read} updates.
+     */
+    static final String UNREAD = predicate(READ | HIDDEN, 0);
+
+    /**
+     * Partial timeline indexes. Unread, favorite and read-later only cover visible items, like
+     * the counters and the default timeline filter.
+     */
+    private static final List<PartialIndex> PARTIAL_INDEXES = List.of(
+        new PartialIndex("idx_feed_items_unread", READ | HIDDEN, 0),
+        new PartialIndex("idx_feed_items_favorite", FAVORITE | HIDDEN, FAVORITE),
+        new PartialIndex("idx_feed_items_read_later", READ_LATER | HIDDEN, READ_LATER),
+        new PartialIndex("idx_feed_items_hidden", HIDDEN, HIDDEN)
+    );
+
+    private SqliteItemFlags() {
+    }
+
+    static void createIndexes(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (PartialIndex index : PARTIAL_INDEXES) {
+                statement.execute("""
+                    CREATE INDEX IF NOT EXISTS %s
+                    ON link_feed_items(published_at DESC, id DESC)
+                    WHERE %s
+                    """.formatted(index.name(), predicate(index.mask(), index.value())));
+            }
+        }
+    }
+
+    static int of(LinkFeedItem item) {
+        return (Boolean.TRUE.equals(item.getRead()) ? READ : 0)
+            | (Boolean.TRUE.equals(item.getFavorite()) ? FAVORITE : 0)
+            | (Boolean.TRUE.equals(item.getReadLater()) ? READ_LATER : 0)
+            | (Boolean.TRUE.equals(item.getHidden()) ? HIDDEN : 0);
+    }
+
+    static void apply(LinkFeedItem item, int flags) {
+        item.setRead((flags & READ) != 0);
+        item.setFavorite((flags & FAVORITE) != 0);
+        item.setReadLater((flags & READ_LATER) != 0);
+        item.setHidden((flags & HIDDEN) != 0);
+    }
+
+    /**
+     * Returns the {@code AND} terms selecting items in the given states, for a query on the item
+     * table aliased {@code alias}. A {@code null} state is not filtered. When the filter implies
+     * a partial index predicate, that predicate is repeated verbatim so the planner can use the
+     * index.
+     */
+    static String filter(String alias, Boolean read, Boolean favorite, Boolean readLater,
+        boolean hidden) {
+        int mask = HIDDEN;
+        int value = hidden ? HIDDEN : 0;
+        if (read != null) {
+            mask |= READ;
+            value |= read ? READ : 0;
+        }
+        if (favorite != null) {
+            mask |= FAVORITE;
+            value |= favorite ? FAVORITE : 0;
+        }
+        if (readLater != null) {
+            mask |= READ_LATER;
+            value |= readLater ? READ_LATER : 0;
+        }
+        String combined = predicate(mask, value);
+        StringBuilder sql = new StringBuilder(" AND ").append(alias).append('.').append(combined);
+        for (PartialIndex index : PARTIAL_INDEXES) {
+            boolean implied = (mask & index.mask()) == index.mask()
+                && (value & index.mask()) == index.value();
+            String indexPredicate = predicate(index.mask(), index.value());
+            if (implied && !indexPredicate.equals(combined)) {
+                sql.append(" AND ").append(alias).append('.').append(indexPredicate);
+            }
+        }
+        return sql.toString();
+    }
+
+    private static String predicate(int mask, int value) {
+        return "flags & " + mask + " = " + value;
+    }
+
+    private record PartialIndex(String name, int mask, int value) {
+    }
+}
@@ -0,0 +1,142 @@
+package run.halo.links.sqlite;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.HexFormat;
+import java.util.Map;
+import org.springframework.util.StringUtils;
+
+/**
+ * Compact keys of the item table. Item ids generated by the feed service are lowercase SHA-256
+ * hex and are stored as their 32 raw bytes; any other id, which only hand-written or very old
+ * rows carry, stays TEXT. SQLite orders every TEXT value before every BLOB, so keyset paging over
+ * a table that mixes both still visits each row exactly once.
+ *
+ * <p>The owning link name and feed URL are stored once per feed in {@code link_feeds} and items
+ * refer to them by {@code feed_id}. A missing link name or feed URL is stored as an empty string
+ * so the pair stays unique; an item with neither has no feed row.
+ */
+final class SqliteItemKeys {
+
+    static final String FEEDS_TABLE = "link_feeds";
+
+    /**
+     * Sub-select of the feed ids owned by one link name, bound with a single parameter.
+     */
+    static final String FEEDS_OF_LINK = "SELECT feed_id FROM link_feeds WHERE link_name = ?";
+
+    private static final int PACKED_ID_LENGTH = 64;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private SqliteItemKeys() {
+    }
+
+    static void createFeedsTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS link_feeds (
+                  feed_id INTEGER PRIMARY KEY,
+                  link_name TEXT NOT NULL,
+                  feed_url TEXT NOT NULL,
+                  UNIQUE (link_name, feed_url)
+                )
+                """);
+        }
+    }
+
+    /**
+     * Returns the stored form of an item id: raw bytes for a SHA-256 hex id, the text otherwise.
+     */
+    static Object encodeId(String id) {
+        return isPackable(id) ? HEX.parseHex(id) : id;
+    }
+
+    static String decodeId(Object value) {
+        if (value instanceof byte[] bytes) {
+            return HEX.formatHex(bytes);
+        }
+        return value == null ? null : value.toString();
+    }
+
+    static void bindId(PreparedStatement statement, int index, String id) throws SQLException {
+        Object value = encodeId(id);
+        if (value instanceof byte[] bytes) {
+            statement.setBytes(index, bytes);
+        } else {
+            statement.setString(index, (String) value);
+        }
+    }
+
+    static String readId(ResultSet result, int column) throws SQLException {
+        return decodeId(result.getObject(column));
+    }
+
+    /**
+     * Resolves the feed row for an item's link name and feed URL, creating it on first use.
+     * Returns {@code null} for an item with neither. Resolved ids are remembered in
+     * {@code cache} for the rest of the batch.
+     */
+    static Long feedId(Connection connection, Map<String, Long> cache, String linkName,
+        String feedUrl) throws SQLException {
+        String link = StringUtils.hasText(linkName) ? linkName : "";
+        String url = StringUtils.hasText(feedUrl) ? feedUrl : "";
+        if (link.isEmpty() && url.isEmpty()) {
+            return null;
+        }
+        String key = link + '\n' + url;
+        Long cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Long feedId = findFeedId(connection, link, url);
+        if (feedId == null) {
+            try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO link_feeds (link_name, feed_url) VALUES (?, ?)")) {
+                insert.setString(1, link);
+                insert.setString(2, url);
+                insert.executeUpdate();
+            }
+            feedId = findFeedId(connection, link, url);
+        }
+        cache.put(key, feedId);
+        return feedId;
+    }
+
+    static void bindFeedId(PreparedStatement statement, int index, Long feedId)
+        throws SQLException {
+        if (feedId == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setLong(index, feedId);
+        }
+    }
+
+    private static Long findFeedId(Connection connection, String link, String url)
+        throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "SELECT feed_id FROM link_feeds WHERE link_name = ? AND feed_url = ?")) {
+            statement.setString(1, link);
+            statement.setString(2, url);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getLong(1) : null;
+            }
+        }
+    }
+
+    private static boolean isPackable(String id) {
+        if (id == null || id.length() != PACKED_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < PACKED_ID_LENGTH; i++) {
+            char c = id.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
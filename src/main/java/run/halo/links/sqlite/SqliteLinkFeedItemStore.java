@@ -1,142 +1,328 @@
 package run.halo.links.sqlite;
 
+import io.micrometer.core.instrument.Metrics;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.time.Instant;
-import java.time.format.DateTimeParseException;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import run.halo.links.rss.LinkFeedHiddenStateResult;
 import run.halo.links.rss.LinkFeedItem;
+import run.halo.links.rss.LinkFeedItemProjection;
 import run.halo.links.rss.LinkFeedItemQuery;
 import run.halo.links.rss.LinkFeedItemSummary;
 import run.halo.links.rss.LinkFeedItemStore;
+import run.halo.links.rss.LinkFeedUpsertResult;
 
 @Slf4j
 @Component
-public class SqliteLinkFeedItemStore implements LinkFeedItemStore {
+public class SqliteLinkFeedItemStore
+    implements LinkFeedItemStore, InitializingBean, DisposableBean {
 
     private static final String TABLE = "link_feed_items";
-    private static final DateTimeFormatter SQLITE_INSTANT_FORMATTER =
-        new DateTimeFormatterBuilder().appendInstant(9).toFormatter();
+    private static final String COUNTERS_TABLE = SqliteFeedCounters.TABLE;
+
+    /**
+     * Items aliased {@code i} with their feed row aliased {@code f}, for the projections below.
+     */
+    private static final String ITEMS_WITH_FEEDS = TABLE + " i LEFT JOIN "
+        + SqliteItemKeys.FEEDS_TABLE + " f ON f.feed_id = i.feed_id";
+
+    /**
+     * Counters aliased {@code c} joined to their feed row aliased {@code f}.
+     */
+    private static final String COUNTERS_WITH_FEEDS = COUNTERS_TABLE + " c JOIN "
+        + SqliteItemKeys.FEEDS_TABLE + " f ON f.feed_id = c.feed_id";
+
+    /**
+     * Console projection. {@link #parseFullRow} reads these by position.
+     */
+    private static final String FULL_COLUMNS = "i.id, nullif(f.link_name, ''), i.group_name, "
+        + "nullif(f.feed_url, ''), i.guid, i.url, i.title, i.summary, i.author, i.published_at, "
+        + "i.updated_at, i.first_seen_at, i.fetched_at, i.content_hash, i.flags";
+    private static final int FULL_COLUMN_COUNT = 15;
+
+    /**
+     * Public timeline projection. {@link #parsePublicRow} reads these by position.
+     */
+    private static final String PUBLIC_COLUMNS = "i.id, nullif(f.link_name, ''), i.url, i.title, "
+        + "i.summary, i.author, i.published_at, i.updated_at, i.fetched_at";
+    private static final int PUBLIC_COLUMN_COUNT = 9;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
 
     private final LinksSqliteDatabase database;
 
+    private final SqliteStateWriteQueue stateWriteQueue;
+
+    private final int retentionBatchSize;
+
+    private final SqliteRecentPageCache recentPageCache;
+
     public SqliteLinkFeedItemStore(LinksSqliteDatabase database) {
+        this(database, SqliteBatchedDelete.DEFAULT_BATCH_SIZE);
+    }
+
+    SqliteLinkFeedItemStore(LinksSqliteDatabase database, int retentionBatchSize) {
         this.database = database;
+        this.retentionBatchSize = retentionBatchSize;
+        this.stateWriteQueue =
+            new SqliteStateWriteQueue(database, SqliteStateWriteQueue.DEFAULT_WINDOW);
+        this.recentPageCache =
+            new SqliteRecentPageCache(SqliteRecentPageCache.DEFAULT_MAX_ENTRIES);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        recentPageCache.registerMeters(Metrics.globalRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        recentPageCache.removeMeters(Metrics.globalRegistry);
     }
 
     @Override
     public void upsert(LinkFeedItem item) {
         validateItem(item);
-        database.inTransaction(connection -> {
+        invalidating(() -> database.inTransaction(connection -> {
             upsert(connection, item);
             return null;
-        });
+        }));
     }
 
     @Override
-    public int upsertAll(List<LinkFeedItem> items) {
+    public LinkFeedUpsertResult upsertAll(List<LinkFeedItem> items) {
         if (items == null || items.isEmpty()) {
-            return 0;
+            return LinkFeedUpsertResult.empty();
         }
         items.forEach(SqliteLinkFeedItemStore::validateItem);
-        return database.inTransaction(connection -> upsertAll(connection, items));
+        return invalidating(() -> database.inTransaction(
+            connection -> upsertAll(connection, items)));
     }
 
+    /**
+     * The first page of a cursor-less, non-search query is served from
+     * {@link SqliteRecentPageCache} until the next write.
+     */
     @Override
     public List<LinkFeedItem> listRecent(LinkFeedItemQuery query) {
         LinkFeedItemQuery normalized = Optional.ofNullable(query).orElse(new LinkFeedItemQuery());
+        if (StringUtils.hasText(normalized.getQ())) {
+            return search(normalized);
+        }
+        return recentPageCache.get(normalized, () -> listRecentFromDatabase(normalized));
+    }
+
+    private List<LinkFeedItem> listRecentFromDatabase(LinkFeedItemQuery normalized) {
         int limit = normalized.normalizedFetchLimit();
-        StringBuilder sql = new StringBuilder("SELECT * FROM ").append(TABLE)
-            .append(" WHERE 1 = 1");
+        StringBuilder sql = new StringBuilder("SELECT ")
+            .append(columns(normalized.getProjection())).append(" FROM ")
+            .append(ITEMS_WITH_FEEDS).append(" WHERE 1 = 1");
         List<Object> params = new ArrayList<>();
-        if (StringUtils.hasText(normalized.getLinkName())) {
-            sql.append(" AND link_name = ?");
-            params.add(normalized.getLinkName());
-        }
+        appendItemFilters(sql, params, normalized);
         if (normalized.getBeforePublishedAt() != null) {
-            String beforePublishedAt = toString(normalized.getBeforePublishedAt());
+            long beforePublishedAt = toEpochNanos(normalized.getBeforePublishedAt());
             if (StringUtils.hasText(normalized.getBeforeId())) {
-                sql.append(" AND (published_at < ? OR (published_at = ? AND id < ?))");
+                sql.append(" AND (i.published_at < ? OR (i.published_at = ? AND i.id < ?))");
                 params.add(beforePublishedAt);
                 params.add(beforePublishedAt);
-                params.add(normalized.getBeforeId());
+                params.add(SqliteItemKeys.encodeId(normalized.getBeforeId()));
             } else {
-                sql.append(" AND published_at < ?");
+                sql.append(" AND i.published_at < ?");
                 params.add(beforePublishedAt);
             }
         }
-        appendBooleanFilter(sql, params, "read", normalized.getRead());
-        appendBooleanFilter(sql, params, "favorite", normalized.getFavorite());
-        appendBooleanFilter(sql, params, "read_later", normalized.getReadLater());
-        appendBooleanFilter(sql, params, "hidden", Boolean.TRUE.equals(normalized.getHidden()));
-        sql.append(" ORDER BY published_at DESC, id DESC LIMIT ?");
+        sql.append(" ORDER BY i.published_at DESC, i.id DESC LIMIT ?");
         params.add(limit);
 
-        return database.execute(connection -> {
-            List<LinkFeedItem> result = new ArrayList<>();
-            try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+        List<LinkFeedItem> result =
+            queryItems(sql.toString(), params, normalized.getProjection(), limit, false);
+        result.sort(recentComparator());
+        return result;
+    }
+
+    /**
+     * Pages through every item, hidden ones included, in id order. The id keyset walks the
+     * unique id index, so each chunk costs the same no matter how deep the export has gone.
+     */
+    @Override
+    public List<LinkFeedItem> listAfterId(String afterId, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Feed item chunk size must be positive.");
+        }
+        StringBuilder sql = new StringBuilder("SELECT ").append(FULL_COLUMNS)
+            .append(" FROM ").append(ITEMS_WITH_FEEDS);
+        List<Object> params = new ArrayList<>();
+        if (StringUtils.hasText(afterId)) {
+            sql.append(" WHERE i.id > ?");
+            params.add(SqliteItemKeys.encodeId(afterId));
+        }
+        sql.append(" ORDER BY i.id LIMIT ?");
+        params.add(limit);
+        return queryItems(sql.toString(), params, LinkFeedItemProjection.FULL, limit, false);
+    }
+
+    /**
+     * Ranked full-text search. Terms long enough for the trigram index are matched through it
+     * and ranked by BM25; shorter terms only narrow the matches. A query made only of short
+     * terms falls back to a substring scan with a constant rank, so its pages keep id order.
+     */
+    private List<LinkFeedItem> search(LinkFeedItemQuery query) {
+        List<String> indexedTerms = new ArrayList<>();
+        List<String> shortTerms = new ArrayList<>();
+        for (String term : new LinkedHashSet<>(List.of(query.getQ().trim().split("\\s+")))) {
+            if (term.codePointCount(0, term.length())
+                >= SqliteFeedSearchIndex.MIN_INDEXED_TERM_LENGTH) {
+                indexedTerms.add(SqliteFeedSearchIndex.quote(term));
+            } else {
+                shortTerms.add(term.toLowerCase(Locale.ROOT));
+            }
+        }
+        boolean indexed = !indexedTerms.isEmpty();
+        String rank = indexed ? SqliteFeedSearchIndex.RANK : "0.0";
+        StringBuilder sql = new StringBuilder("SELECT ")
+            .append(columns(query.getProjection())).append(", ").append(rank)
+            .append(" AS search_rank");
+        List<Object> params = new ArrayList<>();
+        if (indexed) {
+            sql.append(" FROM ").append(SqliteFeedSearchIndex.TABLE).append(" JOIN ").append(TABLE)
+                .append(" i ON i.seq = ").append(SqliteFeedSearchIndex.TABLE).append(".rowid")
+                .append(" LEFT JOIN ").append(SqliteItemKeys.FEEDS_TABLE)
+                .append(" f ON f.feed_id = i.feed_id")
+                .append(" WHERE ").append(SqliteFeedSearchIndex.TABLE).append(" MATCH ?");
+            params.add(String.join(" ", indexedTerms));
+        } else {
+            sql.append(" FROM ").append(ITEMS_WITH_FEEDS).append(" WHERE 1 = 1");
+        }
+        for (String term : shortTerms) {
+            sql.append(" AND (instr(lower(i.title), ?) > 0 OR instr(lower(i.summary), ?) > 0")
+                .append(" OR instr(lower(i.author), ?) > 0)");
+            params.add(term);
+            params.add(term);
+            params.add(term);
+        }
+        appendItemFilters(sql, params, query);
+        if (query.getBeforeRank() != null) {
+            if (StringUtils.hasText(query.getBeforeId())) {
+                sql.append(" AND (").append(rank).append(" > ? OR (").append(rank)
+                    .append(" = ? AND i.id < ?))");
+                params.add(query.getBeforeRank());
+                params.add(query.getBeforeRank());
+                params.add(SqliteItemKeys.encodeId(query.getBeforeId()));
+            } else {
+                sql.append(" AND ").append(rank).append(" > ?");
+                params.add(query.getBeforeRank());
+            }
+        }
+        sql.append(" ORDER BY search_rank ASC, i.id DESC LIMIT ?");
+        int limit = query.normalizedFetchLimit();
+        params.add(limit);
+        return queryItems(sql.toString(), params, query.getProjection(), limit, true);
+    }
+
+    /**
+     * Runs a listing query whose select list starts with {@link #columns} for the projection.
+     * A ranked query carries the search rank as the next column.
+     */
+    private List<LinkFeedItem> queryItems(String sql, List<Object> params,
+        LinkFeedItemProjection projection, int limit, boolean ranked) {
+        int rankColumn = columnCount(projection) + 1;
+        return database.query(connection -> {
+            List<LinkFeedItem> result = new ArrayList<>(limit);
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
                 bindParams(statement, params);
                 try (ResultSet rows = statement.executeQuery()) {
                     while (rows.next()) {
-                        parseRow(rows).ifPresent(result::add);
+                        Optional<LinkFeedItem> item = parseRow(rows, projection);
+                        if (ranked && item.isPresent()) {
+                            item.get().setSearchRank(rows.getDouble(rankColumn));
+                        }
+                        item.ifPresent(result::add);
                     }
                 }
             }
-            result.sort(recentComparator());
             return result;
         });
     }
 
+    private static String columns(LinkFeedItemProjection projection) {
+        return projection == LinkFeedItemProjection.PUBLIC ? PUBLIC_COLUMNS : FULL_COLUMNS;
+    }
+
+    private static int columnCount(LinkFeedItemProjection projection) {
+        return projection == LinkFeedItemProjection.PUBLIC
+            ? PUBLIC_COLUMN_COUNT : FULL_COLUMN_COUNT;
+    }
+
+    private static void appendItemFilters(StringBuilder sql, List<Object> params,
+        LinkFeedItemQuery query) {
+        if (StringUtils.hasText(query.getLinkName())) {
+            sql.append(" AND i.feed_id IN (").append(SqliteItemKeys.FEEDS_OF_LINK).append(")");
+            params.add(query.getLinkName());
+        }
+        if (StringUtils.hasText(query.getGroupName())) {
+            sql.append(" AND i.group_name = ?");
+            params.add(query.getGroupName());
+        }
+        sql.append(SqliteItemFlags.filter("i", query.getRead(), query.getFavorite(),
+            query.getReadLater(), Boolean.TRUE.equals(query.getHidden())));
+    }
+
     @Override
     public boolean updateRead(String id, boolean read) {
-        return updateBooleanState(id, "read", read);
+        return updateState(id, SqliteItemFlags.READ, read);
     }
 
     @Override
     public long markUnreadAsRead(String linkName) {
-        String sql = "UPDATE " + TABLE + " SET read = 1 WHERE read = 0 AND hidden = 0"
-            + (StringUtils.hasText(linkName) ? " AND link_name = ?" : "");
-        return database.inTransaction(connection -> {
+        String sql = "UPDATE " + TABLE + " SET flags = flags | " + SqliteItemFlags.READ
+            + " WHERE " + SqliteItemFlags.UNREAD
+            + (StringUtils.hasText(linkName)
+            ? " AND feed_id IN (" + SqliteItemKeys.FEEDS_OF_LINK + ")" : "");
+        return invalidating(() -> database.inTransaction(connection -> {
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
                 if (StringUtils.hasText(linkName)) {
                     statement.setString(1, linkName);
                 }
                 return (long) statement.executeUpdate();
             }
-        });
+        }));
     }
 
     @Override
     public long countUnread() {
-        return queryForLong("SELECT count(*) FROM " + TABLE + " WHERE read = 0 AND hidden = 0");
+        return queryForLong("SELECT coalesce(sum(unread), 0) FROM " + COUNTERS_TABLE);
     }
 
     @Override
     public Map<String, Long> countUnreadByLinkName() {
-        return database.execute(connection -> {
+        return database.query(connection -> {
             Map<String, Long> counts = new LinkedHashMap<>();
             try (Statement statement = connection.createStatement();
                 ResultSet rows = statement.executeQuery("""
-                    SELECT link_name, count(*)
-                    FROM link_feed_items
-                    WHERE read = 0 AND hidden = 0
-                      AND link_name IS NOT NULL AND link_name != ''
-                    GROUP BY link_name
+                    SELECT f.link_name, sum(c.unread)
+                    FROM link_feed_counters c
+                    JOIN link_feeds f ON f.feed_id = c.feed_id
+                    WHERE f.link_name != ''
+                    GROUP BY f.link_name
+                    HAVING sum(c.unread) > 0
                     """)) {
                 while (rows.next()) {
                     counts.put(rows.getString(1), rows.getLong(2));
@@ -148,27 +334,37 @@ public class SqliteLinkFeedItemStore implements LinkFeedItemStore {
 
     @Override
     public boolean updateFavorite(String id, boolean favorite) {
-        return updateBooleanState(id, "favorite", favorite);
+        return updateState(id, SqliteItemFlags.FAVORITE, favorite);
     }
 
     @Override
     public boolean updateReadLater(String id, boolean readLater) {
-        return updateBooleanState(id, "read_later", readLater);
+        return updateState(id, SqliteItemFlags.READ_LATER, readLater);
     }
 
     @Override
     public LinkFeedHiddenStateResult updateHidden(List<String> ids, boolean hidden) {
         LinkedHashSet<String> distinctIds = validateHiddenIds(ids);
+        return invalidating(() -> applyHidden(distinctIds, hidden));
+    }
+
+    private LinkFeedHiddenStateResult applyHidden(LinkedHashSet<String> distinctIds,
+        boolean hidden) {
+        if (distinctIds.size() == 1) {
+            boolean changed = stateWriteQueue.submit(new SqliteStateWriteQueue.StateChange(
+                distinctIds.getFirst(), SqliteItemFlags.HIDDEN, hidden, true));
+            return new LinkFeedHiddenStateResult(1, changed ? 1 : 0);
+        }
+        List<SqliteStateWriteQueue.StateChange> changes = distinctIds.stream()
+            .map(id -> new SqliteStateWriteQueue.StateChange(id, SqliteItemFlags.HIDDEN, hidden,
+                true))
+            .toList();
         return database.inTransaction(connection -> {
             long updatedCount = 0;
             try (PreparedStatement statement = connection.prepareStatement(
-                "UPDATE " + TABLE + " SET hidden = ? WHERE id = ? AND hidden != ?")) {
-                int state = hidden ? 1 : 0;
-                for (String id : distinctIds) {
-                    statement.setInt(1, state);
-                    statement.setString(2, id);
-                    statement.setInt(3, state);
-                    updatedCount += statement.executeUpdate();
+                changes.getFirst().sql())) {
+                for (SqliteStateWriteQueue.StateChange change : changes) {
+                    updatedCount += change.apply(statement);
                 }
             }
             return new LinkFeedHiddenStateResult(distinctIds.size(), updatedCount);
@@ -177,14 +373,14 @@ public class SqliteLinkFeedItemStore implements LinkFeedItemStore {
 
     @Override
     public LinkFeedItemSummary countSummary() {
-        return database.execute(connection -> {
+        return database.query(connection -> {
             try (Statement statement = connection.createStatement();
                 ResultSet result = statement.executeQuery("""
                     SELECT
-                      count(CASE WHEN hidden = 1 THEN 1 END),
-                      count(CASE WHEN hidden = 0 AND favorite = 1 THEN 1 END),
-                      count(CASE WHEN hidden = 0 AND read_later = 1 THEN 1 END)
-                    FROM link_feed_items
+                      coalesce(sum(hidden), 0),
+                      coalesce(sum(favorite), 0),
+                      coalesce(sum(read_later), 0)
+                    FROM link_feed_counters
                     """)) {
                 if (!result.next()) {
                     return new LinkFeedItemSummary();
@@ -197,52 +393,79 @@ public class SqliteLinkFeedItemStore implements LinkFeedItemStore {
 
     @Override
     public long count() {
-        return queryForLong("SELECT count(*) FROM " + TABLE);
+        return queryForLong("SELECT coalesce(sum(total), 0) FROM " + COUNTERS_TABLE);
     }
 
     @Override
     public long countByLinkName(String linkName) {
-        return queryForLong("SELECT count(*) FROM " + TABLE + " WHERE link_name = ?", linkName);
+        return queryForLong("SELECT coalesce(sum(c.total), 0) FROM " + COUNTERS_WITH_FEEDS
+            + " WHERE f.link_name = ?", linkName);
     }
 
     @Override
     public long countByLinkNameAndFeedUrl(String linkName, String feedUrl) {
-        return queryForLong("SELECT count(*) FROM " + TABLE
-            + " WHERE link_name = ? AND feed_url = ?", linkName, feedUrl);
+        return queryForLong("SELECT c.total FROM " + COUNTERS_WITH_FEEDS
+            + " WHERE f.link_name = ? AND f.feed_url = ?", linkName, feedUrl);
     }
 
     @Override
-    public void deleteOlderThan(Instant cutoff) {
-        if (cutoff == null) {
-            return;
+    public long updateGroupName(String linkName, String groupName) {
+        if (!StringUtils.hasText(linkName)) {
+            return 0;
         }
-        database.inTransaction(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement("""
-                DELETE FROM link_feed_items
-                WHERE first_seen_at < ? AND favorite = 0 AND read_later = 0 AND hidden = 0
-                """)) {
-                statement.setString(1, toString(cutoff));
-                statement.executeUpdate();
+        String normalizedGroupName = StringUtils.hasText(groupName) ? groupName : null;
+        return invalidating(() -> database.inTransaction(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                "UPDATE " + TABLE + " SET group_name = ? WHERE feed_id IN ("
+                    + SqliteItemKeys.FEEDS_OF_LINK + ") AND group_name IS NOT ?")) {
+                statement.setString(1, normalizedGroupName);
+                statement.setString(2, linkName);
+                statement.setString(3, normalizedGroupName);
+                return (long) statement.executeUpdate();
             }
-            return null;
-        });
+        }));
+    }
+
+    @Override
+    public long deleteOlderThan(Instant cutoff) {
+        if (cutoff == null) {
+            return 0;
+        }
+        long cutoffNanos = toEpochNanos(cutoff);
+        return invalidating(() -> SqliteBatchedDelete.run(database, "age", retentionBatchSize,
+            SqliteBatchedDelete.DEFAULT_PAUSE, (connection, limit) -> {
+                try (PreparedStatement statement = connection.prepareStatement("""
+                    DELETE FROM link_feed_items
+                    WHERE seq IN (
+                      SELECT seq FROM link_feed_items
+                      WHERE first_seen_at < ? AND %s
+                      LIMIT ?
+                    )
+                    """.formatted(SqliteItemFlags.UNSAVED))) {
+                    statement.setLong(1, cutoffNanos);
+                    statement.setInt(2, limit);
+                    return statement.executeUpdate();
+                }
+            }));
     }
 
+    /**
+     * Each batch re-reads the total from the feed counters, so items added by a refresh that
+     * ran between batches are accounted for without counting the item table.
+     */
     @Override
-    public void deleteExcess(long keepCount) {
+    public long deleteExcess(long keepCount) {
         if (keepCount < 0) {
-            return;
+            return 0;
         }
-        database.inTransaction(connection -> {
-            long total = countWhere(connection, null);
-            if (total <= keepCount) {
-                return null;
-            }
-            long deletable = countWhere(connection,
-                "favorite = 0 AND read_later = 0 AND hidden = 0");
-            deleteOldestUnsaved(connection, null, Math.min(total - keepCount, deletable));
-            return null;
-        });
+        return invalidating(() -> SqliteBatchedDelete.run(database, "total limit",
+            retentionBatchSize, SqliteBatchedDelete.DEFAULT_PAUSE, (connection, limit) -> {
+                long excess = countTotal(connection, null) - keepCount;
+                if (excess <= 0) {
+                    return 0;
+                }
+                return deleteOldestUnsaved(connection, null, Math.min(excess, limit));
+            }));
     }
 
     @Override
@@ -250,78 +473,118 @@ public class SqliteLinkFeedItemStore implements LinkFeedItemStore {
         if (!StringUtils.hasText(linkName) || keepCount < 0) {
             return;
         }
-        database.inTransaction(connection -> {
-            long total = countWhere(connection, "link_name = ?", linkName);
+        invalidating(() -> database.inTransaction(connection -> {
+            long total = countTotal(connection, linkName);
             if (total <= keepCount) {
                 return null;
             }
-            long deletable = countWhere(connection,
-                "link_name = ? AND favorite = 0 AND read_later = 0 AND hidden = 0", linkName);
+            long deletable = countWhere(connection, "feed_id IN (" + SqliteItemKeys.FEEDS_OF_LINK
+                + ") AND " + SqliteItemFlags.UNSAVED, linkName);
             deleteOldestUnsaved(connection, linkName,
                 Math.min(total - keepCount, deletable));
             return null;
-        });
+        }));
     }
 
+    /**
+     * Removes the link's feed rows along with its items, since an unsubscribed link's feeds have
+     * nothing left to describe.
+     */
     @Override
     public void deleteByLinkName(String linkName) {
         if (!StringUtils.hasText(linkName)) {
             return;
         }
-        database.inTransaction(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement(
-                "DELETE FROM " + TABLE + " WHERE link_name = ?")) {
-                statement.setString(1, linkName);
-                statement.executeUpdate();
+        invalidating(() -> database.inTransaction(connection -> {
+            try (PreparedStatement items = connection.prepareStatement("DELETE FROM " + TABLE
+                + " WHERE feed_id IN (" + SqliteItemKeys.FEEDS_OF_LINK + ")");
+                PreparedStatement feeds = connection.prepareStatement(
+                    "DELETE FROM " + SqliteItemKeys.FEEDS_TABLE + " WHERE link_name = ?")) {
+                items.setString(1, linkName);
+                items.executeUpdate();
+                feeds.setString(1, linkName);
+                feeds.executeUpdate();
             }
             return null;
-        });
+        }));
     }
 
-    static int upsertAll(Connection connection, List<LinkFeedItem> items) throws SQLException {
+    /**
+     * Writes the items and classifies each one. A skipped conflict update reports no changed
+     * row, and the insert count is the growth of the trigger-maintained feed counters, so the
+     * split needs no extra lookup per item.
+     */
+    static LinkFeedUpsertResult upsertAll(Connection connection, List<LinkFeedItem> items)
+        throws SQLException {
+        long totalBefore = countTotal(connection, null);
+        int changed = 0;
+        Map<String, Long> feedIds = new HashMap<>();
         try (PreparedStatement statement = connection.prepareStatement(upsertSql())) {
             for (LinkFeedItem item : items) {
                 validateItem(item);
-                bindUpsert(statement, item);
+                bindUpsert(statement, item, SqliteItemKeys.feedId(connection, feedIds,
+                    item.getLinkName(), item.getFeedUrl()));
                 statement.addBatch();
             }
-            statement.executeBatch();
-            return items.size();
+            for (int updateCount : statement.executeBatch()) {
+                if (updateCount > 0) {
+                    changed++;
+                }
+            }
         }
+        int inserted = (int) (countTotal(connection, null) - totalBefore);
+        return new LinkFeedUpsertResult(inserted, changed - inserted, items.size() - changed);
     }
 
-    private boolean updateBooleanState(String id, String column, boolean value) {
+    private boolean updateState(String id, int flag, boolean value) {
         if (!StringUtils.hasText(id)) {
             throw new IllegalArgumentException("Feed item id must not be blank.");
         }
-        return database.inTransaction(connection -> {
-            try (PreparedStatement statement = connection.prepareStatement(
-                "UPDATE " + TABLE + " SET " + column + " = ? WHERE id = ?")) {
-                statement.setInt(1, value ? 1 : 0);
-                statement.setString(2, id);
-                return statement.executeUpdate() > 0;
-            }
-        });
+        return invalidating(() -> stateWriteQueue.submit(
+            new SqliteStateWriteQueue.StateChange(id, flag, value, false)));
+    }
+
+    /**
+     * Runs a write and then invalidates the first-page cache, also when the write failed part
+     * way through a batched delete.
+     */
+    private <T> T invalidating(Supplier<T> write) {
+        try {
+            return write.get();
+        } finally {
+            recentPageCache.invalidate();
+        }
+    }
+
+    SqliteStateWriteQueue stateWriteQueue() {
+        return stateWriteQueue;
+    }
+
+    SqliteRecentPageCache recentPageCache() {
+        return recentPageCache;
     }
 
     private static void upsert(Connection connection, LinkFeedItem item) throws SQLException {
+        Long feedId = SqliteItemKeys.feedId(connection, new HashMap<>(), item.getLinkName(),
+            item.getFeedUrl());
         try (PreparedStatement statement = connection.prepareStatement(upsertSql())) {
-            bindUpsert(statement, item);
+            bindUpsert(statement, item, feedId);
             statement.executeUpdate();
         }
     }
 
-    private static void deleteOldestUnsaved(Connection connection, String linkName,
+    private static int deleteOldestUnsaved(Connection connection, String linkName,
         long deleteCount) throws SQLException {
         if (deleteCount <= 0) {
-            return;
+            return 0;
         }
         String sql = """
             DELETE FROM link_feed_items
-            WHERE id IN (
-              SELECT id FROM link_feed_items
-              WHERE favorite = 0 AND read_later = 0 AND hidden = 0
-            """ + (StringUtils.hasText(linkName) ? " AND link_name = ?" : "") + """
+            WHERE seq IN (
+              SELECT seq FROM link_feed_items
+              WHERE %s
+            """.formatted(SqliteItemFlags.UNSAVED) + (StringUtils.hasText(linkName)
+            ? " AND feed_id IN (" + SqliteItemKeys.FEEDS_OF_LINK + ")" : "") + """
               ORDER BY published_at ASC, id ASC
               LIMIT ?
             )
@@ -332,7 +595,22 @@ public class SqliteLinkFeedItemStore implements LinkFeedItemStore {
                 statement.setString(index++, linkName);
             }
             statement.setLong(index, deleteCount);
-            statement.executeUpdate();
+            return statement.executeUpdate();
+        }
+    }
+
+    private static long countTotal(Connection connection, String linkName) throws SQLException {
+        String sql = linkName == null
+            ? "SELECT coalesce(sum(total), 0) FROM " + COUNTERS_TABLE
+            : "SELECT coalesce(sum(c.total), 0) FROM " + COUNTERS_WITH_FEEDS
+                + " WHERE f.link_name = ?";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            if (linkName != null) {
+                statement.setString(1, linkName);
+            }
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getLong(1) : 0;
+            }
         }
     }
 
@@ -349,7 +627,7 @@ public class SqliteLinkFeedItemStore implements LinkFeedItemStore {
     }
 
     private long queryForLong(String sql, Object... params) {
-        return database.execute(connection -> {
+        return database.query(connection -> {
             try (PreparedStatement statement = connection.prepareStatement(sql)) {
                 bindParams(statement, List.of(params));
                 try (ResultSet result = statement.executeQuery()) {
@@ -359,16 +637,21 @@ public class SqliteLinkFeedItemStore implements LinkFeedItemStore {
         });
     }
 
+    /**
+     * A conflicting row is only rewritten when one of the fetched columns differs, so an
+     * unchanged entry costs no WAL frames, index updates or trigger work. Its {@code fetched_at}
+     * therefore records the last content write; per-feed fetch times live in the link status.
+     */
     private static String upsertSql() {
         return """
             INSERT INTO link_feed_items (
-              id, link_name, feed_url, guid, url, title, summary, author,
+              id, feed_id, guid, url, title, summary, author,
               published_at, updated_at, first_seen_at, fetched_at, content_hash,
-              read, favorite, read_later, hidden
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+              flags, group_name
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
             ON CONFLICT(id) DO UPDATE SET
-              link_name = excluded.link_name,
-              feed_url = excluded.feed_url,
+              feed_id = excluded.feed_id,
+              group_name = excluded.group_name,
               guid = excluded.guid,
               url = excluded.url,
               title = excluded.title,
@@ -383,28 +666,36 @@ public class SqliteLinkFeedItemStore implements LinkFeedItemStore {
               ),
               fetched_at = excluded.fetched_at,
               content_hash = excluded.content_hash
+            WHERE link_feed_items.content_hash IS NOT excluded.content_hash
+              OR link_feed_items.title IS NOT excluded.title
+              OR link_feed_items.summary IS NOT excluded.summary
+              OR link_feed_items.author IS NOT excluded.author
+              OR link_feed_items.url IS NOT excluded.url
+              OR link_feed_items.guid IS NOT excluded.guid
+              OR link_feed_items.published_at IS NOT excluded.published_at
+              OR link_feed_items.updated_at IS NOT excluded.updated_at
+              OR link_feed_items.feed_id IS NOT excluded.feed_id
+              OR link_feed_items.group_name IS NOT excluded.group_name
             """;
     }
 
-    private static void bindUpsert(PreparedStatement statement, LinkFeedItem item)
+    private static void bindUpsert(PreparedStatement statement, LinkFeedItem item, Long feedId)
         throws SQLException {
-        statement.setString(1, item.getId());
-        statement.setString(2, item.getLinkName());
-        statement.setString(3, item.getFeedUrl());
-        statement.setString(4, item.getGuid());
-        statement.setString(5, item.getUrl());
-        statement.setString(6, item.getTitle());
-        statement.setString(7, item.getSummary());
-        statement.setString(8, item.getAuthor());
-        statement.setString(9, toString(item.getPublishedAt()));
-        statement.setString(10, toString(item.getUpdatedAt()));
-        statement.setString(11, toString(item.getFirstSeenAt()));
-        statement.setString(12, toString(item.getFetchedAt()));
-        statement.setString(13, item.getContentHash());
-        statement.setInt(14, Boolean.TRUE.equals(item.getRead()) ? 1 : 0);
-        statement.setInt(15, Boolean.TRUE.equals(item.getFavorite()) ? 1 : 0);
-        statement.setInt(16, Boolean.TRUE.equals(item.getReadLater()) ? 1 : 0);
-        statement.setInt(17, Boolean.TRUE.equals(item.getHidden()) ? 1 : 0);
+        SqliteItemKeys.bindId(statement, 1, item.getId());
+        SqliteItemKeys.bindFeedId(statement, 2, feedId);
+        statement.setString(3, item.getGuid());
+        statement.setString(4, item.getUrl());
+        statement.setString(5, item.getTitle());
+        statement.setString(6, item.getSummary());
+        statement.setString(7, item.getAuthor());
+        bindInstant(statement, 8, item.getPublishedAt());
+        bindInstant(statement, 9, item.getUpdatedAt());
+        bindInstant(statement, 10, item.getFirstSeenAt());
+        bindInstant(statement, 11, item.getFetchedAt());
+        statement.setString(12, item.getContentHash());
+        statement.setInt(13, SqliteItemFlags.of(item));
+        statement.setString(14, StringUtils.hasText(item.getGroupName())
+            ? item.getGroupName() : null);
     }
 
     private static void bindParams(PreparedStatement statement, List<Object> params)
@@ -415,46 +706,62 @@ public class SqliteLinkFeedItemStore implements LinkFeedItemStore {
                 statement.setLong(i + 1, value);
             } else if (param instanceof Integer value) {
                 statement.setInt(i + 1, value);
+            } else if (param instanceof Double value) {
+                statement.setDouble(i + 1, value);
+            } else if (param instanceof byte[] value) {
+                statement.setBytes(i + 1, value);
             } else {
                 statement.setString(i + 1, param == null ? null : param.toString());
             }
         }
     }
 
-    static Optional<LinkFeedItem> parseRow(ResultSet result) {
+    /**
+     * Decodes one row selected with {@link #columns} for the projection, by column position.
+     */
+    static Optional<LinkFeedItem> parseRow(ResultSet result, LinkFeedItemProjection projection) {
         try {
-            LinkFeedItem item = new LinkFeedItem();
-            item.setId(result.getString("id"));
-            item.setLinkName(result.getString("link_name"));
-            item.setFeedUrl(result.getString("feed_url"));
-            item.setGuid(result.getString("guid"));
-            item.setUrl(result.getString("url"));
-            item.setTitle(result.getString("title"));
-            item.setSummary(result.getString("summary"));
-            item.setAuthor(result.getString("author"));
-            item.setPublishedAt(parseInstant(result.getString("published_at")));
-            item.setUpdatedAt(parseInstant(result.getString("updated_at")));
-            item.setFetchedAt(parseInstant(result.getString("fetched_at")));
-            Instant firstSeenAt = parseInstant(result.getString("first_seen_at"));
-            item.setFirstSeenAt(Optional.ofNullable(firstSeenAt).orElse(item.getFetchedAt()));
-            item.setContentHash(result.getString("content_hash"));
-            item.setRead(result.getInt("read") == 1);
-            item.setFavorite(result.getInt("favorite") == 1);
-            item.setReadLater(result.getInt("read_later") == 1);
-            item.setHidden(result.getInt("hidden") == 1);
-            return Optional.of(item);
+            return Optional.of(projection == LinkFeedItemProjection.PUBLIC
+                ? parsePublicRow(result) : parseFullRow(result));
         } catch (Exception e) {
             log.warn("[plugin-links] Failed to parse RSS SQLite row", e);
             return Optional.empty();
         }
     }
 
-    private static void appendBooleanFilter(StringBuilder sql, List<Object> params,
-        String column, Boolean value) {
-        if (value != null) {
-            sql.append(" AND ").append(column).append(" = ?");
-            params.add(value ? 1 : 0);
-        }
+    private static LinkFeedItem parseFullRow(ResultSet result) throws SQLException {
+        LinkFeedItem item = new LinkFeedItem();
+        item.setId(SqliteItemKeys.readId(result, 1));
+        item.setLinkName(result.getString(2));
+        item.setGroupName(result.getString(3));
+        item.setFeedUrl(result.getString(4));
+        item.setGuid(result.getString(5));
+        item.setUrl(result.getString(6));
+        item.setTitle(result.getString(7));
+        item.setSummary(result.getString(8));
+        item.setAuthor(result.getString(9));
+        item.setPublishedAt(readInstant(result, 10));
+        item.setUpdatedAt(readInstant(result, 11));
+        Instant firstSeenAt = readInstant(result, 12);
+        item.setFetchedAt(readInstant(result, 13));
+        item.setFirstSeenAt(firstSeenAt == null ? item.getFetchedAt() : firstSeenAt);
+        item.setContentHash(result.getString(14));
+        SqliteItemFlags.apply(item, result.getInt(15));
+        return item;
+    }
+
+    private static LinkFeedItem parsePublicRow(ResultSet result) throws SQLException {
+        LinkFeedItem item = new LinkFeedItem();
+        item.setId(SqliteItemKeys.readId(result, 1));
+        item.setLinkName(result.getString(2));
+        item.setUrl(result.getString(3));
+        item.setTitle(result.getString(4));
+        item.setSummary(result.getString(5));
+        item.setAuthor(result.getString(6));
+        item.setPublishedAt(readInstant(result, 7));
+        item.setUpdatedAt(readInstant(result, 8));
+        item.setFetchedAt(readInstant(result, 9));
+        return item;
     }
 
     private static Comparator<LinkFeedItem> recentComparator() {
@@ -475,19 +782,36 @@ public class SqliteLinkFeedItemStore implements LinkFeedItemStore {
         return item.getFetchedAt();
     }
 
-    private static Instant parseInstant(String value) {
-        if (!StringUtils.hasText(value)) {
-            return null;
+    static void bindInstant(PreparedStatement statement, int index, Instant instant)
+        throws SQLException {
+        if (instant == null) {
+            statement.setNull(index, Types.INTEGER);
+        } else {
+            statement.setLong(index, toEpochNanos(instant));
         }
+    }
+
+    private static Instant readInstant(ResultSet result, int column) throws SQLException {
+        long value = result.getLong(column);
+        return result.wasNull() ? null : fromEpochNanos(value);
+    }
+
+    /**
+     * Encodes an instant as epoch nanoseconds. Instants outside the signed 64-bit range
+     * (roughly years 1677 to 2262) clamp to the nearest bound so they still sort correctly.
+     */
+    static long toEpochNanos(Instant instant) {
         try {
-            return Instant.parse(value);
-        } catch (DateTimeParseException e) {
-            return null;
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND),
+                instant.getNano());
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
         }
     }
 
-    private static String toString(Instant instant) {
-        return instant == null ? null : SQLITE_INSTANT_FORMATTER.format(instant);
+    static Instant fromEpochNanos(long value) {
+        return Instant.ofEpochSecond(Math.floorDiv(value, NANOS_PER_SECOND),
+            Math.floorMod(value, NANOS_PER_SECOND));
     }
 
     private static void validateItem(LinkFeedItem item) {
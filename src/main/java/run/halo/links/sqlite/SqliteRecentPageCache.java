@@ -0,0 +1,182 @@
+package run.halo.links.sqlite;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.springframework.util.StringUtils;
+import run.halo.links.rss.LinkFeedItem;
+import run.halo.links.rss.LinkFeedItemProjection;
+import run.halo.links.rss.LinkFeedItemQuery;
+
+/**
+ * Bounded cache of the first timeline page. Theme pages ask for the same first page on every
+ * view, while the rows behind it only change on refresh, state toggles and cleanup.
+ *
+ * <p>Every write through the store bumps a store-wide version. An entry filled under an older
+ * version counts as a miss and is replaced by the next fill, so a read never needs to know which
+ * pages a write touched. Only cursor-less, non-search queries are cached; the least recently used
+ * entry is evicted once {@code maxEntries} is reached. Items are copied on the way in and out,
+ * so a caller cannot change what the next reader sees. Hits, misses and the entry count are
+ * published as meters.
+ */
+final class SqliteRecentPageCache {
+
+    static final int DEFAULT_MAX_ENTRIES = 256;
+    static final String LOOKUPS_METRIC = "links.rss.sqlite.page.cache.lookups";
+    static final String SIZE_METRIC = "links.rss.sqlite.page.cache.size";
+
+    private final int maxEntries;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Map<Key, Entry> entries;
+    private List<Meter> meters = List.of();
+
+    SqliteRecentPageCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > SqliteRecentPageCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached page for {@code query}, or loads and caches it. Queries with a cursor
+     * or search terms always go to {@code loader}.
+     */
+    List<LinkFeedItem> get(LinkFeedItemQuery query, Supplier<List<LinkFeedItem>> loader) {
+        if (maxEntries <= 0 || !isCacheable(query)) {
+            return loader.get();
+        }
+        Key key = Key.of(query);
+        long current = version.get();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && entry.version() == current) {
+            hits.incrementAndGet();
+            return copy(entry.items());
+        }
+        misses.incrementAndGet();
+        List<LinkFeedItem> items = loader.get();
+        List<LinkFeedItem> cached = copy(items);
+        synchronized (entries) {
+            if (version.get() == current) {
+                entries.put(key, new Entry(current, cached));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Marks every cached page stale. Called after each write has committed, so a page loaded
+     * before the write can no longer be served.
+     */
+    void invalidate() {
+        version.incrementAndGet();
+    }
+
+    void registerMeters(MeterRegistry registry) {
+        meters = List.of(
+            FunctionCounter.builder(LOOKUPS_METRIC, this, SqliteRecentPageCache::hits)
+                .description("RSS first-page timeline cache lookups, by result")
+                .tag("result", "hit")
+                .register(registry),
+            FunctionCounter.builder(LOOKUPS_METRIC, this, SqliteRecentPageCache::misses)
+                .description("RSS first-page timeline cache lookups, by result")
+                .tag("result", "miss")
+                .register(registry),
+            Gauge.builder(SIZE_METRIC, this, SqliteRecentPageCache::size)
+                .description("Pages held by the RSS first-page timeline cache")
+                .register(registry));
+    }
+
+    void removeMeters(MeterRegistry registry) {
+        meters.forEach(registry::remove);
+        meters = List.of();
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    static boolean isCacheable(LinkFeedItemQuery query) {
+        return !StringUtils.hasText(query.getQ())
+            && query.getBeforePublishedAt() == null
+            && !StringUtils.hasText(query.getBeforeId())
+            && query.getBeforeRank() == null;
+    }
+
+    private static List<LinkFeedItem> copy(List<LinkFeedItem> items) {
+        List<LinkFeedItem> copies = new ArrayList<>(items.size());
+        for (LinkFeedItem item : items) {
+            copies.add(copy(item));
+        }
+        return copies;
+    }
+
+    private static LinkFeedItem copy(LinkFeedItem item) {
+        LinkFeedItem copy = new LinkFeedItem();
+        copy.setId(item.getId());
+        copy.setLinkName(item.getLinkName());
+        copy.setGroupName(item.getGroupName());
+        copy.setFeedUrl(item.getFeedUrl());
+        copy.setGuid(item.getGuid());
+        copy.setUrl(item.getUrl());
+        copy.setTitle(item.getTitle());
+        copy.setSummary(item.getSummary());
+        copy.setAuthor(item.getAuthor());
+        copy.setPublishedAt(item.getPublishedAt());
+        copy.setUpdatedAt(item.getUpdatedAt());
+        copy.setFirstSeenAt(item.getFirstSeenAt());
+        copy.setFetchedAt(item.getFetchedAt());
+        copy.setContentHash(item.getContentHash());
+        copy.setRead(item.getRead());
+        copy.setFavorite(item.getFavorite());
+        copy.setReadLater(item.getReadLater());
+        copy.setHidden(item.getHidden());
+        copy.setSearchRank(item.getSearchRank());
+        return copy;
+    }
+
+    private record Key(
+        String linkName,
+        String groupName,
+        Boolean read,
+        Boolean favorite,
+        Boolean readLater,
+        boolean hidden,
+        int limit,
+        LinkFeedItemProjection projection
+    ) {
+
+        static Key of(LinkFeedItemQuery query) {
+            return new Key(query.getLinkName(), query.getGroupName(), query.getRead(),
+                query.getFavorite(), query.getReadLater(), Boolean.TRUE.equals(query.getHidden()),
+                query.normalizedFetchLimit(), query.getProjection());
+        }
+    }
+
+    private record Entry(long version, List<LinkFeedItem> items) {
+    }
+}
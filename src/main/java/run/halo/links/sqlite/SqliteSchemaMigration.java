@@ -0,0 +1,382 @@
+package run.halo.links.sqlite;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.StringUtils;
+
+/**
+ * Upgrades an existing RSS SQLite database to {@link LinksSqliteDatabase#SCHEMA_VERSION} in
+ * place. Every step runs inside one transaction so an interrupted upgrade leaves the previous
+ * layout intact.
+ */
+@Slf4j
+final class SqliteSchemaMigration {
+
+    private static final String ITEMS_TABLE = "link_feed_items";
+    private static final String TEXT_TIMESTAMP_ITEMS_TABLE = "link_feed_items_v1";
+    private static final String TEXT_KEY_ITEMS_TABLE = "link_feed_items_v4";
+    private static final String DENORMALIZED_ITEMS_TABLE = "link_feed_items_v5";
+    private static final String STATE_COLUMNS_ITEMS_TABLE = "link_feed_items_v6";
+    private static final int COPY_BATCH_SIZE = 1_000;
+
+    private SqliteSchemaMigration() {
+    }
+
+    static void migrate(Connection connection) throws SQLException {
+        int version = userVersion(connection);
+        if (version >= LinksSqliteDatabase.SCHEMA_VERSION
+            || !tableExists(connection, ITEMS_TABLE)) {
+            return;
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            if (version < 2) {
+                migrateToIntegerTimestamps(connection);
+            }
+            if (version < 3) {
+                addGroupNameColumn(connection);
+            }
+            if (version < 5) {
+                migrateToIntegerKey(connection);
+            }
+            if (version < 6) {
+                migrateToCompactKeys(connection);
+            }
+            if (version < 7) {
+                migrateToStateFlags(connection);
+            }
+            SqliteFeedCounters.rebuild(connection);
+            if (version < 5) {
+                SqliteFeedSearchIndex.rebuild(connection);
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA user_version = " + LinksSqliteDatabase.SCHEMA_VERSION);
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        log.info("[plugin-links] Migrated RSS SQLite schema from version {} to {}", version,
+            LinksSqliteDatabase.SCHEMA_VERSION);
+    }
+
+    /**
+     * Version 1 stored timestamps as ISO-8601 TEXT, so every cursor comparison was a string
+     * comparison and every row needed four {@link Instant#parse} calls.
+     */
+    private static void migrateToIntegerTimestamps(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + ITEMS_TABLE + " RENAME TO "
+                + TEXT_TIMESTAMP_ITEMS_TABLE);
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE link_feed_items (
+                  id TEXT PRIMARY KEY,
+                  link_name TEXT,
+                  feed_url TEXT,
+                  guid TEXT,
+                  url TEXT,
+                  title TEXT,
+                  summary TEXT,
+                  author TEXT,
+                  published_at INTEGER,
+                  updated_at INTEGER,
+                  first_seen_at INTEGER,
+                  fetched_at INTEGER,
+                  content_hash TEXT,
+                  read INTEGER NOT NULL DEFAULT 0 CHECK (read IN (0, 1)),
+                  favorite INTEGER NOT NULL DEFAULT 0 CHECK (favorite IN (0, 1)),
+                  read_later INTEGER NOT NULL DEFAULT 0 CHECK (read_later IN (0, 1)),
+                  hidden INTEGER NOT NULL DEFAULT 0 CHECK (hidden IN (0, 1))
+                )
+                """);
+        }
+        String hidden = columnExists(connection, TEXT_TIMESTAMP_ITEMS_TABLE, "hidden")
+            ? "hidden" : "0";
+        long copied = 0;
+        long unparsable = 0;
+        try (Statement select = connection.createStatement();
+            ResultSet rows = select.executeQuery("""
+                SELECT id, link_name, feed_url, guid, url, title, summary, author,
+                  published_at, updated_at, first_seen_at, fetched_at, content_hash,
+                  read, favorite, read_later, %s
+                FROM %s
+                """.formatted(hidden, TEXT_TIMESTAMP_ITEMS_TABLE));
+            PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO link_feed_items (
+                  id, link_name, feed_url, guid, url, title, summary, author,
+                  published_at, updated_at, first_seen_at, fetched_at, content_hash,
+                  read, favorite, read_later, hidden
+                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """)) {
+            while (rows.next()) {
+                for (int i = 1; i <= 8; i++) {
+                    insert.setString(i, rows.getString(i));
+                }
+                for (int i = 9; i <= 12; i++) {
+                    String value = rows.getString(i);
+                    Instant instant = parseInstant(value);
+                    if (instant == null && StringUtils.hasText(value)) {
+                        unparsable++;
+                    }
+                    SqliteLinkFeedItemStore.bindInstant(insert, i, instant);
+                }
+                insert.setString(13, rows.getString(13));
+                for (int i = 14; i <= 17; i++) {
+                    insert.setInt(i, rows.getInt(i) == 1 ? 1 : 0);
+                }
+                insert.addBatch();
+                if (++copied % COPY_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + TEXT_TIMESTAMP_ITEMS_TABLE);
+        }
+        if (unparsable > 0) {
+            log.warn("[plugin-links] Cleared {} unparsable RSS timestamp value(s) while "
+                + "migrating to integer timestamps", unparsable);
+        }
+        log.info("[plugin-links] Converted {} RSS item(s) to integer timestamps", copied);
+    }
+
+    /**
+     * Version 3 denormalizes the owning link's group so a group timeline is one indexed query.
+     * Existing rows start without a group until the link reconciler backfills them.
+     */
+    private static void addGroupNameColumn(Connection connection) throws SQLException {
+        if (columnExists(connection, ITEMS_TABLE, "group_name")) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + ITEMS_TABLE + " ADD COLUMN group_name TEXT");
+        }
+    }
+
+    /**
+     * Version 5 adds an explicit {@code seq} rowid alias. The full-text index refers to items by
+     * rowid, and VACUUM may renumber implicit rowids.
+     */
+    private static void migrateToIntegerKey(Connection connection) throws SQLException {
+        if (columnExists(connection, ITEMS_TABLE, "seq")) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + ITEMS_TABLE + " RENAME TO " + TEXT_KEY_ITEMS_TABLE);
+            statement.execute("""
+                CREATE TABLE link_feed_items (
+                  seq INTEGER PRIMARY KEY,
+                  id TEXT NOT NULL UNIQUE,
+                  link_name TEXT,
+                  group_name TEXT,
+                  feed_url TEXT,
+                  guid TEXT,
+                  url TEXT,
+                  title TEXT,
+                  summary TEXT,
+                  author TEXT,
+                  published_at INTEGER,
+                  updated_at INTEGER,
+                  first_seen_at INTEGER,
+                  fetched_at INTEGER,
+                  content_hash TEXT,
+                  read INTEGER NOT NULL DEFAULT 0 CHECK (read IN (0, 1)),
+                  favorite INTEGER NOT NULL DEFAULT 0 CHECK (favorite IN (0, 1)),
+                  read_later INTEGER NOT NULL DEFAULT 0 CHECK (read_later IN (0, 1)),
+                  hidden INTEGER NOT NULL DEFAULT 0 CHECK (hidden IN (0, 1))
+                )
+                """);
+            statement.execute("""
+                INSERT INTO link_feed_items (
+                  id, link_name, group_name, feed_url, guid, url, title, summary, author,
+                  published_at, updated_at, first_seen_at, fetched_at, content_hash,
+                  read, favorite, read_later, hidden
+                )
+                SELECT
+                  id, link_name, group_name, feed_url, guid, url, title, summary, author,
+                  published_at, updated_at, first_seen_at, fetched_at, content_hash,
+                  read, favorite, read_later, hidden
+                FROM link_feed_items_v4
+                WHERE id IS NOT NULL
+                ORDER BY rowid
+                """);
+            statement.execute("DROP TABLE " + TEXT_KEY_ITEMS_TABLE);
+        }
+    }
+
+    /**
+     * Version 6 stores SHA-256 hex ids as 32-byte BLOBs and moves the link name and feed URL
+     * that every row repeated, along with the indexes that copied them, into {@code link_feeds}.
+     * {@code seq} values are kept, so the full-text index stays valid.
+     */
+    private static void migrateToCompactKeys(Connection connection) throws SQLException {
+        if (columnExists(connection, ITEMS_TABLE, "feed_id")) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + ITEMS_TABLE + " RENAME TO "
+                + DENORMALIZED_ITEMS_TABLE);
+        }
+        SqliteItemKeys.createFeedsTable(connection);
+        long copied;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                INSERT OR IGNORE INTO link_feeds (link_name, feed_url)
+                SELECT coalesce(link_name, ''), coalesce(feed_url, '')
+                FROM link_feed_items_v5
+                WHERE coalesce(link_name, '') != '' OR coalesce(feed_url, '') != ''
+                ORDER BY seq
+                """);
+            statement.execute("""
+                CREATE TABLE link_feed_items (
+                  seq INTEGER PRIMARY KEY,
+                  id BLOB NOT NULL UNIQUE,
+                  feed_id INTEGER REFERENCES link_feeds (feed_id),
+                  group_name TEXT,
+                  guid TEXT,
+                  url TEXT,
+                  title TEXT,
+                  summary TEXT,
+                  author TEXT,
+                  published_at INTEGER,
+                  updated_at INTEGER,
+                  first_seen_at INTEGER,
+                  fetched_at INTEGER,
+                  content_hash TEXT,
+                  read INTEGER NOT NULL DEFAULT 0 CHECK (read IN (0, 1)),
+                  favorite INTEGER NOT NULL DEFAULT 0 CHECK (favorite IN (0, 1)),
+                  read_later INTEGER NOT NULL DEFAULT 0 CHECK (read_later IN (0, 1)),
+                  hidden INTEGER NOT NULL DEFAULT 0 CHECK (hidden IN (0, 1))
+                )
+                """);
+            copied = statement.executeUpdate("""
+                INSERT INTO link_feed_items (
+                  seq, id, feed_id, group_name, guid, url, title, summary, author,
+                  published_at, updated_at, first_seen_at, fetched_at, content_hash,
+                  read, favorite, read_later, hidden
+                )
+                SELECT
+                  o.seq,
+                  CASE
+                    WHEN length(o.id) = 64 AND o.id NOT GLOB '*[^0-9a-f]*' THEN unhex(o.id)
+                    ELSE o.id
+                  END,
+                  f.feed_id, o.group_name, o.guid, o.url, o.title, o.summary, o.author,
+                  o.published_at, o.updated_at, o.first_seen_at, o.fetched_at, o.content_hash,
+                  o.read, o.favorite, o.read_later, o.hidden
+                FROM link_feed_items_v5 o
+                LEFT JOIN link_feeds f
+                  ON f.link_name = coalesce(o.link_name, '')
+                  AND f.feed_url = coalesce(o.feed_url, '')
+                ORDER BY o.seq
+                """);
+            statement.execute("DROP TABLE " + DENORMALIZED_ITEMS_TABLE);
+        }
+        log.info("[plugin-links] Moved {} RSS item(s) to binary ids and the feeds table", copied);
+    }
+
+    /**
+     * Version 7 packs the four boolean state columns into {@code flags}, so a toggle no longer
+     * updates a composite state index and timeline filters can use per-state partial indexes.
+     * {@code seq} values are kept, so the full-text index stays valid.
+     */
+    private static void migrateToStateFlags(Connection connection) throws SQLException {
+        if (columnExists(connection, ITEMS_TABLE, "flags")) {
+            return;
+        }
+        long copied;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE " + ITEMS_TABLE + " RENAME TO "
+                + STATE_COLUMNS_ITEMS_TABLE);
+            statement.execute("""
+                CREATE TABLE link_feed_items (
+                  seq INTEGER PRIMARY KEY,
+                  id BLOB NOT NULL UNIQUE,
+                  feed_id INTEGER REFERENCES link_feeds (feed_id),
+                  group_name TEXT,
+                  guid TEXT,
+                  url TEXT,
+                  title TEXT,
+                  summary TEXT,
+                  author TEXT,
+                  published_at INTEGER,
+                  updated_at INTEGER,
+                  first_seen_at INTEGER,
+                  fetched_at INTEGER,
+                  content_hash TEXT,
+                  flags INTEGER NOT NULL DEFAULT 0 CHECK (flags BETWEEN 0 AND 15)
+                )
+                """);
+            copied = statement.executeUpdate("""
+                INSERT INTO link_feed_items (
+                  seq, id, feed_id, group_name, guid, url, title, summary, author,
+                  published_at, updated_at, first_seen_at, fetched_at, content_hash, flags
+                )
+                SELECT
+                  seq, id, feed_id, group_name, guid, url, title, summary, author,
+                  published_at, updated_at, first_seen_at, fetched_at, content_hash,
+                  (read = 1) * %d | (favorite = 1) * %d | (read_later = 1) * %d
+                    | (hidden = 1) * %d
+                FROM link_feed_items_v6
+                ORDER BY seq
+                """.formatted(SqliteItemFlags.READ, SqliteItemFlags.FAVORITE,
+                SqliteItemFlags.READ_LATER, SqliteItemFlags.HIDDEN));
+            statement.execute("DROP TABLE " + STATE_COLUMNS_ITEMS_TABLE);
+        }
+        log.info("[plugin-links] Packed the states of {} RSS item(s) into flags", copied);
+    }
+
+    private static Instant parseInstant(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static int userVersion(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+            ResultSet result = statement.executeQuery("PRAGMA user_version")) {
+            return result.next() ? result.getInt(1) : 0;
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "SELECT count(*) FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+            statement.setString(1, table);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) > 0;
+            }
+        }
+    }
+
+    private static boolean columnExists(Connection connection, String table, String column)
+        throws SQLException {
+        try (Statement statement = connection.createStatement();
+            ResultSet columns = statement.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("name"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
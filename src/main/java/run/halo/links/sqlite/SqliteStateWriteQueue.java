@@ -0,0 +1,201 @@
+package run.halo.links.sqlite;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coalesces single-item state toggles into group commits. Each committed transaction pays one
+ * fsync under {@code synchronous = FULL}, so a burst of toggles from a scrolling reader shares
+ * one commit instead of queueing one commit per click.
+ *
+ * <p>The first caller of an idle queue becomes the leader: it waits for a short window, drains
+ * the pending changes and applies them in one transaction while later callers wait for their own
+ * result. Callers still receive a per-item result, and a failed batch rethrows to every caller
+ * in it.
+ */
+final class SqliteStateWriteQueue {
+
+    static final Duration DEFAULT_WINDOW = Duration.ofMillis(2);
+    static final int MAX_BATCH_SIZE = 256;
+
+    private final LinksSqliteDatabase database;
+    private final long windowNanos;
+    private final Object lock = new Object();
+    private final ArrayDeque<PendingChange> pending = new ArrayDeque<>();
+    private final AtomicLong committedBatches = new AtomicLong();
+    private boolean leading;
+
+    SqliteStateWriteQueue(LinksSqliteDatabase database, Duration window) {
+        this.database = database;
+        this.windowNanos = window.toNanos();
+    }
+
+    /**
+     * Applies the change in the next group commit and returns whether it matched a row.
+     */
+    boolean submit(StateChange change) {
+        PendingChange current = new PendingChange(change);
+        synchronized (lock) {
+            pending.addLast(current);
+        }
+        while (true) {
+            synchronized (lock) {
+                while (!current.done && leading) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while waiting for feed item "
+                            + "state update", e);
+                    }
+                }
+                if (current.done) {
+                    return current.result();
+                }
+                leading = true;
+            }
+            try {
+                if (windowNanos > 0) {
+                    LockSupport.parkNanos(windowNanos);
+                }
+                commitBatch();
+            } finally {
+                synchronized (lock) {
+                    leading = false;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of transactions committed by the queue, which is the number of state-toggle fsyncs.
+     */
+    long committedBatches() {
+        return committedBatches.get();
+    }
+
+    private void commitBatch() {
+        List<PendingChange> batch = new ArrayList<>();
+        synchronized (lock) {
+            while (!pending.isEmpty() && batch.size() < MAX_BATCH_SIZE) {
+                batch.add(pending.pollFirst());
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            boolean[] results = database.inTransaction(connection -> {
+                boolean[] applied = new boolean[batch.size()];
+                Map<String, PreparedStatement> statements = new HashMap<>();
+                try {
+                    for (int i = 0; i < batch.size(); i++) {
+                        StateChange change = batch.get(i).change;
+                        PreparedStatement statement = statements.get(change.sql());
+                        if (statement == null) {
+                            statement = connection.prepareStatement(change.sql());
+                            statements.put(change.sql(), statement);
+                        }
+                        applied[i] = change.apply(statement) > 0;
+                    }
+                } finally {
+                    closeAll(statements.values());
+                }
+                return applied;
+            });
+            committedBatches.incrementAndGet();
+            synchronized (lock) {
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).complete(results[i], null);
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                batch.forEach(change -> change.complete(false, e));
+            }
+        } catch (Error e) {
+            IllegalStateException failure =
+                new IllegalStateException("Feed item state update failed", e);
+            synchronized (lock) {
+                batch.forEach(change -> change.complete(false, failure));
+            }
+            throw e;
+        }
+    }
+
+    private static void closeAll(Iterable<PreparedStatement> statements) throws SQLException {
+        SQLException failure = null;
+        for (PreparedStatement statement : statements) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Sets or clears one {@link SqliteItemFlags} bit of one item. When {@code onlyIfChanged} is
+     * set the change only matches rows whose bit actually differs.
+     */
+    record StateChange(String id, int flag, boolean value, boolean onlyIfChanged) {
+
+        String sql() {
+            return "UPDATE link_feed_items SET flags = (flags & ~?) | ? WHERE id = ?"
+                + (onlyIfChanged ? " AND flags & ? != ?" : "");
+        }
+
+        int apply(PreparedStatement statement) throws SQLException {
+            int state = value ? flag : 0;
+            statement.setInt(1, flag);
+            statement.setInt(2, state);
+            SqliteItemKeys.bindId(statement, 3, id);
+            if (onlyIfChanged) {
+                statement.setInt(4, flag);
+                statement.setInt(5, state);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    private static final class PendingChange {
+
+        private final StateChange change;
+        private boolean done;
+        private boolean applied;
+        private RuntimeException failure;
+
+        private PendingChange(StateChange change) {
+            this.change = change;
+        }
+
+        private void complete(boolean applied, RuntimeException failure) {
+            this.applied = applied;
+            this.failure = failure;
+            this.done = true;
+        }
+
+        private boolean result() {
+            if (failure != null) {
+                throw failure;
+            }
+            return applied;
+        }
+    }
+}
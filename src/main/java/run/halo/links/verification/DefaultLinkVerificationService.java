@@ -30,7 +30,6 @@ import run.halo.app.extension.ListOptions;
 import run.halo.app.extension.ReactiveExtensionClient;
 import run.halo.app.infra.ExternalUrlSupplier;
 import run.halo.links.extension.Link;
-import run.halo.links.security.SafeUrlFetcher;
 
 @Slf4j
 @Component
@@ -84,7 +83,7 @@ public class DefaultLinkVerificationService implements LinkVerificationService {
         verification.setBacklinkScanUrl(scanUrl);
         spec.setVerification(verification);
         link.setSpec(spec);
-        return Mono.fromCallable(() -> verifyBacklinkBlocking(link))
+        return verifyBacklinkStatus(link)
             .subscribeOn(scheduler);
     }
 
@@ -101,8 +100,7 @@ public class DefaultLinkVerificationService implements LinkVerificationService {
         LinkVerificationMode normalizedMode = normalizedMode(mode);
         return startVerification(linkName, normalizedMode)
             .flatMap(context ->
-                Mono.fromCallable(() -> verifyBlocking(context.link(), context.previousBacklink(),
-                        normalizedMode))
+                verifyStatus(context.link(), context.previousBacklink(), normalizedMode)
                     .subscribeOn(scheduler)
                     .flatMap(status -> updateVerificationStatus(linkName, status))
                     .doOnNext(updatedLink -> log.info("[plugin-links] Link verification completed "
@@ -204,90 +202,106 @@ public class DefaultLinkVerificationService implements LinkVerificationService {
         return result;
     }
 
-    private Link.VerificationStatus verifyBlocking(Link link,
+    /**
+     * Checks access and then, in full mode, the backlink. Fetches do not hold a verification
+     * thread while waiting for the remote site; only parsing the backlink page runs on the
+     * verification scheduler.
+     */
+    private Mono<Link.VerificationStatus> verifyStatus(Link link,
         Link.BacklinkStatus previousBacklink, LinkVerificationMode mode) {
-        Link.VerificationStatus status = new Link.VerificationStatus();
-        Link.AccessStatus access = verifyAccess(link);
-        Link.BacklinkStatus backlink = mode.includeBacklink()
-            ? verifyBacklinkBlocking(link)
-            : previousBacklink;
-        status.setAccess(access);
-        status.setBacklink(backlink);
-        status.setLastCheckedAt(mode.includeBacklink() && backlink != null
-            ? maxCheckedAt(access.getCheckedAt(), backlink.getCheckedAt())
-            : access.getCheckedAt());
-        return status;
+        Mono<Optional<Link.BacklinkStatus>> backlink = mode.includeBacklink()
+            ? verifyBacklinkStatus(link).map(Optional::of)
+            : Mono.just(Optional.ofNullable(previousBacklink));
+        return verifyAccess(link).flatMap(access -> backlink.map(checkedBacklink -> {
+            Link.VerificationStatus status = new Link.VerificationStatus();
+            status.setAccess(access);
+            status.setBacklink(checkedBacklink.orElse(null));
+            status.setLastCheckedAt(mode.includeBacklink() && checkedBacklink.isPresent()
+                ? maxCheckedAt(access.getCheckedAt(), checkedBacklink.get().getCheckedAt())
+                : access.getCheckedAt());
+            return status;
+        }));
     }
 
-    private Link.AccessStatus verifyAccess(Link link) {
-        Instant checkedAt = Instant.now();
-        Link.AccessStatus status = new Link.AccessStatus();
-        status.setCheckedAt(checkedAt);
-        String url = link.getSpec() == null ? null : link.getSpec().getUrl();
-        if (!StringUtils.hasText(url)) {
-            status.setState(Link.AccessState.INACCESSIBLE);
-            status.setError("Link URL is required.");
-            return status;
-        }
-        try {
-            SafeUrlFetcher.FetchResult result = fetcher.fetchReachability(url.trim());
-            status.setStatusCode(result.statusCode());
-            status.setFinalUrl(result.url().toExternalForm());
-            if (isSuccess(result.statusCode())) {
-                status.setState(Link.AccessState.ACCESSIBLE);
-            } else {
+    private Mono<Link.AccessStatus> verifyAccess(Link link) {
+        return Mono.defer(() -> {
+            Instant checkedAt = Instant.now();
+            Link.AccessStatus status = new Link.AccessStatus();
+            status.setCheckedAt(checkedAt);
+            String url = link.getSpec() == null ? null : link.getSpec().getUrl();
+            if (!StringUtils.hasText(url)) {
                 status.setState(Link.AccessState.INACCESSIBLE);
-                status.setError("Link responded with HTTP " + result.statusCode());
+                status.setError("Link URL is required.");
+                return Mono.just(status);
             }
-        } catch (Throwable e) {
-            status.setState(Link.AccessState.INACCESSIBLE);
-            status.setError(errorMessage(e));
-        }
-        return status;
-    }
-
-    private Link.BacklinkStatus verifyBacklinkBlocking(Link link) {
-        Instant checkedAt = Instant.now();
-        Link.BacklinkStatus status = new Link.BacklinkStatus();
-        status.setCheckedAt(checkedAt);
-
-        String scanUrl = backlinkScanUrl(link);
-        if (!StringUtils.hasText(scanUrl)) {
-            status.setState(Link.BacklinkState.NOT_CONFIGURED);
-            return status;
-        }
-        status.setScanUrl(scanUrl);
+            return Mono.defer(() -> fetcher.fetchReachability(url.trim()))
+                .map(result -> {
+                    status.setStatusCode(result.statusCode());
+                    status.setFinalUrl(result.url().toExternalForm());
+                    if (isSuccess(result.statusCode())) {
+                        status.setState(Link.AccessState.ACCESSIBLE);
+                    } else {
+                        status.setState(Link.AccessState.INACCESSIBLE);
+                        status.setError("Link responded with HTTP " + result.statusCode());
+                    }
+                    return status;
+                })
+                .onErrorResume(error -> {
+                    status.setState(Link.AccessState.INACCESSIBLE);
+                    status.setError(errorMessage(error));
+                    return Mono.just(status);
+                });
+        });
+    }
+
+    private Mono<Link.BacklinkStatus> verifyBacklinkStatus(Link link) {
+        return Mono.defer(() -> {
+            Instant checkedAt = Instant.now();
+            Link.BacklinkStatus status = new Link.BacklinkStatus();
+            status.setCheckedAt(checkedAt);
 
-        Optional<URI> targetUri = externalUrl();
-        if (targetUri.isEmpty()) {
-            status.setState(Link.BacklinkState.FAILED);
-            status.setError("Halo external URL is not configured.");
-            return status;
-        }
-        status.setTargetUrl(targetUri.get().toString());
+            String scanUrl = backlinkScanUrl(link);
+            if (!StringUtils.hasText(scanUrl)) {
+                status.setState(Link.BacklinkState.NOT_CONFIGURED);
+                return Mono.just(status);
+            }
+            status.setScanUrl(scanUrl);
 
-        try {
-            SafeUrlFetcher.FetchResult result = fetcher.fetchBacklinkPage(scanUrl);
-            if (!isSuccess(result.statusCode())) {
+            Optional<URI> targetUri = externalUrl();
+            if (targetUri.isEmpty()) {
                 status.setState(Link.BacklinkState.FAILED);
-                status.setError("Backlink scan page responded with HTTP " + result.statusCode());
-                return status;
-            }
-            Document document = result.document() == null
-                ? Jsoup.parse(result.body(), result.url().toExternalForm())
-                : result.document();
-            Optional<String> matchedUrl = findBacklink(document, targetUri.get());
-            if (matchedUrl.isPresent()) {
-                status.setState(Link.BacklinkState.FOUND);
-                status.setMatchedUrl(matchedUrl.get());
-            } else {
-                status.setState(Link.BacklinkState.MISSING);
+                status.setError("Halo external URL is not configured.");
+                return Mono.just(status);
             }
-        } catch (Throwable e) {
-            status.setState(Link.BacklinkState.FAILED);
-            status.setError(errorMessage(e));
-        }
-        return status;
+            status.setTargetUrl(targetUri.get().toString());
+
+            return Mono.defer(() -> fetcher.fetchBacklinkPage(scanUrl))
+                .publishOn(scheduler)
+                .map(result -> {
+                    if (!isSuccess(result.statusCode())) {
+                        status.setState(Link.BacklinkState.FAILED);
+                        status.setError("Backlink scan page responded with HTTP "
+                            + result.statusCode());
+                        return status;
+                    }
+                    Document document = result.document() == null
+                        ? Jsoup.parse(result.body(), result.url().toExternalForm())
+                        : result.document();
+                    Optional<String> matchedUrl = findBacklink(document, targetUri.get());
+                    if (matchedUrl.isPresent()) {
+                        status.setState(Link.BacklinkState.FOUND);
+                        status.setMatchedUrl(matchedUrl.get());
+                    } else {
+                        status.setState(Link.BacklinkState.MISSING);
+                    }
+                    return status;
+                })
+                .onErrorResume(error -> {
+                    status.setState(Link.BacklinkState.FAILED);
+                    status.setError(errorMessage(error));
+                    return Mono.just(status);
+                });
+        });
     }
 
     private Optional<URI> externalUrl() {
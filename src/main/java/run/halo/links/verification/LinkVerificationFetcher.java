@@ -1,6 +1,7 @@
 package run.halo.links.verification;
 
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 import run.halo.links.security.SafeUrlFetcher;
 
 @Component
@@ -10,14 +11,14 @@ public class LinkVerificationFetcher {
     static final int MAX_BACKLINK_BODY_SIZE = 1024 * 1024;
     static final int VERIFICATION_TIMEOUT_MS = 5_000;
 
-    public SafeUrlFetcher.FetchResult fetchReachability(String url) {
-        return SafeUrlFetcher.fetch(url,
+    public Mono<SafeUrlFetcher.FetchResult> fetchReachability(String url) {
+        return SafeUrlFetcher.fetchAsync(url,
             SafeUrlFetcher.FetchOptions.verification(url, MAX_REACHABILITY_BODY_SIZE,
                 VERIFICATION_TIMEOUT_MS));
     }
 
-    public SafeUrlFetcher.FetchResult fetchBacklinkPage(String url) {
-        return SafeUrlFetcher.fetch(url,
+    public Mono<SafeUrlFetcher.FetchResult> fetchBacklinkPage(String url) {
+        return SafeUrlFetcher.fetchAsync(url,
             SafeUrlFetcher.FetchOptions.verificationHtml(url, MAX_BACKLINK_BODY_SIZE,
                 VERIFICATION_TIMEOUT_MS));
     }
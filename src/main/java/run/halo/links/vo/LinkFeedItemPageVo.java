@@ -13,4 +13,5 @@ public class LinkFeedItemPageVo {
     private String nextBeforePublishedAt;
     private String nextBeforeId;
     private boolean hasNext;
+    private Double nextBeforeRank;
 }
@@ -7,6 +7,7 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -86,7 +87,25 @@ class LinkReconcilerTest {
         Reconciler.Result result = reconciler.reconcile(new Reconciler.Request("link-a"));
 
         assertThat(result).isEqualTo(Reconciler.Result.doNotRetry());
-        verifyNoInteractions(itemStore);
+        verify(itemStore).updateGroupName("link-a", null);
+        verifyNoMoreInteractions(itemStore);
+        verify(client).fetch(Link.class, "link-a");
+        verifyNoMoreInteractions(client);
+    }
+
+    @Test
+    void shouldSyncCachedItemGroupWhenLinkGroupChanges() {
+        Link link = link("link-a");
+        link.getSpec().setGroupName("group-b");
+        link.getMetadata().setFinalizers(Set.of(LinkReconciler.FINALIZER));
+        LinkReconciler reconciler = new LinkReconciler(client, itemStore);
+        when(client.fetch(Link.class, "link-a")).thenReturn(Optional.of(link));
+
+        Reconciler.Result result = reconciler.reconcile(new Reconciler.Request("link-a"));
+
+        assertThat(result).isEqualTo(Reconciler.Result.doNotRetry());
+        verify(itemStore).updateGroupName("link-a", "group-b");
+        verify(itemStore, never()).deleteByLinkName(any());
         verify(client).fetch(Link.class, "link-a");
         verifyNoMoreInteractions(client);
     }
@@ -6,6 +6,7 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.net.URI;
@@ -32,6 +33,7 @@ import run.halo.links.rss.LinkFeedItemSummary;
 import run.halo.links.rss.LinkFeedRefreshResult;
 import run.halo.links.rss.LinkFeedService;
 import run.halo.links.rss.LinkFeedStorageUnavailableException;
+import run.halo.links.rss.ReactiveLinkFeedItemStore;
 
 class LinkFeedEndpointTest {
 
@@ -40,7 +42,7 @@ class LinkFeedEndpointTest {
         LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
         when(itemStore.countUnread()).thenThrow(new LinkFeedStorageUnavailableException(
             "unavailable"));
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(null, null, itemStore, null, null);
+        LinkFeedEndpoint endpoint = storeEndpoint(itemStore);
         MockServerRequest request = request(HttpMethod.GET, "/rss/items/-/unread-summary");
 
         StepVerifier.create(endpoint.endpoint().route(request)
@@ -53,7 +55,7 @@ class LinkFeedEndpointTest {
     void shouldReturnNotFoundWhenFavoriteItemIsMissing() {
         LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
         when(itemStore.updateFavorite("missing", true)).thenReturn(false);
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(null, null, itemStore, null, null);
+        LinkFeedEndpoint endpoint = storeEndpoint(itemStore);
         MockServerRequest request = buildRequest(HttpMethod.POST,
             "/rss/items/missing/favorite", "missing", "favorite");
 
@@ -67,7 +69,7 @@ class LinkFeedEndpointTest {
     void shouldReturnNotFoundWhenReadLaterItemIsMissing() {
         LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
         when(itemStore.updateReadLater("missing", true)).thenReturn(false);
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(null, null, itemStore, null, null);
+        LinkFeedEndpoint endpoint = storeEndpoint(itemStore);
         MockServerRequest request = buildRequest(HttpMethod.POST,
             "/rss/items/missing/read-later", "missing", "readLater");
 
@@ -83,7 +85,7 @@ class LinkFeedEndpointTest {
         when(feedService.discover("https://example.com")).thenReturn(Mono.just(
             new LinkFeedDiscoveryResult(List.of("https://example.com/feed.xml",
                 "https://example.com/comments.xml"))));
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(feedService, null, null, null, null);
+        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(feedService, null, null, null);
         MockServerRequest request = requestWithQuery(HttpMethod.GET, "/rss/discovery", "url",
             "https://example.com");
 
@@ -98,7 +100,7 @@ class LinkFeedEndpointTest {
         LinkFeedService feedService = mock(LinkFeedService.class);
         when(feedService.refresh("link-a")).thenReturn(Mono.error(new ResponseStatusException(
             HttpStatus.BAD_REQUEST, "RSS feed URLs are required for this link.")));
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(feedService, null, null, null, null);
+        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(feedService, null, null, null);
         MockServerRequest request = requestWithPathVariable(HttpMethod.POST,
             "/links/link-a/rss/refresh", "name", "link-a");
 
@@ -114,7 +116,7 @@ class LinkFeedEndpointTest {
         LinkFeedRefreshResult result = new LinkFeedRefreshResult();
         result.setLinkName("link-a");
         when(feedService.refresh("link-a")).thenReturn(Mono.just(result));
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(feedService, null, null, null, null);
+        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(feedService, null, null, null);
         MockServerRequest request = requestWithPathVariable(HttpMethod.POST,
             "/links/link-a/rss/refresh", "name", "link-a");
 
@@ -131,7 +133,7 @@ class LinkFeedEndpointTest {
         LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
         when(itemStore.countUnread()).thenReturn(3L);
         when(itemStore.countUnreadByLinkName()).thenReturn(Map.of("link-a", 2L, "link-b", 1L));
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(null, null, itemStore, null, null);
+        LinkFeedEndpoint endpoint = storeEndpoint(itemStore);
         MockServerRequest request = request(HttpMethod.GET, "/rss/items/-/unread-summary");
 
         StepVerifier.create(endpoint.endpoint().route(request)
@@ -146,9 +148,9 @@ class LinkFeedEndpointTest {
     @Test
     void shouldListHiddenItemsWithCombinedFilters() {
         LinkFeedService feedService = mock(LinkFeedService.class);
-        when(feedService.listItems(any())).thenReturn(new LinkFeedItemPage(List.of(), null, null,
-            false));
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(feedService, null, null, null, null);
+        when(feedService.listItems(any())).thenReturn(Mono.just(new LinkFeedItemPage(List.of(),
+            null, null, false, null)));
+        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(feedService, null, null, null);
         MockServerRequest request = MockServerRequest.builder()
             .method(HttpMethod.GET)
             .uri(URI.create("/rss/items"))
@@ -177,11 +179,88 @@ class LinkFeedEndpointTest {
         });
     }
 
+    @Test
+    void shouldListGroupTimelineWithSingleServiceQuery() {
+        LinkFeedService feedService = mock(LinkFeedService.class);
+        when(feedService.listItems(any())).thenReturn(Mono.just(new LinkFeedItemPage(List.of(),
+            null, null, false, null)));
+        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(feedService, null, null, null);
+        MockServerRequest request = MockServerRequest.builder()
+            .method(HttpMethod.GET)
+            .uri(URI.create("/rss/items"))
+            .queryParam("groupName", "group-a")
+            .queryParam("limit", "10")
+            .exchange(MockServerWebExchange.from(MockServerHttpRequest.get("/rss/items").build()))
+            .build();
+
+        StepVerifier.create(endpoint.endpoint().route(request)
+                .flatMap(handler -> handler.handle(request)))
+            .assertNext(response -> assertThat(response.statusCode().value()).isEqualTo(200))
+            .verifyComplete();
+
+        ArgumentCaptor<LinkFeedItemQuery> queryCaptor =
+            ArgumentCaptor.forClass(LinkFeedItemQuery.class);
+        verify(feedService).listItems(queryCaptor.capture());
+        assertThat(queryCaptor.getValue().getGroupName()).isEqualTo("group-a");
+        assertThat(queryCaptor.getValue().getLinkName()).isNull();
+        assertThat(queryCaptor.getValue().getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldPassTrimmedSearchTermsAndRankCursorToService() {
+        LinkFeedService feedService = mock(LinkFeedService.class);
+        when(feedService.listItems(any())).thenReturn(Mono.just(new LinkFeedItemPage(List.of(),
+            null, null, false, null)));
+        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(feedService, null, null, null);
+        MockServerRequest request = MockServerRequest.builder()
+            .method(HttpMethod.GET)
+            .uri(URI.create("/rss/items"))
+            .queryParam("q", "  sqlite search ")
+            .queryParam("beforeRank", "-1.25")
+            .queryParam("beforeId", "item-9")
+            .exchange(MockServerWebExchange.from(MockServerHttpRequest.get("/rss/items").build()))
+            .build();
+
+        StepVerifier.create(endpoint.endpoint().route(request)
+                .flatMap(handler -> handler.handle(request)))
+            .assertNext(response -> assertThat(response.statusCode().value()).isEqualTo(200))
+            .verifyComplete();
+
+        ArgumentCaptor<LinkFeedItemQuery> queryCaptor =
+            ArgumentCaptor.forClass(LinkFeedItemQuery.class);
+        verify(feedService).listItems(queryCaptor.capture());
+        assertThat(queryCaptor.getValue()).satisfies(query -> {
+            assertThat(query.getQ()).isEqualTo("sqlite search");
+            assertThat(query.getBeforeRank()).isEqualTo(-1.25);
+            assertThat(query.getBeforeId()).isEqualTo("item-9");
+        });
+    }
+
+    @Test
+    void shouldRejectInvalidSearchRankCursor() {
+        LinkFeedService feedService = mock(LinkFeedService.class);
+        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(feedService, null, null, null);
+        MockServerRequest request = MockServerRequest.builder()
+            .method(HttpMethod.GET)
+            .uri(URI.create("/rss/items"))
+            .queryParam("q", "sqlite")
+            .queryParam("beforeRank", "NaN")
+            .exchange(MockServerWebExchange.from(MockServerHttpRequest.get("/rss/items").build()))
+            .build();
+
+        StepVerifier.create(endpoint.endpoint().route(request)
+                .flatMap(handler -> handler.handle(request)))
+            .assertNext(response -> assertThat(response.statusCode().value()).isEqualTo(400))
+            .verifyComplete();
+
+        verifyNoInteractions(feedService);
+    }
+
     @Test
     void shouldReturnItemSummaryAndRemoveHiddenCountRoute() {
         LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
         when(itemStore.countSummary()).thenReturn(new LinkFeedItemSummary(7L, 5L, 4L));
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(null, null, itemStore, null, null);
+        LinkFeedEndpoint endpoint = storeEndpoint(itemStore);
         WebTestClient client = WebTestClient.bindToRouterFunction(endpoint.endpoint()).build();
 
         client.get()
@@ -206,7 +285,7 @@ class LinkFeedEndpointTest {
         LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
         when(itemStore.updateHidden(List.of("item-1", "missing"), true))
             .thenReturn(new LinkFeedHiddenStateResult(2, 1));
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(null, null, itemStore, null, null);
+        LinkFeedEndpoint endpoint = storeEndpoint(itemStore);
         LinkFeedHiddenStateRequest body = new LinkFeedHiddenStateRequest();
         body.setIds(List.of("item-1", "missing"));
         body.setHidden(true);
@@ -223,7 +302,7 @@ class LinkFeedEndpointTest {
     @Test
     void shouldRejectEmptyHiddenStateRequest() {
         LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(null, null, itemStore, null, null);
+        LinkFeedEndpoint endpoint = storeEndpoint(itemStore);
         LinkFeedHiddenStateRequest body = new LinkFeedHiddenStateRequest();
         body.setIds(List.of());
         MockServerRequest request = postRequest("/rss/items/-/hidden", body);
@@ -241,7 +320,7 @@ class LinkFeedEndpointTest {
         LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
         when(itemStore.updateHidden(List.of("item-1"), true))
             .thenThrow(new LinkFeedStorageUnavailableException("unavailable"));
-        LinkFeedEndpoint endpoint = new LinkFeedEndpoint(null, null, itemStore, null, null);
+        LinkFeedEndpoint endpoint = storeEndpoint(itemStore);
         LinkFeedHiddenStateRequest body = new LinkFeedHiddenStateRequest();
         body.setIds(List.of("item-1"));
         body.setHidden(true);
@@ -253,6 +332,10 @@ class LinkFeedEndpointTest {
             .verifyComplete();
     }
 
+    private static LinkFeedEndpoint storeEndpoint(LinkFeedItemStore itemStore) {
+        return new LinkFeedEndpoint(null, null, new ReactiveLinkFeedItemStore(itemStore), null);
+    }
+
     private static MockServerRequest buildRequest(HttpMethod method, String path, String id,
         String queryParam) {
         var httpRequest = MockServerHttpRequest.method(method, path).build();
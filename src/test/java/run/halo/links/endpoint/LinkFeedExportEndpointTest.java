@@ -0,0 +1,132 @@
+package run.halo.links.endpoint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.links.extension.Link;
+import run.halo.links.rss.LinkFeedItem;
+import run.halo.links.rss.LinkFeedItemStore;
+import run.halo.links.rss.LinkFeedStorageUnavailableException;
+import run.halo.links.rss.ReactiveLinkFeedItemStore;
+
+class LinkFeedExportEndpointTest {
+
+    @Test
+    void shouldStreamItemsAsNdjsonChunkByChunk() {
+        LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
+        List<LinkFeedItem> firstChunk = new ArrayList<>();
+        for (int i = 0; i < LinkFeedExportEndpoint.EXPORT_CHUNK_SIZE; i++) {
+            firstChunk.add(item("item-%04d".formatted(i)));
+        }
+        String lastId = firstChunk.get(firstChunk.size() - 1).getId();
+        when(itemStore.listAfterId(isNull(), anyInt())).thenReturn(firstChunk);
+        when(itemStore.listAfterId(eq(lastId), anyInt())).thenReturn(List.of(item("item-9999")));
+        WebTestClient client = WebTestClient.bindToRouterFunction(new LinkFeedExportEndpoint(
+            new ReactiveLinkFeedItemStore(itemStore), null).endpoint()).build();
+
+        String body = client.get()
+            .uri("/rss/-/export")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(LinkFeedExportEndpoint.EXPORT_CHUNK_SIZE + 1);
+        assertThat(lines.get(0)).contains("\"id\":\"item-0000\"")
+            .contains("\"publishedAt\":\"2026-05-20T10:00:00Z\"");
+        assertThat(lines.get(lines.size() - 1)).contains("\"id\":\"item-9999\"");
+        verify(itemStore, times(2))
+            .listAfterId(any(), eq(LinkFeedExportEndpoint.EXPORT_CHUNK_SIZE));
+    }
+
+    @Test
+    void shouldReturnServiceUnavailableWhenExportStorageFails() {
+        LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
+        when(itemStore.listAfterId(isNull(), anyInt()))
+            .thenThrow(new LinkFeedStorageUnavailableException("unavailable"));
+        WebTestClient client = WebTestClient.bindToRouterFunction(new LinkFeedExportEndpoint(
+            new ReactiveLinkFeedItemStore(itemStore), null).endpoint()).build();
+
+        client.get()
+            .uri("/rss/-/export")
+            .exchange()
+            .expectStatus().isEqualTo(503);
+    }
+
+    @Test
+    void shouldExportEnabledFeedUrlsAsEscapedOpml() {
+        ReactiveExtensionClient extensionClient = mock(ReactiveExtensionClient.class);
+        Link disabled = rssLink("link-b", "Disabled", List.of("https://b.example.com/feed.xml"));
+        disabled.getSpec().getRss().setEnabled(false);
+        when(extensionClient.listAll(eq(Link.class), any(ListOptions.class), any(Sort.class)))
+            .thenReturn(Flux.just(
+                rssLink("link-a", "Tom & Jerry's <Blog>",
+                    List.of("https://a.example.com/feed.xml?x=1&y=2", " ")),
+                disabled));
+        WebTestClient client = WebTestClient.bindToRouterFunction(
+            new LinkFeedExportEndpoint(null, extensionClient).endpoint()).build();
+
+        String body = client.get()
+            .uri("/rss/-/opml")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertThat(body).startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+            .contains("<opml version=\"2.0\">")
+            .contains("text=\"Tom &amp; Jerry&apos;s &lt;Blog&gt;\"")
+            .contains("xmlUrl=\"https://a.example.com/feed.xml?x=1&amp;y=2\"")
+            .contains("htmlUrl=\"https://link-a.example.com\"")
+            .doesNotContain("b.example.com")
+            .endsWith("</opml>\n");
+        assertThat(body.lines().filter(line -> line.contains("<outline"))).hasSize(1);
+    }
+
+    private static LinkFeedItem item(String id) {
+        LinkFeedItem item = new LinkFeedItem();
+        item.setId(id);
+        item.setLinkName("link-a");
+        item.setTitle(id);
+        item.setPublishedAt(Instant.parse("2026-05-20T10:00:00Z"));
+        return item;
+    }
+
+    private static Link rssLink(String name, String displayName, List<String> feedUrls) {
+        Link link = new Link();
+        Metadata metadata = new Metadata();
+        metadata.setName(name);
+        link.setMetadata(metadata);
+        Link.LinkSpec spec = new Link.LinkSpec();
+        spec.setDisplayName(displayName);
+        spec.setUrl("https://" + name + ".example.com");
+        Link.RssSpec rss = new Link.RssSpec();
+        rss.setEnabled(true);
+        rss.setFeedUrls(feedUrls);
+        spec.setRss(rss);
+        link.setSpec(spec);
+        return link;
+    }
+}
@@ -34,7 +34,7 @@ class LinkFeedQueryEndpointTest {
             .thenAnswer(invocation -> {
                 invoked.set(true);
                 threadName.set(Thread.currentThread().getName());
-                return Mono.just(new LinkFeedItemPageVo(List.of(), null, null, false));
+                return Mono.just(new LinkFeedItemPageVo(List.of(), null, null, false, null));
             });
         when(service.isPublicEnabled()).thenReturn(Mono.just(true));
         LinkFeedQueryEndpoint endpoint = new LinkFeedQueryEndpoint(service);
@@ -40,7 +40,7 @@ class LinkFeedFinderImplTest {
     @Test
     void shouldDelegateListWhenPublicFeedQueriesAreEnabled() {
         LinkFeedPublicQueryService service = mock(LinkFeedPublicQueryService.class);
-        LinkFeedItemPageVo page = new LinkFeedItemPageVo(List.of(), null, null, false);
+        LinkFeedItemPageVo page = new LinkFeedItemPageVo(List.of(), null, null, false, null);
         when(service.isPublicEnabled()).thenReturn(Mono.just(true));
         when(service.listFeeds(isNull(), any(LinkFeedItemQuery.class))).thenReturn(Mono.just(page));
         LinkFeedFinderImpl finder = new LinkFeedFinderImpl(null, service, null);
@@ -53,7 +53,7 @@ class LinkFeedFinderImplTest {
     @Test
     void shouldDiscardHiddenFilterFromFinderParameters() {
         LinkFeedPublicQueryService service = mock(LinkFeedPublicQueryService.class);
-        LinkFeedItemPageVo page = new LinkFeedItemPageVo(List.of(), null, null, false);
+        LinkFeedItemPageVo page = new LinkFeedItemPageVo(List.of(), null, null, false, null);
         when(service.isPublicEnabled()).thenReturn(Mono.just(true));
         when(service.listFeeds(isNull(), any(LinkFeedItemQuery.class))).thenReturn(Mono.just(page));
         LinkFeedFinderImpl finder = new LinkFeedFinderImpl(null, service, null);
@@ -0,0 +1,209 @@
+package run.halo.links.mmap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import run.halo.links.rss.LinkFeedItem;
+import run.halo.links.rss.LinkFeedItemQuery;
+import run.halo.links.rss.LinkFeedItemStore;
+import run.halo.links.sqlite.LinksSqliteDatabase;
+import run.halo.links.sqlite.SqliteLinkFeedItemStore;
+
+/**
+ * Runs the same 100k-item workload against both backends and prints the timings side by side.
+ * The listings of both are compared as well, so the numbers describe equivalent work.
+ */
+class LinkFeedItemStoreBackendBenchmarkTest {
+
+    private static final int ITEM_COUNT = 100_000;
+    private static final int REFRESH_BATCH = 20;
+    private static final int PAGE_SIZE = 30;
+    private static final int PAGE_ITERATIONS = 200;
+    private static final int DEEP_PAGES = 50;
+    private static final int TOGGLES = 1_000;
+    private static final Duration GENEROUS_LIMIT = Duration.ofMinutes(2);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldCompareSqliteAndMappedLogBackends() throws Exception {
+        List<LinkFeedItem> items = items();
+
+        Path sqlitePath = tempDir.resolve("links.sqlite");
+        LinksSqliteDatabase database = new LinksSqliteDatabase(sqlitePath);
+        Result sqlite;
+        try {
+            sqlite = run(new SqliteLinkFeedItemStore(database), items);
+        } finally {
+            database.destroy();
+        }
+        long sqliteReopen = elapsedMillis(() -> {
+            LinksSqliteDatabase reopened = new LinksSqliteDatabase(sqlitePath);
+            try {
+                assertThat(new SqliteLinkFeedItemStore(reopened).count()).isEqualTo(50_000);
+            } finally {
+                reopened.destroy();
+            }
+        });
+
+        Path logPath = tempDir.resolve("feed-log");
+        Result mapped;
+        try (MappedLinkFeedItemStore store = new MappedLinkFeedItemStore(logPath)) {
+            mapped = run(store, items);
+        }
+        long mappedReopen = elapsedMillis(() -> {
+            try (MappedLinkFeedItemStore reopened = new MappedLinkFeedItemStore(logPath)) {
+                assertThat(reopened.count()).isEqualTo(50_000);
+            }
+        });
+
+        System.out.printf("Feed store backends, 100k items (sqlite / mmap): "
+                + "write=%d/%dms refresh batches=%d/%dms first page=%d/%dus "
+                + "link page=%d/%dus deep pages=%d/%dms unread=%d/%dus toggles=%d/%dms "
+                + "cleanup=%d/%dms reopen=%d/%dms%n",
+            sqlite.writeMillis(), mapped.writeMillis(), sqlite.refreshMillis(),
+            mapped.refreshMillis(), sqlite.firstPageMicros(), mapped.firstPageMicros(),
+            sqlite.linkPageMicros(), mapped.linkPageMicros(), sqlite.deepPagesMillis(),
+            mapped.deepPagesMillis(), sqlite.unreadMicros(), mapped.unreadMicros(),
+            sqlite.toggleMillis(), mapped.toggleMillis(), sqlite.cleanupMillis(),
+            mapped.cleanupMillis(), sqliteReopen, mappedReopen);
+
+        assertThat(mapped.listedIds()).isEqualTo(sqlite.listedIds());
+        assertThat(mapped.unreadCount()).isEqualTo(sqlite.unreadCount());
+        assertThat(mapped.writeMillis()).isLessThan(GENEROUS_LIMIT.toMillis());
+        assertThat(mapped.deepPagesMillis()).isLessThan(GENEROUS_LIMIT.toMillis());
+        assertThat(mapped.cleanupMillis()).isLessThan(GENEROUS_LIMIT.toMillis());
+        assertThat(mappedReopen).isLessThan(GENEROUS_LIMIT.toMillis());
+    }
+
+    private static Result run(LinkFeedItemStore store, List<LinkFeedItem> items)
+        throws Exception {
+        long writeMillis = elapsedMillis(() -> store.upsertAll(items));
+        long refreshMillis = elapsedMillis(() -> {
+            for (int offset = 0; offset < 100 * REFRESH_BATCH; offset += REFRESH_BATCH) {
+                store.upsertAll(items.subList(offset, offset + REFRESH_BATCH));
+            }
+        });
+
+        LinkFeedItemQuery firstPage = new LinkFeedItemQuery();
+        firstPage.setLimit(PAGE_SIZE);
+        LinkFeedItemQuery linkPage = new LinkFeedItemQuery();
+        linkPage.setLimit(PAGE_SIZE);
+        linkPage.setLinkName("link-7");
+        linkPage.setRead(false);
+        long firstPageMicros = averageMicros(() -> store.listRecent(firstPage).size());
+        long linkPageMicros = averageMicros(() -> store.listRecent(linkPage).size());
+
+        List<String> listedIds = new ArrayList<>();
+        long deepPagesMillis = elapsedMillis(() -> {
+            LinkFeedItemQuery query = new LinkFeedItemQuery();
+            query.setLimit(PAGE_SIZE);
+            for (int page = 0; page < DEEP_PAGES; page++) {
+                List<LinkFeedItem> result = store.listRecent(query);
+                result.forEach(item -> listedIds.add(item.getId()));
+                LinkFeedItem last = result.getLast();
+                query.setBeforePublishedAt(last.getPublishedAt());
+                query.setBeforeId(last.getId());
+            }
+        });
+        long unreadMicros = averageMicros(() -> store.countUnreadByLinkName().size());
+        long unreadCount = store.countUnread();
+
+        long toggleMillis = elapsedMillis(() -> {
+            for (int i = 0; i < TOGGLES; i++) {
+                assertThat(store.updateRead(items.get(i).getId(), i % 2 != 0)).isTrue();
+            }
+        });
+        long cleanupMillis = elapsedMillis(() -> store.deleteExcess(50_000));
+        return new Result(writeMillis, refreshMillis, firstPageMicros, linkPageMicros,
+            deepPagesMillis, unreadMicros, toggleMillis, cleanupMillis, listedIds, unreadCount);
+    }
+
+    private static long averageMicros(ThrowingSupplier<Integer> page) throws Exception {
+        for (int i = 0; i < PAGE_ITERATIONS; i++) {
+            assertThat(page.get()).isPositive();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < PAGE_ITERATIONS; i++) {
+            page.get();
+        }
+        return (System.nanoTime() - start) / PAGE_ITERATIONS / 1_000;
+    }
+
+    private static List<LinkFeedItem> items() {
+        List<LinkFeedItem> items = new ArrayList<>(ITEM_COUNT);
+        Instant base = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            LinkFeedItem item = new LinkFeedItem();
+            item.setId(itemId(i));
+            item.setLinkName("link-" + (i % 100));
+            item.setFeedUrl("https://example.com/feed-" + (i % 3) + ".xml");
+            item.setGuid("guid-" + i);
+            item.setUrl("https://example.com/posts/" + i);
+            item.setTitle("Feed item " + i);
+            item.setSummary("Summary " + i);
+            item.setAuthor("Author " + (i % 10));
+            item.setPublishedAt(base.plusSeconds(i / 2));
+            item.setUpdatedAt(base.plusSeconds(i + 1L));
+            item.setFirstSeenAt(base.plusSeconds(i + 2L));
+            item.setFetchedAt(base.plusSeconds(i + 3L));
+            item.setContentHash("hash-" + i);
+            item.setRead(i % 2 == 0);
+            item.setFavorite(i % 97 == 0);
+            item.setReadLater(false);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static String itemId(int index) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(("item-" + index).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long elapsedMillis(ThrowingRunnable action) throws Exception {
+        long start = System.nanoTime();
+        action.run();
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+
+    private record Result(
+        long writeMillis,
+        long refreshMillis,
+        long firstPageMicros,
+        long linkPageMicros,
+        long deepPagesMillis,
+        long unreadMicros,
+        long toggleMillis,
+        long cleanupMillis,
+        List<String> listedIds,
+        long unreadCount
+    ) {
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier<T> {
+        T get() throws Exception;
+    }
+}
@@ -0,0 +1,164 @@
+package run.halo.links.mmap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import run.halo.links.rss.LinkFeedItem;
+import run.halo.links.rss.LinkFeedItemQuery;
+import run.halo.links.rss.LinkFeedItemStore;
+import run.halo.links.rss.LinkFeedItemStoreContractTest;
+import run.halo.links.rss.LinkFeedStorageUnavailableException;
+
+class MappedLinkFeedItemStoreTest extends LinkFeedItemStoreContractTest {
+
+    private MappedLinkFeedItemStore contractStore;
+
+    @Override
+    protected LinkFeedItemStore openStore() {
+        contractStore = new MappedLinkFeedItemStore(tempDir.resolve("feed-log"));
+        return contractStore;
+    }
+
+    @Override
+    protected void closeStore() {
+        if (contractStore != null) {
+            contractStore.close();
+            contractStore = null;
+        }
+    }
+
+    @Test
+    void shouldReplayItemsStatesAndDeletesAfterReopen() {
+        Path directory = tempDir.resolve("replay-log");
+        try (MappedLinkFeedItemStore store = new MappedLinkFeedItemStore(directory)) {
+            store.upsertAll(List.of(
+                item("item-1", "link-a", "One", "2026-05-20T10:00:00Z"),
+                item("item-2", "link-a", "Two", "2026-05-21T10:00:00Z"),
+                item("item-3", "link-b", "Three", "2026-05-22T10:00:00Z")));
+            store.upsert(item("item-2", "link-a", "Two updated", "2026-05-21T10:00:00Z"));
+            assertThat(store.updateFavorite("item-2", true)).isTrue();
+            assertThat(store.updateRead("item-1", true)).isTrue();
+            store.updateHidden(List.of("item-3"), true);
+            assertThat(store.updateGroupName("link-a", "group-a")).isEqualTo(2);
+            store.deleteByLinkName("link-b");
+        }
+
+        try (MappedLinkFeedItemStore reopened = new MappedLinkFeedItemStore(directory)) {
+            assertThat(reopened.count()).isEqualTo(2);
+            assertThat(reopened.countUnreadByLinkName()).isEqualTo(Map.of("link-a", 1L));
+            assertThat(reopened.countSummary().getFavoriteCount()).isEqualTo(1);
+            assertThat(reopened.listRecent(new LinkFeedItemQuery()))
+                .extracting(LinkFeedItem::getId, LinkFeedItem::getTitle,
+                    LinkFeedItem::getGroupName, LinkFeedItem::getRead,
+                    LinkFeedItem::getFavorite)
+                .containsExactly(
+                    tuple("item-2", "Two updated", "group-a", false, true),
+                    tuple("item-1", "One", "group-a", true, false));
+        }
+    }
+
+    @Test
+    void shouldIgnoreTornRecordAtEndOfLog() throws IOException {
+        Path directory = tempDir.resolve("torn-log");
+        try (MappedLinkFeedItemStore store = new MappedLinkFeedItemStore(directory)) {
+            store.upsert(item("item-1", "link-a", "Kept", "2026-05-20T10:00:00Z"));
+            store.upsert(item("item-2", "link-a", "Torn", "2026-05-21T10:00:00Z"));
+        }
+        corrupt(singleSegment(directory), "Torn");
+
+        try (MappedLinkFeedItemStore reopened = new MappedLinkFeedItemStore(directory)) {
+            assertThat(reopened.listRecent(new LinkFeedItemQuery()))
+                .extracting(LinkFeedItem::getId)
+                .containsExactly("item-1");
+            reopened.upsert(item("item-3", "link-a", "After", "2026-05-22T10:00:00Z"));
+        }
+
+        try (MappedLinkFeedItemStore reopened = new MappedLinkFeedItemStore(directory)) {
+            assertThat(reopened.listRecent(new LinkFeedItemQuery()))
+                .extracting(LinkFeedItem::getId)
+                .containsExactly("item-3", "item-1");
+        }
+    }
+
+    @Test
+    void shouldCompactSupersededRecordsIntoFreshSegments() {
+        Path directory = tempDir.resolve("compacted-log");
+        int segmentBytes = 16 * 1024;
+        try (MappedLinkFeedItemStore store = new MappedLinkFeedItemStore(directory,
+            segmentBytes)) {
+            store.upsert(item("kept", "link-a", "Kept", "2026-05-19T10:00:00Z"));
+            store.updateReadLater("kept", true);
+            for (int i = 0; i < 2_000; i++) {
+                store.upsert(item("item-1", "link-a", "Revision " + i,
+                    "2026-05-20T10:00:00Z"));
+                store.updateRead("item-1", i % 2 == 0);
+            }
+
+            assertThat(store.logBytes()).isLessThan(segmentBytes * 2L);
+            assertThat(store.segmentCount()).isLessThanOrEqualTo(2);
+        }
+
+        try (MappedLinkFeedItemStore reopened = new MappedLinkFeedItemStore(directory,
+            segmentBytes)) {
+            assertThat(reopened.listRecent(new LinkFeedItemQuery()))
+                .extracting(LinkFeedItem::getId, LinkFeedItem::getTitle,
+                    LinkFeedItem::getRead, LinkFeedItem::getReadLater)
+                .containsExactly(
+                    tuple("item-1", "Revision 1999", false, false),
+                    tuple("kept", "Kept", false, true));
+        }
+    }
+
+    @Test
+    void shouldRejectCallsAfterClose() {
+        MappedLinkFeedItemStore store = new MappedLinkFeedItemStore(tempDir.resolve("closed"));
+        store.upsert(item("item-1", "link-a", "One", Instant.EPOCH.toString()));
+        store.close();
+
+        assertThatThrownBy(store::count)
+            .isInstanceOf(LinkFeedStorageUnavailableException.class);
+    }
+
+    private static Path singleSegment(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertThat(segments).hasSize(1);
+            return segments.getFirst();
+        }
+    }
+
+    /**
+     * Flips one byte of the record holding {@code marker}, as a write torn by a crash would
+     * leave it.
+     */
+    private static void corrupt(Path segment, String marker) throws IOException {
+        byte[] needle = marker.getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+            ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+            channel.read(content, 0);
+            byte[] bytes = content.array();
+            for (int i = 0; i <= bytes.length - needle.length; i++) {
+                if (Arrays.equals(bytes, i, i + needle.length, needle, 0, needle.length)) {
+                    channel.write(ByteBuffer.wrap(new byte[] {(byte) ~bytes[i]}), i);
+                    return;
+                }
+            }
+        }
+        throw new AssertionError("Record " + marker + " not found in " + segment);
+    }
+}
@@ -0,0 +1,79 @@
+package run.halo.links.rss;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+import run.halo.app.plugin.PluginsRootGetter;
+import run.halo.links.sqlite.SqliteLinkFeedItemStore;
+
+class ConfiguredLinkFeedItemStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final SqliteLinkFeedItemStore sqliteStore = mock(SqliteLinkFeedItemStore.class);
+    private final PluginsRootGetter pluginsRootGetter = mock(PluginsRootGetter.class);
+    private final LinkFeedRefreshSettingsFetcher settingsFetcher =
+        mock(LinkFeedRefreshSettingsFetcher.class);
+
+    @Test
+    void shouldResolveTheBackendOnceAtStartup() {
+        when(settingsFetcher.fetchStorageBackend())
+            .thenReturn(Mono.just(LinkFeedStorageBackend.SQLITE));
+        when(sqliteStore.count()).thenReturn(3L);
+        ConfiguredLinkFeedItemStore store = store();
+
+        store.afterSingletonsInstantiated();
+
+        assertThat(store.count()).isEqualTo(3L);
+        assertThat(store.count()).isEqualTo(3L);
+        verify(settingsFetcher, times(1)).fetchStorageBackend();
+    }
+
+    @Test
+    void shouldStayUnavailableInsteadOfUsingSqliteWhenSettingsCannotBeRead() {
+        when(settingsFetcher.fetchStorageBackend())
+            .thenReturn(Mono.error(new IllegalStateException("Settings unavailable")))
+            .thenReturn(Mono.just(LinkFeedStorageBackend.SQLITE));
+        when(sqliteStore.count()).thenReturn(3L);
+        ConfiguredLinkFeedItemStore store = store();
+
+        store.afterSingletonsInstantiated();
+        verifyNoInteractions(sqliteStore);
+
+        // The next call reads the settings again and succeeds.
+        assertThat(store.count()).isEqualTo(3L);
+        verify(settingsFetcher, times(2)).fetchStorageBackend();
+    }
+
+    @Test
+    void shouldNotSwitchToSqliteWhenTheMemoryMappedLogCannotBeOpened() throws Exception {
+        Path notADirectory = Files.createFile(tempDir.resolve("plugins"));
+        when(pluginsRootGetter.get()).thenReturn(notADirectory);
+        when(settingsFetcher.fetchStorageBackend())
+            .thenReturn(Mono.just(LinkFeedStorageBackend.MMAP));
+        ConfiguredLinkFeedItemStore store = store();
+
+        store.afterSingletonsInstantiated();
+
+        assertThatThrownBy(store::count)
+            .isInstanceOf(LinkFeedStorageUnavailableException.class)
+            .hasMessageContaining("failed to open");
+        verify(settingsFetcher, times(1)).fetchStorageBackend();
+        verifyNoInteractions(sqliteStore);
+    }
+
+    private ConfiguredLinkFeedItemStore store() {
+        return new ConfiguredLinkFeedItemStore(sqliteStore, pluginsRootGetter, settingsFetcher);
+    }
+}
@@ -3,6 +3,7 @@ package run.halo.links.rss;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -14,6 +15,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.StringReader;
 import java.net.URL;
 import java.time.Duration;
 import java.time.Instant;
@@ -32,6 +34,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ServerErrorException;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 import run.halo.app.extension.Metadata;
 import run.halo.app.extension.ReactiveExtensionClient;
@@ -315,24 +318,30 @@ class DefaultLinkFeedServiceTest {
         when(client.fetch(Link.class, "link-a")).thenReturn(Mono.just(link));
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
-        when(itemStore.upsertAll(anyList())).thenReturn(1);
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(1, 0, 0));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
             .thenReturn(1L);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), any(), any()))
-            .thenReturn(new SafeUrlFetcher.FetchResult(
-                new URL("https://example.com/feed.xml"),
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), any(), any(),
+            anyInt()))
+            .thenReturn(Mono.just(feedDocument(
+                "https://example.com/feed.xml",
                 200,
                 feedXml(),
-                null,
                 "\"feed-v1\"",
                 "Wed, 20 May 2026 10:00:00 GMT"
-            ));
+            )));
 
         StepVerifier.create(service.refresh("link-a"))
             .assertNext(result -> {
                 assertThat(result.getLinkName()).isEqualTo("link-a");
                 assertThat(result.getFetchedItemCount()).isEqualTo(1);
                 assertThat(result.getItemCount()).isEqualTo(1);
+                assertThat(result.getFeeds()).singleElement().satisfies(feed -> {
+                    assertThat(feed.getInsertedItemCount()).isEqualTo(1);
+                    assertThat(feed.getUpdatedItemCount()).isZero();
+                    assertThat(feed.getUnchangedItemCount()).isZero();
+                });
             })
             .verifyComplete();
 
@@ -378,11 +387,14 @@ class DefaultLinkFeedServiceTest {
         when(client.fetch(Link.class, "link-a")).thenReturn(Mono.just(link));
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
-        when(itemStore.upsertAll(anyList())).thenReturn(20);
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(20, 0, 0));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
             .thenReturn(20L);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), any(), any()))
-            .thenReturn(feedResult("https://example.com/feed.xml", 200, feedXmlWithItemCount(25)));
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), any(), any(),
+            anyInt()))
+            .thenReturn(Mono.just(feedDocument("https://example.com/feed.xml", 200,
+                feedXmlWithItemCount(25))));
 
         StepVerifier.create(service.refresh("link-a"))
             .assertNext(result -> {
@@ -423,11 +435,13 @@ class DefaultLinkFeedServiceTest {
         when(client.update(any(Link.class)))
             .thenReturn(Mono.error(new ResponseStatusException(HttpStatus.CONFLICT, "conflict")),
                 Mono.just(retryUpdateLink));
-        when(itemStore.upsertAll(anyList())).thenReturn(1);
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(1, 0, 0));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
             .thenReturn(1L);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), any(), any()))
-            .thenReturn(feedResult("https://example.com/feed.xml", 200, feedXml()));
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), any(), any(),
+            anyInt()))
+            .thenReturn(Mono.just(feedDocument("https://example.com/feed.xml", 200, feedXml())));
 
         StepVerifier.create(service.refresh("link-a"))
             .assertNext(result -> assertThat(result.getFetchedItemCount()).isEqualTo(1))
@@ -461,15 +475,17 @@ class DefaultLinkFeedServiceTest {
             .thenAnswer(invocation -> Mono.defer(() -> Mono.just(currentLink.get())));
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
-        when(itemStore.upsertAll(anyList())).thenReturn(1);
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(1, 0, 0));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
             .thenReturn(1L);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), any(), any()))
-            .thenAnswer(invocation -> {
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), any(), any(),
+            anyInt()))
+            .thenAnswer(invocation -> Mono.fromCallable(() -> {
                 refreshStarted.countDown();
                 assertThat(continueRefresh.await(5, TimeUnit.SECONDS)).isTrue();
-                return feedResult("https://example.com/feed.xml", 200, feedXml());
-            });
+                return feedDocument("https://example.com/feed.xml", 200, feedXml());
+            }).subscribeOn(Schedulers.boundedElastic()));
 
         StepVerifier.create(service.refresh("link-a"))
             .then(() -> {
@@ -515,13 +531,14 @@ class DefaultLinkFeedServiceTest {
             .thenAnswer(invocation -> Mono.defer(() -> Mono.just(currentLink.get())));
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), any(), any()))
-            .thenAnswer(invocation -> {
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), any(), any(),
+            anyInt()))
+            .thenAnswer(invocation -> Mono.fromCallable(() -> {
                 refreshStarted.countDown();
                 assertThat(continueRefresh.await(5, TimeUnit.SECONDS)).isTrue();
                 throw new IllegalArgumentException(
                     "RSS feed URL must be an absolute HTTP or HTTPS URL.");
-            });
+            }).subscribeOn(Schedulers.boundedElastic()));
 
         StepVerifier.create(service.refresh("link-a"))
             .then(() -> {
@@ -577,19 +594,21 @@ class DefaultLinkFeedServiceTest {
             }
             return Mono.just(updatedLink);
         });
-        when(itemStore.upsertAll(anyList())).thenReturn(1);
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(1, 0, 0));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
             .thenReturn(1L);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), any(), any()))
-            .thenAnswer(invocation -> {
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), any(), any(),
+            anyInt()))
+            .thenAnswer(invocation -> Mono.fromCallable(() -> {
                 if (fetchCount.incrementAndGet() == 1) {
                     firstRefreshStarted.countDown();
                     assertThat(continueFirstRefresh.await(5, TimeUnit.SECONDS)).isTrue();
                 } else {
                     secondRefreshStarted.countDown();
                 }
-                return feedResult("https://example.com/feed.xml", 200, feedXml());
-            });
+                return feedDocument("https://example.com/feed.xml", 200, feedXml());
+            }).subscribeOn(Schedulers.boundedElastic()));
         doAnswer(invocation -> {
             cleanupStarted.countDown();
             assertThat(continueCleanup.await(5, TimeUnit.SECONDS)).isTrue();
@@ -648,9 +667,10 @@ class DefaultLinkFeedServiceTest {
             Mono.just(invocation.getArgument(0)));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
             .thenReturn(0L);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), any(), any()))
-            .thenThrow(new ServerErrorException("URL blocked for security reasons",
-                new IllegalArgumentException("private")));
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), any(), any(),
+            anyInt()))
+            .thenReturn(Mono.error(new ServerErrorException("URL blocked for security reasons",
+                new IllegalArgumentException("private"))));
 
         StepVerifier.create(service.refresh("link-a"))
             .assertNext(result -> {
@@ -693,7 +713,7 @@ class DefaultLinkFeedServiceTest {
         query.setFavorite(true);
         query.setReadLater(true);
         query.setHidden(true);
-        service.listItems(query);
+        service.listItems(query).block();
 
         ArgumentCaptor<LinkFeedItemQuery> queryCaptor =
             ArgumentCaptor.forClass(LinkFeedItemQuery.class);
@@ -726,7 +746,7 @@ class DefaultLinkFeedServiceTest {
 
         LinkFeedItemQuery query = new LinkFeedItemQuery();
         query.setLimit(LinkFeedItemQuery.MAX_LIMIT);
-        LinkFeedItemPage page = service.listItems(query);
+        LinkFeedItemPage page = service.listItems(query).block();
 
         assertThat(page.getItems()).hasSize(LinkFeedItemQuery.MAX_LIMIT);
         assertThat(page.isHasNext()).isTrue();
@@ -750,18 +770,19 @@ class DefaultLinkFeedServiceTest {
         when(client.fetch(Link.class, "link-a")).thenReturn(Mono.just(link));
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
-        when(itemStore.upsertAll(anyList())).thenReturn(2);
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(2, 0, 0));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://ryanc.cc/rss.xml"))
             .thenReturn(2L);
-        when(feedFetcher.fetchFeed(eq("https://ryanc.cc/rss.xml"), any(), any()))
-            .thenReturn(new SafeUrlFetcher.FetchResult(
-                new URL("https://ryanc.cc/rss.xml"),
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://ryanc.cc/rss.xml"), any(), any(),
+            anyInt()))
+            .thenReturn(Mono.just(feedDocument(
+                "https://ryanc.cc/rss.xml",
                 200,
                 haloFeedXml(),
                 null,
-                null,
                 null
-            ));
+            )));
 
         StepVerifier.create(service.refresh("link-a"))
             .assertNext(result -> {
@@ -806,22 +827,24 @@ class DefaultLinkFeedServiceTest {
             Mono.just(invocation.getArgument(0)));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
             .thenReturn(0L, 1L);
-        when(itemStore.upsertAll(anyList())).thenReturn(1);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), any(), any()))
-            .thenReturn(new SafeUrlFetcher.FetchResult(
-                new URL("https://example.com/feed.xml"),
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(1, 0, 0));
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), any(), any(),
+            anyInt()))
+            .thenReturn(Mono.just(feedDocument(
+                "https://example.com/feed.xml",
                 200,
                 feedXml(),
-                null,
                 "\"feed-v1\"",
                 "Wed, 20 May 2026 10:00:00 GMT"
-            ));
+            )));
 
         StepVerifier.create(service.refresh("link-a"))
             .assertNext(result -> assertThat(result.getItemCount()).isEqualTo(1))
             .verifyComplete();
 
-        verify(feedFetcher).fetchFeed(eq("https://example.com/feed.xml"), isNull(), isNull());
+        verify(feedFetcher).fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), isNull(),
+            isNull(), anyInt());
     }
 
     @Test
@@ -849,16 +872,16 @@ class DefaultLinkFeedServiceTest {
             Mono.just(invocation.getArgument(0)));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
             .thenReturn(1L);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), eq("\"feed-v1\""),
-            eq("Wed, 20 May 2026 10:00:00 GMT")))
-            .thenReturn(new SafeUrlFetcher.FetchResult(
-                new URL("https://example.com/feed.xml"),
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"),
+            eq("\"feed-v1\""),
+            eq("Wed, 20 May 2026 10:00:00 GMT"), anyInt()))
+            .thenReturn(Mono.just(feedDocument(
+                "https://example.com/feed.xml",
                 304,
                 "",
                 null,
-                null,
                 null
-            ));
+            )));
 
         StepVerifier.create(service.refresh("link-a"))
             .assertNext(result -> {
@@ -869,8 +892,9 @@ class DefaultLinkFeedServiceTest {
             })
             .verifyComplete();
 
-        verify(feedFetcher).fetchFeed(eq("https://example.com/feed.xml"), eq("\"feed-v1\""),
-            eq("Wed, 20 May 2026 10:00:00 GMT"));
+        verify(feedFetcher).fetchFeedDocumentAsync(eq("https://example.com/feed.xml"),
+            eq("\"feed-v1\""),
+            eq("Wed, 20 May 2026 10:00:00 GMT"), anyInt());
         verify(itemStore, never()).upsertAll(anyList());
         assertThat(link.getStatus().getRss().getFeeds())
             .singleElement()
@@ -882,6 +906,68 @@ class DefaultLinkFeedServiceTest {
             });
     }
 
+    @Test
+    void shouldSkipParsingAndStorageWhenFeedFingerprintMatchesPreviousRefresh()
+        throws Exception {
+        ReactiveExtensionClient client = mock(ReactiveExtensionClient.class);
+        LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
+        LinkFeedRetentionService retentionService = mock(LinkFeedRetentionService.class);
+        LinkFeedFetcher feedFetcher = mock(LinkFeedFetcher.class);
+        DefaultLinkFeedService service =
+            new DefaultLinkFeedService(client, itemStore, retentionService, feedFetcher);
+        Link link = rssLink("link-a", "https://example.com/feed.xml");
+        String rebuiltBody = feedXml().replace("<title>Example</title>",
+            "<title>Example</title><lastBuildDate>Thu, 21 May 2026 10:00:00 GMT</lastBuildDate>");
+
+        when(client.fetch(Link.class, "link-a")).thenReturn(Mono.just(link));
+        when(client.update(any(Link.class))).thenAnswer(invocation ->
+            Mono.just(invocation.getArgument(0)));
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(1, 0, 0));
+        when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
+            .thenReturn(1L);
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), isNull(),
+            isNull(), anyInt()))
+            .thenReturn(Mono.just(feedDocument("https://example.com/feed.xml", 200, feedXml())),
+                Mono.just(feedDocument("https://example.com/feed.xml", 200, feedXml())),
+                Mono.just(feedDocument("https://example.com/feed.xml", 200, rebuiltBody)));
+
+        StepVerifier.create(service.refresh("link-a"))
+            .assertNext(result -> assertThat(result.getFeeds()).singleElement()
+                .satisfies(feed -> assertThat(feed.isNotModified()).isFalse()))
+            .verifyComplete();
+        Link.RssFeedStatus firstStatus = link.getStatus().getRss().getFeeds().getFirst();
+        assertThat(firstStatus.getBodyFingerprint()).isNotBlank();
+        assertThat(firstStatus.getEntriesFingerprint()).isNotBlank();
+
+        StepVerifier.create(service.refresh("link-a"))
+            .assertNext(result -> {
+                assertThat(result.getFetchedItemCount()).isZero();
+                assertThat(result.getItemCount()).isEqualTo(1);
+                assertThat(result.getFeeds()).singleElement()
+                    .satisfies(feed -> assertThat(feed.isNotModified()).isTrue());
+            })
+            .verifyComplete();
+
+        StepVerifier.create(service.refresh("link-a"))
+            .assertNext(result -> assertThat(result.getFeeds()).singleElement()
+                .satisfies(feed -> assertThat(feed.isNotModified()).isTrue()))
+            .verifyComplete();
+
+        verify(itemStore, times(1)).upsertAll(anyList());
+        assertThat(link.getStatus().getRss().getFeeds())
+            .singleElement()
+            .satisfies(updatedFeed -> {
+                assertThat(updatedFeed.getBodyFingerprint())
+                    .isNotEqualTo(firstStatus.getBodyFingerprint());
+                assertThat(updatedFeed.getEntriesFingerprint())
+                    .isEqualTo(firstStatus.getEntriesFingerprint());
+                assertThat(updatedFeed.getLatestPublishedAt())
+                    .isEqualTo(Instant.parse("2026-05-20T10:00:00Z"));
+                assertThat(updatedFeed.getLastError()).isNull();
+            });
+    }
+
     @Test
     void shouldSkipConditionalHeadersWhenValidatorFreshnessIsMissing() throws Exception {
         ReactiveExtensionClient client = mock(ReactiveExtensionClient.class);
@@ -904,22 +990,24 @@ class DefaultLinkFeedServiceTest {
             Mono.just(invocation.getArgument(0)));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
             .thenReturn(1L, 1L, 1L);
-        when(itemStore.upsertAll(anyList())).thenReturn(1);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), isNull(), isNull()))
-            .thenReturn(new SafeUrlFetcher.FetchResult(
-                new URL("https://example.com/feed.xml"),
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(1, 0, 0));
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), isNull(),
+            isNull(), anyInt()))
+            .thenReturn(Mono.just(feedDocument(
+                "https://example.com/feed.xml",
                 200,
                 feedXml(),
-                null,
                 "\"feed-v2\"",
                 "Thu, 21 May 2026 10:00:00 GMT"
-            ));
+            )));
 
         StepVerifier.create(service.refresh("link-a"))
             .assertNext(result -> assertThat(result.getFetchedItemCount()).isEqualTo(1))
             .verifyComplete();
 
-        verify(feedFetcher).fetchFeed(eq("https://example.com/feed.xml"), isNull(), isNull());
+        verify(feedFetcher).fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), isNull(),
+            isNull(), anyInt());
         assertThat(link.getStatus().getRss().getFeeds())
             .singleElement()
             .satisfies(updatedFeed -> assertThat(updatedFeed.getValidatorUpdatedAt()).isNotNull());
@@ -948,22 +1036,24 @@ class DefaultLinkFeedServiceTest {
             Mono.just(invocation.getArgument(0)));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
             .thenReturn(1L, 1L, 1L);
-        when(itemStore.upsertAll(anyList())).thenReturn(1);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), isNull(), isNull()))
-            .thenReturn(new SafeUrlFetcher.FetchResult(
-                new URL("https://example.com/feed.xml"),
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(1, 0, 0));
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), isNull(),
+            isNull(), anyInt()))
+            .thenReturn(Mono.just(feedDocument(
+                "https://example.com/feed.xml",
                 200,
                 feedXml(),
-                null,
                 "\"feed-v2\"",
                 "Thu, 21 May 2026 10:00:00 GMT"
-            ));
+            )));
 
         StepVerifier.create(service.refresh("link-a"))
             .assertNext(result -> assertThat(result.getFetchedItemCount()).isEqualTo(1))
             .verifyComplete();
 
-        verify(feedFetcher).fetchFeed(eq("https://example.com/feed.xml"), isNull(), isNull());
+        verify(feedFetcher).fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), isNull(),
+            isNull(), anyInt());
         assertThat(link.getStatus().getRss().getFeeds())
             .singleElement()
             .satisfies(updatedFeed -> assertThat(updatedFeed.getValidatorUpdatedAt()).isNotNull());
@@ -992,23 +1082,24 @@ class DefaultLinkFeedServiceTest {
             Mono.just(invocation.getArgument(0)));
         when(itemStore.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
             .thenReturn(1L);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), eq("\"feed-v1\""),
-            isNull()))
-            .thenReturn(new SafeUrlFetcher.FetchResult(
-                new URL("https://example.com/feed.xml"),
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"),
+            eq("\"feed-v1\""),
+            isNull(), anyInt()))
+            .thenReturn(Mono.just(feedDocument(
+                "https://example.com/feed.xml",
                 304,
                 "",
                 null,
-                null,
                 null
-            ));
+            )));
 
         StepVerifier.create(service.refresh("link-a"))
             .assertNext(result -> assertThat(result.getItemCount()).isEqualTo(1))
             .verifyComplete();
 
-        verify(feedFetcher).fetchFeed(eq("https://example.com/feed.xml"), eq("\"feed-v1\""),
-            isNull());
+        verify(feedFetcher).fetchFeedDocumentAsync(eq("https://example.com/feed.xml"),
+            eq("\"feed-v1\""),
+            isNull(), anyInt());
     }
 
     @Test
@@ -1025,20 +1116,22 @@ class DefaultLinkFeedServiceTest {
         when(client.fetch(Link.class, "link-a")).thenReturn(Mono.just(link));
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
-        when(itemStore.upsertAll(anyList())).thenReturn(1);
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(1, 0, 0));
         when(itemStore.countByLinkNameAndFeedUrl(eq("link-a"), anyString())).thenReturn(1L);
-        when(feedFetcher.fetchFeed(eq("https://example.com/feed.xml"), any(), any()))
-            .thenReturn(new SafeUrlFetcher.FetchResult(
-                new URL("https://example.com/feed.xml"),
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/feed.xml"), any(), any(),
+            anyInt()))
+            .thenReturn(Mono.just(feedDocument(
+                "https://example.com/feed.xml",
                 200,
                 feedXml(),
-                null,
                 "\"feed-v1\"",
                 null
-            ));
-        when(feedFetcher.fetchFeed(eq("https://example.com/comments.xml"), any(), any()))
-            .thenThrow(new ServerErrorException("URL blocked for security reasons",
-                new IllegalArgumentException("private")));
+            )));
+        when(feedFetcher.fetchFeedDocumentAsync(eq("https://example.com/comments.xml"), any(),
+            any(), anyInt()))
+            .thenReturn(Mono.error(new ServerErrorException("URL blocked for security reasons",
+                new IllegalArgumentException("private"))));
 
         StepVerifier.create(service.refresh("link-a"))
             .assertNext(result -> {
@@ -1063,6 +1156,47 @@ class DefaultLinkFeedServiceTest {
             .containsExactly("https://example.com/feed.xml", "https://example.com/comments.xml");
     }
 
+    @Test
+    void shouldFetchFeedsOfOneLinkConcurrently() throws Exception {
+        ReactiveExtensionClient client = mock(ReactiveExtensionClient.class);
+        LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
+        LinkFeedRetentionService retentionService = mock(LinkFeedRetentionService.class);
+        LinkFeedFetcher feedFetcher = mock(LinkFeedFetcher.class);
+        DefaultLinkFeedService service =
+            new DefaultLinkFeedService(client, itemStore, retentionService, feedFetcher);
+        Link link = rssLink("link-a", "https://example.com/feed.xml",
+            "https://example.com/moments.xml", "https://example.com/podcast.xml");
+        CountDownLatch allFetching = new CountDownLatch(3);
+
+        when(client.fetch(Link.class, "link-a")).thenReturn(Mono.just(link));
+        when(client.update(any(Link.class))).thenAnswer(invocation ->
+            Mono.just(invocation.getArgument(0)));
+        when(itemStore.upsertAll(anyList()))
+            .thenReturn(new LinkFeedUpsertResult(1, 0, 0));
+        when(itemStore.countByLinkNameAndFeedUrl(eq("link-a"), anyString())).thenReturn(1L);
+        when(feedFetcher.fetchFeedDocumentAsync(anyString(), any(), any(), anyInt()))
+            .thenAnswer(invocation -> Mono.fromCallable(() -> {
+                allFetching.countDown();
+                if (!allFetching.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Feeds were fetched one at a time");
+                }
+                return feedDocument(invocation.getArgument(0), 200, feedXml());
+            }).subscribeOn(Schedulers.boundedElastic()));
+
+        StepVerifier.create(service.refresh("link-a"))
+            .assertNext(result -> {
+                assertThat(result.isPartialFailure()).isFalse();
+                assertThat(result.getFeeds())
+                    .allSatisfy(feed -> assertThat(feed.getError()).isNull())
+                    .extracting(LinkFeedRefreshResult.FeedResult::getUrl)
+                    .containsExactly("https://example.com/feed.xml",
+                        "https://example.com/moments.xml", "https://example.com/podcast.xml");
+            })
+            .verifyComplete();
+
+        verify(itemStore, times(3)).upsertAll(anyList());
+    }
+
     @Test
     void shouldRejectEnabledLinkWithoutFeedUrls() {
         ReactiveExtensionClient client = mock(ReactiveExtensionClient.class);
@@ -1102,7 +1236,7 @@ class DefaultLinkFeedServiceTest {
                 .hasMessageContaining("absolute HTTP or HTTPS URL"))
             .verify();
 
-        verify(feedFetcher, never()).fetchFeed(anyString(), any(), any());
+        verify(feedFetcher, never()).fetchFeedDocumentAsync(anyString(), any(), any(), anyInt());
     }
 
     @Test
@@ -1177,6 +1311,20 @@ class DefaultLinkFeedServiceTest {
         return new SafeUrlFetcher.FetchResult(new URL(url), statusCode, body, null, null, null);
     }
 
+    private static LinkFeedDocument feedDocument(String url, int statusCode, String body)
+        throws Exception {
+        return feedDocument(url, statusCode, body, null, null);
+    }
+
+    private static LinkFeedDocument feedDocument(String url, int statusCode, String body,
+        String etag, String lastModified) throws Exception {
+        StreamingFeedParser.ParsedFeed feed = statusCode >= 200 && statusCode < 300
+            ? StreamingFeedParser.parse(new StringReader(body),
+                DefaultLinkFeedService.MAX_ITEMS_PER_FETCH)
+            : null;
+        return LinkFeedDocument.of(new URL(url), statusCode, etag, lastModified, feed);
+    }
+
     private static SafeUrlFetcher.FetchResult htmlResult(String url, int statusCode, String body)
         throws Exception {
         return new SafeUrlFetcher.FetchResult(new URL(url), statusCode, body,
@@ -0,0 +1,68 @@
+package run.halo.links.rss;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import org.junit.jupiter.api.Test;
+
+class LinkFeedFetcherTest {
+
+    @Test
+    void shouldHandTheBodyAlreadyReceivedToRomeWhenStreamingCannotReadIt() throws Exception {
+        StringBuilder feed = new StringBuilder("""
+            <?xml version="1.0" encoding="UTF-8"?>
+            <feed version="0.3" xmlns="http://purl.org/atom/ns#">
+              <title>Example</title>
+            """);
+        String padding = "Lorem ipsum dolor sit amet. ".repeat(40);
+        for (int i = 0; i < 200; i++) {
+            feed.append("<entry><title>Post ").append(i).append("</title>")
+                .append("<link rel=\"alternate\" type=\"text/html\" href=\"https://example.com/")
+                .append(i).append("\"/>")
+                .append("<id>urn:example:").append(i).append("</id>")
+                .append("<issued>2026-05-20T10:00:00Z</issued>")
+                .append("<modified>2026-05-20T10:00:00Z</modified>")
+                .append("<summary>").append(padding).append("</summary></entry>\n");
+        }
+        byte[] body = feed.append("</feed>\n").toString().getBytes(StandardCharsets.UTF_8);
+
+        StreamingFeedParser.ParsedFeed parsed = LinkFeedFetcher.readFeed(
+            "https://example.com/atom.xml", new ByteArrayInputStream(body),
+            StandardCharsets.UTF_8, 20);
+
+        assertThat(parsed.entries()).hasSize(20)
+            .extracting(SyndEntry::getTitle)
+            .startsWith("Post 0", "Post 1")
+            .endsWith("Post 19");
+        assertThat(parsed.digest()).isEqualTo(
+            HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body)));
+    }
+
+    @Test
+    void shouldRecordSkippedBytesAndNeverSkipANegativeCount() throws Exception {
+        byte[] body = "<rss/>".getBytes(StandardCharsets.UTF_8);
+        LinkFeedFetcher.RecordingInputStream recorded =
+            new LinkFeedFetcher.RecordingInputStream(new ByteArrayInputStream(body));
+
+        assertThat(recorded.skip(2)).isEqualTo(2);
+        assertThat(recorded.skip(10)).isEqualTo(4);
+        assertThat(recorded.skip(10)).isZero();
+        assertThat(recorded.readAll()).isEqualTo(body);
+    }
+
+    @Test
+    void shouldFailAFeedThatIsNotWellFormedOnceItsDialectIsKnown() {
+        byte[] body = "<rss><channel><item><title>Unclosed</title></channel></rss>"
+            .getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> LinkFeedFetcher.readFeed("https://example.com/rss.xml",
+            new ByteArrayInputStream(body), StandardCharsets.UTF_8, 20))
+            .isInstanceOf(StreamingFeedParser.UnsupportedFeedException.class)
+            .hasMessageContaining("well-formed");
+    }
+}
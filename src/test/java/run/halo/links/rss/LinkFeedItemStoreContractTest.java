@@ -0,0 +1,861 @@
+package run.halo.links.rss;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Behavior shared by every {@link LinkFeedItemStore} backend. Each backend's test class extends
+ * this suite and adds tests for its own storage details.
+ */
+public abstract class LinkFeedItemStoreContractTest {
+
+    @TempDir
+    protected Path tempDir;
+
+    /**
+     * Opens an empty store under {@link #tempDir}. Called at most once per test.
+     */
+    protected abstract LinkFeedItemStore openStore();
+
+    /**
+     * Releases the store opened by {@link #openStore()}, if the test opened one.
+     */
+    protected abstract void closeStore();
+
+    @AfterEach
+    void closeOpenedStore() {
+        closeStore();
+    }
+
+    @Test
+    void shouldUpsertDuplicateItemsByStableId() {
+        LinkFeedItemStore store = openStore();
+        LinkFeedItem first = item("item-1", "link-a", "Original", "2026-05-20T10:00:00Z");
+        LinkFeedItem updated = item("item-1", "link-a", "Updated", "2026-05-20T10:00:00Z");
+
+        store.upsert(first);
+        store.upsert(updated);
+
+        LinkFeedItemQuery query = new LinkFeedItemQuery();
+        query.setLinkName("link-a");
+
+        assertThat(store.countByLinkName("link-a")).isEqualTo(1);
+        assertThat(store.listRecent(query))
+            .singleElement()
+            .satisfies(item -> {
+                assertThat(item.getTitle()).isEqualTo("Updated");
+                assertThat(item.getFirstSeenAt())
+                    .isEqualTo(Instant.parse("2026-05-22T12:00:00Z"));
+            });
+    }
+
+    @Test
+    void shouldReportInsertedUpdatedAndUnchangedItemsWithoutRewritingUnchangedRows() {
+        LinkFeedItemStore store = openStore();
+        assertThat(store.upsertAll(List.of(
+            item("item-1", "link-a", "One", "2026-05-20T10:00:00Z",
+                "2026-05-21T12:00:00Z", "2026-05-21T12:00:00Z"),
+            item("item-2", "link-a", "Two", "2026-05-21T10:00:00Z",
+                "2026-05-21T12:00:00Z", "2026-05-21T12:00:00Z"))))
+            .isEqualTo(new LinkFeedUpsertResult(2, 0, 0));
+
+        LinkFeedUpsertResult result = store.upsertAll(List.of(
+            item("item-1", "link-a", "One", "2026-05-20T10:00:00Z",
+                "2026-05-24T12:00:00Z", "2026-05-24T12:00:00Z"),
+            item("item-2", "link-a", "Two edited", "2026-05-21T10:00:00Z",
+                "2026-05-24T12:00:00Z", "2026-05-24T12:00:00Z"),
+            item("item-3", "link-a", "Three", "2026-05-22T10:00:00Z",
+                "2026-05-24T12:00:00Z", "2026-05-24T12:00:00Z")));
+
+        assertThat(result).isEqualTo(new LinkFeedUpsertResult(1, 1, 1));
+        assertThat(store.listRecent(new LinkFeedItemQuery()))
+            .extracting(LinkFeedItem::getId, LinkFeedItem::getTitle,
+                LinkFeedItem::getFetchedAt)
+            .containsExactly(
+                tuple("item-3", "Three", Instant.parse("2026-05-24T12:00:00Z")),
+                tuple("item-2", "Two edited", Instant.parse("2026-05-24T12:00:00Z")),
+                tuple("item-1", "One", Instant.parse("2026-05-21T12:00:00Z")));
+        assertThat(store.upsertAll(List.of()))
+            .isEqualTo(LinkFeedUpsertResult.empty());
+    }
+
+    @Test
+    void shouldCountItemsByLinkNameAndFeedUrl() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("feed-a-1", "link-a", "First", "2026-05-20T10:00:00Z",
+            "https://example.com/feed.xml"));
+        store.upsert(item("feed-a-2", "link-a", "Second", "2026-05-21T10:00:00Z",
+            "https://example.com/feed.xml"));
+        store.upsert(item("feed-b-1", "link-a", "Other Feed", "2026-05-22T10:00:00Z",
+            "https://example.com/comments.xml"));
+
+        assertThat(store.countByLinkName("link-a")).isEqualTo(3);
+        assertThat(store.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
+            .isEqualTo(2);
+        assertThat(store.countByLinkNameAndFeedUrl("link-a",
+            "https://example.com/comments.xml")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountSummaryIndependentlyByVisibility() {
+        LinkFeedItemStore store = openStore();
+
+        assertThat(store.countSummary())
+            .satisfies(summary -> {
+                assertThat(summary.getHiddenCount()).isZero();
+                assertThat(summary.getFavoriteCount()).isZero();
+                assertThat(summary.getReadLaterCount()).isZero();
+            });
+
+        store.upsert(item("visible-both", "link-a", "Both", "2026-05-20T10:00:00Z",
+            true, true));
+        store.upsert(item("visible-favorite", "link-a", "Favorite",
+            "2026-05-21T10:00:00Z", true, false));
+        store.upsert(item("visible-later", "link-a", "Later", "2026-05-22T10:00:00Z",
+            false, true));
+        store.upsert(item("hidden-both", "link-a", "Hidden", "2026-05-23T10:00:00Z",
+            true, true));
+        store.updateHidden(List.of("hidden-both"), true);
+
+        assertThat(store.countSummary())
+            .satisfies(summary -> {
+                assertThat(summary.getHiddenCount()).isEqualTo(1);
+                assertThat(summary.getFavoriteCount()).isEqualTo(2);
+                assertThat(summary.getReadLaterCount()).isEqualTo(2);
+            });
+    }
+
+    @Test
+    void shouldDeleteExcessItemsByLinkName() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("old", "link-a", "Old", "2026-05-20T10:00:00Z"));
+        store.upsert(item("middle", "link-a", "Middle", "2026-05-21T10:00:00Z"));
+        store.upsert(item("new", "link-a", "New", "2026-05-22T10:00:00Z"));
+
+        store.deleteExcessByLinkName("link-a", 2);
+
+        LinkFeedItemQuery query = new LinkFeedItemQuery();
+        query.setLinkName("link-a");
+        assertThat(store.listRecent(query))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("new", "middle");
+    }
+
+    @Test
+    void shouldPageItemsWithStableIdTieBreakerForSamePublishedTime() {
+        LinkFeedItemStore store = openStore();
+        String samePublishedAt = "2026-05-20T10:00:00Z";
+        store.upsert(item("item-a", "link-a", "A", samePublishedAt));
+        store.upsert(item("item-c", "link-a", "C", samePublishedAt));
+        store.upsert(item("item-b", "link-a", "B", samePublishedAt));
+        store.upsert(item("older", "link-a", "Older", "2026-05-19T10:00:00Z"));
+
+        LinkFeedItemQuery firstPage = new LinkFeedItemQuery();
+        firstPage.setLimit(2);
+        assertThat(store.listRecent(firstPage))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("item-c", "item-b");
+
+        LinkFeedItemQuery secondPage = new LinkFeedItemQuery();
+        secondPage.setBeforePublishedAt(Instant.parse(samePublishedAt));
+        secondPage.setBeforeId("item-b");
+        secondPage.setLimit(2);
+        assertThat(store.listRecent(secondPage))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("item-a", "older");
+    }
+
+    @Test
+    void shouldPageMixedPrecisionTimestampsInChronologicalOrder() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("precision-0", "link-a", "0", "2026-05-20T10:00:00Z"));
+        store.upsert(item("precision-3", "link-a", "3", "2026-05-20T10:00:00.123Z"));
+        store.upsert(item("precision-6", "link-a", "6", "2026-05-20T10:00:00.123456Z"));
+        store.upsert(item("precision-9", "link-a", "9",
+            "2026-05-20T10:00:00.123456789Z"));
+
+        LinkFeedItemQuery firstPage = new LinkFeedItemQuery();
+        firstPage.setLimit(2);
+        assertThat(store.listRecent(firstPage))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("precision-9", "precision-6");
+
+        LinkFeedItemQuery secondPage = new LinkFeedItemQuery();
+        secondPage.setBeforePublishedAt(Instant.parse("2026-05-20T10:00:00.123456Z"));
+        secondPage.setBeforeId("precision-6");
+        secondPage.setLimit(2);
+        assertThat(store.listRecent(secondPage))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("precision-3", "precision-0");
+
+        store.deleteExcess(2);
+        assertThat(store.listRecent(new LinkFeedItemQuery()))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("precision-9", "precision-6");
+    }
+
+    @Test
+    void shouldPageGroupTimelineAcrossLinksAndFollowGroupChanges() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(groupItem("a-1", "link-a", "group-1", "2026-05-20T10:00:00Z"));
+        store.upsert(groupItem("b-1", "link-b", "group-1", "2026-05-20T11:00:00Z"));
+        store.upsert(groupItem("a-2", "link-a", "group-1", "2026-05-20T12:00:00Z"));
+        store.upsert(groupItem("c-1", "link-c", "group-2", "2026-05-20T13:00:00Z"));
+        store.updateHidden(List.of("b-1"), true);
+
+        LinkFeedItemQuery firstPage = new LinkFeedItemQuery();
+        firstPage.setGroupName("group-1");
+        firstPage.setLimit(1);
+        assertThat(store.listRecent(firstPage))
+            .extracting(LinkFeedItem::getId, LinkFeedItem::getGroupName)
+            .containsExactly(tuple("a-2", "group-1"));
+
+        LinkFeedItemQuery secondPage = new LinkFeedItemQuery();
+        secondPage.setGroupName("group-1");
+        secondPage.setBeforePublishedAt(Instant.parse("2026-05-20T12:00:00Z"));
+        secondPage.setBeforeId("a-2");
+        assertThat(store.listRecent(secondPage))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("a-1");
+
+        assertThat(store.updateGroupName("link-a", "group-2")).isEqualTo(2);
+        assertThat(store.updateGroupName("link-a", "group-2")).isZero();
+        LinkFeedItemQuery movedGroup = new LinkFeedItemQuery();
+        movedGroup.setGroupName("group-2");
+        assertThat(store.listRecent(movedGroup))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("c-1", "a-2", "a-1");
+
+        assertThat(store.updateGroupName("link-a", " ")).isEqualTo(2);
+        assertThat(store.listRecent(movedGroup))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("c-1");
+    }
+
+    @Test
+    void shouldSearchItemsByRelevanceWithRankCursor() {
+        LinkFeedItemStore store = openStore();
+        LinkFeedItem titleMatch = item("title-match", "link-a", "SQLite tuning notes",
+            "2026-05-20T10:00:00Z");
+        LinkFeedItem summaryMatch = item("summary-match", "link-a", "Weekly notes",
+            "2026-05-22T10:00:00Z");
+        summaryMatch.setSummary("A short aside about sqlite pragmas");
+        LinkFeedItem otherLink = item("other-link", "link-b", "SQLite on link b",
+            "2026-05-21T10:00:00Z");
+        LinkFeedItem cjk = item("cjk", "link-a", "数据库设计笔记", "2026-05-23T10:00:00Z");
+        store.upsertAll(List.of(titleMatch, summaryMatch, otherLink, cjk,
+            item("unrelated", "link-a", "Gardening", "2026-05-24T10:00:00Z")));
+
+        LinkFeedItemQuery query = new LinkFeedItemQuery();
+        query.setQ("sqlite");
+        query.setLinkName("link-a");
+        query.setLimit(1);
+        List<LinkFeedItem> firstPage = store.listRecent(query);
+        assertThat(firstPage).extracting(LinkFeedItem::getId).containsExactly("title-match");
+
+        query.setBeforeRank(firstPage.getFirst().getSearchRank());
+        query.setBeforeId(firstPage.getFirst().getId());
+        List<LinkFeedItem> secondPage = store.listRecent(query);
+        assertThat(secondPage).extracting(LinkFeedItem::getId)
+            .containsExactly("summary-match");
+
+        query.setBeforeRank(secondPage.getFirst().getSearchRank());
+        query.setBeforeId(secondPage.getFirst().getId());
+        assertThat(store.listRecent(query)).isEmpty();
+
+        LinkFeedItemQuery cjkQuery = new LinkFeedItemQuery();
+        cjkQuery.setQ("数据库");
+        assertThat(store.listRecent(cjkQuery)).extracting(LinkFeedItem::getId)
+            .containsExactly("cjk");
+
+        LinkFeedItem renamed = item("title-match", "link-a", "Postgres tuning notes",
+            "2026-05-20T10:00:00Z");
+        store.upsert(renamed);
+        store.updateHidden(List.of("other-link"), true);
+        LinkFeedItemQuery visibleQuery = new LinkFeedItemQuery();
+        visibleQuery.setQ("SQLITE");
+        assertThat(store.listRecent(visibleQuery)).extracting(LinkFeedItem::getId)
+            .containsExactly("summary-match");
+    }
+
+    @Test
+    void shouldSearchShortTermsBySubstringWithStableOrder() {
+        LinkFeedItemStore store = openStore();
+        store.upsertAll(List.of(
+            item("item-1", "link-a", "Go generics", "2026-05-20T10:00:00Z"),
+            item("item-2", "link-a", "Rust", "2026-05-21T10:00:00Z"),
+            item("item-3", "link-a", "Learning go", "2026-05-22T10:00:00Z"),
+            item("item-4", "link-a", "Go and SQLite", "2026-05-23T10:00:00Z")));
+
+        LinkFeedItemQuery query = new LinkFeedItemQuery();
+        query.setQ("go");
+        assertThat(store.listRecent(query)).extracting(LinkFeedItem::getId)
+            .containsExactly("item-4", "item-3", "item-1");
+
+        query.setQ("go sqlite");
+        assertThat(store.listRecent(query)).extracting(LinkFeedItem::getId)
+            .containsExactly("item-4");
+    }
+
+    @Test
+    void shouldLoadOnlyRenderedColumnsForPublicProjection() {
+        LinkFeedItemStore store = openStore();
+        LinkFeedItem stored = groupItem("item-1", "link-a", "group-a", "2026-05-20T10:00:00Z");
+        stored.setSummary("Summary");
+        stored.setAuthor("Author");
+        stored.setUpdatedAt(Instant.parse("2026-05-21T10:00:00Z"));
+        store.upsert(stored);
+        store.updateFavorite("item-1", true);
+
+        LinkFeedItemQuery query = new LinkFeedItemQuery();
+        query.setProjection(LinkFeedItemProjection.PUBLIC);
+        assertThat(store.listRecent(query))
+            .singleElement()
+            .satisfies(item -> {
+                assertThat(item.getId()).isEqualTo("item-1");
+                assertThat(item.getLinkName()).isEqualTo("link-a");
+                assertThat(item.getUrl()).isEqualTo("https://example.com/item-1");
+                assertThat(item.getTitle()).isEqualTo("item-1");
+                assertThat(item.getSummary()).isEqualTo("Summary");
+                assertThat(item.getAuthor()).isEqualTo("Author");
+                assertThat(item.getPublishedAt())
+                    .isEqualTo(Instant.parse("2026-05-20T10:00:00Z"));
+                assertThat(item.getUpdatedAt())
+                    .isEqualTo(Instant.parse("2026-05-21T10:00:00Z"));
+                assertThat(item.getFetchedAt())
+                    .isEqualTo(Instant.parse("2026-05-22T12:00:00Z"));
+                assertThat(item.getGroupName()).isNull();
+                assertThat(item.getFeedUrl()).isNull();
+                assertThat(item.getGuid()).isNull();
+                assertThat(item.getContentHash()).isNull();
+                assertThat(item.getFavorite()).isNull();
+            });
+
+        query.setProjection(LinkFeedItemProjection.FULL);
+        assertThat(store.listRecent(query))
+            .singleElement()
+            .satisfies(item -> {
+                assertThat(item.getGroupName()).isEqualTo("group-a");
+                assertThat(item.getFeedUrl()).isEqualTo("https://example.com/feed.xml");
+                assertThat(item.getGuid()).isEqualTo("item-1");
+                assertThat(item.getContentHash()).isEqualTo("item-1");
+                assertThat(item.getFirstSeenAt())
+                    .isEqualTo(Instant.parse("2026-05-22T12:00:00Z"));
+                assertThat(item.getFavorite()).isTrue();
+                assertThat(item.getHidden()).isFalse();
+            });
+    }
+
+    @Test
+    void shouldPageAllItemsInIdChunksIncludingHiddenAndUndatedItems() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("item-3", "link-a", "Three", "2026-05-20T10:00:00Z"));
+        store.upsert(item("item-1", "link-b", "One", "2026-05-21T10:00:00Z"));
+        LinkFeedItem undated = item("item-2", "link-a", "Two", "2026-05-19T10:00:00Z");
+        undated.setPublishedAt(null);
+        store.upsert(undated);
+        store.upsert(item("item-4", "link-b", "Four", "2026-05-18T10:00:00Z"));
+        store.updateHidden(List.of("item-4"), true);
+
+        List<LinkFeedItem> first = store.listAfterId(null, 3);
+        List<LinkFeedItem> second = store.listAfterId(first.get(2).getId(), 3);
+
+        assertThat(first).extracting(LinkFeedItem::getId)
+            .containsExactly("item-1", "item-2", "item-3");
+        assertThat(second).singleElement()
+            .satisfies(item -> {
+                assertThat(item.getId()).isEqualTo("item-4");
+                assertThat(item.getHidden()).isTrue();
+                assertThat(item.getFeedUrl()).isEqualTo("https://example.com/feed.xml");
+            });
+        assertThat(store.listAfterId("item-4", 3)).isEmpty();
+        assertThatThrownBy(() -> store.listAfterId(null, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldFilterAndPreserveReadState() {
+        LinkFeedItemStore store = openStore();
+        LinkFeedItem item = item("item-1", "link-a", "Unread", "2026-05-20T10:00:00Z");
+        store.upsert(item);
+
+        assertThat(store.updateRead("item-1", true)).isTrue();
+        assertThat(store.updateRead("missing", true)).isFalse();
+
+        LinkFeedItemQuery readQuery = new LinkFeedItemQuery();
+        readQuery.setRead(true);
+        assertThat(store.listRecent(readQuery))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("item-1");
+
+        LinkFeedItemQuery unreadQuery = new LinkFeedItemQuery();
+        unreadQuery.setRead(false);
+        assertThat(store.listRecent(unreadQuery)).isEmpty();
+
+        LinkFeedItem refreshed = item("item-1", "link-a", "Updated", "2026-05-20T10:00:00Z");
+        store.upsert(refreshed);
+
+        assertThat(store.listRecent(readQuery))
+            .singleElement()
+            .satisfies(updated -> {
+                assertThat(updated.getTitle()).isEqualTo("Updated");
+                assertThat(updated.getRead()).isTrue();
+            });
+    }
+
+    @Test
+    void shouldHideByExactStableIdAndFilterBeforePagination() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("visible-new", "link-a", "Visible", "2026-05-23T10:00:00Z"));
+        store.upsert(item("hidden-middle", "link-a", "Hidden", "2026-05-22T10:00:00Z"));
+        store.upsert(item("visible-old", "link-a", "Visible", "2026-05-21T10:00:00Z"));
+
+        assertThat(store.updateHidden(List.of("hidden-middle"), true))
+            .satisfies(result -> {
+                assertThat(result.getRequestedCount()).isOne();
+                assertThat(result.getUpdatedCount()).isOne();
+            });
+
+        LinkFeedItemQuery visibleQuery = new LinkFeedItemQuery();
+        visibleQuery.setLimit(2);
+        assertThat(store.listRecent(visibleQuery))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("visible-new", "visible-old");
+
+        LinkFeedItemQuery hiddenQuery = new LinkFeedItemQuery();
+        hiddenQuery.setHidden(true);
+        assertThat(store.listRecent(hiddenQuery))
+            .singleElement()
+            .satisfies(hidden -> {
+                assertThat(hidden.getId()).isEqualTo("hidden-middle");
+                assertThat(hidden.getHidden()).isTrue();
+            });
+        assertThat(store.countSummary().getHiddenCount()).isOne();
+    }
+
+    @Test
+    void shouldCombineHiddenAndSavedStateFilters() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("hidden-favorite", "link-a", "Favorite",
+            "2026-05-22T10:00:00Z", true, false));
+        store.upsert(item("hidden-unsaved", "link-a", "Unsaved",
+            "2026-05-21T10:00:00Z"));
+        store.upsert(item("visible-favorite", "link-a", "Visible",
+            "2026-05-20T10:00:00Z", true, false));
+        store.updateHidden(List.of("hidden-favorite", "hidden-unsaved"), true);
+
+        LinkFeedItemQuery query = new LinkFeedItemQuery();
+        query.setLinkName("link-a");
+        query.setHidden(true);
+        query.setFavorite(true);
+
+        assertThat(store.listRecent(query))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("hidden-favorite");
+    }
+
+    @Test
+    void shouldDeduplicateIgnoreMissingAndCountOnlyActualHiddenChanges() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("item-1", "link-a", "One", "2026-05-22T10:00:00Z"));
+        store.upsert(item("item-2", "link-a", "Two", "2026-05-21T10:00:00Z",
+            true, true));
+        store.updateRead("item-2", true);
+
+        assertThat(store.updateHidden(List.of("item-1", "item-1", "missing"), true))
+            .satisfies(result -> {
+                assertThat(result.getRequestedCount()).isEqualTo(2);
+                assertThat(result.getUpdatedCount()).isOne();
+            });
+        assertThat(store.updateHidden(List.of("item-1"), true).getUpdatedCount()).isZero();
+        assertThat(store.updateHidden(List.of("item-2"), true).getUpdatedCount()).isOne();
+
+        LinkFeedItemQuery hiddenQuery = new LinkFeedItemQuery();
+        hiddenQuery.setHidden(true);
+        assertThat(store.listRecent(hiddenQuery))
+            .filteredOn(item -> item.getId().equals("item-2"))
+            .singleElement()
+            .satisfies(item -> {
+                assertThat(item.getRead()).isTrue();
+                assertThat(item.getFavorite()).isTrue();
+                assertThat(item.getReadLater()).isTrue();
+            });
+
+        assertThat(store.updateHidden(List.of("item-2"), false).getUpdatedCount()).isOne();
+        LinkFeedItemQuery visibleSavedQuery = new LinkFeedItemQuery();
+        visibleSavedQuery.setFavorite(true);
+        assertThat(store.listRecent(visibleSavedQuery))
+            .singleElement()
+            .satisfies(item -> {
+                assertThat(item.getId()).isEqualTo("item-2");
+                assertThat(item.getRead()).isTrue();
+                assertThat(item.getReadLater()).isTrue();
+            });
+    }
+
+    @Test
+    void shouldRejectEmptyOrBlankHiddenStateIds() {
+        LinkFeedItemStore store = openStore();
+
+        assertThatThrownBy(() -> store.updateHidden(List.of(), true))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> store.updateHidden(List.of(" "), true))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.count()).isZero();
+    }
+
+    @Test
+    void shouldPreserveHiddenStateDuringRefreshUpsert() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("item-1", "link-a", "Original", "2026-05-20T10:00:00Z"));
+        store.updateHidden(List.of("item-1"), true);
+
+        store.upsert(item("item-1", "link-a", "Updated", "2026-05-20T10:00:00Z"));
+
+        LinkFeedItemQuery hiddenQuery = new LinkFeedItemQuery();
+        hiddenQuery.setHidden(true);
+        assertThat(store.listRecent(hiddenQuery))
+            .singleElement()
+            .satisfies(item -> {
+                assertThat(item.getTitle()).isEqualTo("Updated");
+                assertThat(item.getHidden()).isTrue();
+            });
+        assertThat(store.count()).isOne();
+    }
+
+    @Test
+    void shouldMarkAllUnreadItemsAsRead() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("a-unread", "link-a", "Unread A", "2026-05-20T10:00:00Z"));
+        store.upsert(item("b-unread", "link-b", "Unread B", "2026-05-21T10:00:00Z"));
+        store.upsert(item("already-read", "link-b", "Read", "2026-05-22T10:00:00Z"));
+        store.updateRead("already-read", true);
+
+        assertThat(store.markUnreadAsRead(null)).isEqualTo(2);
+
+        LinkFeedItemQuery readQuery = new LinkFeedItemQuery();
+        readQuery.setRead(true);
+        assertThat(store.listRecent(readQuery))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("already-read", "b-unread", "a-unread");
+
+        LinkFeedItemQuery unreadQuery = new LinkFeedItemQuery();
+        unreadQuery.setRead(false);
+        assertThat(store.listRecent(unreadQuery)).isEmpty();
+    }
+
+    @Test
+    void shouldMarkSelectedLinkUnreadItemsAsRead() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("a-unread-new", "link-a", "Unread A New",
+            "2026-05-22T10:00:00Z"));
+        store.upsert(item("a-unread-old", "link-a", "Unread A Old",
+            "2026-05-20T10:00:00Z"));
+        store.upsert(item("a-read", "link-a", "Read A", "2026-05-21T10:00:00Z"));
+        store.upsert(item("b-unread", "link-b", "Unread B", "2026-05-23T10:00:00Z"));
+        store.updateRead("a-read", true);
+
+        assertThat(store.markUnreadAsRead("link-a")).isEqualTo(2);
+
+        LinkFeedItemQuery linkAReadQuery = new LinkFeedItemQuery();
+        linkAReadQuery.setLinkName("link-a");
+        linkAReadQuery.setRead(true);
+        assertThat(store.listRecent(linkAReadQuery))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("a-unread-new", "a-read", "a-unread-old");
+
+        LinkFeedItemQuery unreadQuery = new LinkFeedItemQuery();
+        unreadQuery.setRead(false);
+        assertThat(store.listRecent(unreadQuery))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("b-unread");
+    }
+
+    @Test
+    void shouldReturnZeroWhenMarkingReadWithoutUnreadItems() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("already-read", "link-a", "Read", "2026-05-20T10:00:00Z"));
+        store.updateRead("already-read", true);
+
+        assertThat(store.markUnreadAsRead(null)).isZero();
+        assertThat(store.markUnreadAsRead("missing-link")).isZero();
+
+        LinkFeedItemQuery readQuery = new LinkFeedItemQuery();
+        readQuery.setRead(true);
+        assertThat(store.listRecent(readQuery))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("already-read");
+    }
+
+    @Test
+    void shouldCountUnreadItems() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("a-unread-1", "link-a", "Unread A 1", "2026-05-20T10:00:00Z"));
+        store.upsert(item("a-unread-2", "link-a", "Unread A 2", "2026-05-21T10:00:00Z"));
+        store.upsert(item("a-read", "link-a", "Read A", "2026-05-22T10:00:00Z"));
+        store.upsert(item("b-unread", "link-b", "Unread B", "2026-05-23T10:00:00Z"));
+        store.updateRead("a-read", true);
+
+        assertThat(store.countUnread()).isEqualTo(3);
+        assertThat(store.countUnreadByLinkName())
+            .containsEntry("link-a", 2L)
+            .containsEntry("link-b", 1L)
+            .doesNotContainKey("missing-link");
+
+        store.markUnreadAsRead("link-a");
+
+        assertThat(store.countUnread()).isEqualTo(1);
+        assertThat(store.countUnreadByLinkName())
+            .doesNotContainKey("link-a")
+            .containsEntry("link-b", 1L);
+    }
+
+    @Test
+    void shouldExcludeHiddenItemsFromUnreadCountsAndBulkMarkRead() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("visible-unread", "link-a", "Visible",
+            "2026-05-22T10:00:00Z"));
+        store.upsert(item("hidden-unread", "link-a", "Hidden",
+            "2026-05-21T10:00:00Z"));
+        store.updateHidden(List.of("hidden-unread"), true);
+
+        assertThat(store.countUnread()).isOne();
+        assertThat(store.countUnreadByLinkName())
+            .containsExactlyEntriesOf(Map.of("link-a", 1L));
+        assertThat(store.markUnreadAsRead(null)).isOne();
+
+        LinkFeedItemQuery hiddenQuery = new LinkFeedItemQuery();
+        hiddenQuery.setHidden(true);
+        assertThat(store.listRecent(hiddenQuery))
+            .singleElement()
+            .satisfies(item -> assertThat(item.getRead()).isFalse());
+    }
+
+    @Test
+    void shouldPreserveFirstSeenAtWhenRefreshingExistingItem() {
+        LinkFeedItemStore store = openStore();
+        LinkFeedItem first = item("item-1", "link-a", "Original", "2026-05-20T10:00:00Z",
+            "2026-05-21T12:00:00Z", "2026-05-21T12:00:00Z");
+        LinkFeedItem refreshed = item("item-1", "link-a", "Updated", "2026-05-20T10:00:00Z",
+            "2026-05-24T12:00:00Z", "2026-05-24T12:00:00Z");
+
+        store.upsert(first);
+        store.upsert(refreshed);
+
+        assertThat(store.listRecent(new LinkFeedItemQuery()))
+            .singleElement()
+            .satisfies(item -> {
+                assertThat(item.getTitle()).isEqualTo("Updated");
+                assertThat(item.getFirstSeenAt())
+                    .isEqualTo(Instant.parse("2026-05-21T12:00:00Z"));
+                assertThat(item.getFetchedAt())
+                    .isEqualTo(Instant.parse("2026-05-24T12:00:00Z"));
+            });
+    }
+
+    @Test
+    void shouldFilterToggleAndPreserveSavedStates() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("item-1", "link-a", "Saved", "2026-05-20T10:00:00Z"));
+
+        assertThat(store.updateFavorite("item-1", true)).isTrue();
+        assertThat(store.updateReadLater("item-1", true)).isTrue();
+        assertThat(store.updateFavorite("missing", true)).isFalse();
+        assertThat(store.updateReadLater("missing", true)).isFalse();
+
+        LinkFeedItemQuery favoriteQuery = new LinkFeedItemQuery();
+        favoriteQuery.setFavorite(true);
+        assertThat(store.listRecent(favoriteQuery))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("item-1");
+
+        LinkFeedItemQuery readLaterQuery = new LinkFeedItemQuery();
+        readLaterQuery.setReadLater(true);
+        assertThat(store.listRecent(readLaterQuery))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("item-1");
+
+        LinkFeedItemQuery unsavedQuery = new LinkFeedItemQuery();
+        unsavedQuery.setFavorite(false);
+        assertThat(store.listRecent(unsavedQuery)).isEmpty();
+
+        LinkFeedItem refreshed = item("item-1", "link-a", "Updated", "2026-05-20T10:00:00Z");
+        store.upsert(refreshed);
+
+        assertThat(store.listRecent(favoriteQuery))
+            .singleElement()
+            .satisfies(updated -> {
+                assertThat(updated.getTitle()).isEqualTo("Updated");
+                assertThat(updated.getFavorite()).isTrue();
+                assertThat(updated.getReadLater()).isTrue();
+            });
+    }
+
+    @Test
+    void shouldKeepSavedItemsWhenDeletingByAge() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("old-unsaved", "link-a", "Old", "2026-05-20T10:00:00Z",
+            "2026-05-20T12:00:00Z", "2026-05-22T12:00:00Z"));
+        store.upsert(item("old-favorite", "link-a", "Favorite", "2026-05-20T11:00:00Z",
+            "2026-05-20T13:00:00Z", "2026-05-22T12:00:00Z", true, false));
+        store.upsert(item("old-later", "link-a", "Later", "2026-05-20T12:00:00Z",
+            "2026-05-20T14:00:00Z", "2026-05-22T12:00:00Z", false, true));
+        store.upsert(item("new-unsaved", "link-a", "New", "2026-05-22T10:00:00Z"));
+
+        store.deleteOlderThan(Instant.parse("2026-05-21T00:00:00Z"));
+
+        assertThat(store.listRecent(new LinkFeedItemQuery()))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("new-unsaved", "old-later", "old-favorite");
+    }
+
+    @Test
+    void shouldProtectHiddenItemsFromRetentionButDeleteThemWithLink() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("hidden-old", "link-a", "Hidden", "2026-05-18T10:00:00Z",
+            "2026-05-18T12:00:00Z", "2026-05-22T12:00:00Z"));
+        store.upsert(item("visible-new", "link-a", "Visible", "2026-05-22T10:00:00Z"));
+        store.updateHidden(List.of("hidden-old"), true);
+
+        store.deleteOlderThan(Instant.parse("2026-05-21T00:00:00Z"));
+        store.deleteExcessByLinkName("link-a", 0);
+
+        assertThat(store.count()).isOne();
+        store.upsert(item("visible-again", "link-a", "Visible again",
+            "2026-05-23T10:00:00Z"));
+        store.deleteExcess(0);
+
+        assertThat(store.count()).isOne();
+        assertThat(store.countByLinkName("link-a")).isOne();
+        assertThat(store.countByLinkNameAndFeedUrl("link-a",
+            "https://example.com/feed.xml")).isOne();
+        assertThat(store.countSummary().getHiddenCount()).isOne();
+
+        store.deleteByLinkName("link-a");
+        assertThat(store.count()).isZero();
+        assertThat(store.countSummary().getHiddenCount()).isZero();
+    }
+
+    @Test
+    void shouldKeepRecentlySeenItemsWithOldPublishedAtWhenDeletingByAge() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("quiet-feed-item", "link-a", "Quiet", "2024-08-26T02:23:35Z",
+            "2026-05-22T12:00:00Z", "2026-05-22T12:00:00Z"));
+
+        store.deleteOlderThan(Instant.parse("2026-05-21T00:00:00Z"));
+
+        assertThat(store.listRecent(new LinkFeedItemQuery()))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("quiet-feed-item");
+    }
+
+    @Test
+    void shouldKeepSavedItemsWhenDeletingExcessItems() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("old-unsaved", "link-a", "Old", "2026-05-20T10:00:00Z"));
+        store.upsert(item("middle-unsaved", "link-a", "Middle", "2026-05-21T10:00:00Z"));
+        store.upsert(item("new-unsaved", "link-a", "New", "2026-05-22T10:00:00Z"));
+        store.upsert(item("old-favorite", "link-a", "Favorite", "2026-05-19T10:00:00Z",
+            true, false));
+
+        store.deleteExcess(2);
+
+        assertThat(store.listRecent(new LinkFeedItemQuery()))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("new-unsaved", "old-favorite");
+    }
+
+    @Test
+    void shouldKeepSavedItemsWhenDeletingExcessItemsByLinkName() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("a-old-unsaved", "link-a", "Old", "2026-05-20T10:00:00Z"));
+        store.upsert(item("a-new-unsaved", "link-a", "New", "2026-05-22T10:00:00Z"));
+        store.upsert(item("a-old-later", "link-a", "Later", "2026-05-19T10:00:00Z",
+            false, true));
+        store.upsert(item("b-old-unsaved", "link-b", "Other", "2026-05-18T10:00:00Z"));
+
+        store.deleteExcessByLinkName("link-a", 2);
+
+        assertThat(store.listRecent(new LinkFeedItemQuery()))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("a-new-unsaved", "a-old-later", "b-old-unsaved");
+    }
+
+    @Test
+    void shouldDeleteAllItemsByLinkNameIncludingSavedStates() {
+        LinkFeedItemStore store = openStore();
+        store.upsert(item("a-read", "link-a", "Read", "2026-05-20T10:00:00Z"));
+        store.upsert(item("a-favorite", "link-a", "Favorite", "2026-05-21T10:00:00Z",
+            true, false));
+        store.upsert(item("a-later", "link-a", "Later", "2026-05-22T10:00:00Z",
+            false, true));
+        store.upsert(item("b-saved", "link-b", "Other", "2026-05-23T10:00:00Z",
+            true, true));
+        store.updateRead("a-read", true);
+
+        store.deleteByLinkName("link-a");
+
+        assertThat(store.countByLinkName("link-a")).isZero();
+        assertThat(store.listRecent(new LinkFeedItemQuery()))
+            .extracting(LinkFeedItem::getId)
+            .containsExactly("b-saved");
+    }
+
+    protected static LinkFeedItem groupItem(String id, String linkName, String groupName,
+        String publishedAt) {
+        LinkFeedItem item = item(id, linkName, id, publishedAt);
+        item.setGroupName(groupName);
+        return item;
+    }
+
+    protected static LinkFeedItem item(String id, String linkName, String title,
+        String publishedAt) {
+        return item(id, linkName, title, publishedAt, false, false);
+    }
+
+    protected static LinkFeedItem item(String id, String linkName, String title, String publishedAt,
+        String feedUrl) {
+        LinkFeedItem item = item(id, linkName, title, publishedAt, false, false);
+        item.setFeedUrl(feedUrl);
+        return item;
+    }
+
+    protected static LinkFeedItem item(String id, String linkName, String title, String publishedAt,
+        boolean favorite, boolean readLater) {
+        return item(id, linkName, title, publishedAt, "2026-05-22T12:00:00Z",
+            "2026-05-22T12:00:00Z", favorite, readLater);
+    }
+
+    protected static LinkFeedItem item(String id, String linkName, String title, String publishedAt,
+        String firstSeenAt, String fetchedAt) {
+        return item(id, linkName, title, publishedAt, firstSeenAt, fetchedAt, false, false);
+    }
+
+    protected static LinkFeedItem item(String id, String linkName, String title, String publishedAt,
+        String firstSeenAt, String fetchedAt, boolean favorite, boolean readLater) {
+        LinkFeedItem item = new LinkFeedItem();
+        item.setId(id);
+        item.setLinkName(linkName);
+        item.setFeedUrl("https://example.com/feed.xml");
+        item.setGuid(id);
+        item.setUrl("https://example.com/" + id);
+        item.setTitle(title);
+        item.setPublishedAt(Instant.parse(publishedAt));
+        item.setFirstSeenAt(Instant.parse(firstSeenAt));
+        item.setFetchedAt(Instant.parse(fetchedAt));
+        item.setContentHash(title);
+        item.setRead(false);
+        item.setFavorite(favorite);
+        item.setReadLater(readLater);
+        return item;
+    }
+}
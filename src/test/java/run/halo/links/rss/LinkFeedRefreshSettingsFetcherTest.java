@@ -30,6 +30,8 @@ class LinkFeedRefreshSettingsFetcherTest {
                 assertThat(settings.publicFeedEnabled()).isFalse();
                 assertThat(settings.interval().toHours()).isEqualTo(1);
                 assertThat(settings.maxLinksPerRun()).isEqualTo(50);
+                assertThat(settings.storageBackend()).isEqualTo(LinkFeedStorageBackend.SQLITE);
+                assertThat(settings.walSizeLimitBytes()).isEqualTo(64L * 1024 * 1024);
             })
             .verifyComplete();
     }
@@ -40,6 +42,7 @@ class LinkFeedRefreshSettingsFetcherTest {
         raw.setEnabled(false);
         raw.setIntervalHours(0);
         raw.setMaxLinksPerRun(-1);
+        raw.setWalSizeLimitMb(0);
         when(settingFetcher.fetch(LinkFeedRefreshSettingsFetcher.SETTING_GROUP,
             LinkFeedRefreshSettings.class)).thenReturn(Mono.just(raw));
         LinkFeedRefreshSettingsFetcher fetcher = new LinkFeedRefreshSettingsFetcher(
@@ -50,6 +53,7 @@ class LinkFeedRefreshSettingsFetcherTest {
                 assertThat(settings.automaticRefreshEnabled()).isFalse();
                 assertThat(settings.interval().toHours()).isEqualTo(1);
                 assertThat(settings.maxLinksPerRun()).isEqualTo(50);
+                assertThat(settings.getWalSizeLimitMb()).isEqualTo(64);
             })
             .verifyComplete();
     }
@@ -59,6 +63,7 @@ class LinkFeedRefreshSettingsFetcherTest {
         LinkFeedRefreshSettings raw = new LinkFeedRefreshSettings();
         raw.setIntervalHours(2);
         raw.setMaxLinksPerRun(10);
+        raw.setStorageBackend(LinkFeedStorageBackend.MMAP);
         when(settingFetcher.fetch(LinkFeedRefreshSettingsFetcher.SETTING_GROUP,
             LinkFeedRefreshSettings.class)).thenReturn(Mono.just(raw));
         LinkFeedRefreshSettingsFetcher fetcher = new LinkFeedRefreshSettingsFetcher(
@@ -69,6 +74,7 @@ class LinkFeedRefreshSettingsFetcherTest {
                 assertThat(settings.automaticRefreshEnabled()).isTrue();
                 assertThat(settings.interval().toHours()).isEqualTo(2);
                 assertThat(settings.maxLinksPerRun()).isEqualTo(10);
+                assertThat(settings.storageBackend()).isEqualTo(LinkFeedStorageBackend.MMAP);
             })
             .verifyComplete();
     }
@@ -84,4 +90,21 @@ class LinkFeedRefreshSettingsFetcherTest {
             .assertNext(settings -> assertThat(settings.automaticRefreshEnabled()).isTrue())
             .verifyComplete();
     }
+
+    @Test
+    void shouldSignalStorageBackendLookupFailuresInsteadOfDefaulting() {
+        when(settingFetcher.fetch(LinkFeedRefreshSettingsFetcher.SETTING_GROUP,
+            LinkFeedRefreshSettings.class))
+            .thenReturn(Mono.error(new IllegalStateException("Settings unavailable")))
+            .thenReturn(Mono.empty());
+        LinkFeedRefreshSettingsFetcher fetcher = new LinkFeedRefreshSettingsFetcher(
+            settingFetcher);
+
+        StepVerifier.create(fetcher.fetchStorageBackend())
+            .expectErrorMessage("Settings unavailable")
+            .verify();
+        StepVerifier.create(fetcher.fetchStorageBackend())
+            .expectNext(LinkFeedStorageBackend.SQLITE)
+            .verifyComplete();
+    }
 }
@@ -2,6 +2,7 @@ package run.halo.links.rss;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -70,6 +71,7 @@ class LinkFeedSchedulerTest {
             .verifyComplete();
 
         verifyNoInteractions(client, linkFeedService);
+        verify(storageMaintenance, never()).checkpoint(anyLong());
     }
 
     @Test
@@ -97,6 +99,7 @@ class LinkFeedSchedulerTest {
             .verifyComplete();
 
         verify(linkFeedService).refresh("link-a");
+        verify(storageMaintenance).checkpoint(64L * 1024 * 1024);
     }
 
     @Test
@@ -0,0 +1,219 @@
+package run.halo.links.rss;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import run.halo.app.plugin.PluginsRootGetter;
+import run.halo.links.sqlite.SqliteLinkFeedItemStore;
+
+class ReactiveLinkFeedItemStoreTest {
+
+    @Test
+    void shouldRunWritesInOrderOnOneWriterThread() {
+        LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
+        ReactiveLinkFeedItemStore store = new ReactiveLinkFeedItemStore(itemStore);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        try {
+            StepVerifier.create(Flux.range(0, 20)
+                    .flatMap(index -> store.write(ignored -> {
+                        threads.add(Thread.currentThread().getName());
+                        return index;
+                    }))
+                    .collectList())
+                .assertNext(order -> assertThat(order).isSortedAccordingTo(Integer::compare))
+                .verifyComplete();
+        } finally {
+            store.destroy();
+        }
+
+        assertThat(threads).singleElement()
+            .satisfies(name -> assertThat(name).startsWith("links-feed-writer"));
+    }
+
+    @Test
+    void shouldRunReadsOnReaderThreads() {
+        LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
+        when(itemStore.count()).thenReturn(7L);
+        ReactiveLinkFeedItemStore store = new ReactiveLinkFeedItemStore(itemStore);
+        try {
+            StepVerifier.create(store.read(items -> List.of(Thread.currentThread().getName(),
+                    items.count())))
+                .assertNext(result -> {
+                    assertThat(result.get(0).toString()).startsWith("links-feed-reader");
+                    assertThat(result.get(1)).isEqualTo(7L);
+                })
+                .verifyComplete();
+        } finally {
+            store.destroy();
+        }
+    }
+
+    @Test
+    void shouldKeepReadingWhileTogglesWaitForTheWriter() throws Exception {
+        LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
+        when(itemStore.count()).thenReturn(7L);
+        ReactiveLinkFeedItemStore store = new ReactiveLinkFeedItemStore(itemStore);
+        int toggles = ReactiveLinkFeedItemStore.READ_THREADS + 2;
+        CountDownLatch entered = new CountDownLatch(ReactiveLinkFeedItemStore.TOGGLE_THREADS);
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        try {
+            Disposable waiting = Flux.range(0, toggles)
+                .flatMap(index -> store.toggle(ignored -> {
+                    threads.add(Thread.currentThread().getName());
+                    entered.countDown();
+                    await(release);
+                    return true;
+                }))
+                .subscribe();
+            assertThat(entered.await(2, TimeUnit.SECONDS)).isTrue();
+
+            StepVerifier.create(store.read(LinkFeedItemStore::count))
+                .expectNext(7L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+            release.countDown();
+            waiting.dispose();
+        } finally {
+            release.countDown();
+            store.destroy();
+        }
+
+        assertThat(threads).allSatisfy(name -> assertThat(name).startsWith("links-feed-toggle"));
+    }
+
+    @Test
+    void shouldResolveTheMemoryMappedBackendOnAStoreThread(@TempDir Path tempDir) {
+        SqliteLinkFeedItemStore sqliteStore = mock(SqliteLinkFeedItemStore.class);
+        PluginsRootGetter pluginsRootGetter = mock(PluginsRootGetter.class);
+        when(pluginsRootGetter.get()).thenReturn(tempDir);
+        LinkFeedRefreshSettingsFetcher settingsFetcher = mock(LinkFeedRefreshSettingsFetcher.class);
+        // Completes on another thread, so resolving the backend really waits for it.
+        when(settingsFetcher.fetchStorageBackend()).thenReturn(
+            Mono.just(LinkFeedStorageBackend.MMAP).delayElement(Duration.ofMillis(20)));
+        ConfiguredLinkFeedItemStore itemStore =
+            new ConfiguredLinkFeedItemStore(sqliteStore, pluginsRootGetter, settingsFetcher);
+        ReactiveLinkFeedItemStore store = new ReactiveLinkFeedItemStore(itemStore);
+        try {
+            StepVerifier.create(store.write(items -> {
+                    items.upsert(LinkFeedItemStoreContractTest.item("item-1", "link-a", "One",
+                        "2026-05-20T10:00:00Z"));
+                    return true;
+                }).then(store.read(LinkFeedItemStore::count)))
+                .expectNext(1L)
+                .verifyComplete();
+        } finally {
+            store.destroy();
+            itemStore.destroy();
+        }
+
+        assertThat(Files.isDirectory(tempDir.resolve("links").resolve("feed-log"))).isTrue();
+        verifyNoInteractions(sqliteStore);
+    }
+
+    @Test
+    void shouldRejectWritesOnceThePendingLimitIsReached() throws Exception {
+        LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
+        ReactiveLinkFeedItemStore store = new ReactiveLinkFeedItemStore(itemStore,
+            Schedulers.immediate(), Schedulers.newSingle("test-writer", true),
+            Schedulers.immediate(), 1, 1, 1);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Disposable running = store.write(ignored -> {
+                entered.countDown();
+                await(release);
+                return true;
+            }).subscribe();
+            assertThat(entered.await(2, TimeUnit.SECONDS)).isTrue();
+
+            StepVerifier.create(store.write(ignored -> true))
+                .expectError(LinkFeedStorageUnavailableException.class)
+                .verify(Duration.ofSeconds(1));
+            StepVerifier.create(store.read(ignored -> "read"))
+                .expectNext("read")
+                .verifyComplete();
+
+            release.countDown();
+            running.dispose();
+            boolean writerAvailable = false;
+            for (int attempt = 0; attempt < 200 && !writerAvailable; attempt++) {
+                try {
+                    writerAvailable = Boolean.TRUE.equals(store.write(ignored -> true).block());
+                } catch (LinkFeedStorageUnavailableException ignored) {
+                    Thread.sleep(10);
+                }
+            }
+            assertThat(writerAvailable).isTrue();
+        } finally {
+            release.countDown();
+            store.destroy();
+        }
+    }
+
+    @Test
+    void shouldMakeRefreshCallsWaitForAPermitInsteadOfFailing() throws Exception {
+        LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
+        when(itemStore.count()).thenReturn(7L);
+        ReactiveLinkFeedItemStore store = new ReactiveLinkFeedItemStore(itemStore,
+            Schedulers.newBoundedElastic(4, 100, "test-reader"),
+            Schedulers.newSingle("test-writer", true), Schedulers.immediate(), 1, 1, 1);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Disposable pageView = store.read(ignored -> {
+                entered.countDown();
+                await(release);
+                return 0L;
+            }).subscribe();
+            assertThat(entered.await(2, TimeUnit.SECONDS)).isTrue();
+            StepVerifier.create(store.read(LinkFeedItemStore::count))
+                .expectError(LinkFeedStorageUnavailableException.class)
+                .verify(Duration.ofSeconds(1));
+
+            // The request permits are all taken, and the second refresh call also finds the
+            // single refresh permit taken by the first. Both wait instead of failing.
+            Mono<Long> first = store.refreshRead(items -> {
+                await(release);
+                return items.count();
+            });
+            Mono<Long> second = store.refreshRead(LinkFeedItemStore::count);
+            StepVerifier.create(Flux.merge(first, second))
+                .then(release::countDown)
+                .expectNext(7L, 7L)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+            pageView.dispose();
+        } finally {
+            release.countDown();
+            store.destroy();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
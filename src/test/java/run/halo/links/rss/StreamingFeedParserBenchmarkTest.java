@@ -0,0 +1,77 @@
+package run.halo.links.rss;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.io.SyndFeedInput;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the memory one refresh allocates to read the first entries of a multi-megabyte
+ * full-content feed: Rome decodes the whole body into a string and builds a document tree of
+ * every entry, the streaming parser stops reading after the last entry it keeps. The streaming
+ * side goes through {@link LinkFeedFetcher#readFeed}, as a refresh does, so the copy it keeps
+ * for a Rome fallback is measured too.
+ */
+class StreamingFeedParserBenchmarkTest {
+
+    private static final int ITEMS = 4_000;
+    private static final int RUNS = 5;
+
+    @Test
+    void shouldAllocateFarLessThanRomeForTheFirstEntriesOfALargeFeed() throws Exception {
+        byte[] feed = StreamingFeedParserTest.largeFeed(ITEMS).getBytes(StandardCharsets.UTF_8);
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // Warm up both parsers so class loading is not measured.
+        parseWithRome(feed);
+        parseStreaming(feed);
+
+        long romeBytes = 0;
+        long romeNanos = 0;
+        long streamingBytes = 0;
+        long streamingNanos = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long startedAt = System.nanoTime();
+            assertThat(parseWithRome(feed)).hasSize(DefaultLinkFeedService.MAX_ITEMS_PER_FETCH);
+            romeNanos += System.nanoTime() - startedAt;
+            romeBytes += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+            allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            startedAt = System.nanoTime();
+            assertThat(parseStreaming(feed)).hasSize(DefaultLinkFeedService.MAX_ITEMS_PER_FETCH);
+            streamingNanos += System.nanoTime() - startedAt;
+            streamingBytes += threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        }
+
+        System.out.printf("Feed parsing, first %d of %d entries (%.1f MB body): Rome allocated "
+                + "%.1f MB in %.1fms, streaming parser allocated %.2f MB in %.2fms per run%n",
+            DefaultLinkFeedService.MAX_ITEMS_PER_FETCH, ITEMS, feed.length / 1_048_576.0,
+            romeBytes / RUNS / 1_048_576.0, romeNanos / RUNS / 1_000_000.0,
+            streamingBytes / RUNS / 1_048_576.0, streamingNanos / RUNS / 1_000_000.0);
+        assertThat(streamingBytes).isLessThan(romeBytes / 10);
+    }
+
+    private static List<SyndEntry> parseWithRome(byte[] feed) throws Exception {
+        String body = new String(feed, StandardCharsets.UTF_8);
+        return new SyndFeedInput().build(new StringReader(body))
+            .getEntries()
+            .stream()
+            .limit(DefaultLinkFeedService.MAX_ITEMS_PER_FETCH)
+            .toList();
+    }
+
+    private static List<SyndEntry> parseStreaming(byte[] feed) throws Exception {
+        return LinkFeedFetcher.readFeed("https://example.com/rss.xml",
+            new ByteArrayInputStream(feed), StandardCharsets.UTF_8,
+            DefaultLinkFeedService.MAX_ITEMS_PER_FETCH).entries();
+    }
+}
@@ -0,0 +1,245 @@
+package run.halo.links.rss;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.rometools.rome.feed.synd.SyndContent;
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.io.SyndFeedInput;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ServerErrorException;
+
+class StreamingFeedParserTest {
+
+    @Test
+    void shouldReadRssEntriesLikeRome() throws Exception {
+        String feed = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <rss version="2.0" xmlns:dc="http://purl.org/dc/elements/1.1/"
+                 xmlns:content="http://purl.org/rss/1.0/modules/content/">
+              <channel>
+                <title>Example</title>
+                <item>
+                  <title>Hello &amp; welcome</title>
+                  <link>https://example.com/hello</link>
+                  <guid isPermaLink="false">post-1</guid>
+                  <description><![CDATA[<p>Summary</p>]]></description>
+                  <content:encoded><![CDATA[<p>Full text</p>]]></content:encoded>
+                  <dc:creator>Ann</dc:creator>
+                  <pubDate>Wed, 20 May 2026 10:00:00 GMT</pubDate>
+                </item>
+                <item>
+                  <title>Permalink only</title>
+                  <guid>https://example.com/permalink</guid>
+                  <author>bob@example.com</author>
+                  <dc:date>2026-05-21T10:00:00Z</dc:date>
+                </item>
+                <item>
+                  <title>Link only</title>
+                  <link>https://example.com/link-only</link>
+                </item>
+              </channel>
+            </rss>
+            """;
+
+        List<SyndEntry> entries = StreamingFeedParser.parse(new StringReader(feed), 20).entries();
+
+        assertThat(entries).hasSize(3);
+        List<SyndEntry> romeEntries = new SyndFeedInput().build(new StringReader(feed))
+            .getEntries();
+        for (int i = 0; i < entries.size(); i++) {
+            SyndEntry entry = entries.get(i);
+            SyndEntry romeEntry = romeEntries.get(i);
+            assertThat(entry.getUri()).isEqualTo(romeEntry.getUri());
+            assertThat(entry.getLink()).isEqualTo(romeEntry.getLink());
+            assertThat(entry.getTitle()).isEqualTo(romeEntry.getTitle());
+            assertThat(entry.getAuthor()).isEqualTo(romeEntry.getAuthor());
+            assertThat(entry.getPublishedDate()).isEqualTo(romeEntry.getPublishedDate());
+        }
+        assertThat(entries.get(0).getDescription().getValue()).isEqualTo("<p>Summary</p>");
+        assertThat(entries.get(0).getContents())
+            .extracting(SyndContent::getValue)
+            .containsExactly("<p>Full text</p>");
+        assertThat(entries.get(1).getPublishedDate().toInstant())
+            .isEqualTo(Instant.parse("2026-05-21T10:00:00Z"));
+    }
+
+    @Test
+    void shouldReadAtomAndRdfEntries() throws Exception {
+        String atom = """
+            <feed xmlns="http://www.w3.org/2005/Atom">
+              <title>Example</title>
+              <entry>
+                <id>urn:example:1</id>
+                <title type="html">A &lt;b&gt;bold&lt;/b&gt; title</title>
+                <link rel="self" href="https://example.com/self"/>
+                <link href="https://example.com/one"/>
+                <author><name>Ann</name><email>ann@example.com</email></author>
+                <summary>Summary</summary>
+                <content type="xhtml">
+                  <div xmlns="http://www.w3.org/1999/xhtml"><p>Hi</p></div>
+                </content>
+                <published>2026-05-20T10:00:00Z</published>
+                <updated>2026-05-21T10:00:00Z</updated>
+              </entry>
+            </feed>
+            """;
+        String rdf = """
+            <rdf:RDF xmlns:rdf="http://www.w3.org/1999/02/22-rdf-syntax-ns#"
+                     xmlns="http://purl.org/rss/1.0/" xmlns:dc="http://purl.org/dc/elements/1.1/">
+              <channel rdf:about="https://example.com/"><title>Example</title></channel>
+              <item rdf:about="https://example.com/one">
+                <title>One</title>
+                <link>https://example.com/one?from=rss</link>
+                <dc:creator>Ann</dc:creator>
+                <dc:date>2026-05-20T10:00:00Z</dc:date>
+              </item>
+            </rdf:RDF>
+            """;
+
+        assertThat(StreamingFeedParser.parse(new StringReader(atom), 20).entries())
+            .singleElement()
+            .satisfies(entry -> {
+                assertThat(entry.getUri()).isEqualTo("urn:example:1");
+                assertThat(entry.getTitle()).isEqualTo("A <b>bold</b> title");
+                assertThat(entry.getLink()).isEqualTo("https://example.com/one");
+                assertThat(entry.getAuthor()).isEqualTo("Ann");
+                assertThat(entry.getDescription().getValue()).isEqualTo("Summary");
+                assertThat(entry.getContents().getFirst().getValue()).contains("<p>Hi</p>");
+                assertThat(entry.getPublishedDate().toInstant())
+                    .isEqualTo(Instant.parse("2026-05-20T10:00:00Z"));
+                assertThat(entry.getUpdatedDate().toInstant())
+                    .isEqualTo(Instant.parse("2026-05-21T10:00:00Z"));
+            });
+        assertThat(StreamingFeedParser.parse(new StringReader(rdf), 20).entries())
+            .singleElement()
+            .satisfies(entry -> {
+                assertThat(entry.getUri()).isEqualTo("https://example.com/one");
+                assertThat(entry.getLink()).isEqualTo("https://example.com/one?from=rss");
+                assertThat(entry.getAuthor()).isEqualTo("Ann");
+                assertThat(entry.getPublishedDate().toInstant())
+                    .isEqualTo(Instant.parse("2026-05-20T10:00:00Z"));
+            });
+    }
+
+    @Test
+    void shouldStopReadingAfterMaxEntries() throws Exception {
+        byte[] feed = largeFeed(5_000).getBytes(StandardCharsets.UTF_8);
+        CountingInputStream body = new CountingInputStream(new ByteArrayInputStream(feed));
+
+        StreamingFeedParser.ParsedFeed parsed =
+            StreamingFeedParser.parse(body, StandardCharsets.UTF_8, 20);
+
+        assertThat(parsed.entries()).hasSize(20);
+        assertThat(parsed.entries().getLast().getTitle()).isEqualTo("Post 19");
+        assertThat(body.count).isLessThan(feed.length / 10);
+    }
+
+    @Test
+    void shouldDigestOnlyTheDocumentUpToTheLastEntryRead() throws Exception {
+        String feed = largeFeed(30);
+        String changedTail = feed.replace("<title>Post 25</title>", "<title>Edited</title>");
+        String changedHead = feed.replace("<title>Post 5</title>", "<title>Edited</title>");
+
+        String digest = StreamingFeedParser.parse(new StringReader(feed), 20).digest();
+
+        assertThat(StreamingFeedParser.parse(new StringReader(changedTail), 20).digest())
+            .isEqualTo(digest);
+        assertThat(StreamingFeedParser.parse(new StringReader(changedHead), 20).digest())
+            .isNotEqualTo(digest);
+    }
+
+    @Test
+    void shouldRejectFeedsItCannotRead() {
+        assertThatThrownBy(() -> StreamingFeedParser.parse(new StringReader(
+            "<feed xmlns=\"http://purl.org/atom/ns#\"><entry/></feed>"), 20))
+            .isInstanceOf(StreamingFeedParser.UnsupportedFeedException.class)
+            .hasMessageContaining("root element");
+        assertThatThrownBy(() -> StreamingFeedParser.parse(new StringReader(
+            "<rss><channel><item><title>Unclosed</title></channel></rss>"), 20))
+            .isInstanceOf(StreamingFeedParser.UnsupportedFeedException.class)
+            .hasMessageContaining("well-formed");
+        assertThatThrownBy(() -> StreamingFeedParser.parse(new StringReader("""
+            <!DOCTYPE rss [<!ENTITY secret SYSTEM "file:///etc/passwd">]>
+            <rss><channel><item><title>&secret;</title></item></channel></rss>
+            """), 20))
+            .isInstanceOf(StreamingFeedParser.UnsupportedFeedException.class);
+        assertThat(StreamingFeedParser.isUnsupported(new ServerErrorException("Failed",
+            new StreamingFeedParser.UnsupportedFeedException("Unsupported", null)))).isTrue();
+        assertThat(StreamingFeedParser.isUnsupported(new ServerErrorException("Failed",
+            new IOException("Connection reset")))).isFalse();
+    }
+
+    @Test
+    void shouldPropagateReadFailures() {
+        InputStream body = new InputStream() {
+            private final byte[] prefix =
+                "<rss><channel><item><title>".getBytes(StandardCharsets.UTF_8);
+            private int position;
+
+            @Override
+            public int read() throws IOException {
+                if (position < prefix.length) {
+                    return prefix[position++];
+                }
+                throw new IOException("Connection reset");
+            }
+        };
+
+        assertThatThrownBy(() -> StreamingFeedParser.parse(body, StandardCharsets.UTF_8, 20))
+            .isInstanceOf(IOException.class)
+            .hasMessage("Connection reset");
+    }
+
+    static String largeFeed(int itemCount) {
+        StringBuilder feed = new StringBuilder("""
+            <?xml version="1.0" encoding="UTF-8"?>
+            <rss version="2.0"><channel><title>Example</title>
+            """);
+        String body = "<p>" + "Lorem ipsum dolor sit amet. ".repeat(40) + "</p>";
+        for (int i = 0; i < itemCount; i++) {
+            feed.append("<item><guid>post-").append(i).append("</guid>")
+                .append("<title>Post ").append(i).append("</title>")
+                .append("<link>https://example.com/posts/").append(i).append("</link>")
+                .append("<pubDate>Wed, 20 May 2026 10:00:00 GMT</pubDate>")
+                .append("<description><![CDATA[").append(body).append("]]></description>")
+                .append("</item>\n");
+        }
+        return feed.append("</channel></rss>\n").toString();
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package run.halo.links.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Counts the connections, and so the handshakes, that repeated fetches from one host open with
+ * the pooled profile client and with a new client per fetch, which is what every fetch and
+ * redirect hop used to build, and the bytes a compressed feed transfer saves. Runs against a
+ * loopback server, so the SSRF-safe client is replaced by a plain one.
+ */
+class SafeUrlFetcherBenchmarkTest {
+
+    private static final int FETCHES = 50;
+    private static final String FEED = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <rss version="2.0"><channel><title>Example</title></channel></rss>
+        """;
+
+    @AfterEach
+    void tearDown() {
+        SafeUrlFetcher.setHttpClientFactoryForTesting(null);
+    }
+
+    @Test
+    void shouldReuseConnectionsForRepeatedSameHostFetches() {
+        AtomicInteger connections = new AtomicInteger();
+        DisposableServer server = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            // Called once per accepted TCP connection; doOnConnection runs once per request.
+            .doOnChannelInit((observer, channel, address) -> connections.incrementAndGet())
+            .handle((request, response) -> response.header("Content-Type", "application/rss+xml")
+                .sendString(Mono.just(FEED)))
+            .bindNow();
+        ConnectionProvider provider = ConnectionProvider.create("links-fetch-benchmark");
+        try {
+            String url = "http://127.0.0.1:" + server.port() + "/rss.xml";
+            // Warm up on another pool, so neither variant pays for class loading and JIT.
+            SafeUrlFetcher.setHttpClientFactoryForTesting(HttpClient::newConnection);
+            fetchRepeatedly(url, () -> { });
+            connections.set(0);
+
+            SafeUrlFetcher.setHttpClientFactoryForTesting(() -> HttpClient.create(provider));
+            long pooledNanos = fetchRepeatedly(url, () -> { });
+            int pooledConnections = connections.getAndSet(0);
+
+            // Dropping the cached connector before each fetch builds a client per fetch.
+            long perFetchNanos = fetchRepeatedly(url,
+                () -> SafeUrlFetcher.setHttpClientFactoryForTesting(HttpClient::newConnection));
+            int perFetchConnections = connections.get();
+
+            System.out.printf("SafeUrlFetcher, %d same-host fetches: pooled client opened %d "
+                    + "connection(s) in %dms, a client per fetch opened %d in %dms%n", FETCHES,
+                pooledConnections, pooledNanos / 1_000_000, perFetchConnections,
+                perFetchNanos / 1_000_000);
+            // The pool may open a second connection when a fetch starts before the previous
+            // connection is back in the pool.
+            assertThat(pooledConnections).isPositive().isLessThan(FETCHES / 10);
+            assertThat(perFetchConnections).isEqualTo(FETCHES);
+        } finally {
+            provider.disposeLater().block();
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void shouldReceiveFewerBytesForCompressedFeeds() {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            items.append("<item><title>Post ").append(i).append("</title><link>")
+                .append("https://example.com/posts/").append(i).append("</link><description>")
+                .append("Lorem ipsum dolor sit amet, consectetur adipiscing elit.")
+                .append("</description></item>\n");
+        }
+        String feed = FEED.replace("</channel>", items + "</channel>");
+        DisposableServer server = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .compress(true)
+            .handle((request, response) -> response.header("Content-Type", "application/rss+xml")
+                .sendString(Mono.just(feed)))
+            .bindNow();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            String url = "http://127.0.0.1:" + server.port() + "/rss.xml";
+            SafeUrlFetcher.setHttpClientFactoryForTesting(HttpClient::create);
+
+            SafeUrlFetcher.FetchResult result = SafeUrlFetcher.fetch(url,
+                SafeUrlFetcher.FetchOptions.feed(url, null, null));
+
+            double received = registry.get(FetchTransferStats.RECEIVED_METRIC)
+                .tag("profile", "feed").summary().totalAmount();
+            double decoded = registry.get(FetchTransferStats.DECODED_METRIC)
+                .tag("profile", "feed").summary().totalAmount();
+            System.out.printf("SafeUrlFetcher, gzip-encoded feed: received %.0f bytes, decoded "
+                + "%.0f bytes (%.1fx smaller on the wire)%n", received, decoded,
+                decoded / received);
+            assertThat(result.body()).isEqualTo(feed);
+            assertThat(decoded).isEqualTo(feed.getBytes(StandardCharsets.UTF_8).length);
+            assertThat(received).isPositive().isLessThan(decoded / 5);
+        } finally {
+            Metrics.removeRegistry(registry);
+            server.disposeNow();
+        }
+    }
+
+    private static long fetchRepeatedly(String url, Runnable beforeFetch) {
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < FETCHES; i++) {
+            beforeFetch.run();
+            SafeUrlFetcher.FetchResult result = SafeUrlFetcher.fetch(url,
+                SafeUrlFetcher.FetchOptions.feed(url, null, null));
+            assertThat(result.statusCode()).isEqualTo(200);
+            assertThat(result.body()).contains("<title>Example</title>");
+        }
+        return System.nanoTime() - startedAt;
+    }
+}
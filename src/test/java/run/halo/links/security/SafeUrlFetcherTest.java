@@ -3,24 +3,40 @@ package run.halo.links.security;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.ByteArrayOutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.server.ServerErrorException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
 
 class SafeUrlFetcherTest {
 
     @AfterEach
     void tearDown() {
         SafeUrlFetcher.setExchangeFunctionForTesting(null);
+        SafeUrlFetcher.setHttpClientFactoryForTesting(null);
     }
 
     @Test
@@ -88,6 +104,50 @@ class SafeUrlFetcherTest {
             .hasMessageContaining("Too many redirects");
     }
 
+    @Test
+    void shouldFollowRedirectsAsynchronously() {
+        List<String> paths = new ArrayList<>();
+        SafeUrlFetcher.setExchangeFunctionForTesting(request -> {
+            paths.add(request.url().getPath());
+            if (request.url().getPath().equals("/feed.xml")) {
+                return Mono.just(response(HttpStatus.MOVED_PERMANENTLY, "", builder ->
+                    builder.header(HttpHeaders.LOCATION, "https://cdn.example.com/final.xml")));
+            }
+            return Mono.just(response(HttpStatus.OK, "<rss></rss>", builder -> {
+            }));
+        });
+
+        StepVerifier.create(SafeUrlFetcher.fetchAsync("http://example.com/feed.xml",
+                SafeUrlFetcher.FetchOptions.feed("http://example.com/feed.xml", null, null)))
+            .assertNext(result -> {
+                assertThat(result.url().toExternalForm())
+                    .isEqualTo("https://cdn.example.com/final.xml");
+                assertThat(result.body()).isEqualTo("<rss></rss>");
+            })
+            .verifyComplete();
+        assertThat(paths).containsExactly("/feed.xml", "/final.xml");
+    }
+
+    @Test
+    void shouldSignalFetchFailuresAsynchronously() {
+        SafeUrlFetcher.setExchangeFunctionForTesting(request -> Mono.just(
+            response(HttpStatus.FOUND, "", builder ->
+                builder.header(HttpHeaders.LOCATION, "/next"))));
+
+        StepVerifier.create(SafeUrlFetcher.fetchAsync("http://example.com/start",
+                SafeUrlFetcher.FetchOptions.feed("http://example.com/start", null, null)))
+            .expectErrorSatisfies(error -> assertThat(error)
+                .isInstanceOf(ServerErrorException.class)
+                .hasMessageContaining("Too many redirects"))
+            .verify();
+        StepVerifier.create(SafeUrlFetcher.fetchAsync("file:///etc/passwd",
+                SafeUrlFetcher.FetchOptions.html("file:///etc/passwd")))
+            .expectErrorSatisfies(error -> assertThat(error)
+                .isInstanceOf(ServerErrorException.class)
+                .hasMessageContaining("blocked"))
+            .verify();
+    }
+
     @Test
     void shouldRejectResponseOverMaximumBodySize() {
         SafeUrlFetcher.setExchangeFunctionForTesting(request -> Mono.just(
@@ -144,6 +204,140 @@ class SafeUrlFetcherTest {
         assertThat(result.document().title()).isEqualTo("Example");
     }
 
+    @Test
+    void shouldParseHtmlDocumentOffTheThreadThatCompletesTheResponse() {
+        SafeUrlFetcher.setExchangeFunctionForTesting(request -> Mono.just(
+                response(HttpStatus.OK, "<html><head><title>Example</title></head></html>",
+                    builder -> builder.header(HttpHeaders.CONTENT_TYPE, "text/html")))
+            // Completes on a non-blocking timer thread, as the HTTP event loop would.
+            .delayElement(Duration.ofMillis(1)));
+
+        StepVerifier.create(SafeUrlFetcher.fetchAsync("http://example.com",
+                    SafeUrlFetcher.FetchOptions.verificationHtml("http://example.com", 1024, 1000))
+                .map(result -> List.of(result.document().title(),
+                    Thread.currentThread().getName())))
+            .assertNext(result -> {
+                assertThat(result.get(0)).isEqualTo("Example");
+                assertThat(result.get(1)).startsWith("boundedElastic");
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldStopStreamingOnceTheBodyReaderReturns() {
+        AtomicInteger emitted = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        byte[] chunk = "<item>0123456789</item>".getBytes(StandardCharsets.UTF_8);
+        // A test body can be subscribed again when the exchange releases it, which a network
+        // body cannot, so only buffers emitted before the reader cancels are counted.
+        SafeUrlFetcher.setExchangeFunctionForTesting(request -> Mono.just(
+            ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, "application/rss+xml; charset=ISO-8859-1")
+                .body(Flux.range(0, 1_000)
+                    .<DataBuffer>map(index -> DefaultDataBufferFactory.sharedInstance.wrap(chunk))
+                    .doOnNext(buffer -> {
+                        if (!cancelled.get()) {
+                            emitted.incrementAndGet();
+                        }
+                    })
+                    .doOnCancel(() -> cancelled.set(true)))
+                .build()));
+
+        StepVerifier.create(SafeUrlFetcher.fetchStreamingAsync("http://example.com/feed.xml",
+                SafeUrlFetcher.FetchOptions.feed("http://example.com/feed.xml", null, null),
+                (body, charset) -> charset.name() + ":" + new String(body.readNBytes(6),
+                    charset)))
+            .assertNext(result -> {
+                assertThat(result.statusCode()).isEqualTo(200);
+                assertThat(result.body()).isEqualTo("ISO-8859-1:<item>");
+            })
+            .verifyComplete();
+        assertThat(cancelled).isTrue();
+        assertThat(emitted.get()).isLessThan(1_000);
+    }
+
+    @Test
+    void shouldReadStreamedBodiesOnTheGivenScheduler() {
+        SafeUrlFetcher.setExchangeFunctionForTesting(request -> Mono.just(
+            response(HttpStatus.OK, "<rss></rss>", builder -> {
+            })));
+        Scheduler readers = Schedulers.newBoundedElastic(1, 10, "test-feed-reader");
+        try {
+            StepVerifier.create(SafeUrlFetcher.fetchStreamingAsync("http://example.com/feed.xml",
+                    SafeUrlFetcher.FetchOptions.feed("http://example.com/feed.xml", null, null),
+                    readers, (body, charset) -> Thread.currentThread().getName()))
+                .assertNext(result -> assertThat(result.body()).startsWith("test-feed-reader"))
+                .verifyComplete();
+        } finally {
+            readers.dispose();
+        }
+    }
+
+    @Test
+    void shouldNotStreamUnsuccessfulResponses() {
+        SafeUrlFetcher.setExchangeFunctionForTesting(request -> Mono.just(
+            response(HttpStatus.NOT_MODIFIED, "", builder -> builder
+                .header(HttpHeaders.ETAG, "\"v1\""))));
+
+        StepVerifier.create(SafeUrlFetcher.fetchStreamingAsync("http://example.com/feed.xml",
+                SafeUrlFetcher.FetchOptions.feed("http://example.com/feed.xml", "\"v1\"", null),
+                (body, charset) -> {
+                    throw new IllegalStateException("Body should not be read");
+                }))
+            .assertNext(result -> {
+                assertThat(result.statusCode()).isEqualTo(304);
+                assertThat(result.body()).isNull();
+                assertThat(result.etag()).isEqualTo("\"v1\"");
+            })
+            .verifyComplete();
+    }
+
+    @Test
+    void shouldAcceptCompressedResponses() {
+        List<ClientRequest> requests = new ArrayList<>();
+        SafeUrlFetcher.setExchangeFunctionForTesting(request -> {
+            requests.add(request);
+            return Mono.just(response(HttpStatus.OK, "<rss></rss>", builder -> {
+            }));
+        });
+
+        SafeUrlFetcher.fetch("http://example.com/feed.xml",
+            SafeUrlFetcher.FetchOptions.feed("http://example.com/feed.xml", null, null));
+
+        assertThat(requests).singleElement()
+            .satisfies(request -> assertThat(request.headers()
+                .getFirst(HttpHeaders.ACCEPT_ENCODING)).contains("gzip", "deflate"));
+    }
+
+    @Test
+    void shouldLimitTheDecompressedSizeOfCompressedResponses() throws Exception {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            byte[] zeros = new byte[1024 * 1024];
+            for (int i = 0; i < 64; i++) {
+                gzip.write(zeros);
+            }
+        }
+        DisposableServer server = HttpServer.create()
+            .host("127.0.0.1")
+            .port(0)
+            .handle((request, response) -> response
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .sendByteArray(Mono.just(compressed.toByteArray())))
+            .bindNow();
+        SafeUrlFetcher.setHttpClientFactoryForTesting(HttpClient::create);
+        try {
+            String url = "http://127.0.0.1:" + server.port() + "/feed.xml";
+
+            assertThatThrownBy(() -> SafeUrlFetcher.fetch(url,
+                SafeUrlFetcher.FetchOptions.feed(url, null, null)))
+                .isInstanceOf(ServerErrorException.class)
+                .hasMessageContaining("maximum size");
+        } finally {
+            server.disposeNow();
+        }
+    }
+
     private static ClientResponse response(HttpStatus status, String body,
         Consumer<ClientResponse.Builder> customizer) {
         ClientResponse.Builder builder = ClientResponse.create(status);
@@ -11,9 +11,11 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import reactor.test.StepVerifier;
+import run.halo.links.rss.LinkFeedItemProjection;
 import run.halo.links.rss.LinkFeedItemQuery;
 import run.halo.links.rss.LinkFeedItemStore;
 import run.halo.links.rss.LinkFeedStorageUnavailableException;
+import run.halo.links.rss.ReactiveLinkFeedItemStore;
 import run.halo.links.vo.LinkFeedItemVo;
 
 class LinkFeedPublicQueryServiceImplTest {
@@ -24,8 +26,7 @@ class LinkFeedPublicQueryServiceImplTest {
         LinkFeedItemQuery query = new LinkFeedItemQuery();
         when(itemStore.listRecent(any()))
             .thenThrow(new LinkFeedStorageUnavailableException("unavailable"));
-        LinkFeedPublicQueryServiceImpl service =
-            new LinkFeedPublicQueryServiceImpl(null, itemStore, null);
+        LinkFeedPublicQueryServiceImpl service = service(itemStore);
 
         StepVerifier.create(service.listFeeds(null, query))
             .assertNext(page -> {
@@ -36,29 +37,27 @@ class LinkFeedPublicQueryServiceImplTest {
     }
 
     @Test
-    void shouldRunFeedItemLookupOnBoundedElasticThread() {
+    void shouldRunFeedItemLookupOnFeedReaderThread() {
         LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
         AtomicReference<String> threadName = new AtomicReference<>();
         when(itemStore.listRecent(any())).thenAnswer(invocation -> {
             threadName.set(Thread.currentThread().getName());
             return List.of();
         });
-        LinkFeedPublicQueryServiceImpl service =
-            new LinkFeedPublicQueryServiceImpl(null, itemStore, null);
+        LinkFeedPublicQueryServiceImpl service = service(itemStore);
 
         StepVerifier.create(service.listFeeds(null, new LinkFeedItemQuery()))
             .assertNext(page -> assertThat(page.getItems()).isEmpty())
             .verifyComplete();
 
-        assertThat(threadName.get()).contains("boundedElastic");
+        assertThat(threadName.get()).startsWith("links-feed-reader");
     }
 
     @Test
     void shouldForceVisibleOnlyStoreQuery() {
         LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
         when(itemStore.listRecent(any())).thenReturn(List.of());
-        LinkFeedPublicQueryServiceImpl service =
-            new LinkFeedPublicQueryServiceImpl(null, itemStore, null);
+        LinkFeedPublicQueryServiceImpl service = service(itemStore);
         LinkFeedItemQuery requested = new LinkFeedItemQuery();
         requested.setHidden(true);
 
@@ -70,6 +69,25 @@ class LinkFeedPublicQueryServiceImplTest {
             ArgumentCaptor.forClass(LinkFeedItemQuery.class);
         verify(itemStore).listRecent(queryCaptor.capture());
         assertThat(queryCaptor.getValue().getHidden()).isFalse();
+        assertThat(queryCaptor.getValue().getProjection())
+            .isEqualTo(LinkFeedItemProjection.PUBLIC);
+    }
+
+    @Test
+    void shouldQueryGroupTimelineWithSingleStoreQuery() {
+        LinkFeedItemStore itemStore = mock(LinkFeedItemStore.class);
+        when(itemStore.listRecent(any())).thenReturn(List.of());
+        LinkFeedPublicQueryServiceImpl service = service(itemStore);
+
+        StepVerifier.create(service.listFeeds("group-a", new LinkFeedItemQuery()))
+            .assertNext(page -> assertThat(page.getItems()).isEmpty())
+            .verifyComplete();
+
+        ArgumentCaptor<LinkFeedItemQuery> queryCaptor =
+            ArgumentCaptor.forClass(LinkFeedItemQuery.class);
+        verify(itemStore).listRecent(queryCaptor.capture());
+        assertThat(queryCaptor.getValue().getGroupName()).isEqualTo("group-a");
+        assertThat(queryCaptor.getValue().getHidden()).isFalse();
     }
 
     @Test
@@ -78,4 +96,9 @@ class LinkFeedPublicQueryServiceImplTest {
             .extracting(field -> field.getName())
             .doesNotContain("hidden");
     }
+
+    private static LinkFeedPublicQueryServiceImpl service(LinkFeedItemStore itemStore) {
+        return new LinkFeedPublicQueryServiceImpl(null, new ReactiveLinkFeedItemStore(itemStore),
+            null);
+    }
 }
@@ -2,23 +2,32 @@ package run.halo.links.sqlite;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.sqlite.SQLiteConfig;
 import run.halo.links.rss.LinkFeedItem;
+import run.halo.links.rss.LinkFeedItemQuery;
+import run.halo.links.rss.LinkFeedItemSummary;
 import run.halo.links.rss.LinkFeedStorageUnavailableException;
 
 class LinksSqliteDatabaseTest {
@@ -30,12 +39,14 @@ class LinksSqliteDatabaseTest {
     void shouldCreateConfiguredVersionedDatabase() {
         LinksSqliteDatabase database = database();
         try {
-            assertThat(pragma(database, "user_version")).isEqualTo("1");
+            assertThat(pragma(database, "user_version"))
+                .isEqualTo(String.valueOf(LinksSqliteDatabase.SCHEMA_VERSION));
             assertThat(pragma(database, "journal_mode")).isEqualToIgnoringCase("wal");
             assertThat(pragma(database, "synchronous")).isEqualTo("2");
             assertThat(pragma(database, "busy_timeout")).isEqualTo("5000");
-            assertThat(columnExists(database, "link_feed_items", "hidden")).isTrue();
-            assertThat(indexExists(database, "idx_feed_items_hidden_recent")).isTrue();
+            assertThat(pragma(database, "auto_vacuum")).isEqualTo("2");
+            assertThat(columnExists(database, "link_feed_items", "flags")).isTrue();
+            assertThat(indexExists(database, "idx_feed_items_hidden")).isTrue();
             assertThat(database.isAvailable()).isTrue();
         } finally {
             database.destroy();
@@ -50,12 +61,13 @@ class LinksSqliteDatabaseTest {
         LinksSqliteDatabase database = new LinksSqliteDatabase(dbPath);
         try {
             assertThat(database.isAvailable()).isTrue();
-            assertThat(pragma(database, "user_version")).isEqualTo("1");
-            assertThat(columnExists(database, "link_feed_items", "hidden")).isTrue();
+            assertThat(pragma(database, "user_version"))
+                .isEqualTo(String.valueOf(LinksSqliteDatabase.SCHEMA_VERSION));
+            assertThat(columnExists(database, "link_feed_items", "flags")).isTrue();
             int hidden = database.execute(connection -> {
                 try (var statement = connection.createStatement();
                     var result = statement.executeQuery(
-                        "SELECT hidden FROM link_feed_items WHERE id = 'existing-item'")) {
+                        "SELECT flags & 8 FROM link_feed_items WHERE id = 'existing-item'")) {
                     return result.next() ? result.getInt(1) : -1;
                 }
             });
@@ -65,6 +77,415 @@ class LinksSqliteDatabaseTest {
         }
     }
 
+    @Test
+    void shouldMigrateVersionOneTextTimestampsToIntegerEpochNanos() throws Exception {
+        Path dbPath = tempDir.resolve("links.sqlite");
+        createVersionOneDatabaseWithoutHidden(dbPath, "existing-item");
+        try (Connection connection = openSqlite(dbPath);
+            var statement = connection.createStatement()) {
+            statement.execute("""
+                INSERT INTO link_feed_items(id, link_name, published_at, first_seen_at,
+                  fetched_at, read)
+                VALUES ('timed-item', 'link-a', '2026-05-20T10:00:00.123456789Z',
+                  '2026-05-21T00:00:00Z', 'not-a-timestamp', 1)
+                """);
+        }
+
+        LinksSqliteDatabase database = new LinksSqliteDatabase(dbPath);
+        try {
+            assertThat(database.isAvailable()).isTrue();
+            String storedType = database.execute(connection -> {
+                try (var statement = connection.createStatement();
+                    var result = statement.executeQuery("""
+                        SELECT typeof(published_at) FROM link_feed_items
+                        WHERE id = 'timed-item'
+                        """)) {
+                    return result.next() ? result.getString(1) : null;
+                }
+            });
+            assertThat(storedType).isEqualTo("integer");
+
+            LinkFeedItemQuery query = new LinkFeedItemQuery();
+            query.setLinkName("link-a");
+            assertThat(new SqliteLinkFeedItemStore(database).listRecent(query))
+                .singleElement()
+                .satisfies(item -> {
+                    assertThat(item.getPublishedAt())
+                        .isEqualTo(Instant.parse("2026-05-20T10:00:00.123456789Z"));
+                    assertThat(item.getFirstSeenAt())
+                        .isEqualTo(Instant.parse("2026-05-21T00:00:00Z"));
+                    assertThat(item.getFetchedAt()).isNull();
+                    assertThat(item.getRead()).isTrue();
+                    assertThat(item.getHidden()).isFalse();
+                });
+            assertThat(new SqliteLinkFeedItemStore(database).count()).isEqualTo(2);
+            assertThat(tableExists(database, "link_feed_items_v1")).isFalse();
+        } finally {
+            database.destroy();
+        }
+    }
+
+    @Test
+    void shouldBackfillFeedCountersWhenUpgradingVersionThreeDatabase() throws Exception {
+        Path dbPath = tempDir.resolve("links.sqlite");
+        LinksSqliteDatabase first = new LinksSqliteDatabase(dbPath);
+        SqliteLinkFeedItemStore firstStore = new SqliteLinkFeedItemStore(first);
+        LinkFeedItem unread = item("unread-item");
+        unread.setLinkName("link-a");
+        LinkFeedItem hidden = item("hidden-item");
+        hidden.setLinkName("link-a");
+        firstStore.upsertAll(List.of(unread, hidden));
+        firstStore.updateHidden(List.of("hidden-item"), true);
+        first.destroy();
+        try (Connection connection = openSqlite(dbPath);
+            var statement = connection.createStatement()) {
+            statement.execute("DROP TRIGGER trg_feed_counters_insert");
+            statement.execute("DROP TRIGGER trg_feed_counters_delete");
+            statement.execute("DROP TRIGGER trg_feed_counters_update");
+            statement.execute("DROP TABLE link_feed_counters");
+            statement.execute("PRAGMA user_version = 3");
+        }
+
+        LinksSqliteDatabase restarted = new LinksSqliteDatabase(dbPath);
+        try {
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(restarted);
+            assertThat(restarted.isAvailable()).isTrue();
+            assertThat(store.countByLinkName("link-a")).isEqualTo(2);
+            assertThat(store.countUnreadByLinkName()).containsEntry("link-a", 1L);
+            assertThat(store.countSummary().getHiddenCount()).isOne();
+
+            store.updateHidden(List.of("hidden-item"), false);
+            assertThat(store.countUnread()).isEqualTo(2);
+        } finally {
+            restarted.destroy();
+        }
+    }
+
+    @Test
+    void shouldAddStableKeyAndSearchIndexWhenUpgradingVersionFourDatabase() throws Exception {
+        Path dbPath = tempDir.resolve("links.sqlite");
+        try (Connection connection = openSqlite(dbPath);
+            var statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE link_feed_items (
+                  id TEXT PRIMARY KEY,
+                  link_name TEXT,
+                  group_name TEXT,
+                  feed_url TEXT,
+                  guid TEXT,
+                  url TEXT,
+                  title TEXT,
+                  summary TEXT,
+                  author TEXT,
+                  published_at INTEGER,
+                  updated_at INTEGER,
+                  first_seen_at INTEGER,
+                  fetched_at INTEGER,
+                  content_hash TEXT,
+                  read INTEGER NOT NULL DEFAULT 0 CHECK (read IN (0, 1)),
+                  favorite INTEGER NOT NULL DEFAULT 0 CHECK (favorite IN (0, 1)),
+                  read_later INTEGER NOT NULL DEFAULT 0 CHECK (read_later IN (0, 1)),
+                  hidden INTEGER NOT NULL DEFAULT 0 CHECK (hidden IN (0, 1))
+                )
+                """);
+            statement.execute("""
+                INSERT INTO link_feed_items(id, link_name, title, published_at, favorite)
+                VALUES ('existing-item', 'link-a', 'Existing SQLite post', 1, 1)
+                """);
+            statement.execute("PRAGMA user_version = 4");
+        }
+
+        LinksSqliteDatabase database = new LinksSqliteDatabase(dbPath);
+        try {
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
+            assertThat(database.isAvailable()).isTrue();
+            assertThat(columnExists(database, "link_feed_items", "seq")).isTrue();
+            assertThat(tableExists(database, "link_feed_items_v4")).isFalse();
+            assertThat(pragma(database, "auto_vacuum")).isEqualTo("0");
+            assertThat(database.incrementalVacuumEnabled()).isFalse();
+
+            database.compactIfNeeded();
+
+            assertThat(pragma(database, "auto_vacuum")).isEqualTo("2");
+            assertThat(database.incrementalVacuumEnabled()).isTrue();
+            assertThat(store.countSummary().getFavoriteCount()).isOne();
+
+            LinkFeedItemQuery query = new LinkFeedItemQuery();
+            query.setQ("sqlite");
+            assertThat(store.listRecent(query))
+                .singleElement()
+                .satisfies(item -> {
+                    assertThat(item.getId()).isEqualTo("existing-item");
+                    assertThat(item.getFavorite()).isTrue();
+                    assertThat(item.getSearchRank()).isNotNull();
+                });
+        } finally {
+            database.destroy();
+        }
+    }
+
+    @Test
+    void shouldOnlyEnableIncrementalVacuumWithRoomForTheCopy() {
+        assertThat(LinksSqliteDatabase.hasRoomForVacuum(100, 199)).isFalse();
+        assertThat(LinksSqliteDatabase.hasRoomForVacuum(100, 200)).isTrue();
+    }
+
+    @Test
+    void shouldMoveVersionFiveRowsToBinaryIdsAndFeedsTable() throws Exception {
+        Path dbPath = tempDir.resolve("links.sqlite");
+        String hashId = "3c".repeat(32);
+        try (Connection connection = openSqlite(dbPath);
+            var statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE link_feed_items (
+                  seq INTEGER PRIMARY KEY,
+                  id TEXT NOT NULL UNIQUE,
+                  link_name TEXT,
+                  group_name TEXT,
+                  feed_url TEXT,
+                  guid TEXT,
+                  url TEXT,
+                  title TEXT,
+                  summary TEXT,
+                  author TEXT,
+                  published_at INTEGER,
+                  updated_at INTEGER,
+                  first_seen_at INTEGER,
+                  fetched_at INTEGER,
+                  content_hash TEXT,
+                  read INTEGER NOT NULL DEFAULT 0 CHECK (read IN (0, 1)),
+                  favorite INTEGER NOT NULL DEFAULT 0 CHECK (favorite IN (0, 1)),
+                  read_later INTEGER NOT NULL DEFAULT 0 CHECK (read_later IN (0, 1)),
+                  hidden INTEGER NOT NULL DEFAULT 0 CHECK (hidden IN (0, 1))
+                )
+                """);
+            statement.execute("INSERT INTO link_feed_items(seq, id, link_name, feed_url, "
+                + "published_at, read) VALUES (7, '" + hashId + "', 'link-a', "
+                + "'https://a.example/feed.xml', 2, 1)");
+            statement.execute("INSERT INTO link_feed_items(seq, id, link_name, feed_url, "
+                + "published_at) VALUES (9, 'legacy-item', 'link-a', "
+                + "'https://a.example/feed.xml', 1)");
+            statement.execute("INSERT INTO link_feed_items(seq, id) VALUES (11, 'orphan-item')");
+            statement.execute("PRAGMA user_version = 5");
+        }
+
+        LinksSqliteDatabase database = new LinksSqliteDatabase(dbPath);
+        try {
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
+            assertThat(database.isAvailable()).isTrue();
+            assertThat(pragma(database, "user_version"))
+                .isEqualTo(String.valueOf(LinksSqliteDatabase.SCHEMA_VERSION));
+            assertThat(columnExists(database, "link_feed_items", "link_name")).isFalse();
+            assertThat(tableExists(database, "link_feed_items_v5")).isFalse();
+            assertThat(indexExists(database, "idx_feed_items_feed_recent")).isTrue();
+            assertThat(countRows(dbPath, "link_feeds")).isOne();
+            String storedIds = database.query(connection -> {
+                try (var statement = connection.createStatement();
+                    var result = statement.executeQuery("""
+                        SELECT group_concat(seq || ':' || typeof(id), ',')
+                        FROM (SELECT seq, id FROM link_feed_items ORDER BY seq)
+                        """)) {
+                    return result.next() ? result.getString(1) : null;
+                }
+            });
+            assertThat(storedIds).isEqualTo("7:blob,9:text,11:text");
+
+            LinkFeedItemQuery query = new LinkFeedItemQuery();
+            query.setLinkName("link-a");
+            assertThat(store.listRecent(query))
+                .extracting(LinkFeedItem::getId, LinkFeedItem::getFeedUrl)
+                .containsExactly(
+                    tuple(hashId, "https://a.example/feed.xml"),
+                    tuple("legacy-item",
+                        "https://a.example/feed.xml"));
+            assertThat(store.countByLinkNameAndFeedUrl("link-a", "https://a.example/feed.xml"))
+                .isEqualTo(2);
+            assertThat(store.countUnreadByLinkName()).containsEntry("link-a", 1L);
+            assertThat(store.count()).isEqualTo(3);
+            assertThat(store.updateFavorite(hashId, true)).isTrue();
+            assertThat(store.countSummary().getFavoriteCount()).isOne();
+        } finally {
+            database.destroy();
+        }
+    }
+
+    @Test
+    void shouldPackVersionSixStateColumnsIntoFlags() throws Exception {
+        Path dbPath = tempDir.resolve("links.sqlite");
+        String hiddenId = "4d".repeat(32);
+        String savedId = "5e".repeat(32);
+        try (Connection connection = openSqlite(dbPath);
+            var statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE link_feeds (
+                  feed_id INTEGER PRIMARY KEY,
+                  link_name TEXT NOT NULL,
+                  feed_url TEXT NOT NULL,
+                  UNIQUE (link_name, feed_url)
+                )
+                """);
+            statement.execute("""
+                CREATE TABLE link_feed_items (
+                  seq INTEGER PRIMARY KEY,
+                  id BLOB NOT NULL UNIQUE,
+                  feed_id INTEGER REFERENCES link_feeds (feed_id),
+                  group_name TEXT,
+                  guid TEXT,
+                  url TEXT,
+                  title TEXT,
+                  summary TEXT,
+                  author TEXT,
+                  published_at INTEGER,
+                  updated_at INTEGER,
+                  first_seen_at INTEGER,
+                  fetched_at INTEGER,
+                  content_hash TEXT,
+                  read INTEGER NOT NULL DEFAULT 0 CHECK (read IN (0, 1)),
+                  favorite INTEGER NOT NULL DEFAULT 0 CHECK (favorite IN (0, 1)),
+                  read_later INTEGER NOT NULL DEFAULT 0 CHECK (read_later IN (0, 1)),
+                  hidden INTEGER NOT NULL DEFAULT 0 CHECK (hidden IN (0, 1))
+                )
+                """);
+            statement.execute("CREATE INDEX idx_feed_items_states "
+                + "ON link_feed_items(read, favorite, read_later, feed_id)");
+            statement.execute("INSERT INTO link_feeds(feed_id, link_name, feed_url) "
+                + "VALUES (3, 'link-a', 'https://a.example/feed.xml')");
+            statement.execute("INSERT INTO link_feed_items(seq, id, feed_id, published_at, "
+                + "favorite, hidden) VALUES (7, unhex('" + hiddenId + "'), 3, 2, 1, 1)");
+            statement.execute("INSERT INTO link_feed_items(seq, id, feed_id, published_at, "
+                + "read, read_later) VALUES (9, unhex('" + savedId + "'), 3, 1, 1, 1)");
+            statement.execute("INSERT INTO link_feed_items(seq, id, feed_id, published_at) "
+                + "VALUES (11, 'legacy-item', 3, 3)");
+            statement.execute("PRAGMA user_version = 6");
+        }
+
+        LinksSqliteDatabase database = new LinksSqliteDatabase(dbPath);
+        try {
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
+            assertThat(database.isAvailable()).isTrue();
+            assertThat(pragma(database, "user_version"))
+                .isEqualTo(String.valueOf(LinksSqliteDatabase.SCHEMA_VERSION));
+            assertThat(columnExists(database, "link_feed_items", "hidden")).isFalse();
+            assertThat(tableExists(database, "link_feed_items_v6")).isFalse();
+            assertThat(indexExists(database, "idx_feed_items_states")).isFalse();
+            assertThat(indexExists(database, "idx_feed_items_unread")).isTrue();
+            String storedFlags = database.query(connection -> {
+                try (var statement = connection.createStatement();
+                    var result = statement.executeQuery("""
+                        SELECT group_concat(seq || ':' || flags, ',')
+                        FROM (SELECT seq, flags FROM link_feed_items ORDER BY seq)
+                        """)) {
+                    return result.next() ? result.getString(1) : null;
+                }
+            });
+            assertThat(storedFlags).isEqualTo("7:10,9:5,11:0");
+
+            LinkFeedItemSummary summary = store.countSummary();
+            assertThat(summary.getHiddenCount()).isOne();
+            assertThat(summary.getFavoriteCount()).isZero();
+            assertThat(summary.getReadLaterCount()).isOne();
+            assertThat(store.countUnread()).isOne();
+
+            LinkFeedItemQuery hiddenFavorites = new LinkFeedItemQuery();
+            hiddenFavorites.setHidden(true);
+            hiddenFavorites.setFavorite(true);
+            assertThat(store.listRecent(hiddenFavorites))
+                .singleElement()
+                .satisfies(item -> {
+                    assertThat(item.getId()).isEqualTo(hiddenId);
+                    assertThat(item.getRead()).isFalse();
+                    assertThat(item.getHidden()).isTrue();
+                });
+            LinkFeedItemQuery readLater = new LinkFeedItemQuery();
+            readLater.setReadLater(true);
+            assertThat(store.listRecent(readLater))
+                .extracting(LinkFeedItem::getId, LinkFeedItem::getRead)
+                .containsExactly(tuple(savedId, true));
+        } finally {
+            database.destroy();
+        }
+    }
+
+    @Test
+    void shouldReclaimFreePagesInIncrementalSteps() {
+        LinksSqliteDatabase database = database();
+        try {
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
+            List<LinkFeedItem> items = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                LinkFeedItem item = item("item-" + i);
+                item.setSummary("x".repeat(2_000));
+                items.add(item);
+            }
+            store.upsertAll(items);
+            store.deleteExcess(0);
+            long pagesBefore = Long.parseLong(pragma(database, "page_count"));
+            assertThat(Long.parseLong(pragma(database, "freelist_count")))
+                .isGreaterThan(LinksSqliteDatabase.INCREMENTAL_VACUUM_PAGES * 2L);
+
+            database.compactIfNeeded();
+
+            assertThat(Long.parseLong(pragma(database, "freelist_count")))
+                .isLessThan(LinksSqliteDatabase.INCREMENTAL_VACUUM_PAGES);
+            assertThat(Long.parseLong(pragma(database, "page_count"))).isLessThan(pagesBefore);
+            assertThat(database.isAvailable()).isTrue();
+        } finally {
+            database.destroy();
+        }
+    }
+
+    @Test
+    void shouldTruncateWriteAheadLogPastLimitAndPublishGauges() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        LinksSqliteDatabase database = database();
+        try {
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
+            SqliteCheckpointManager checkpoints = database.checkpointManager();
+            store.upsertAll(summaryItems("burst-", 200));
+            assertThat(checkpoints.walSizeBytes()).isPositive();
+            assertThat(registry.get(SqliteCheckpointManager.WAL_SIZE_METRIC).gauge().value())
+                .isEqualTo((double) checkpoints.walSizeBytes());
+
+            database.checkpoint(1);
+
+            assertThat(checkpoints.walSizeBytes()).isZero();
+            assertThat(pragma(database, "journal_size_limit")).isEqualTo("1");
+            assertThat(registry.get(SqliteCheckpointManager.CHECKPOINT_DURATION_METRIC)
+                .timeGauge().value()).isPositive();
+
+            store.upsertAll(summaryItems("later-", 50));
+            assertThat(checkpoints.walSizeBytes()).isPositive();
+            database.checkpointIfDue();
+            assertThat(checkpoints.walSizeBytes()).isZero();
+            assertThat(store.count()).isEqualTo(250);
+        } finally {
+            database.destroy();
+            Metrics.removeRegistry(registry);
+        }
+    }
+
+    @Test
+    void shouldTruncateWriteAheadLogOnceWriterIsIdle() {
+        LinksSqliteDatabase database = database();
+        try {
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
+            SqliteCheckpointManager checkpoints = new SqliteCheckpointManager(database,
+                database.dbPath(), Duration.ZERO);
+            store.upsertAll(summaryItems("idle-", 50));
+            assertThat(checkpoints.walSizeBytes()).isPositive();
+
+            database.checkpoint(SqliteCheckpointManager.DEFAULT_WAL_SIZE_LIMIT_BYTES);
+            assertThat(checkpoints.walSizeBytes()).isPositive();
+            checkpoints.checkpointIfDue();
+
+            assertThat(checkpoints.walSizeBytes()).isZero();
+            assertThat(store.count()).isEqualTo(50);
+        } finally {
+            database.destroy();
+        }
+    }
+
     @Test
     void shouldPreserveHiddenStateAcrossRepeatedStartup() {
         Path dbPath = tempDir.resolve("links.sqlite");
@@ -78,7 +499,8 @@ class LinksSqliteDatabaseTest {
             assertThat(restarted.isAvailable()).isTrue();
             assertThat(new SqliteLinkFeedItemStore(restarted).countSummary().getHiddenCount())
                 .isOne();
-            assertThat(pragma(restarted, "user_version")).isEqualTo("1");
+            assertThat(pragma(restarted, "user_version"))
+                .isEqualTo(String.valueOf(LinksSqliteDatabase.SCHEMA_VERSION));
         } finally {
             restarted.destroy();
         }
@@ -93,7 +515,7 @@ class LinksSqliteDatabaseTest {
         LinksSqliteDatabase database = new LinksSqliteDatabase(dbPath);
         try {
             assertThat(database.isAvailable()).isTrue();
-            assertThat(columnExists(database, "link_feed_items", "hidden")).isTrue();
+            assertThat(columnExists(database, "link_feed_items", "flags")).isTrue();
             assertThat(new SqliteLinkFeedItemStore(database).count()).isOne();
             assertThat(new SqliteLinkFeedItemStore(database).countSummary().getHiddenCount())
                 .isZero();
@@ -108,7 +530,7 @@ class LinksSqliteDatabaseTest {
         createVersionOneDatabaseWithoutHidden(dbPath, "existing-item");
         try (Connection connection = openSqlite(dbPath);
             var statement = connection.createStatement()) {
-            statement.execute("CREATE TABLE idx_feed_items_hidden_recent (id TEXT)");
+            statement.execute("CREATE TABLE idx_feed_items_hidden (id TEXT)");
         }
 
         LinksSqliteDatabase failed = new LinksSqliteDatabase(dbPath);
@@ -119,13 +541,13 @@ class LinksSqliteDatabaseTest {
 
         try (Connection connection = openSqlite(dbPath);
             var statement = connection.createStatement()) {
-            statement.execute("DROP TABLE idx_feed_items_hidden_recent");
+            statement.execute("DROP TABLE idx_feed_items_hidden");
         }
         LinksSqliteDatabase retried = new LinksSqliteDatabase(dbPath);
         try {
             assertThat(retried.isAvailable()).isTrue();
             assertThat(new SqliteLinkFeedItemStore(retried).count()).isOne();
-            assertThat(indexExists(retried, "idx_feed_items_hidden_recent")).isTrue();
+            assertThat(indexExists(retried, "idx_feed_items_hidden")).isTrue();
         } finally {
             retried.destroy();
         }
@@ -200,6 +622,80 @@ class LinksSqliteDatabaseTest {
         }
     }
 
+    @Test
+    void shouldRunReadCallbacksConcurrentlyWhileWriterIsBusy() throws Exception {
+        LinksSqliteDatabase database = database();
+        var executor = Executors.newFixedThreadPool(LinksSqliteDatabase.READ_POOL_SIZE + 1);
+        try {
+            new SqliteLinkFeedItemStore(database).upsert(item("committed"));
+            CountDownLatch writerStarted = new CountDownLatch(1);
+            CountDownLatch releaseWriter = new CountDownLatch(1);
+            Future<Void> writer = executor.submit(() -> database.inTransaction(connection -> {
+                try (var statement = connection.createStatement()) {
+                    statement.executeUpdate("INSERT INTO link_feed_items(id) VALUES ('pending')");
+                }
+                writerStarted.countDown();
+                awaitQuietly(releaseWriter);
+                return null;
+            }));
+            assertThat(writerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            AtomicInteger active = new AtomicInteger();
+            AtomicInteger maximum = new AtomicInteger();
+            CountDownLatch allReading = new CountDownLatch(LinksSqliteDatabase.READ_POOL_SIZE);
+            List<Future<Long>> readers = new ArrayList<>();
+            for (int i = 0; i < LinksSqliteDatabase.READ_POOL_SIZE; i++) {
+                readers.add(executor.submit(() -> database.query(connection -> {
+                    maximum.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    allReading.countDown();
+                    try {
+                        allReading.await(5, TimeUnit.SECONDS);
+                        try (var statement = connection.createStatement();
+                            var result = statement.executeQuery(
+                                "SELECT count(*) FROM link_feed_items")) {
+                            return result.next() ? result.getLong(1) : -1;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return -1L;
+                    } finally {
+                        active.decrementAndGet();
+                    }
+                })));
+            }
+            for (var reader : readers) {
+                assertThat(reader.get(10, TimeUnit.SECONDS)).isOne();
+            }
+            releaseWriter.countDown();
+            writer.get(10, TimeUnit.SECONDS);
+
+            assertThat(maximum).hasValue(LinksSqliteDatabase.READ_POOL_SIZE);
+            assertThat(new SqliteLinkFeedItemStore(database).count()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+            database.destroy();
+        }
+    }
+
+    @Test
+    void shouldRejectWritesOnReaderConnectionsWithoutDisablingStorage() {
+        LinksSqliteDatabase database = database();
+        try {
+            assertThatThrownBy(() -> database.query(connection -> {
+                try (var statement = connection.createStatement()) {
+                    return statement.executeUpdate(
+                        "INSERT INTO link_feed_items(id) VALUES ('reader-write')");
+                }
+            })).isInstanceOf(IllegalStateException.class)
+                .isNotInstanceOf(LinkFeedStorageUnavailableException.class);
+
+            assertThat(database.isAvailable()).isTrue();
+            assertThat(new SqliteLinkFeedItemStore(database).count()).isZero();
+        } finally {
+            database.destroy();
+        }
+    }
+
     @Test
     void shouldRemainUnavailableAfterConnectionIsLostUntilRestart() {
         LinksSqliteDatabase database = database();
@@ -343,6 +839,14 @@ class LinksSqliteDatabaseTest {
         return new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
     }
 
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private static String pragma(LinksSqliteDatabase database, String name) {
         return database.execute(connection -> {
             try (var statement = connection.createStatement();
@@ -367,6 +871,18 @@ class LinksSqliteDatabaseTest {
         });
     }
 
+    private static boolean tableExists(LinksSqliteDatabase database, String tableName) {
+        return database.execute(connection -> {
+            try (var statement = connection.prepareStatement(
+                "SELECT count(*) FROM sqlite_master WHERE type = 'table' AND name = ?")) {
+                statement.setString(1, tableName);
+                try (var result = statement.executeQuery()) {
+                    return result.next() && result.getInt(1) == 1;
+                }
+            }
+        });
+    }
+
     private static boolean indexExists(LinksSqliteDatabase database, String indexName) {
         return database.execute(connection -> {
             try (var statement = connection.prepareStatement(
@@ -428,6 +944,16 @@ class LinksSqliteDatabaseTest {
         }
     }
 
+    private static List<LinkFeedItem> summaryItems(String prefix, int count) {
+        List<LinkFeedItem> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LinkFeedItem item = item(prefix + i);
+            item.setSummary("x".repeat(2_000));
+            items.add(item);
+        }
+        return items;
+    }
+
     private static LinkFeedItem item(String id) {
         var item = new LinkFeedItem();
         item.setId(id);
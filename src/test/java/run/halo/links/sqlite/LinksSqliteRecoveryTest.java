@@ -14,6 +14,11 @@ import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import run.halo.links.rss.LinkFeedItem;
@@ -120,6 +125,49 @@ class LinksSqliteRecoveryTest {
         }
     }
 
+    @Test
+    void shouldTakeSnapshotWhileWriterTransactionIsOpen() throws Exception {
+        Path dbPath = tempDir.resolve("links.sqlite");
+        MutableClock clock = new MutableClock(Instant.parse("2026-07-20T00:00:00Z"));
+        LinksSqliteDatabase database = new LinksSqliteDatabase(dbPath, clock);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
+            store.upsert(item("committed"));
+            Future<?> writer = executor.submit(() -> database.inTransaction(connection -> {
+                try (var statement = connection.createStatement()) {
+                    statement.executeUpdate(
+                        "INSERT INTO link_feed_items(id) VALUES ('uncommitted')");
+                }
+                writing.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            database.createSnapshot();
+
+            assertThat(writer.isDone()).isFalse();
+            release.countDown();
+            writer.get(5, TimeUnit.SECONDS);
+            assertThat(snapshotFiles()).singleElement()
+                .satisfies(snapshot -> {
+                    assertThat(LinksSqliteDatabase.isValidStandaloneDatabase(snapshot)).isTrue();
+                    assertThat(countItems(snapshot)).isOne();
+                });
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            database.destroy();
+        }
+    }
+
     @Test
     void shouldKeepTwoNewestValidatedSnapshots() throws IOException {
         Path dbPath = tempDir.resolve("links.sqlite");
@@ -265,6 +313,14 @@ class LinksSqliteRecoveryTest {
         }
     }
 
+    private static long countItems(Path snapshot) throws SQLException {
+        try (var connection = LinksSqliteDatabase.openStandaloneReadOnly(snapshot);
+            var statement = connection.createStatement();
+            var result = statement.executeQuery("SELECT count(*) FROM link_feed_items")) {
+            return result.next() ? result.getLong(1) : -1;
+        }
+    }
+
     private List<Path> quarantinedMainFiles() throws IOException {
         try (var files = Files.list(tempDir)) {
             return files.filter(path -> path.getFileName().toString()
@@ -3,343 +3,144 @@ package run.halo.links.sqlite;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-import java.nio.file.Path;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.io.TempDir;
 import run.halo.links.rss.LinkFeedItem;
 import run.halo.links.rss.LinkFeedItemQuery;
+import run.halo.links.rss.LinkFeedItemStore;
+import run.halo.links.rss.LinkFeedItemStoreContractTest;
 
-class SqliteLinkFeedItemStoreTest {
+class SqliteLinkFeedItemStoreTest extends LinkFeedItemStoreContractTest {
 
-    @TempDir
-    Path tempDir;
+    private LinksSqliteDatabase contractDatabase;
 
-    @Test
-    void shouldUpsertDuplicateItemsByStableId() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            LinkFeedItem first = item("item-1", "link-a", "Original", "2026-05-20T10:00:00Z");
-            LinkFeedItem updated = item("item-1", "link-a", "Updated", "2026-05-20T10:00:00Z");
-
-            store.upsert(first);
-            store.upsert(updated);
-
-            LinkFeedItemQuery query = new LinkFeedItemQuery();
-            query.setLinkName("link-a");
-
-            assertThat(store.countByLinkName("link-a")).isEqualTo(1);
-            assertThat(store.listRecent(query))
-                .singleElement()
-                .satisfies(item -> {
-                    assertThat(item.getTitle()).isEqualTo("Updated");
-                    assertThat(item.getFirstSeenAt())
-                        .isEqualTo(Instant.parse("2026-05-22T12:00:00Z"));
-                });
-        } finally {
-            database.destroy();
-        }
+    @Override
+    protected LinkFeedItemStore openStore() {
+        contractDatabase = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
+        return new SqliteLinkFeedItemStore(contractDatabase);
     }
 
-    @Test
-    void shouldCountItemsByLinkNameAndFeedUrl() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("feed-a-1", "link-a", "First", "2026-05-20T10:00:00Z",
-                "https://example.com/feed.xml"));
-            store.upsert(item("feed-a-2", "link-a", "Second", "2026-05-21T10:00:00Z",
-                "https://example.com/feed.xml"));
-            store.upsert(item("feed-b-1", "link-a", "Other Feed", "2026-05-22T10:00:00Z",
-                "https://example.com/comments.xml"));
-
-            assertThat(store.countByLinkName("link-a")).isEqualTo(3);
-            assertThat(store.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
-                .isEqualTo(2);
-            assertThat(store.countByLinkNameAndFeedUrl("link-a",
-                "https://example.com/comments.xml")).isEqualTo(1);
-        } finally {
-            database.destroy();
+    @Override
+    protected void closeStore() {
+        if (contractDatabase != null) {
+            contractDatabase.destroy();
+            contractDatabase = null;
         }
     }
 
     @Test
-    void shouldCountSummaryIndependentlyByVisibility() {
+    void shouldStoreHashIdsAsBlobsAndShareOneFeedRowPerFeed() {
         LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
         try {
             SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-
-            assertThat(store.countSummary())
-                .satisfies(summary -> {
-                    assertThat(summary.getHiddenCount()).isZero();
-                    assertThat(summary.getFavoriteCount()).isZero();
-                    assertThat(summary.getReadLaterCount()).isZero();
-                });
-
-            store.upsert(item("visible-both", "link-a", "Both", "2026-05-20T10:00:00Z",
-                true, true));
-            store.upsert(item("visible-favorite", "link-a", "Favorite",
-                "2026-05-21T10:00:00Z", true, false));
-            store.upsert(item("visible-later", "link-a", "Later", "2026-05-22T10:00:00Z",
-                false, true));
-            store.upsert(item("hidden-both", "link-a", "Hidden", "2026-05-23T10:00:00Z",
-                true, true));
-            store.updateHidden(List.of("hidden-both"), true);
-
-            assertThat(store.countSummary())
-                .satisfies(summary -> {
-                    assertThat(summary.getHiddenCount()).isEqualTo(1);
-                    assertThat(summary.getFavoriteCount()).isEqualTo(2);
-                    assertThat(summary.getReadLaterCount()).isEqualTo(2);
-                });
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldDeleteExcessItemsByLinkName() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("old", "link-a", "Old", "2026-05-20T10:00:00Z"));
-            store.upsert(item("middle", "link-a", "Middle", "2026-05-21T10:00:00Z"));
-            store.upsert(item("new", "link-a", "New", "2026-05-22T10:00:00Z"));
-
-            store.deleteExcessByLinkName("link-a", 2);
+            String older = "0a".repeat(32);
+            String newer = "f0".repeat(32);
+            store.upsertAll(List.of(
+                item(older, "link-a", "Older", "2026-05-20T10:00:00Z"),
+                item(newer, "link-a", "Newer", "2026-05-21T10:00:00Z"),
+                item("legacy-id", "link-a", "Legacy", "2026-05-22T10:00:00Z")));
+            assertThat(store.updateRead(newer, true)).isTrue();
+
+            assertThat(queryStrings(database,
+                "SELECT typeof(id) || ':' || length(id) FROM link_feed_items ORDER BY seq"))
+                .containsExactly("blob:32", "blob:32", "text:9");
+            assertThat(queryStrings(database,
+                "SELECT link_name || ' ' || feed_url FROM link_feeds"))
+                .containsExactly("link-a https://example.com/feed.xml");
 
             LinkFeedItemQuery query = new LinkFeedItemQuery();
             query.setLinkName("link-a");
+            query.setLimit(1);
+            query.setBeforePublishedAt(Instant.parse("2026-05-22T10:00:00Z"));
             assertThat(store.listRecent(query))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("new", "middle");
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldPageItemsWithStableIdTieBreakerForSamePublishedTime() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            String samePublishedAt = "2026-05-20T10:00:00Z";
-            store.upsert(item("item-a", "link-a", "A", samePublishedAt));
-            store.upsert(item("item-c", "link-a", "C", samePublishedAt));
-            store.upsert(item("item-b", "link-a", "B", samePublishedAt));
-            store.upsert(item("older", "link-a", "Older", "2026-05-19T10:00:00Z"));
-
-            LinkFeedItemQuery firstPage = new LinkFeedItemQuery();
-            firstPage.setLimit(2);
-            assertThat(store.listRecent(firstPage))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("item-c", "item-b");
-
-            LinkFeedItemQuery secondPage = new LinkFeedItemQuery();
-            secondPage.setBeforePublishedAt(Instant.parse(samePublishedAt));
-            secondPage.setBeforeId("item-b");
-            secondPage.setLimit(2);
-            assertThat(store.listRecent(secondPage))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("item-a", "older");
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldPageMixedPrecisionTimestampsInChronologicalOrder() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("precision-0", "link-a", "0", "2026-05-20T10:00:00Z"));
-            store.upsert(item("precision-3", "link-a", "3", "2026-05-20T10:00:00.123Z"));
-            store.upsert(item("precision-6", "link-a", "6", "2026-05-20T10:00:00.123456Z"));
-            store.upsert(item("precision-9", "link-a", "9",
-                "2026-05-20T10:00:00.123456789Z"));
-
-            LinkFeedItemQuery firstPage = new LinkFeedItemQuery();
-            firstPage.setLimit(2);
-            assertThat(store.listRecent(firstPage))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("precision-9", "precision-6");
-
-            LinkFeedItemQuery secondPage = new LinkFeedItemQuery();
-            secondPage.setBeforePublishedAt(Instant.parse("2026-05-20T10:00:00.123456Z"));
-            secondPage.setBeforeId("precision-6");
-            secondPage.setLimit(2);
-            assertThat(store.listRecent(secondPage))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("precision-3", "precision-0");
-
-            store.deleteExcess(2);
-            assertThat(store.listRecent(new LinkFeedItemQuery()))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("precision-9", "precision-6");
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldFilterAndPreserveReadState() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            LinkFeedItem item = item("item-1", "link-a", "Unread", "2026-05-20T10:00:00Z");
-            store.upsert(item);
-
-            assertThat(store.updateRead("item-1", true)).isTrue();
-            assertThat(store.updateRead("missing", true)).isFalse();
-
-            LinkFeedItemQuery readQuery = new LinkFeedItemQuery();
-            readQuery.setRead(true);
-            assertThat(store.listRecent(readQuery))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("item-1");
-
-            LinkFeedItemQuery unreadQuery = new LinkFeedItemQuery();
-            unreadQuery.setRead(false);
-            assertThat(store.listRecent(unreadQuery)).isEmpty();
-
-            LinkFeedItem refreshed = item("item-1", "link-a", "Updated", "2026-05-20T10:00:00Z");
-            store.upsert(refreshed);
-
-            assertThat(store.listRecent(readQuery))
                 .singleElement()
-                .satisfies(updated -> {
-                    assertThat(updated.getTitle()).isEqualTo("Updated");
-                    assertThat(updated.getRead()).isTrue();
-                });
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldHideByExactStableIdAndFilterBeforePagination() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("visible-new", "link-a", "Visible", "2026-05-23T10:00:00Z"));
-            store.upsert(item("hidden-middle", "link-a", "Hidden", "2026-05-22T10:00:00Z"));
-            store.upsert(item("visible-old", "link-a", "Visible", "2026-05-21T10:00:00Z"));
-
-            assertThat(store.updateHidden(List.of("hidden-middle"), true))
-                .satisfies(result -> {
-                    assertThat(result.getRequestedCount()).isOne();
-                    assertThat(result.getUpdatedCount()).isOne();
+                .satisfies(item -> {
+                    assertThat(item.getId()).isEqualTo(newer);
+                    assertThat(item.getLinkName()).isEqualTo("link-a");
+                    assertThat(item.getFeedUrl()).isEqualTo("https://example.com/feed.xml");
+                    assertThat(item.getRead()).isTrue();
                 });
+            assertThat(store.listAfterId(null, 10)).extracting(LinkFeedItem::getId)
+                .containsExactly("legacy-id", older, newer);
+            assertThat(store.listAfterId(older, 10)).extracting(LinkFeedItem::getId)
+                .containsExactly(newer);
 
-            LinkFeedItemQuery visibleQuery = new LinkFeedItemQuery();
-            visibleQuery.setLimit(2);
-            assertThat(store.listRecent(visibleQuery))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("visible-new", "visible-old");
-
-            LinkFeedItemQuery hiddenQuery = new LinkFeedItemQuery();
-            hiddenQuery.setHidden(true);
-            assertThat(store.listRecent(hiddenQuery))
-                .singleElement()
-                .satisfies(hidden -> {
-                    assertThat(hidden.getId()).isEqualTo("hidden-middle");
-                    assertThat(hidden.getHidden()).isTrue();
-                });
-            assertThat(store.countSummary().getHiddenCount()).isOne();
+            store.deleteByLinkName("link-a");
+            assertThat(queryStrings(database, "SELECT feed_id FROM link_feeds")).isEmpty();
         } finally {
             database.destroy();
         }
     }
 
-    @Test
-    void shouldCombineHiddenAndSavedStateFilters() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("hidden-favorite", "link-a", "Favorite",
-                "2026-05-22T10:00:00Z", true, false));
-            store.upsert(item("hidden-unsaved", "link-a", "Unsaved",
-                "2026-05-21T10:00:00Z"));
-            store.upsert(item("visible-favorite", "link-a", "Visible",
-                "2026-05-20T10:00:00Z", true, false));
-            store.updateHidden(List.of("hidden-favorite", "hidden-unsaved"), true);
-
-            LinkFeedItemQuery query = new LinkFeedItemQuery();
-            query.setLinkName("link-a");
-            query.setHidden(true);
-            query.setFavorite(true);
-
-            assertThat(store.listRecent(query))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("hidden-favorite");
-        } finally {
-            database.destroy();
-        }
-    }
 
     @Test
-    void shouldDeduplicateIgnoreMissingAndCountOnlyActualHiddenChanges() {
+    void shouldServeFirstPagesFromCacheUntilNextWrite() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
         LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
+        SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
         try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("item-1", "link-a", "One", "2026-05-22T10:00:00Z"));
-            store.upsert(item("item-2", "link-a", "Two", "2026-05-21T10:00:00Z",
-                true, true));
-            store.updateRead("item-2", true);
-
-            assertThat(store.updateHidden(List.of("item-1", "item-1", "missing"), true))
-                .satisfies(result -> {
-                    assertThat(result.getRequestedCount()).isEqualTo(2);
-                    assertThat(result.getUpdatedCount()).isOne();
-                });
-            assertThat(store.updateHidden(List.of("item-1"), true).getUpdatedCount()).isZero();
-            assertThat(store.updateHidden(List.of("item-2"), true).getUpdatedCount()).isOne();
+            store.afterPropertiesSet();
+            SqliteRecentPageCache cache = store.recentPageCache();
+            store.upsert(item("item-1", "link-a", "One", "2026-05-21T10:00:00Z"));
+            store.upsert(item("item-2", "link-b", "Two", "2026-05-22T10:00:00Z"));
+            LinkFeedItemQuery linkQuery = new LinkFeedItemQuery();
+            linkQuery.setLinkName("link-a");
+
+            assertThat(store.listRecent(new LinkFeedItemQuery())).hasSize(2);
+            List<LinkFeedItem> cached = store.listRecent(new LinkFeedItemQuery());
+            assertThat(store.listRecent(linkQuery)).extracting(LinkFeedItem::getId)
+                .containsExactly("item-1");
+            assertThat(cache.hits()).isOne();
+            assertThat(cache.misses()).isEqualTo(2);
 
-            LinkFeedItemQuery hiddenQuery = new LinkFeedItemQuery();
-            hiddenQuery.setHidden(true);
-            assertThat(store.listRecent(hiddenQuery))
-                .filteredOn(item -> item.getId().equals("item-2"))
-                .singleElement()
-                .satisfies(item -> {
-                    assertThat(item.getRead()).isTrue();
-                    assertThat(item.getFavorite()).isTrue();
-                    assertThat(item.getReadLater()).isTrue();
-                });
+            cached.getFirst().setTitle("Changed by caller");
+            assertThat(store.listRecent(new LinkFeedItemQuery()).getFirst().getTitle())
+                .isEqualTo("Two");
+            assertThat(cache.hits()).isEqualTo(2);
 
-            assertThat(store.updateHidden(List.of("item-2"), false).getUpdatedCount()).isOne();
-            LinkFeedItemQuery visibleSavedQuery = new LinkFeedItemQuery();
-            visibleSavedQuery.setFavorite(true);
-            assertThat(store.listRecent(visibleSavedQuery))
-                .singleElement()
-                .satisfies(item -> {
-                    assertThat(item.getId()).isEqualTo("item-2");
-                    assertThat(item.getRead()).isTrue();
-                    assertThat(item.getReadLater()).isTrue();
-                });
-        } finally {
-            database.destroy();
-        }
-    }
+            assertThat(store.updateRead("item-2", true)).isTrue();
+            assertThat(store.listRecent(new LinkFeedItemQuery()).getFirst().getRead()).isTrue();
+            assertThat(cache.misses()).isEqualTo(3);
 
-    @Test
-    void shouldRejectEmptyOrBlankHiddenStateIds() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
+            store.deleteByLinkName("link-b");
+            assertThat(store.listRecent(new LinkFeedItemQuery())).extracting(LinkFeedItem::getId)
+                .containsExactly("item-1");
 
-            assertThatThrownBy(() -> store.updateHidden(List.of(), true))
-                .isInstanceOf(IllegalArgumentException.class);
-            assertThatThrownBy(() -> store.updateHidden(List.of(" "), true))
-                .isInstanceOf(IllegalArgumentException.class);
-            assertThat(store.count()).isZero();
+            LinkFeedItemQuery nextPage = new LinkFeedItemQuery();
+            nextPage.setBeforePublishedAt(Instant.parse("2026-05-23T00:00:00Z"));
+            store.listRecent(nextPage);
+            LinkFeedItemQuery search = new LinkFeedItemQuery();
+            search.setQ("One");
+            store.listRecent(search);
+            assertThat(cache.hits() + cache.misses()).isEqualTo(6);
+            assertThat(registry.get(SqliteRecentPageCache.LOOKUPS_METRIC).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(cache.hits());
+            assertThat(registry.get(SqliteRecentPageCache.LOOKUPS_METRIC).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(cache.misses());
+            assertThat(registry.get(SqliteRecentPageCache.SIZE_METRIC).gauge().value())
+                .isEqualTo(cache.size());
+
+            store.destroy();
+            assertThat(registry.find(SqliteRecentPageCache.LOOKUPS_METRIC).meters()).isEmpty();
         } finally {
+            store.destroy();
             database.destroy();
+            Metrics.removeRegistry(registry);
         }
     }
 
+
     @Test
     void shouldRollbackEntireHiddenBatchWhenOneUpdateFails() {
         LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
@@ -351,7 +152,7 @@ class SqliteLinkFeedItemStoreTest {
                 try (var statement = connection.createStatement()) {
                     statement.execute("""
                         CREATE TRIGGER fail_second_hidden_update
-                        BEFORE UPDATE OF hidden ON link_feed_items
+                        BEFORE UPDATE OF flags ON link_feed_items
                         WHEN OLD.id = 'item-2'
                         BEGIN
                           SELECT RAISE(ABORT, 'test failure');
@@ -372,411 +173,182 @@ class SqliteLinkFeedItemStoreTest {
         }
     }
 
-    @Test
-    void shouldPreserveHiddenStateDuringRefreshUpsert() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("item-1", "link-a", "Original", "2026-05-20T10:00:00Z"));
-            store.updateHidden(List.of("item-1"), true);
-
-            store.upsert(item("item-1", "link-a", "Updated", "2026-05-20T10:00:00Z"));
-
-            LinkFeedItemQuery hiddenQuery = new LinkFeedItemQuery();
-            hiddenQuery.setHidden(true);
-            assertThat(store.listRecent(hiddenQuery))
-                .singleElement()
-                .satisfies(item -> {
-                    assertThat(item.getTitle()).isEqualTo("Updated");
-                    assertThat(item.getHidden()).isTrue();
-                });
-            assertThat(store.count()).isOne();
-        } finally {
-            database.destroy();
-        }
-    }
 
     @Test
-    void shouldMarkAllUnreadItemsAsRead() {
+    void shouldDeleteRetainedItemsInBoundedBatchesAndReportDeletedCount() {
         LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
         try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("a-unread", "link-a", "Unread A", "2026-05-20T10:00:00Z"));
-            store.upsert(item("b-unread", "link-b", "Unread B", "2026-05-21T10:00:00Z"));
-            store.upsert(item("already-read", "link-b", "Read", "2026-05-22T10:00:00Z"));
-            store.updateRead("already-read", true);
-
-            assertThat(store.markUnreadAsRead(null)).isEqualTo(2);
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database, 2);
+            List<LinkFeedItem> items = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                items.add(item("old-" + i, "link-a", "Old " + i,
+                    "2026-05-1%dT10:00:00Z".formatted(i), "2026-05-10T00:00:00Z",
+                    "2026-05-10T00:00:00Z"));
+            }
+            for (int i = 0; i < 5; i++) {
+                items.add(item("new-" + i, "link-b", "New " + i,
+                    "2026-05-2%dT10:00:00Z".formatted(i)));
+            }
+            items.add(item("old-favorite", "link-a", "Favorite", "2026-05-01T10:00:00Z",
+                "2026-05-10T00:00:00Z", "2026-05-10T00:00:00Z", true, false));
+            store.upsertAll(items);
+
+            assertThat(store.deleteOlderThan(Instant.parse("2026-05-21T00:00:00Z")))
+                .isEqualTo(7);
+            assertThat(store.deleteExcess(3)).isEqualTo(3);
+            assertThat(store.deleteExcess(3)).isZero();
 
-            LinkFeedItemQuery readQuery = new LinkFeedItemQuery();
-            readQuery.setRead(true);
-            assertThat(store.listRecent(readQuery))
+            assertThat(store.listRecent(new LinkFeedItemQuery()))
                 .extracting(LinkFeedItem::getId)
-                .containsExactly("already-read", "b-unread", "a-unread");
-
-            LinkFeedItemQuery unreadQuery = new LinkFeedItemQuery();
-            unreadQuery.setRead(false);
-            assertThat(store.listRecent(unreadQuery)).isEmpty();
+                .containsExactly("new-4", "new-3", "old-favorite");
+            assertThat(store.count()).isEqualTo(3);
         } finally {
             database.destroy();
         }
     }
 
-    @Test
-    void shouldMarkSelectedLinkUnreadItemsAsRead() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("a-unread-new", "link-a", "Unread A New",
-                "2026-05-22T10:00:00Z"));
-            store.upsert(item("a-unread-old", "link-a", "Unread A Old",
-                "2026-05-20T10:00:00Z"));
-            store.upsert(item("a-read", "link-a", "Read A", "2026-05-21T10:00:00Z"));
-            store.upsert(item("b-unread", "link-b", "Unread B", "2026-05-23T10:00:00Z"));
-            store.updateRead("a-read", true);
-
-            assertThat(store.markUnreadAsRead("link-a")).isEqualTo(2);
-
-            LinkFeedItemQuery linkAReadQuery = new LinkFeedItemQuery();
-            linkAReadQuery.setLinkName("link-a");
-            linkAReadQuery.setRead(true);
-            assertThat(store.listRecent(linkAReadQuery))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("a-unread-new", "a-read", "a-unread-old");
-
-            LinkFeedItemQuery unreadQuery = new LinkFeedItemQuery();
-            unreadQuery.setRead(false);
-            assertThat(store.listRecent(unreadQuery))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("b-unread");
-        } finally {
-            database.destroy();
-        }
-    }
 
     @Test
-    void shouldReturnZeroWhenMarkingReadWithoutUnreadItems() {
+    void shouldGroupConcurrentStateTogglesIntoSharedCommitsWithPerItemResults()
+        throws Exception {
         LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
+        ExecutorService executor = Executors.newFixedThreadPool(16);
         try {
             SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("already-read", "link-a", "Read", "2026-05-20T10:00:00Z"));
-            store.updateRead("already-read", true);
-
-            assertThat(store.markUnreadAsRead(null)).isZero();
-            assertThat(store.markUnreadAsRead("missing-link")).isZero();
-
-            LinkFeedItemQuery readQuery = new LinkFeedItemQuery();
-            readQuery.setRead(true);
-            assertThat(store.listRecent(readQuery))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("already-read");
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldCountUnreadItems() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("a-unread-1", "link-a", "Unread A 1", "2026-05-20T10:00:00Z"));
-            store.upsert(item("a-unread-2", "link-a", "Unread A 2", "2026-05-21T10:00:00Z"));
-            store.upsert(item("a-read", "link-a", "Read A", "2026-05-22T10:00:00Z"));
-            store.upsert(item("b-unread", "link-b", "Unread B", "2026-05-23T10:00:00Z"));
-            store.updateRead("a-read", true);
-
-            assertThat(store.countUnread()).isEqualTo(3);
-            assertThat(store.countUnreadByLinkName())
-                .containsEntry("link-a", 2L)
-                .containsEntry("link-b", 1L)
-                .doesNotContainKey("missing-link");
-
-            store.markUnreadAsRead("link-a");
-
-            assertThat(store.countUnread()).isEqualTo(1);
-            assertThat(store.countUnreadByLinkName())
-                .doesNotContainKey("link-a")
-                .containsEntry("link-b", 1L);
+            for (int i = 0; i < 16; i++) {
+                store.upsert(item("item-" + i, "link-a", "Item " + i, "2026-05-20T10:00:00Z"));
+            }
+            long batchesBefore = store.stateWriteQueue().committedBatches();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String id = "item-" + i;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return store.updateRead(id, true);
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < 32; i++) {
+                assertThat(results.get(i).get(10, TimeUnit.SECONDS)).isEqualTo(i < 16);
+            }
+            assertThat(store.stateWriteQueue().committedBatches() - batchesBefore)
+                .isBetween(1L, 31L);
+            assertThat(store.countUnread()).isZero();
+            assertThat(store.updateHidden(List.of("item-1"), true).getUpdatedCount())
+                .isOne();
+            assertThat(store.updateHidden(List.of("item-1"), true).getUpdatedCount())
+                .isZero();
+            assertThat(store.updateHidden(List.of("missing"), true).getRequestedCount())
+                .isOne();
         } finally {
+            executor.shutdownNow();
             database.destroy();
         }
     }
 
-    @Test
-    void shouldExcludeHiddenItemsFromUnreadCountsAndBulkMarkRead() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("visible-unread", "link-a", "Visible",
-                "2026-05-22T10:00:00Z"));
-            store.upsert(item("hidden-unread", "link-a", "Hidden",
-                "2026-05-21T10:00:00Z"));
-            store.updateHidden(List.of("hidden-unread"), true);
-
-            assertThat(store.countUnread()).isOne();
-            assertThat(store.countUnreadByLinkName())
-                .containsExactlyEntriesOf(Map.of("link-a", 1L));
-            assertThat(store.markUnreadAsRead(null)).isOne();
-
-            LinkFeedItemQuery hiddenQuery = new LinkFeedItemQuery();
-            hiddenQuery.setHidden(true);
-            assertThat(store.listRecent(hiddenQuery))
-                .singleElement()
-                .satisfies(item -> assertThat(item.getRead()).isFalse());
-        } finally {
-            database.destroy();
-        }
-    }
 
     @Test
-    void shouldPreserveFirstSeenAtWhenRefreshingExistingItem() {
+    void shouldKeepFeedCountersConsistentWithItemsAcrossWrites() {
         LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
         try {
             SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            LinkFeedItem first = item("item-1", "link-a", "Original", "2026-05-20T10:00:00Z",
-                "2026-05-21T12:00:00Z", "2026-05-21T12:00:00Z");
-            LinkFeedItem refreshed = item("item-1", "link-a", "Updated", "2026-05-20T10:00:00Z",
-                "2026-05-24T12:00:00Z", "2026-05-24T12:00:00Z");
-
-            store.upsert(first);
-            store.upsert(refreshed);
-
-            assertThat(store.listRecent(new LinkFeedItemQuery()))
-                .singleElement()
-                .satisfies(item -> {
-                    assertThat(item.getTitle()).isEqualTo("Updated");
-                    assertThat(item.getFirstSeenAt())
-                        .isEqualTo(Instant.parse("2026-05-21T12:00:00Z"));
-                    assertThat(item.getFetchedAt())
-                        .isEqualTo(Instant.parse("2026-05-24T12:00:00Z"));
-                });
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldFilterToggleAndPreserveSavedStates() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("item-1", "link-a", "Saved", "2026-05-20T10:00:00Z"));
-
-            assertThat(store.updateFavorite("item-1", true)).isTrue();
-            assertThat(store.updateReadLater("item-1", true)).isTrue();
-            assertThat(store.updateFavorite("missing", true)).isFalse();
-            assertThat(store.updateReadLater("missing", true)).isFalse();
-
-            LinkFeedItemQuery favoriteQuery = new LinkFeedItemQuery();
-            favoriteQuery.setFavorite(true);
-            assertThat(store.listRecent(favoriteQuery))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("item-1");
-
-            LinkFeedItemQuery readLaterQuery = new LinkFeedItemQuery();
-            readLaterQuery.setReadLater(true);
-            assertThat(store.listRecent(readLaterQuery))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("item-1");
-
-            LinkFeedItemQuery unsavedQuery = new LinkFeedItemQuery();
-            unsavedQuery.setFavorite(false);
-            assertThat(store.listRecent(unsavedQuery)).isEmpty();
-
-            LinkFeedItem refreshed = item("item-1", "link-a", "Updated", "2026-05-20T10:00:00Z");
-            store.upsert(refreshed);
-
-            assertThat(store.listRecent(favoriteQuery))
-                .singleElement()
-                .satisfies(updated -> {
-                    assertThat(updated.getTitle()).isEqualTo("Updated");
-                    assertThat(updated.getFavorite()).isTrue();
-                    assertThat(updated.getReadLater()).isTrue();
+            store.upsertAll(List.of(
+                item("a-1", "link-a", "First", "2026-05-20T10:00:00Z"),
+                item("a-2", "link-a", "Second", "2026-05-21T10:00:00Z", true, false),
+                item("a-3", "link-a", "Comments", "2026-05-22T10:00:00Z",
+                    "https://example.com/comments.xml"),
+                item("b-1", "link-b", "Other", "2026-05-23T10:00:00Z", false, true),
+                item("orphan", null, "Orphan", "2026-05-24T10:00:00Z")));
+            assertThat(feedCounters(database)).isEqualTo(recountedFeedCounters(database));
+
+            store.updateRead("a-1", true);
+            store.updateFavorite("b-1", true);
+            store.updateReadLater("a-2", true);
+            store.updateHidden(List.of("a-2", "b-1"), true);
+            store.upsert(item("a-1", "link-a", "Moved", "2026-05-20T10:00:00Z",
+                "https://example.com/comments.xml"));
+            assertThat(feedCounters(database)).isEqualTo(recountedFeedCounters(database));
+            assertThat(store.countUnread()).isEqualTo(2);
+            assertThat(store.countUnreadByLinkName()).containsExactly(Map.entry("link-a", 1L));
+            assertThat(store.countSummary())
+                .satisfies(summary -> {
+                    assertThat(summary.getHiddenCount()).isEqualTo(2);
+                    assertThat(summary.getFavoriteCount()).isZero();
+                    assertThat(summary.getReadLaterCount()).isZero();
                 });
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldKeepSavedItemsWhenDeletingByAge() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("old-unsaved", "link-a", "Old", "2026-05-20T10:00:00Z",
-                "2026-05-20T12:00:00Z", "2026-05-22T12:00:00Z"));
-            store.upsert(item("old-favorite", "link-a", "Favorite", "2026-05-20T11:00:00Z",
-                "2026-05-20T13:00:00Z", "2026-05-22T12:00:00Z", true, false));
-            store.upsert(item("old-later", "link-a", "Later", "2026-05-20T12:00:00Z",
-                "2026-05-20T14:00:00Z", "2026-05-22T12:00:00Z", false, true));
-            store.upsert(item("new-unsaved", "link-a", "New", "2026-05-22T10:00:00Z"));
-
-            store.deleteOlderThan(Instant.parse("2026-05-21T00:00:00Z"));
-
-            assertThat(store.listRecent(new LinkFeedItemQuery()))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("new-unsaved", "old-later", "old-favorite");
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldProtectHiddenItemsFromRetentionButDeleteThemWithLink() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("hidden-old", "link-a", "Hidden", "2026-05-18T10:00:00Z",
-                "2026-05-18T12:00:00Z", "2026-05-22T12:00:00Z"));
-            store.upsert(item("visible-new", "link-a", "Visible", "2026-05-22T10:00:00Z"));
-            store.updateHidden(List.of("hidden-old"), true);
-
-            store.deleteOlderThan(Instant.parse("2026-05-21T00:00:00Z"));
-            store.deleteExcessByLinkName("link-a", 0);
-
-            assertThat(store.count()).isOne();
-            store.upsert(item("visible-again", "link-a", "Visible again",
-                "2026-05-23T10:00:00Z"));
-            store.deleteExcess(0);
-
-            assertThat(store.count()).isOne();
-            assertThat(store.countByLinkName("link-a")).isOne();
+            assertThat(store.countByLinkNameAndFeedUrl("link-a", "https://example.com/feed.xml"))
+                .isEqualTo(1);
             assertThat(store.countByLinkNameAndFeedUrl("link-a",
-                "https://example.com/feed.xml")).isOne();
-            assertThat(store.countSummary().getHiddenCount()).isOne();
-
-            store.deleteByLinkName("link-a");
-            assertThat(store.count()).isZero();
-            assertThat(store.countSummary().getHiddenCount()).isZero();
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldKeepRecentlySeenItemsWithOldPublishedAtWhenDeletingByAge() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("quiet-feed-item", "link-a", "Quiet", "2024-08-26T02:23:35Z",
-                "2026-05-22T12:00:00Z", "2026-05-22T12:00:00Z"));
-
-            store.deleteOlderThan(Instant.parse("2026-05-21T00:00:00Z"));
-
-            assertThat(store.listRecent(new LinkFeedItemQuery()))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("quiet-feed-item");
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldKeepSavedItemsWhenDeletingExcessItems() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("old-unsaved", "link-a", "Old", "2026-05-20T10:00:00Z"));
-            store.upsert(item("middle-unsaved", "link-a", "Middle", "2026-05-21T10:00:00Z"));
-            store.upsert(item("new-unsaved", "link-a", "New", "2026-05-22T10:00:00Z"));
-            store.upsert(item("old-favorite", "link-a", "Favorite", "2026-05-19T10:00:00Z",
-                true, false));
-
-            store.deleteExcess(2);
-
-            assertThat(store.listRecent(new LinkFeedItemQuery()))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("new-unsaved", "old-favorite");
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldKeepSavedItemsWhenDeletingExcessItemsByLinkName() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("a-old-unsaved", "link-a", "Old", "2026-05-20T10:00:00Z"));
-            store.upsert(item("a-new-unsaved", "link-a", "New", "2026-05-22T10:00:00Z"));
-            store.upsert(item("a-old-later", "link-a", "Later", "2026-05-19T10:00:00Z",
-                false, true));
-            store.upsert(item("b-old-unsaved", "link-b", "Other", "2026-05-18T10:00:00Z"));
-
-            store.deleteExcessByLinkName("link-a", 2);
-
-            assertThat(store.listRecent(new LinkFeedItemQuery()))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("a-new-unsaved", "a-old-later", "b-old-unsaved");
-        } finally {
-            database.destroy();
-        }
-    }
-
-    @Test
-    void shouldDeleteAllItemsByLinkNameIncludingSavedStates() {
-        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
-        try {
-            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
-            store.upsert(item("a-read", "link-a", "Read", "2026-05-20T10:00:00Z"));
-            store.upsert(item("a-favorite", "link-a", "Favorite", "2026-05-21T10:00:00Z",
-                true, false));
-            store.upsert(item("a-later", "link-a", "Later", "2026-05-22T10:00:00Z",
-                false, true));
-            store.upsert(item("b-saved", "link-b", "Other", "2026-05-23T10:00:00Z",
-                true, true));
-            store.updateRead("a-read", true);
+                "https://example.com/comments.xml")).isEqualTo(2);
 
+            store.markUnreadAsRead(null);
+            store.updateHidden(List.of("b-1"), false);
             store.deleteByLinkName("link-a");
-
+            assertThat(feedCounters(database)).isEqualTo(recountedFeedCounters(database));
+            assertThat(store.count()).isEqualTo(2);
             assertThat(store.countByLinkName("link-a")).isZero();
-            assertThat(store.listRecent(new LinkFeedItemQuery()))
-                .extracting(LinkFeedItem::getId)
-                .containsExactly("b-saved");
         } finally {
             database.destroy();
         }
     }
 
-    private static LinkFeedItem item(String id, String linkName, String title, String publishedAt) {
-        return item(id, linkName, title, publishedAt, false, false);
-    }
 
-    private static LinkFeedItem item(String id, String linkName, String title, String publishedAt,
-        String feedUrl) {
-        LinkFeedItem item = item(id, linkName, title, publishedAt, false, false);
-        item.setFeedUrl(feedUrl);
-        return item;
+    private static List<List<Object>> feedCounters(LinksSqliteDatabase database) {
+        return queryRows(database, """
+            SELECT coalesce(f.link_name, '') AS link_key, coalesce(f.feed_url, '') AS feed_key,
+              c.total, c.unread, c.favorite, c.read_later, c.hidden
+            FROM link_feed_counters c
+            LEFT JOIN link_feeds f ON f.feed_id = c.feed_id
+            ORDER BY link_key, feed_key
+            """);
     }
 
-    private static LinkFeedItem item(String id, String linkName, String title, String publishedAt,
-        boolean favorite, boolean readLater) {
-        return item(id, linkName, title, publishedAt, "2026-05-22T12:00:00Z",
-            "2026-05-22T12:00:00Z", favorite, readLater);
+    private static List<List<Object>> recountedFeedCounters(LinksSqliteDatabase database) {
+        return queryRows(database, """
+            SELECT coalesce(f.link_name, '') AS link_key, coalesce(f.feed_url, '') AS feed_key,
+              count(*),
+              count(CASE WHEN i.flags & 1 = 0 AND i.flags & 8 = 0 THEN 1 END),
+              count(CASE WHEN i.flags & 2 = 2 AND i.flags & 8 = 0 THEN 1 END),
+              count(CASE WHEN i.flags & 4 = 4 AND i.flags & 8 = 0 THEN 1 END),
+              count(CASE WHEN i.flags & 8 = 8 THEN 1 END)
+            FROM link_feed_items i
+            LEFT JOIN link_feeds f ON f.feed_id = i.feed_id
+            GROUP BY link_key, feed_key
+            ORDER BY link_key, feed_key
+            """);
     }
 
-    private static LinkFeedItem item(String id, String linkName, String title, String publishedAt,
-        String firstSeenAt, String fetchedAt) {
-        return item(id, linkName, title, publishedAt, firstSeenAt, fetchedAt, false, false);
+    private static List<List<Object>> queryRows(LinksSqliteDatabase database, String sql) {
+        return database.query(connection -> {
+            List<List<Object>> rows = new ArrayList<>();
+            try (var statement = connection.createStatement();
+                var result = statement.executeQuery(sql)) {
+                while (result.next()) {
+                    List<Object> row = new ArrayList<>();
+                    row.add(result.getString(1));
+                    row.add(result.getString(2));
+                    for (int i = 3; i <= 7; i++) {
+                        row.add(result.getLong(i));
+                    }
+                    rows.add(row);
+                }
+            }
+            return rows;
+        });
     }
 
-    private static LinkFeedItem item(String id, String linkName, String title, String publishedAt,
-        String firstSeenAt, String fetchedAt, boolean favorite, boolean readLater) {
-        LinkFeedItem item = new LinkFeedItem();
-        item.setId(id);
-        item.setLinkName(linkName);
-        item.setFeedUrl("https://example.com/feed.xml");
-        item.setGuid(id);
-        item.setUrl("https://example.com/" + id);
-        item.setTitle(title);
-        item.setPublishedAt(Instant.parse(publishedAt));
-        item.setFirstSeenAt(Instant.parse(firstSeenAt));
-        item.setFetchedAt(Instant.parse(fetchedAt));
-        item.setContentHash(id);
-        item.setRead(false);
-        item.setFavorite(favorite);
-        item.setReadLater(readLater);
-        return item;
+    private static List<String> queryStrings(LinksSqliteDatabase database, String sql) {
+        return database.query(connection -> {
+            List<String> values = new ArrayList<>();
+            try (var statement = connection.createStatement();
+                var result = statement.executeQuery(sql)) {
+                while (result.next()) {
+                    values.add(result.getString(1));
+                }
+            }
+            return values;
+        });
     }
 }
@@ -2,21 +2,52 @@ package run.halo.links.sqlite;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteConfig;
 import run.halo.links.rss.LinkFeedItem;
+import run.halo.links.rss.LinkFeedItemProjection;
 import run.halo.links.rss.LinkFeedItemQuery;
+import run.halo.links.rss.ReactiveLinkFeedItemStore;
 
 class SqliteStoreBenchmarkTest {
 
     private static final int ITEM_COUNT = 100_000;
     private static final Duration GENEROUS_LIMIT = Duration.ofMinutes(2);
+    private static final Duration MIXED_DURATION = Duration.ofSeconds(3);
+    private static final int MIXED_READERS = 4;
+    private static final int TOGGLE_THREADS = 8;
+    private static final int TOGGLE_ITEMS = 1_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int PAGE_ITERATIONS = 500;
+    private static final int SCAN_ITERATIONS = 20;
+    private static final String ID_INDEX_SCAN =
+        "SELECT count(*) FROM (SELECT id FROM link_feed_items ORDER BY id)";
+    private static final String TEXT_KEY_STATE_INDEX_SCAN = "SELECT count(*) "
+        + "FROM link_feed_items INDEXED BY idx_feed_items_states WHERE read = 0";
+    private static final String STATE_INDEX_SCAN = "SELECT count(*) FROM link_feed_items "
+        + "INDEXED BY idx_feed_items_unread WHERE flags & 9 = 0";
 
     @TempDir
     Path tempDir;
@@ -61,12 +92,371 @@ class SqliteStoreBenchmarkTest {
         assertThat(reopenMillis).isLessThan(GENEROUS_LIMIT.toMillis());
     }
 
+    @Test
+    void shouldMeasureMixedReadWriteThroughputWithPooledReaders() throws Exception {
+        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
+        try {
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
+            List<LinkFeedItem> items = items();
+            store.upsertAll(items);
+
+            MixedThroughput serialized = mixedThroughput(store, items,
+                sql -> database.execute(connection -> readPage(connection, sql)));
+            MixedThroughput pooled = mixedThroughput(store, items,
+                sql -> database.query(connection -> readPage(connection, sql)));
+
+            System.out.printf("SQLite mixed benchmark (%d readers, %dms): serialized reads=%d "
+                    + "writes=%d, pooled reads=%d writes=%d%n",
+                MIXED_READERS, MIXED_DURATION.toMillis(), serialized.reads(),
+                serialized.writes(), pooled.reads(), pooled.writes());
+
+            assertThat(serialized.reads()).isPositive();
+            assertThat(pooled.reads()).isPositive();
+            assertThat(pooled.writes()).isPositive();
+        } finally {
+            database.destroy();
+        }
+    }
+
+    @Test
+    void shouldMeasureStateToggleCommitsWithGroupCommitQueue() throws Exception {
+        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
+        try {
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
+            store.upsertAll(items().subList(0, TOGGLE_ITEMS));
+
+            ToggleThroughput direct = toggleThroughput((id, read) ->
+                database.inTransaction(connection -> {
+                    var change = new SqliteStateWriteQueue.StateChange(id, SqliteItemFlags.READ,
+                        read, false);
+                    try (var statement = connection.prepareStatement(change.sql())) {
+                        return change.apply(statement) > 0;
+                    }
+                }), () -> 0L);
+            ToggleThroughput grouped = toggleThroughput(store::updateRead,
+                () -> store.stateWriteQueue().committedBatches());
+            // The endpoints toggle through the reactive facade, so measure that path as well.
+            ReactiveLinkFeedItemStore reactiveStore = new ReactiveLinkFeedItemStore(store);
+            ToggleThroughput reactive;
+            try {
+                reactive = toggleThroughput((id, read) -> Boolean.TRUE.equals(
+                        reactiveStore.toggle(items -> items.updateRead(id, read)).block()),
+                    () -> store.stateWriteQueue().committedBatches());
+            } finally {
+                reactiveStore.destroy();
+            }
+
+            System.out.printf("SQLite state toggle benchmark (%d togglers, %dms): "
+                    + "direct toggles=%d commits/s=%.0f, grouped toggles=%d commits/s=%.0f, "
+                    + "reactive toggles=%d commits/s=%.0f%n",
+                TOGGLE_THREADS, MIXED_DURATION.toMillis(), direct.toggles(),
+                direct.toggles() * 1000.0 / MIXED_DURATION.toMillis(), grouped.toggles(),
+                grouped.commits() * 1000.0 / MIXED_DURATION.toMillis(), reactive.toggles(),
+                reactive.commits() * 1000.0 / MIXED_DURATION.toMillis());
+
+            assertThat(direct.toggles()).isPositive();
+            assertThat(grouped.toggles()).isPositive();
+            assertThat(grouped.commits()).isLessThanOrEqualTo(grouped.toggles());
+            assertThat(reactive.toggles()).isPositive();
+            assertThat(reactive.commits()).isLessThan(reactive.toggles());
+        } finally {
+            database.destroy();
+        }
+    }
+
+    @Test
+    void shouldShrinkFileAndIndexScansWithCompactKeys() throws Exception {
+        Path textKeyPath = tempDir.resolve("links-v5.sqlite");
+        Path compactPath = tempDir.resolve("links.sqlite");
+        createTextKeyDatabase(textKeyPath, items());
+        Files.copy(textKeyPath, compactPath);
+        LinksSqliteDatabase database = new LinksSqliteDatabase(compactPath);
+        try {
+            assertThat(new SqliteLinkFeedItemStore(database).count()).isEqualTo(ITEM_COUNT);
+        } finally {
+            database.destroy();
+        }
+        vacuum(textKeyPath);
+        vacuum(compactPath);
+
+        long textKeyBytes = Files.size(textKeyPath);
+        long compactBytes = Files.size(compactPath);
+        long textKeyIdScan = scanMillis(textKeyPath, ID_INDEX_SCAN);
+        long compactIdScan = scanMillis(compactPath, ID_INDEX_SCAN);
+        long textKeyStateScan = scanMillis(textKeyPath, TEXT_KEY_STATE_INDEX_SCAN);
+        long compactStateScan = scanMillis(compactPath, STATE_INDEX_SCAN);
+
+        System.out.printf("SQLite 100k key layout: text keys size=%d bytes id scan=%dms "
+                + "state scan=%dms, compact keys size=%d bytes id scan=%dms state scan=%dms%n",
+            textKeyBytes, textKeyIdScan, textKeyStateScan, compactBytes, compactIdScan,
+            compactStateScan);
+
+        assertThat(compactBytes).isLessThan(textKeyBytes);
+        assertThat(compactIdScan).isLessThan(GENEROUS_LIMIT.toMillis());
+        assertThat(compactStateScan).isLessThan(GENEROUS_LIMIT.toMillis());
+    }
+
+    /**
+     * Writes the version 5 layout: hex TEXT ids, and the link name and feed URL on every row and
+     * in the per-link indexes.
+     */
+    private static void createTextKeyDatabase(Path path, List<LinkFeedItem> items)
+        throws SQLException {
+        try (Connection connection = new SQLiteConfig().createConnection("jdbc:sqlite:" + path);
+            var statement = connection.createStatement()) {
+            statement.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            statement.execute("""
+                CREATE TABLE link_feed_items (
+                  seq INTEGER PRIMARY KEY,
+                  id TEXT NOT NULL UNIQUE,
+                  link_name TEXT,
+                  group_name TEXT,
+                  feed_url TEXT,
+                  guid TEXT,
+                  url TEXT,
+                  title TEXT,
+                  summary TEXT,
+                  author TEXT,
+                  published_at INTEGER,
+                  updated_at INTEGER,
+                  first_seen_at INTEGER,
+                  fetched_at INTEGER,
+                  content_hash TEXT,
+                  read INTEGER NOT NULL DEFAULT 0 CHECK (read IN (0, 1)),
+                  favorite INTEGER NOT NULL DEFAULT 0 CHECK (favorite IN (0, 1)),
+                  read_later INTEGER NOT NULL DEFAULT 0 CHECK (read_later IN (0, 1)),
+                  hidden INTEGER NOT NULL DEFAULT 0 CHECK (hidden IN (0, 1))
+                )
+                """);
+            statement.execute("CREATE INDEX idx_feed_items_recent "
+                + "ON link_feed_items(published_at DESC, id DESC)");
+            statement.execute("CREATE INDEX idx_feed_items_link_recent "
+                + "ON link_feed_items(link_name, published_at DESC, id DESC)");
+            statement.execute("CREATE INDEX idx_feed_items_feed "
+                + "ON link_feed_items(link_name, feed_url)");
+            statement.execute("CREATE INDEX idx_feed_items_first_seen "
+                + "ON link_feed_items(first_seen_at)");
+            statement.execute("CREATE INDEX idx_feed_items_states "
+                + "ON link_feed_items(read, favorite, read_later, link_name)");
+            statement.execute("CREATE INDEX idx_feed_items_hidden_recent "
+                + "ON link_feed_items(hidden, published_at DESC, id DESC)");
+            statement.execute("CREATE INDEX idx_feed_items_group_recent "
+                + "ON link_feed_items(group_name, hidden, published_at DESC, id DESC)");
+            connection.setAutoCommit(false);
+            try (var insert = connection.prepareStatement("""
+                INSERT INTO link_feed_items (
+                  id, link_name, feed_url, guid, url, title, summary, author,
+                  published_at, updated_at, first_seen_at, fetched_at, content_hash, read
+                ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """)) {
+                for (LinkFeedItem item : items) {
+                    insert.setString(1, item.getId());
+                    insert.setString(2, item.getLinkName());
+                    insert.setString(3, item.getFeedUrl());
+                    insert.setString(4, item.getGuid());
+                    insert.setString(5, item.getUrl());
+                    insert.setString(6, item.getTitle());
+                    insert.setString(7, item.getSummary());
+                    insert.setString(8, item.getAuthor());
+                    SqliteLinkFeedItemStore.bindInstant(insert, 9, item.getPublishedAt());
+                    SqliteLinkFeedItemStore.bindInstant(insert, 10, item.getUpdatedAt());
+                    SqliteLinkFeedItemStore.bindInstant(insert, 11, item.getFirstSeenAt());
+                    SqliteLinkFeedItemStore.bindInstant(insert, 12, item.getFetchedAt());
+                    insert.setString(13, item.getContentHash());
+                    insert.setInt(14, Boolean.TRUE.equals(item.getRead()) ? 1 : 0);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+            statement.execute("PRAGMA user_version = 5");
+        }
+    }
+
+    private static void vacuum(Path path) throws SQLException {
+        try (Connection connection = new SQLiteConfig().createConnection("jdbc:sqlite:" + path);
+            var statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode = DELETE");
+            statement.execute("VACUUM");
+        }
+    }
+
+    private static long scanMillis(Path path, String sql) throws Exception {
+        try (Connection connection = new SQLiteConfig().createConnection("jdbc:sqlite:" + path)) {
+            readPage(connection, sql);
+            return elapsedMillis(() -> {
+                for (int i = 0; i < SCAN_ITERATIONS; i++) {
+                    assertThat(readPage(connection, sql)).isPositive();
+                }
+            });
+        }
+    }
+
+    private static ToggleThroughput toggleThroughput(BiPredicate<String, Boolean> toggle,
+        Supplier<Long> commits) throws Exception {
+        AtomicLong toggles = new AtomicLong();
+        long commitsBefore = commits.get();
+        long deadline = System.nanoTime() + MIXED_DURATION.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(TOGGLE_THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < TOGGLE_THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    int offset = thread;
+                    while (System.nanoTime() < deadline) {
+                        assertThat(toggle.test(itemId(offset), offset % 2 == 0)).isTrue();
+                        offset = (offset + TOGGLE_THREADS) % TOGGLE_ITEMS;
+                        toggles.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new ToggleThroughput(toggles.get(), commits.get() - commitsBefore);
+    }
+
+    @Test
+    void shouldMeasurePageDecodingCostPerProjection() throws Exception {
+        LinksSqliteDatabase database = new LinksSqliteDatabase(tempDir.resolve("links.sqlite"));
+        try {
+            SqliteLinkFeedItemStore store = new SqliteLinkFeedItemStore(database);
+            store.upsertAll(items().subList(0, 10_000));
+            LinkFeedItemQuery fullQuery = new LinkFeedItemQuery();
+            fullQuery.setLimit(PAGE_SIZE);
+            LinkFeedItemQuery publicQuery = new LinkFeedItemQuery();
+            publicQuery.setLimit(PAGE_SIZE);
+            publicQuery.setProjection(LinkFeedItemProjection.PUBLIC);
+
+            PageCost selectAll = pageCost(() -> database.query(
+                SqliteStoreBenchmarkTest::readPageByColumnName));
+            PageCost full = pageCost(() -> store.listRecent(fullQuery).size());
+            PageCost lean = pageCost(() -> store.listRecent(publicQuery).size());
+
+            System.out.printf("SQLite %d-row page decoding: select-all by name=%dus %dB, "
+                    + "full projection=%dus %dB, public projection=%dus %dB%n",
+                PAGE_SIZE, selectAll.micros(), selectAll.bytes(), full.micros(), full.bytes(),
+                lean.micros(), lean.bytes());
+
+            assertThat(full.rows()).isEqualTo(PAGE_SIZE);
+            assertThat(lean.rows()).isEqualTo(PAGE_SIZE);
+            assertThat(selectAll.rows()).isEqualTo(PAGE_SIZE);
+        } finally {
+            database.destroy();
+        }
+    }
+
+    private static PageCost pageCost(Callable<Integer> page) throws Exception {
+        for (int i = 0; i < PAGE_ITERATIONS; i++) {
+            page.call();
+        }
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        int rows = 0;
+        for (int i = 0; i < PAGE_ITERATIONS; i++) {
+            rows = page.call();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        return new PageCost(rows, elapsed / PAGE_ITERATIONS / 1_000,
+            bytes / PAGE_ITERATIONS);
+    }
+
+    /**
+     * The previous listing path: every column, looked up by name.
+     */
+    private static int readPageByColumnName(Connection connection) throws SQLException {
+        List<LinkFeedItem> page = new ArrayList<>();
+        try (var statement = connection.prepareStatement("SELECT i.*, f.link_name, f.feed_url "
+            + "FROM link_feed_items i LEFT JOIN link_feeds f ON f.feed_id = i.feed_id "
+            + "ORDER BY i.published_at DESC, i.id DESC LIMIT " + PAGE_SIZE);
+            var result = statement.executeQuery()) {
+            while (result.next()) {
+                LinkFeedItem item = new LinkFeedItem();
+                item.setId(SqliteItemKeys.readId(result, result.findColumn("id")));
+                item.setLinkName(result.getString("link_name"));
+                item.setGroupName(result.getString("group_name"));
+                item.setFeedUrl(result.getString("feed_url"));
+                item.setGuid(result.getString("guid"));
+                item.setUrl(result.getString("url"));
+                item.setTitle(result.getString("title"));
+                item.setSummary(result.getString("summary"));
+                item.setAuthor(result.getString("author"));
+                item.setPublishedAt(SqliteLinkFeedItemStore.fromEpochNanos(
+                    result.getLong("published_at")));
+                item.setUpdatedAt(SqliteLinkFeedItemStore.fromEpochNanos(
+                    result.getLong("updated_at")));
+                item.setFirstSeenAt(SqliteLinkFeedItemStore.fromEpochNanos(
+                    result.getLong("first_seen_at")));
+                item.setFetchedAt(SqliteLinkFeedItemStore.fromEpochNanos(
+                    result.getLong("fetched_at")));
+                item.setContentHash(result.getString("content_hash"));
+                SqliteItemFlags.apply(item, result.getInt("flags"));
+                page.add(item);
+            }
+        }
+        return page.size();
+    }
+
+    private static MixedThroughput mixedThroughput(SqliteLinkFeedItemStore store,
+        List<LinkFeedItem> items, Function<String, Integer> reader) throws Exception {
+        String sql = "SELECT id FROM link_feed_items ORDER BY published_at DESC, id DESC LIMIT 30";
+        AtomicLong reads = new AtomicLong();
+        AtomicLong writes = new AtomicLong();
+        long deadline = System.nanoTime() + MIXED_DURATION.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(MIXED_READERS + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                int offset = 0;
+                while (System.nanoTime() < deadline) {
+                    store.upsertAll(items.subList(offset, offset + 20));
+                    offset = (offset + 20) % (ITEM_COUNT - 20);
+                    writes.incrementAndGet();
+                }
+            }));
+            for (int i = 0; i < MIXED_READERS; i++) {
+                futures.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        assertThat(reader.apply(sql)).isEqualTo(30);
+                        reads.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new MixedThroughput(reads.get(), writes.get());
+    }
+
+    private static int readPage(Connection connection, String sql) throws SQLException {
+        int count = 0;
+        try (var statement = connection.prepareStatement(sql);
+            var result = statement.executeQuery()) {
+            while (result.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     private static List<LinkFeedItem> items() {
         List<LinkFeedItem> items = new ArrayList<>(ITEM_COUNT);
         Instant base = Instant.parse("2026-01-01T00:00:00Z");
         for (int i = 0; i < ITEM_COUNT; i++) {
             LinkFeedItem item = new LinkFeedItem();
-            item.setId("item-" + i);
+            item.setId(itemId(i));
             item.setLinkName("link-" + (i % 100));
             item.setFeedUrl("https://example.com/feed-" + (i % 3) + ".xml");
             item.setGuid("guid-" + i);
@@ -87,12 +477,31 @@ class SqliteStoreBenchmarkTest {
         return items;
     }
 
+    private static String itemId(int index) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(("item-" + index).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private static long elapsedMillis(ThrowingRunnable action) throws Exception {
         long start = System.nanoTime();
         action.run();
         return Duration.ofNanos(System.nanoTime() - start).toMillis();
     }
 
+    private record MixedThroughput(long reads, long writes) {
+    }
+
+    private record ToggleThroughput(long toggles, long commits) {
+    }
+
+    private record PageCost(int rows, long micros, long bytes) {
+    }
+
     @FunctionalInterface
     private interface ThrowingRunnable {
         void run() throws Exception;
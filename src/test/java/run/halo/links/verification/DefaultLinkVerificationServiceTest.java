@@ -67,11 +67,11 @@ class DefaultLinkVerificationServiceTest {
             Mono.just(invocation.getArgument(0)));
         when(externalUrlSupplier.getRaw()).thenReturn(new URL("https://ryanc.cc/blog"));
         when(fetcher.fetchReachability("https://friend.example.com"))
-            .thenReturn(fetchResult("https://friend.example.com", 200, ""));
+            .thenReturn(Mono.just(fetchResult("https://friend.example.com", 200, "")));
         when(fetcher.fetchBacklinkPage("https://friend.example.com/links"))
-            .thenReturn(htmlResult("https://friend.example.com/links", 200, """
+            .thenReturn(Mono.just(htmlResult("https://friend.example.com/links", 200, """
                 <a href="https://ryanc.cc/blog/links">Ryan</a>
-                """));
+                """)));
 
         StepVerifier.create(service.verifyLink("link-a"))
             .assertNext(updated -> {
@@ -94,7 +94,7 @@ class DefaultLinkVerificationServiceTest {
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
         when(fetcher.fetchReachability("https://friend.example.com"))
-            .thenReturn(fetchResult("https://friend.example.com", 500, ""));
+            .thenReturn(Mono.just(fetchResult("https://friend.example.com", 500, "")));
 
         StepVerifier.create(service.verifyLink("link-a"))
             .assertNext(updated -> {
@@ -115,11 +115,11 @@ class DefaultLinkVerificationServiceTest {
             Mono.just(invocation.getArgument(0)));
         when(externalUrlSupplier.getRaw()).thenReturn(new URL("https://ryanc.cc"));
         when(fetcher.fetchReachability("https://friend.example.com"))
-            .thenReturn(fetchResult("https://friend.example.com", 200, ""));
+            .thenReturn(Mono.just(fetchResult("https://friend.example.com", 200, "")));
         when(fetcher.fetchBacklinkPage("https://friend.example.com/links"))
-            .thenReturn(htmlResult("https://friend.example.com/links", 200, """
+            .thenReturn(Mono.just(htmlResult("https://friend.example.com/links", 200, """
                 <a href="https://other.example.com">Other</a>
-                """));
+                """)));
 
         StepVerifier.create(service.verifyLink("link-a"))
             .assertNext(updated -> assertThat(updated.getStatus().getVerification()
@@ -135,7 +135,7 @@ class DefaultLinkVerificationServiceTest {
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
         when(fetcher.fetchReachability("https://friend.example.com"))
-            .thenReturn(fetchResult("https://friend.example.com", 200, ""));
+            .thenReturn(Mono.just(fetchResult("https://friend.example.com", 200, "")));
 
         StepVerifier.create(service.verifyLink("link-a"))
             .assertNext(updated -> assertThat(updated.getStatus().getVerification()
@@ -159,7 +159,7 @@ class DefaultLinkVerificationServiceTest {
             return Mono.just(updated);
         });
         when(fetcher.fetchReachability("https://friend.example.com"))
-            .thenReturn(fetchResult("https://friend.example.com", 200, ""));
+            .thenReturn(Mono.just(fetchResult("https://friend.example.com", 200, "")));
 
         StepVerifier.create(service.verifyLink("link-a", LinkVerificationMode.ACCESS_ONLY))
             .assertNext(updated -> {
@@ -192,7 +192,7 @@ class DefaultLinkVerificationServiceTest {
             return Mono.just(updated);
         });
         when(fetcher.fetchReachability("https://friend.example.com"))
-            .thenReturn(fetchResult("https://friend.example.com", 200, ""));
+            .thenReturn(Mono.just(fetchResult("https://friend.example.com", 200, "")));
 
         StepVerifier.create(service.verifyLink("link-a", LinkVerificationMode.ACCESS_ONLY))
             .assertNext(updated -> {
@@ -236,7 +236,7 @@ class DefaultLinkVerificationServiceTest {
             return Mono.just(updated);
         });
         when(fetcher.fetchReachability("https://friend.example.com"))
-            .thenReturn(fetchResult("https://friend.example.com", 200, ""));
+            .thenReturn(Mono.just(fetchResult("https://friend.example.com", 200, "")));
 
         StepVerifier.create(service.verifyLink("link-a"))
             .assertNext(updated -> {
@@ -260,7 +260,7 @@ class DefaultLinkVerificationServiceTest {
             Mono.just(invocation.getArgument(0)));
         when(externalUrlSupplier.getRaw()).thenReturn(null);
         when(fetcher.fetchReachability("https://friend.example.com"))
-            .thenReturn(fetchResult("https://friend.example.com", 200, ""));
+            .thenReturn(Mono.just(fetchResult("https://friend.example.com", 200, "")));
 
         StepVerifier.create(service.verifyLink("link-a"))
             .assertNext(updated -> {
@@ -288,7 +288,8 @@ class DefaultLinkVerificationServiceTest {
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
         when(fetcher.fetchReachability("https://friend.example.com"))
-            .thenThrow(new ServerErrorException(message, new IllegalArgumentException(message)));
+            .thenReturn(Mono.error(new ServerErrorException(message,
+                new IllegalArgumentException(message))));
 
         StepVerifier.create(service.verifyLink("link-a"))
             .assertNext(updated -> {
@@ -308,11 +309,12 @@ class DefaultLinkVerificationServiceTest {
         when(client.fetch(Link.class, "link-a")).thenReturn(Mono.just(link));
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
-        when(fetcher.fetchReachability("https://friend.example.com")).thenAnswer(invocation -> {
-            fetchStarted.countDown();
-            assertThat(releaseFetch.await(2, TimeUnit.SECONDS)).isTrue();
-            return fetchResult("https://friend.example.com", 200, "");
-        });
+        when(fetcher.fetchReachability("https://friend.example.com"))
+            .thenAnswer(invocation -> Mono.fromCallable(() -> {
+                fetchStarted.countDown();
+                assertThat(releaseFetch.await(2, TimeUnit.SECONDS)).isTrue();
+                return fetchResult("https://friend.example.com", 200, "");
+            }));
 
         LinkVerificationRequest request = new LinkVerificationRequest();
         request.setNames(List.of("link-a"));
@@ -351,17 +353,19 @@ class DefaultLinkVerificationServiceTest {
             return Mono.delay(Duration.ofMillis(10), Schedulers.parallel())
                 .thenReturn(updated);
         });
-        when(fetcher.fetchReachability("https://first.example.com")).thenAnswer(invocation -> {
-            fetchThreads.add(Thread.currentThread().getName());
-            firstFetchStarted.countDown();
-            assertThat(releaseFirstFetch.await(2, TimeUnit.SECONDS)).isTrue();
-            return fetchResult("https://first.example.com", 200, "");
-        });
-        when(fetcher.fetchReachability("https://second.example.com")).thenAnswer(invocation -> {
-            fetchThreads.add(Thread.currentThread().getName());
-            secondFetchStarted.countDown();
-            return fetchResult("https://second.example.com", 200, "");
-        });
+        when(fetcher.fetchReachability("https://first.example.com"))
+            .thenAnswer(invocation -> Mono.fromCallable(() -> {
+                fetchThreads.add(Thread.currentThread().getName());
+                firstFetchStarted.countDown();
+                assertThat(releaseFirstFetch.await(2, TimeUnit.SECONDS)).isTrue();
+                return fetchResult("https://first.example.com", 200, "");
+            }));
+        when(fetcher.fetchReachability("https://second.example.com"))
+            .thenAnswer(invocation -> Mono.fromCallable(() -> {
+                fetchThreads.add(Thread.currentThread().getName());
+                secondFetchStarted.countDown();
+                return fetchResult("https://second.example.com", 200, "");
+            }));
 
         LinkVerificationRequest request = new LinkVerificationRequest();
         request.setNames(List.of("first", "second"));
@@ -398,9 +402,10 @@ class DefaultLinkVerificationServiceTest {
             return Mono.just(updated);
         });
         when(fetcher.fetchReachability("https://good.example.com"))
-            .thenReturn(fetchResult("https://good.example.com", 200, ""));
+            .thenReturn(Mono.just(fetchResult("https://good.example.com", 200, "")));
         when(fetcher.fetchReachability("https://bad.example.com"))
-            .thenThrow(new ServerErrorException("timeout", new IllegalStateException("timeout")));
+            .thenReturn(Mono.error(new ServerErrorException("timeout",
+                new IllegalStateException("timeout"))));
 
         LinkVerificationRequest request = new LinkVerificationRequest();
         request.setNames(List.of("good", "bad"));
@@ -421,7 +426,8 @@ class DefaultLinkVerificationServiceTest {
         when(client.fetch(Link.class, "missing")).thenReturn(Mono.empty());
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
-        when(fetcher.fetchReachability(any())).thenReturn(fetchResultUnchecked("https://example.com", 200));
+        when(fetcher.fetchReachability(any()))
+            .thenReturn(Mono.just(fetchResultUnchecked("https://example.com", 200)));
 
         LinkVerificationRequest selected = new LinkVerificationRequest();
         selected.setNames(List.of("link-a", "missing"));
@@ -442,7 +448,8 @@ class DefaultLinkVerificationServiceTest {
         when(client.fetch(Link.class, "link-b")).thenReturn(Mono.just(linkB));
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
-        when(fetcher.fetchReachability(any())).thenReturn(fetchResultUnchecked("https://example.com", 200));
+        when(fetcher.fetchReachability(any()))
+            .thenReturn(Mono.just(fetchResultUnchecked("https://example.com", 200)));
 
         LinkVerificationRequest group = new LinkVerificationRequest();
         group.setGroupName("friends");
@@ -461,7 +468,8 @@ class DefaultLinkVerificationServiceTest {
         when(client.fetch(Link.class, "link-b")).thenReturn(Mono.just(linkB));
         when(client.update(any(Link.class))).thenAnswer(invocation ->
             Mono.just(invocation.getArgument(0)));
-        when(fetcher.fetchReachability(any())).thenReturn(fetchResultUnchecked("https://example.com", 200));
+        when(fetcher.fetchReachability(any()))
+            .thenReturn(Mono.just(fetchResultUnchecked("https://example.com", 200)));
 
         assertThat(service.verify(new LinkVerificationRequest()).block(Duration.ofSeconds(2))
             .getAcceptedNames()).containsExactly("link-a", "link-b");